@@ -2,11 +2,13 @@ package org.example.noteuzbackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Główna klasa backendu aplikacji NoteUz.
  */
 @SpringBootApplication
+@EnableScheduling
 public class NoteUzBackendApplication {
 
     /**
@@ -0,0 +1,108 @@
+package org.example.noteuzbackend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.noteuzbackend.service.UserAccessCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Filtr blokujący dostęp do API zablokowanym (zbanowanym) użytkownikom.
+ * Identyfikator użytkownika jest odczytywany lokalnie z ładunku tokenu JWT (bez zapytania do Supabase),
+ * a stan blokady pochodzi z {@link UserAccessCache}, więc koszt filtra to dekodowanie tokenu i odczyt z mapy.
+ * Podpis tokenu nie jest tu weryfikowany - robi to UserIdArgumentResolver; sfałszowany token nie przejdzie
+ * dalszej autentykacji, a filtr może jedynie odrzucić żądanie.
+ * Endpointy /api/auth/** pozostają dostępne, aby zablokowany użytkownik mógł sprawdzić stan konta i się wylogować.
+ */
+@Component
+public class BannedUserFilter extends OncePerRequestFilter {
+
+    private final UserAccessCache accessCache;
+    private final ObjectMapper objectMapper;
+    private final String cookieName;
+
+    /**
+     * Konstruktor filtra blokad.
+     * @param accessCache Pamięć podręczna uprawnień użytkowników.
+     * @param objectMapper Konfiguracja serializacji JSON aplikacji.
+     * @param cookieName Nazwa ciasteczka zawierającego token JWT.
+     */
+    public BannedUserFilter(UserAccessCache accessCache, ObjectMapper objectMapper,
+                            @Value("${app.jwt.cookie}") String cookieName) {
+        this.accessCache = accessCache;
+        this.objectMapper = objectMapper;
+        this.cookieName = cookieName;
+    }
+
+    /**
+     * Pomija żądania spoza API, endpointy autentykacji oraz zapytania preflight CORS.
+     * @param request Obecne żądanie HTTP.
+     * @return true, jeśli filtr nie powinien sprawdzać żądania.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/")
+                || path.startsWith("/api/auth/")
+                || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    /**
+     * Odrzuca żądanie kodem 403, jeśli użytkownik z tokenu jest zablokowany.
+     * @param request Obecne żądanie HTTP.
+     * @param response Odpowiedź HTTP.
+     * @param chain Łańcuch filtrów.
+     * @throws ServletException W przypadku błędu przetwarzania żądania.
+     * @throws IOException W przypadku błędu zapisu odpowiedzi.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        UUID userId = userIdFromToken(request);
+        if (userId != null && accessCache.get(userId).banned()) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getWriter(), Map.of("message", "Konto zostało zablokowane.", "banned", true));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Odczytuje identyfikator użytkownika (claim "sub") z ładunku tokenu JWT w ciasteczku.
+     * @param request Obecne żądanie HTTP.
+     * @return Identyfikator użytkownika lub null, jeśli brak tokenu lub token jest nieczytelny.
+     */
+    private UUID userIdFromToken(HttpServletRequest request) {
+        if (request.getCookies() == null) return null;
+        for (Cookie cookie : request.getCookies()) {
+            if (!cookieName.equals(cookie.getName())) continue;
+            String[] parts = cookie.getValue().split("\\.");
+            if (parts.length < 2) return null;
+            try {
+                JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+                String sub = payload.path("sub").asText(null);
+                return sub != null ? UUID.fromString(sub) : null;
+            } catch (IllegalArgumentException | IOException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -34,7 +34,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET","POST","PUT","PATCH","DELETE","OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("Location")
+                .exposedHeaders("Location", "X-Event-Conflicts")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -1,10 +1,33 @@
 package org.example.noteuzbackend.controller;
 
 import org.example.noteuzbackend.config.resolver.CurrentUser;
+import org.example.noteuzbackend.dto.BulkModerationDTO;
+import org.example.noteuzbackend.model.enums.AuditAction;
+import org.example.noteuzbackend.model.enums.ExportFormat;
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.Role;
+import org.example.noteuzbackend.service.AdminExportService;
 import org.example.noteuzbackend.service.AdminService;
+import org.example.noteuzbackend.service.AdminStatsService;
+import org.example.noteuzbackend.service.AvatarByteCache;
+import org.example.noteuzbackend.service.BlobGarbageCollector;
+import org.example.noteuzbackend.service.BlobMigrationService;
+import org.example.noteuzbackend.service.FriendSuggestionEngine;
+import org.example.noteuzbackend.service.GroupMembershipCache;
+import org.example.noteuzbackend.service.PdfExportService;
+import org.example.noteuzbackend.service.PurgeJobService;
+import org.example.noteuzbackend.service.UserAccessCache;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
 
@@ -16,13 +39,47 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final GroupMembershipCache membershipCache;
+    private final AdminExportService exportService;
+    private final AdminStatsService statsService;
+    private final UserAccessCache accessCache;
+    private final PurgeJobService purgeJobs;
+    private final FriendSuggestionEngine suggestionEngine;
+    private final AvatarByteCache avatarCache;
+    private final BlobMigrationService blobMigration;
+    private final BlobGarbageCollector blobCollector;
+    private final PdfExportService pdfExports;
 
     /**
      * Konstruktor kontrolera administracyjnego.
      * @param adminService Serwis administracyjny.
+     * @param membershipCache Pamięć podręczna członkostw w grupach.
+     * @param exportService Serwis eksportu danych.
+     * @param statsService Serwis statystyk systemowych.
+     * @param accessCache Pamięć podręczna uprawnień użytkowników.
+     * @param purgeJobs Serwis usuwania danych w tle.
+     * @param suggestionEngine Silnik propozycji znajomych.
+     * @param avatarCache Pamięć podręczna miniatur awatarów.
+     * @param blobMigration Serwis przenoszenia obrazów do magazynu danych binarnych.
+     * @param blobCollector Usuwanie nieużywanych obiektów magazynu danych binarnych.
+     * @param pdfExports Serwis eksportu notatek do PDF.
      */
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, GroupMembershipCache membershipCache, AdminExportService exportService,
+                           AdminStatsService statsService, UserAccessCache accessCache, PurgeJobService purgeJobs,
+                           FriendSuggestionEngine suggestionEngine, AvatarByteCache avatarCache,
+                           BlobMigrationService blobMigration, BlobGarbageCollector blobCollector,
+                           PdfExportService pdfExports) {
         this.adminService = adminService;
+        this.membershipCache = membershipCache;
+        this.exportService = exportService;
+        this.statsService = statsService;
+        this.accessCache = accessCache;
+        this.purgeJobs = purgeJobs;
+        this.suggestionEngine = suggestionEngine;
+        this.avatarCache = avatarCache;
+        this.blobMigration = blobMigration;
+        this.blobCollector = blobCollector;
+        this.pdfExports = pdfExports;
     }
 
     /**
@@ -36,36 +93,326 @@ public class AdminController {
     }
 
     /**
-     * Pobiera listę wszystkich użytkowników (dla admina/moderatora).
+     * Sprawdza, czy użytkownik jest administratorem (operacje utrzymaniowe na całych danych).
+     * @param userId Identyfikator użytkownika do sprawdzenia.
+     * @throws RuntimeException Jeśli użytkownik nie jest zalogowany lub nie jest administratorem.
+     */
+    private void checkAdminAccess(UUID userId) {
+        if (userId == null) throw new RuntimeException("Unauthorized");
+        adminService.ensureAdmin(userId);
+    }
+
+    /**
+     * Pobiera statystyki systemowe (utrzymywane przyrostowo, bez zapytań do bazy danych).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami systemowymi.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(@CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(statsService.getStats());
+    }
+
+    /**
+     * Pobiera stronę użytkowników (dla admina/moderatora) z opcjonalnym filtrowaniem.
+     * @param role Filtr roli (opcjonalny).
+     * @param banned Filtr blokady (opcjonalny).
+     * @param q Fraza wyszukiwana w emailu lub nazwie (opcjonalna).
+     * @param pageable Parametry stronicowania i sortowania (page, size, sort).
      * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
-     * @return ResponseEntity z listą wszystkich użytkowników.
+     * @return ResponseEntity ze stroną użytkowników.
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(@CurrentUser UUID userId) {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Role role,
+                                         @RequestParam(required = false) Boolean banned,
+                                         @RequestParam(required = false) String q,
+                                         @PageableDefault(size = 50, sort = "role") Pageable pageable,
+                                         @CurrentUser UUID userId) {
         checkAccess(userId);
-        return ResponseEntity.ok(adminService.getAllUsers());
+        return ResponseEntity.ok(adminService.getUsers(role, banned, q, pageable));
     }
 
     /**
-     * Pobiera listę wszystkich notatek w systemie.
+     * Pobiera stronę notatek w systemie (z podglądem treści) z opcjonalnym filtrowaniem.
+     * @param groupId Filtr grupy (opcjonalny).
+     * @param authorId Filtr autora (opcjonalny).
+     * @param from Początek zakresu daty utworzenia (opcjonalny, ISO).
+     * @param to Koniec zakresu daty utworzenia (opcjonalny, ISO).
+     * @param q Fraza wyszukiwana w tytule lub nazwie autora (opcjonalna).
+     * @param pageable Parametry stronicowania i sortowania (page, size, sort).
      * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
-     * @return ResponseEntity z listą wszystkich notatek.
+     * @return ResponseEntity ze stroną notatek.
      */
     @GetMapping("/notes")
-    public ResponseEntity<?> getAllNotes(@CurrentUser UUID userId) {
+    public ResponseEntity<?> getAllNotes(@RequestParam(required = false) UUID groupId,
+                                         @RequestParam(required = false) UUID authorId,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @RequestParam(required = false) String q,
+                                         @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                         @CurrentUser UUID userId) {
         checkAccess(userId);
-        return ResponseEntity.ok(adminService.getAllNotes());
+        return ResponseEntity.ok(adminService.getNotes(groupId, authorId, from, to, q, pageable));
     }
 
     /**
-     * Pobiera listę wszystkich grup w systemie.
+     * Pobiera pełne dane pojedynczej notatki (wraz z treścią).
+     * @param id Identyfikator notatki.
      * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
-     * @return ResponseEntity z listą wszystkich grup.
+     * @return ResponseEntity z danymi notatki.
+     */
+    @GetMapping("/notes/{id}")
+    public ResponseEntity<?> getNote(@PathVariable UUID id, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.getNote(id));
+    }
+
+    /**
+     * Pobiera stronę grup w systemie z opcjonalnym filtrowaniem.
+     * @param from Początek zakresu daty utworzenia (opcjonalny, ISO).
+     * @param to Koniec zakresu daty utworzenia (opcjonalny, ISO).
+     * @param q Fraza wyszukiwana w nazwie lub opisie (opcjonalna).
+     * @param pageable Parametry stronicowania i sortowania (page, size, sort).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze stroną grup.
      */
     @GetMapping("/groups")
-    public ResponseEntity<?> getAllGroups(@CurrentUser UUID userId) {
+    public ResponseEntity<?> getAllGroups(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(required = false) String q,
+                                          @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                          @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.getGroups(q, from, to, pageable));
+    }
+
+    /**
+     * Pobiera listę członków grupy do podglądu (ładowaną dopiero po otwarciu szczegółów grupy).
+     * @param id Identyfikator grupy.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity z listą członków grupy.
+     */
+    @GetMapping("/groups/{id}/members")
+    public ResponseEntity<?> getGroupMembers(@PathVariable UUID id, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.getGroupMembers(id));
+    }
+
+    /**
+     * Eksportuje użytkowników spełniających filtry (strumieniowo, bez ładowania całej listy do pamięci).
+     * @param format Format eksportu (CSV lub NDJSON).
+     * @param role Filtr roli (opcjonalny).
+     * @param banned Filtr blokady (opcjonalny).
+     * @param q Fraza wyszukiwana w emailu lub nazwie (opcjonalna).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze strumieniem pliku eksportu.
+     */
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                             @RequestParam(required = false) Role role,
+                                                             @RequestParam(required = false) Boolean banned,
+                                                             @RequestParam(required = false) String q,
+                                                             @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return exportResponse("users", format, out -> exportService.exportUsers(format, role, banned, q, out));
+    }
+
+    /**
+     * Eksportuje notatki (z pełną treścią) spełniające filtry (strumieniowo).
+     * @param format Format eksportu (CSV lub NDJSON).
+     * @param groupId Filtr grupy (opcjonalny).
+     * @param authorId Filtr autora (opcjonalny).
+     * @param from Początek zakresu daty utworzenia (opcjonalny, ISO).
+     * @param to Koniec zakresu daty utworzenia (opcjonalny, ISO).
+     * @param q Fraza wyszukiwana w tytule lub nazwie autora (opcjonalna).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze strumieniem pliku eksportu.
+     */
+    @GetMapping("/export/notes")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                             @RequestParam(required = false) UUID groupId,
+                                                             @RequestParam(required = false) UUID authorId,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                             @RequestParam(required = false) String q,
+                                                             @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return exportResponse("notes", format, out -> exportService.exportNotes(format, groupId, authorId, from, to, q, out));
+    }
+
+    /**
+     * Eksportuje podsumowania grup spełniających filtry (strumieniowo).
+     * @param format Format eksportu (CSV lub NDJSON).
+     * @param from Początek zakresu daty utworzenia (opcjonalny, ISO).
+     * @param to Koniec zakresu daty utworzenia (opcjonalny, ISO).
+     * @param q Fraza wyszukiwana w nazwie lub opisie (opcjonalna).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze strumieniem pliku eksportu.
+     */
+    @GetMapping("/export/groups")
+    public ResponseEntity<StreamingResponseBody> exportGroups(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                              @RequestParam(required = false) String q,
+                                                              @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return exportResponse("groups", format, out -> exportService.exportGroups(format, q, from, to, out));
+    }
+
+    /**
+     * Buduje odpowiedź z plikiem eksportu. Zapis odbywa się dopiero po zwróceniu odpowiedzi,
+     * w transakcji otwieranej przez serwis eksportu.
+     * @param name Nazwa eksportowanego zbioru danych.
+     * @param format Format eksportu.
+     * @param body Treść odpowiedzi zapisywana strumieniowo.
+     * @return ResponseEntity z nagłówkami pliku do pobrania.
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"noteuz-" + name + "." + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
+
+    /**
+     * Pobiera stronę dziennika audytu akcji moderacyjnych z opcjonalnym filtrowaniem.
+     * @param actorId Filtr wykonującego akcję (opcjonalny).
+     * @param targetId Filtr obiektu akcji (opcjonalny).
+     * @param action Filtr rodzaju akcji (opcjonalny).
+     * @param from Początek zakresu czasu akcji (opcjonalny, ISO, UTC).
+     * @param to Koniec zakresu czasu akcji (opcjonalny, ISO, UTC).
+     * @param pageable Parametry stronicowania i sortowania (page, size, sort).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze stroną wpisów dziennika audytu.
+     */
+    @GetMapping("/audit")
+    public ResponseEntity<?> getAuditLog(@RequestParam(required = false) UUID actorId,
+                                         @RequestParam(required = false) UUID targetId,
+                                         @RequestParam(required = false) AuditAction action,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                         @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.getAuditLog(actorId, targetId, action, from, to, pageable));
+    }
+
+    /**
+     * Pobiera stronę zadań usuwania danych o podanym stanie.
+     * @param status Stan zadań (domyślnie RUNNING).
+     * @param pageable Parametry stronicowania i sortowania (page, size, sort).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze stroną zadań.
+     */
+    @GetMapping("/purge-jobs")
+    public ResponseEntity<?> getPurgeJobs(@RequestParam(defaultValue = "RUNNING") PurgeStatus status,
+                                          @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+                                          @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(purgeJobs.getJobs(status, pageable));
+    }
+
+    /**
+     * Pobiera stan (postęp) zadania usuwania danych.
+     * @param id Identyfikator zadania.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze stanem zadania.
+     */
+    @GetMapping("/purge-jobs/{id}")
+    public ResponseEntity<?> getPurgeJob(@PathVariable UUID id, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(purgeJobs.getJob(id));
+    }
+
+    /**
+     * Wznawia zadanie usuwania danych zakończone błędem.
+     * @param id Identyfikator zadania.
+     * @param userId Identyfikator zalogowanego administratora.
+     * @return ResponseEntity ze stanem zadania.
+     */
+    @PostMapping("/purge-jobs/{id}/retry")
+    public ResponseEntity<?> retryPurgeJob(@PathVariable UUID id, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(purgeJobs.retry(id));
+    }
+
+    /**
+     * Pobiera statystyki trafień pamięci podręcznej członkostw w grupach.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami pamięci podręcznej.
+     */
+    @GetMapping("/cache/memberships")
+    public ResponseEntity<?> getMembershipCacheStats(@CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(membershipCache.stats());
+    }
+
+    /**
+     * Pobiera statystyki trafień pamięci podręcznej uprawnień użytkowników.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami pamięci podręcznej.
+     */
+    @GetMapping("/cache/access")
+    public ResponseEntity<?> getAccessCacheStats(@CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(accessCache.stats());
+    }
+
+    /**
+     * Pobiera statystyki silnika propozycji znajomych.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami propozycji.
+     */
+    @GetMapping("/cache/friend-suggestions")
+    public ResponseEntity<?> getFriendSuggestionStats(@CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(suggestionEngine.stats());
+    }
+
+    /**
+     * Pobiera statystyki pamięci podręcznej miniatur awatarów.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami pamięci podręcznej.
+     */
+    @GetMapping("/cache/avatars")
+    public ResponseEntity<?> getAvatarCacheStats(@CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(avatarCache.stats());
+    }
+
+    /**
+     * Pobiera statystyki magazynu danych binarnych i usuwania nieużywanych obiektów.
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami magazynu.
+     */
+    @GetMapping("/blobs")
+    public ResponseEntity<?> getBlobStats(@CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(blobCollector.stats());
+    }
+
+    /**
+     * Pobiera statystyki eksportu notatek do PDF (w tym przepustowość w stronach na sekundę).
+     * @param userId Identyfikator zalogowanego użytkownika sprawdzającego.
+     * @return ResponseEntity ze statystykami eksportu.
+     */
+    @GetMapping("/pdf-exports")
+    public ResponseEntity<?> getPdfExportStats(@CurrentUser UUID userId) {
         checkAccess(userId);
-        return ResponseEntity.ok(adminService.getAllGroups());
+        return ResponseEntity.ok(pdfExports.stats());
+    }
+
+    /**
+     * Przenosi kolejną partię obrazów z kolumn bytea do magazynu danych binarnych.
+     * Należy wywoływać, aż liczba pozostałych wierszy spadnie do zera. Dostępne tylko dla administratora.
+     * @param limit Maksymalna liczba wierszy każdej tabeli w partii.
+     * @param userId Identyfikator zalogowanego administratora.
+     * @return ResponseEntity z podsumowaniem przeniesienia.
+     */
+    @PostMapping("/blobs/migrate")
+    public ResponseEntity<?> migrateBlobs(@RequestParam(defaultValue = "200") int limit, @CurrentUser UUID userId) {
+        checkAdminAccess(userId);
+        return ResponseEntity.ok(blobMigration.migrate(Math.max(1, Math.min(limit, 1000))));
     }
 
     /**
@@ -104,6 +451,54 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Blokuje wielu użytkowników naraz.
+     * @param request Lista identyfikatorów użytkowników.
+     * @param userId Identyfikator zalogowanego moderatora/admina.
+     * @return ResponseEntity z wynikiem akcji dla każdego użytkownika.
+     */
+    @PostMapping("/users/bulk/ban")
+    public ResponseEntity<?> bulkBan(@RequestBody BulkModerationDTO.BulkRequest request, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.bulkSetBanned(request.ids(), true, userId));
+    }
+
+    /**
+     * Odblokowuje wielu użytkowników naraz.
+     * @param request Lista identyfikatorów użytkowników.
+     * @param userId Identyfikator zalogowanego moderatora/admina.
+     * @return ResponseEntity z wynikiem akcji dla każdego użytkownika.
+     */
+    @PostMapping("/users/bulk/unban")
+    public ResponseEntity<?> bulkUnban(@RequestBody BulkModerationDTO.BulkRequest request, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.bulkSetBanned(request.ids(), false, userId));
+    }
+
+    /**
+     * Dodaje ostrzeżenie wielu użytkownikom naraz.
+     * @param request Lista identyfikatorów użytkowników.
+     * @param userId Identyfikator zalogowanego moderatora/admina.
+     * @return ResponseEntity z wynikiem akcji dla każdego użytkownika.
+     */
+    @PostMapping("/users/bulk/warn")
+    public ResponseEntity<?> bulkWarn(@RequestBody BulkModerationDTO.BulkRequest request, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.bulkWarn(request.ids(), userId));
+    }
+
+    /**
+     * Zleca usunięcie w tle wszystkich notatek podanych autorów (jedno zadanie usuwania na autora).
+     * @param request Lista identyfikatorów autorów.
+     * @param userId Identyfikator zalogowanego moderatora/admina.
+     * @return ResponseEntity z wynikiem akcji (liczbą notatek i zadaniem usuwania) dla każdego autora.
+     */
+    @PostMapping("/notes/bulk/delete-by-author")
+    public ResponseEntity<?> bulkDeleteNotesByAuthors(@RequestBody BulkModerationDTO.BulkRequest request, @CurrentUser UUID userId) {
+        checkAccess(userId);
+        return ResponseEntity.ok(adminService.bulkDeleteNotesByAuthors(request.ids(), userId));
+    }
+
     /**
      * Nadaje użytkownikowi rangę moderatora.
      * @param id Identyfikator użytkownika, którego dotyczy akcja.
@@ -129,41 +524,38 @@ public class AdminController {
     }
 
     /**
-     * Usuwa notatkę ze względów administracyjnych.
+     * Zleca usunięcie notatki ze względów administracyjnych (wykonywane w tle).
      * @param id Identyfikator notatki.
      * @param userId Identyfikator zalogowanego moderatora/admina.
-     * @return ResponseEntity z potwierdzeniem usunięcia.
+     * @return ResponseEntity (202) ze stanem zadania usuwania.
      */
     @DeleteMapping("/notes/{id}")
     public ResponseEntity<?> deleteNote(@PathVariable UUID id, @CurrentUser UUID userId) {
         checkAccess(userId);
-        adminService.deleteNote(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().body(adminService.deleteNote(id, userId));
     }
 
     /**
-     * Usuwa grupę ze względów administracyjnych.
+     * Zleca usunięcie grupy ze względów administracyjnych (wykonywane w tle).
      * @param id Identyfikator grupy.
      * @param userId Identyfikator zalogowanego moderatora/admina.
-     * @return ResponseEntity z potwierdzeniem usunięcia.
+     * @return ResponseEntity (202) ze stanem zadania usuwania.
      */
     @DeleteMapping("/groups/{id}")
     public ResponseEntity<?> deleteGroup(@PathVariable UUID id, @CurrentUser UUID userId) {
         checkAccess(userId);
-        adminService.deleteGroup(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().body(adminService.deleteGroup(id, userId));
     }
 
     /**
-     * Usuwa użytkownika z systemu.
+     * Zleca usunięcie użytkownika z systemu (wykonywane w tle).
      * @param id Identyfikator użytkownika do usunięcia.
      * @param userId Identyfikator zalogowanego administratora.
-     * @return ResponseEntity z potwierdzeniem usunięcia lub błędem jeśli próbuje usunąć siebie.
+     * @return ResponseEntity (202) ze stanem zadania usuwania lub błędem jeśli próbuje usunąć siebie.
      */
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable UUID id, @CurrentUser UUID userId) {
         if (userId.equals(id)) return ResponseEntity.badRequest().body("Nie możesz usunąć samego siebie.");
-        adminService.deleteUser(id, userId);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().body(adminService.deleteUser(id, userId));
     }
 }
\ No newline at end of file
@@ -83,7 +83,7 @@ public class AuthController {
                 if (idStr != null) {
                     UUID userId = UUID.fromString(idStr);
 
-                    // Sprawdzamy rolę w naszej bazie
+                    // Sprawdzamy rolę w naszej bazie (odczyty z pamięci podręcznej uprawnień)
                     boolean isAdmin = adminService.isAdmin(userId);
                     boolean isMod = adminService.isAtLeastModerator(userId);
 
@@ -97,6 +97,7 @@ public class AuthController {
 
                     // Dodajemy ostrzeżenia do odpowiedzi
                     userData.put("warnings", warningCount);
+                    userData.put("banned", adminService.isBanned(userId));
                 }
             }
             return ResponseEntity.ok(userData);
@@ -0,0 +1,93 @@
+package org.example.noteuzbackend.controller;
+
+import org.example.noteuzbackend.config.resolver.CurrentUser;
+import org.example.noteuzbackend.model.entity.CalendarFeed;
+import org.example.noteuzbackend.service.CalendarFeedService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+/**
+ * Kontroler obsługujący kanały iCalendar (.ics) do subskrypcji kalendarza w zewnętrznych aplikacjach.
+ */
+@RestController
+@RequestMapping("/api/calendar/feeds")
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final CalendarFeedService feedService;
+
+    /**
+     * Konstruktor kontrolera kanałów kalendarza.
+     * @param feedService Serwis kanałów iCalendar.
+     */
+    public CalendarFeedController(CalendarFeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    /**
+     * Pobiera kanały iCalendar zalogowanego użytkownika.
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z listą kanałów.
+     */
+    @GetMapping
+    public ResponseEntity<?> getFeeds(@CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(feedService.getFeeds(userId));
+    }
+
+    /**
+     * Tworzy kanał iCalendar kalendarza użytkownika lub zajętości grupy.
+     * @param groupId Identyfikator grupy (opcjonalny).
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z utworzonym kanałem i jego ścieżką.
+     */
+    @PostMapping
+    public ResponseEntity<?> createFeed(@RequestParam(required = false) UUID groupId, @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(feedService.createFeed(userId, groupId));
+    }
+
+    /**
+     * Usuwa kanał iCalendar, unieważniając jego adres.
+     * @param id Identyfikator kanału.
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z potwierdzeniem operacji.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteFeed(@PathVariable UUID id, @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        feedService.deleteFeed(id, userId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Zwraca kanał iCalendar (dostęp na podstawie tokena w adresie, bez sesji). Jeśli kalendarz nie zmienił się
+     * od wersji wskazanej nagłówkiem If-None-Match lub If-Modified-Since, zwracana jest odpowiedź 304 bez treści.
+     * @param token Token dostępu do kanału.
+     * @param request Żądanie (nagłówki warunkowe).
+     * @return ResponseEntity ze strumieniem kalendarza lub null po odpowiedzi 304.
+     */
+    @GetMapping("/{token}.ics")
+    public ResponseEntity<StreamingResponseBody> getFeed(@PathVariable String token, WebRequest request) {
+        CalendarFeed feed = feedService.findFeed(token);
+        String etag = CalendarFeedService.etag(feed);
+        long lastModified = feed.getChangedAt().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) return null;
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"noteuz.ics\"")
+                .contentType(TEXT_CALENDAR)
+                .body(out -> feedService.writeFeed(feed, out));
+    }
+}
@@ -1,12 +1,16 @@
 package org.example.noteuzbackend.controller;
 
 import org.example.noteuzbackend.config.resolver.CurrentUser;
+import org.example.noteuzbackend.dto.EventSlotDTO;
 import org.example.noteuzbackend.model.entity.Event;
 import org.example.noteuzbackend.repository.EventRepo;
+import org.example.noteuzbackend.service.EventService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,25 +21,37 @@ import java.util.UUID;
 @RequestMapping("/api/events")
 public class EventController {
 
+    /** Nagłówek odpowiedzi z liczbą wydarzeń kolidujących z zapisanym wydarzeniem. */
+    public static final String CONFLICTS_HEADER = "X-Event-Conflicts";
+
     private final EventRepo eventRepo;
+    private final EventService eventService;
 
     /**
      * Konstruktor kontrolera wydarzeń.
      * @param eventRepo Repozytorium wydarzeń.
+     * @param eventService Serwis wydarzeń.
      */
-    public EventController(EventRepo eventRepo) {
+    public EventController(EventRepo eventRepo, EventService eventService) {
         this.eventRepo = eventRepo;
+        this.eventService = eventService;
     }
 
     /**
-     * Pobiera listę wszystkich wydarzeń zalogowanego użytkownika.
+     * Pobiera wydarzenia zalogowanego użytkownika z przedziału czasu widocznego w kalendarzu.
+     * Bez parametrów from i to zwracana jest cała historia wydarzeń (zachowanie dotychczasowe, dla starszych klientów).
+     * @param from Początek przedziału (ISO-8601, włącznie).
+     * @param to Koniec przedziału (ISO-8601, wyłącznie).
      * @param userId Identyfikator zalogowanego użytkownika.
      * @return ResponseEntity z listą wydarzeń posortowaną chronologicznie.
      */
     @GetMapping
-    public ResponseEntity<?> getMyEvents(@CurrentUser UUID userId) {
+    public ResponseEntity<?> getMyEvents(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @CurrentUser UUID userId) {
         if (userId == null) return ResponseEntity.status(401).build();
-        return ResponseEntity.ok(eventRepo.findByUserIdOrderByStartAsc(userId));
+        if (from == null && to == null) return ResponseEntity.ok(eventService.getUserEvents(userId));
+        return ResponseEntity.ok(eventService.getUserEvents(userId, from, to));
     }
 
     /**
@@ -62,8 +78,10 @@ public class EventController {
         if (event.getEnd().isBefore(event.getStart())) {
             return ResponseEntity.badRequest().body(Map.of("message", "Koniec nie może być przed startem."));
         }
+        eventService.applyRecurrence(event);
 
-        return ResponseEntity.ok(eventRepo.save(event));
+        List<EventSlotDTO> conflicts = eventService.findConflicts(userId, event.getStart(), event.getEnd(), null);
+        return withConflicts(conflicts).body(eventService.createEvent(event));
     }
 
     /**
@@ -76,14 +94,25 @@ public class EventController {
     public ResponseEntity<?> deleteEvent(@PathVariable UUID id, @CurrentUser UUID userId) {
         if (userId == null) return ResponseEntity.status(401).build();
 
-        eventRepo.findById(id).ifPresent(event -> {
-            if (event.getUserId().equals(userId)) {
-                eventRepo.delete(event);
-            }
-        });
+        eventService.deleteEvent(id, userId);
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Odwołuje pojedyncze wystąpienie serii powtarzającej się.
+     * @param id Identyfikator wydarzenia (serii).
+     * @param start Moment rozpoczęcia odwoływanego wystąpienia (ISO-8601).
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity ze zaktualizowanym wydarzeniem.
+     */
+    @DeleteMapping("/{id}/occurrences")
+    public ResponseEntity<?> cancelOccurrence(@PathVariable UUID id,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                              @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(eventService.cancelOccurrence(id, userId, start));
+    }
+
     /**
      * Aktualizuje daty wydarzenia (np. po przeciągnięciu w kalendarzu).
      * @param id Identyfikator wydarzenia.
@@ -111,8 +140,10 @@ public class EventController {
             if (event.getEnd() == null || event.getEnd().isBefore(event.getStart())) {
                 event.setEnd(event.getStart().plusHours(1));
             }
+            eventService.applyRecurrence(event);
 
-            return ResponseEntity.ok(eventRepo.save(event));
+            List<EventSlotDTO> conflicts = eventService.findConflicts(userId, event.getStart(), event.getEnd(), id);
+            return withConflicts(conflicts).body(eventService.updateEvent(event));
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -150,7 +181,59 @@ public class EventController {
                 event.setNoteIds(updatedEvent.getNoteIds());
             }
 
-            return ResponseEntity.ok(eventRepo.save(event));
+            // Brak reguły w żądaniu pozostawia serię bez zmian; pusta reguła zamienia serię w pojedyncze wydarzenie
+            if (updatedEvent.getRecurrenceRule() != null) {
+                event.setRecurrenceRule(updatedEvent.getRecurrenceRule());
+                event.getExceptions().clear();
+                if (updatedEvent.getExceptions() != null) event.getExceptions().addAll(updatedEvent.getExceptions());
+            }
+            eventService.applyRecurrence(event);
+
+            List<EventSlotDTO> conflicts = eventService.findConflicts(userId, event.getStart(), event.getEnd(), id);
+            return withConflicts(conflicts).body(eventService.updateEvent(event));
         }).orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Pobiera wydarzenia zalogowanego użytkownika kolidujące z przedziałem (np. podczas przeciągania wydarzenia).
+     * @param start Początek sprawdzanego przedziału (ISO-8601).
+     * @param end Koniec sprawdzanego przedziału (ISO-8601).
+     * @param excludeId Identyfikator zmienianego wydarzenia, pomijanego w wyniku (opcjonalny).
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z listą kolidujących wystąpień.
+     */
+    @GetMapping("/conflicts")
+    public ResponseEntity<?> getConflicts(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                          @RequestParam(required = false) UUID excludeId,
+                                          @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(eventService.findConflicts(userId, start, end, excludeId));
+    }
+
+    /**
+     * Pobiera zajętość członków grupy w przedziale czasu (bez szczegółów wydarzeń).
+     * @param groupId Identyfikator grupy.
+     * @param from Początek przedziału (ISO-8601, włącznie).
+     * @param to Koniec przedziału (ISO-8601, wyłącznie).
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z zajętymi i wolnymi przedziałami grupy.
+     */
+    @GetMapping("/free-busy")
+    public ResponseEntity<?> getGroupFreeBusy(@RequestParam UUID groupId,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                              @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(eventService.getGroupFreeBusy(groupId, userId, from, to));
+    }
+
+    /**
+     * Tworzy odpowiedź z nagłówkiem X-Event-Conflicts zawierającym liczbę kolidujących wystąpień.
+     * @param conflicts kolidujące wystąpienia
+     * @return budowniczy odpowiedzi 200
+     */
+    private static ResponseEntity.BodyBuilder withConflicts(List<EventSlotDTO> conflicts) {
+        return ResponseEntity.ok().header(CONFLICTS_HEADER, String.valueOf(conflicts.size()));
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.example.noteuzbackend.service.FriendService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -37,6 +38,53 @@ public class FriendController {
         return ResponseEntity.ok(friendService.getMyFriendships(user.id(), user.email()));
     }
 
+    /**
+     * Pobiera listę zaakceptowanych znajomych zalogowanego użytkownika.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity z listą znajomych.
+     */
+    @GetMapping("/accepted")
+    public ResponseEntity<?> friends(@CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(friendService.getFriends(user.id()));
+    }
+
+    /**
+     * Sprawdza, czy zalogowany użytkownik jest znajomym podanego użytkownika.
+     * @param userId Identyfikator drugiego użytkownika.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity z flagą znajomości.
+     */
+    @GetMapping("/with/{userId}")
+    public ResponseEntity<?> areFriends(@PathVariable UUID userId, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(Map.of("friends", friendService.areFriends(user.id(), userId)));
+    }
+
+    /**
+     * Pobiera wspólnych znajomych zalogowanego użytkownika i podanego użytkownika.
+     * @param userId Identyfikator drugiego użytkownika.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity z liczbą i identyfikatorami wspólnych znajomych.
+     */
+    @GetMapping("/mutual/{userId}")
+    public ResponseEntity<?> mutual(@PathVariable UUID userId, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(friendService.getMutualFriends(user.id(), userId));
+    }
+
+    /**
+     * Pobiera propozycje znajomych (znajomi znajomych).
+     * @param limit Maksymalna liczba propozycji.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity z listą propozycji.
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<?> suggestions(@RequestParam(defaultValue = "10") int limit, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(friendService.getSuggestions(user.id(), limit));
+    }
+
     /**
      * Zaprasza użytkownika do znajomych na podstawie adresu email.
      * @param body Dane zaproszenia (email zapraszanego).
@@ -58,7 +106,7 @@ public class FriendController {
     @PutMapping("/{id}/accept")
     public ResponseEntity<?> accept(@PathVariable UUID id, @CurrentUser UserSummary user) {
         if (user == null) return ResponseEntity.status(401).build();
-        friendService.accept(id, user.email());
+        friendService.accept(id, user.id(), user.email());
         return ResponseEntity.ok().build();
     }
 
@@ -43,14 +43,20 @@ public class GroupController {
 
     /**
      * Pobiera szczegółowe informacje o grupie, w tym listę członków.
+     * Dla dużych grup listę członków można stronicować parametrami page i size.
      * @param id Identyfikator grupy.
+     * @param page Numer strony listy członków (opcjonalny).
+     * @param size Rozmiar strony listy członków (opcjonalny, brak oznacza wszystkich członków).
      * @param userId Identyfikator zalogowanego użytkownika.
      * @return ResponseEntity ze szczegółami grupy.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getGroupDetails(@PathVariable UUID id, @CurrentUser UUID userId) {
+    public ResponseEntity<?> getGroupDetails(@PathVariable UUID id,
+                                             @RequestParam(required = false) Integer page,
+                                             @RequestParam(required = false) Integer size,
+                                             @CurrentUser UUID userId) {
         if (userId == null) return ResponseEntity.status(401).build();
-        return ResponseEntity.ok(groupService.getGroupDetails(id, userId));
+        return ResponseEntity.ok(groupService.getGroupDetails(id, userId, page, size));
     }
 
     /**
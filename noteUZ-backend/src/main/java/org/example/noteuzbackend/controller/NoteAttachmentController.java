@@ -0,0 +1,167 @@
+package org.example.noteuzbackend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.noteuzbackend.config.resolver.CurrentUser;
+import org.example.noteuzbackend.dto.NoteRequests.StartAttachmentUploadRequest;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.NoteAttachment;
+import org.example.noteuzbackend.service.AvatarService;
+import org.example.noteuzbackend.service.NoteAttachmentService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Kontroler obsługujący załączniki notatek i ich przesyłanie w częściach.
+ * Przesyłanie: POST /uploads (metadane pliku), następnie kolejne fragmenty PUT /uploads/{uploadId}?offset=N
+ * z surowymi danymi w treści żądania. Po przerwaniu GET /uploads/{uploadId} zwraca pozycję, od której należy
+ * wznowić przesyłanie. Odpowiedź na ostatni fragment zawiera utworzony załącznik.
+ */
+@RestController
+@RequestMapping("/api/notes/{noteId}/attachments")
+public class NoteAttachmentController {
+
+    private final NoteAttachmentService service;
+
+    /**
+     * Konstruktor kontrolera załączników.
+     * @param service Serwis załączników notatek.
+     */
+    public NoteAttachmentController(NoteAttachmentService service) {
+        this.service = service;
+    }
+
+    /**
+     * Pobiera listę załączników notatki.
+     * @param noteId Identyfikator notatki.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity z listą załączników.
+     */
+    @GetMapping
+    public ResponseEntity<?> list(@PathVariable UUID noteId, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(service.list(noteId, user));
+    }
+
+    /**
+     * Rozpoczyna przesyłanie załącznika.
+     * @param noteId Identyfikator notatki.
+     * @param body Nazwa, typ i rozmiar pliku.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze stanem przesyłania (identyfikator i maksymalny rozmiar fragmentu).
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<?> startUpload(@PathVariable UUID noteId, @RequestBody StartAttachmentUploadRequest body,
+                                         @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.startUpload(noteId, body, user));
+    }
+
+    /**
+     * Pobiera stan przesyłania (pozycję, od której należy wznowić przesyłanie).
+     * @param noteId Identyfikator notatki.
+     * @param uploadId Identyfikator przesyłania.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze stanem przesyłania.
+     * @throws IOException W przypadku błędu odczytu magazynu.
+     */
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> uploadStatus(@PathVariable UUID noteId, @PathVariable UUID uploadId,
+                                          @CurrentUser UserSummary user) throws IOException {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(service.uploadStatus(noteId, uploadId, user));
+    }
+
+    /**
+     * Odbiera fragment pliku. Treść żądania jest czytana strumieniowo, bez buforowania w pamięci.
+     * @param noteId Identyfikator notatki.
+     * @param uploadId Identyfikator przesyłania.
+     * @param offset Pozycja fragmentu w pliku.
+     * @param request Żądanie HTTP z danymi fragmentu w treści.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze stanem przesyłania (po ostatnim fragmencie - z utworzonym załącznikiem).
+     * @throws IOException W przypadku błędu odczytu żądania lub zapisu danych.
+     */
+    @PutMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> uploadChunk(@PathVariable UUID noteId, @PathVariable UUID uploadId, @RequestParam long offset,
+                                         HttpServletRequest request, @CurrentUser UserSummary user) throws IOException {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(service.uploadChunk(noteId, uploadId, offset, request.getInputStream(), user));
+    }
+
+    /**
+     * Porzuca przesyłanie.
+     * @param noteId Identyfikator notatki.
+     * @param uploadId Identyfikator przesyłania.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity bez treści.
+     * @throws IOException W przypadku błędu usuwania danych.
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable UUID noteId, @PathVariable UUID uploadId,
+                                         @CurrentUser UserSummary user) throws IOException {
+        if (user == null) return ResponseEntity.status(401).build();
+        service.abortUpload(noteId, uploadId, user);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Pobiera załącznik. Obrazy i dokumenty PDF są wyświetlane w przeglądarce, pozostałe pliki pobierane.
+     * Dane są przesyłane strumieniowo z pliku magazynu, a niezmieniony plik jest potwierdzany odpowiedzią 304
+     * (ETag to skrót treści).
+     * @param noteId Identyfikator notatki.
+     * @param attachmentId Identyfikator załącznika.
+     * @param ifNoneMatch Wartość nagłówka If-None-Match lub null.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze strumieniem pliku lub odpowiedź 304.
+     */
+    @GetMapping("/{attachmentId}")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable UUID noteId, @PathVariable UUID attachmentId,
+                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                          @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        NoteAttachment attachment = service.find(noteId, attachmentId, user);
+        String etag = "\"" + attachment.getBlobKey() + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (AvatarService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        ContentDisposition disposition = (NoteAttachmentService.isInline(attachment.getContentType())
+                ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(attachment.getContentType()))
+                .contentLength(attachment.getSize())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .header("X-Content-Type-Options", "nosniff")
+                .body(out -> service.writeAttachment(attachment, out));
+    }
+
+    /**
+     * Usuwa załącznik notatki.
+     * @param noteId Identyfikator notatki.
+     * @param attachmentId Identyfikator załącznika.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity bez treści.
+     */
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<?> delete(@PathVariable UUID noteId, @PathVariable UUID attachmentId, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        service.delete(noteId, attachmentId, user);
+        return ResponseEntity.noContent().build();
+    }
+}
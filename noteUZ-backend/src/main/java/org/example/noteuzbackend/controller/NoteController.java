@@ -5,8 +5,8 @@ import org.example.noteuzbackend.dto.NoteRequests.*;
 import org.example.noteuzbackend.dto.UserSummary;
 import org.example.noteuzbackend.model.entity.Note;
 import org.example.noteuzbackend.model.entity.NoteShare;
-import org.example.noteuzbackend.repository.GroupMemberRepo;
 import org.example.noteuzbackend.service.EmailService;
+import org.example.noteuzbackend.service.GroupMembershipCache;
 import org.example.noteuzbackend.service.NoteService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,18 +24,18 @@ public class NoteController {
 
     private final NoteService service;
     private final EmailService emailService;
-    private final GroupMemberRepo groupMemberRepo;
+    private final GroupMembershipCache membershipCache;
 
     /**
      * Konstruktor kontrolera notatek.
      * @param service Serwis notatek.
      * @param emailService Serwis wysyłania emaili.
-     * @param groupMemberRepo Repozytorium członków grup.
+     * @param membershipCache Pamięć podręczna członkostw w grupach.
      */
-    public NoteController(NoteService service, EmailService emailService, GroupMemberRepo groupMemberRepo) {
+    public NoteController(NoteService service, EmailService emailService, GroupMembershipCache membershipCache) {
         this.service = service;
         this.emailService = emailService;
-        this.groupMemberRepo = groupMemberRepo;
+        this.membershipCache = membershipCache;
     }
 
     /**
@@ -71,22 +71,7 @@ public class NoteController {
         if (user == null) return ResponseEntity.status(401).build();
 
         Note note = service.getNoteById(id, user.id());
-        String permission = null;
-
-        if (note.getUserId().equals(user.id())) permission = "OWNER";
-
-        if (permission == null && note.getGroupId() != null) {
-            if (groupMemberRepo.existsByGroupIdAndUserId(note.getGroupId(), user.id())) permission = "WRITE";
-        }
-
-        if (!"OWNER".equals(permission) && !"WRITE".equals(permission)) {
-            var shareOpt = service.findShare(id, user.email()); // Używamy maila z obiektu
-            if (shareOpt.isPresent() && shareOpt.get().getStatus() == NoteShare.ShareStatus.ACCEPTED) {
-                String sharePerm = shareOpt.get().getPermission().toString();
-                if (permission == null) permission = sharePerm;
-                else if ("READ".equals(permission) && "WRITE".equals(sharePerm)) permission = "WRITE";
-            }
-        }
+        String permission = service.permissionFor(note, user.id(), user.email());
 
         if (permission == null) return ResponseEntity.status(403).build();
 
@@ -138,7 +123,7 @@ public class NoteController {
 
         if (existing.getUserId().equals(user.id())) hasPermission = true;
         if (!hasPermission && existing.getGroupId() != null) {
-            if (groupMemberRepo.existsByGroupIdAndUserId(existing.getGroupId(), user.id())) hasPermission = true;
+            if (membershipCache.isMember(existing.getGroupId(), user.id())) hasPermission = true;
         }
         if (!hasPermission) {
             var shareOpt = service.findShare(id, user.email());
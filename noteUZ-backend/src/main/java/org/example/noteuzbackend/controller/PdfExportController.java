@@ -0,0 +1,143 @@
+package org.example.noteuzbackend.controller;
+
+import org.example.noteuzbackend.config.resolver.CurrentUser;
+import org.example.noteuzbackend.dto.NoteVersionDTO;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.ExportJob;
+import org.example.noteuzbackend.model.enums.PdfExportFormat;
+import org.example.noteuzbackend.service.AvatarService;
+import org.example.noteuzbackend.service.ExportJobService;
+import org.example.noteuzbackend.service.PdfExportService;
+import org.example.noteuzbackend.service.PdfExportService.NotePdfFile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Kontroler eksportu notatek do PDF: dokument pojedynczej notatki, eksport notatek grupy pobierany bezpośrednio
+ * (jeden dokument PDF lub archiwum ZIP, przesyłane strumieniowo) oraz zadania eksportu dla dużych grup:
+ * POST /api/groups/{id}/export-jobs, następnie GET /api/export-jobs/{jobId} aż do stanu COMPLETED
+ * i pobranie pliku z GET /api/export-jobs/{jobId}/file.
+ */
+@RestController
+@RequestMapping("/api")
+public class PdfExportController {
+
+    private final PdfExportService exportService;
+    private final ExportJobService jobService;
+
+    /**
+     * Konstruktor kontrolera eksportu.
+     * @param exportService Serwis eksportu notatek do PDF.
+     * @param jobService Serwis zadań eksportu.
+     */
+    public PdfExportController(PdfExportService exportService, ExportJobService jobService) {
+        this.exportService = exportService;
+        this.jobService = jobService;
+    }
+
+    /**
+     * Pobiera notatkę jako dokument PDF. Dokument aktualnej wersji notatki jest renderowany raz, a niezmieniony
+     * dokument jest potwierdzany odpowiedzią 304 (ETag to skrót treści dokumentu).
+     * @param id Identyfikator notatki.
+     * @param ifNoneMatch Wartość nagłówka If-None-Match lub null.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze strumieniem dokumentu lub odpowiedź 304.
+     */
+    @GetMapping("/notes/{id}/pdf")
+    public ResponseEntity<StreamingResponseBody> notePdf(@PathVariable UUID id,
+                                                         @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                         @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        NotePdfFile file = exportService.notePdf(id, user);
+        String etag = "\"" + file.blobKey() + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+        if (AvatarService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(file.size())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition(PdfExportService.fileName(file.title()) + ".pdf"))
+                .body(out -> exportService.writeFile(file.blobKey(), out));
+    }
+
+    /**
+     * Pobiera eksport notatek grupy (przesyłany strumieniowo w trakcie renderowania).
+     * @param id Identyfikator grupy.
+     * @param format Format eksportu (PDF - jeden dokument, ZIP - dokument każdej notatki).
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze strumieniem pliku eksportu.
+     */
+    @GetMapping("/groups/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportGroup(@PathVariable UUID id,
+                                                             @RequestParam(defaultValue = "PDF") PdfExportFormat format,
+                                                             @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        List<NoteVersionDTO> notes = exportService.groupNotes(id, user.id(), true);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition("noteuz-group-" + id + "." + format.getExtension()))
+                .body(out -> exportService.writeGroup(notes, format, out, null));
+    }
+
+    /**
+     * Zleca eksport notatek grupy w tle.
+     * @param id Identyfikator grupy.
+     * @param format Format eksportu.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze stanem zadania.
+     */
+    @PostMapping("/groups/{id}/export-jobs")
+    public ResponseEntity<?> startExportJob(@PathVariable UUID id, @RequestParam(defaultValue = "PDF") PdfExportFormat format,
+                                            @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.enqueue(id, format, user));
+    }
+
+    /**
+     * Pobiera stan zadania eksportu.
+     * @param jobId Identyfikator zadania.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze stanem zadania.
+     */
+    @GetMapping("/export-jobs/{jobId}")
+    public ResponseEntity<?> getExportJob(@PathVariable UUID jobId, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(jobService.getJob(jobId, user));
+    }
+
+    /**
+     * Pobiera plik zakończonego zadania eksportu.
+     * @param jobId Identyfikator zadania.
+     * @param user Podsumowanie danych zalogowanego użytkownika.
+     * @return ResponseEntity ze strumieniem pliku eksportu.
+     */
+    @GetMapping("/export-jobs/{jobId}/file")
+    public ResponseEntity<StreamingResponseBody> downloadExportJob(@PathVariable UUID jobId, @CurrentUser UserSummary user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        ExportJob job = jobService.completedJob(jobId, user);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .contentLength(job.getSize())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        disposition("noteuz-group-" + job.getGroupId() + "." + job.getFormat().getExtension()))
+                .body(out -> jobService.writeFile(job, out));
+    }
+
+    private static String disposition(String fileName) {
+        return ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString();
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.noteuzbackend.controller;
+
+import org.example.noteuzbackend.config.resolver.CurrentUser;
+import org.example.noteuzbackend.dto.ReminderRequests;
+import org.example.noteuzbackend.service.ReminderPushChannel;
+import org.example.noteuzbackend.service.ReminderService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Kontroler obsługujący przypomnienia o wydarzeniach kalendarza.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class ReminderController {
+
+    private final ReminderService reminderService;
+    private final ReminderPushChannel pushChannel;
+
+    /**
+     * Konstruktor kontrolera przypomnień.
+     * @param reminderService Serwis przypomnień.
+     * @param pushChannel Kanał powiadomień push.
+     */
+    public ReminderController(ReminderService reminderService, ReminderPushChannel pushChannel) {
+        this.reminderService = reminderService;
+        this.pushChannel = pushChannel;
+    }
+
+    /**
+     * Pobiera przypomnienia wydarzenia.
+     * @param id Identyfikator wydarzenia.
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z listą przypomnień.
+     */
+    @GetMapping("/{id}/reminders")
+    public ResponseEntity<?> getReminders(@PathVariable UUID id, @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(reminderService.getReminders(id, userId));
+    }
+
+    /**
+     * Dodaje przypomnienie o wydarzeniu (np. 15 minut lub 1 dzień przed rozpoczęciem).
+     * @param id Identyfikator wydarzenia.
+     * @param request Wyprzedzenie w minutach i kanał dostarczenia.
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z zapisanym przypomnieniem.
+     */
+    @PostMapping("/{id}/reminders")
+    public ResponseEntity<?> addReminder(@PathVariable UUID id,
+                                         @RequestBody ReminderRequests.CreateReminderRequest request,
+                                         @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(reminderService.addReminder(id, userId, request.offsetMinutes(), request.channel()));
+    }
+
+    /**
+     * Usuwa przypomnienie o wydarzeniu.
+     * @param id Identyfikator wydarzenia.
+     * @param reminderId Identyfikator przypomnienia.
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z potwierdzeniem operacji.
+     */
+    @DeleteMapping("/{id}/reminders/{reminderId}")
+    public ResponseEntity<?> deleteReminder(@PathVariable UUID id, @PathVariable UUID reminderId, @CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        reminderService.deleteReminder(id, reminderId, userId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Otwiera strumień Server-Sent Events z przypomnieniami zalogowanego użytkownika (kanał PUSH).
+     * @param userId Identyfikator zalogowanego użytkownika.
+     * @return ResponseEntity z emiterem zdarzeń "reminder".
+     */
+    @GetMapping(value = "/reminders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamReminders(@CurrentUser UUID userId) {
+        if (userId == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(pushChannel.subscribe(userId));
+    }
+}
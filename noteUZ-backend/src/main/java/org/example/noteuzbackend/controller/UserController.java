@@ -1,14 +1,21 @@
 package org.example.noteuzbackend.controller;
 
 import org.example.noteuzbackend.config.resolver.CurrentUser;
-import org.example.noteuzbackend.model.entity.UserAvatar;
-import org.example.noteuzbackend.repository.UserAvatarRepo;
+import org.example.noteuzbackend.dto.AvatarBatchDTO;
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.service.AvatarService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -18,21 +25,21 @@ import java.util.UUID;
 @RequestMapping("/api/users")
 public class UserController {
 
-    private final UserAvatarRepo avatarRepo;
+    private final AvatarService avatarService;
 
     /**
      * Konstruktor kontrolera użytkownika.
-     * @param avatarRepo Repozytorium awatarów użytkowników.
+     * @param avatarService Serwis awatarów użytkowników.
      */
-    public UserController(UserAvatarRepo avatarRepo) {
-        this.avatarRepo = avatarRepo;
+    public UserController(AvatarService avatarService) {
+        this.avatarService = avatarService;
     }
 
     /**
      * Przesyła i zapisuje awatar dla zalogowanego użytkownika.
      * @param file Plik obrazu awatara.
      * @param userId Identyfikator zalogowanego użytkownika.
-     * @return ResponseEntity z potwierdzeniem przesłania.
+     * @return ResponseEntity z wersjonowanym adresem zapisanego awatara.
      * @throws IOException W przypadku błędu odczytu pliku.
      */
     @PostMapping("/avatar")
@@ -40,23 +47,66 @@ public class UserController {
         if (userId == null) return ResponseEntity.status(401).build();
         if (file.isEmpty()) return ResponseEntity.badRequest().body("Plik jest pusty");
 
-        UserAvatar avatar = new UserAvatar(userId, file.getBytes(), file.getContentType());
-        avatarRepo.save(avatar);
-
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(avatarService.saveAvatar(userId, file.getBytes()));
     }
 
     /**
-     * Pobiera awatar użytkownika o podanym identyfikatorze.
+     * Pobiera miniaturę awatara użytkownika w rozmiarze odpowiednim do żądanego (domyślnie największą).
+     * Odpowiedź pod adresem z aktualną wersją (parametr v) jest oznaczona jako niezmienna; bez wersji klient
+     * musi ją zweryfikować nagłówkiem If-None-Match. Dopóki miniatura nie jest gotowa, serwowany jest oryginał
+     * bez długotrwałego przechowywania w pamięci podręcznej. Odpowiedź 304 jest wyznaczana bez odczytu danych obrazu,
+     * a sam obraz jest przesyłany strumieniowo.
      * @param userId Identyfikator użytkownika, którego awatar ma zostać pobrany.
-     * @return ResponseEntity zawierające dane binarne obrazu awatara.
+     * @param size Żądana długość boku w pikselach lub null.
+     * @param version Wersja awatara (skrót treści) z adresu lub null.
+     * @param ifNoneMatch Wartość nagłówka If-None-Match lub null.
+     * @return ResponseEntity ze strumieniem obrazu awatara lub odpowiedź 304.
+     * @throws IOException W przypadku błędu odczytu danych obrazu.
      */
     @GetMapping("/{userId}/avatar")
-    public ResponseEntity<byte[]> getAvatar(@PathVariable UUID userId) {
-        return avatarRepo.findById(userId)
-                .map(avatar -> ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(avatar.getContentType()))
-                        .body(avatar.getData()))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<StreamingResponseBody> getAvatar(@PathVariable UUID userId,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(name = "v", required = false) String version,
+                                                           @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        AvatarMetaDTO meta = avatarService.findMeta(userId, size);
+        String etag = AvatarService.etag(meta);
+        CacheControl cacheControl = etag != null && meta.dimension() != null && meta.contentHash().equals(version)
+                ? CacheControl.maxAge(AvatarService.IMMUTABLE_MAX_AGE).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+
+        if (AvatarService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        ByteBuffer data = avatarService.loadAvatar(meta);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(meta.contentType()));
+        if (etag != null) response.eTag(etag);
+        if (meta.size() != null) response.contentLength(meta.size());
+        return response.body(out -> avatarService.writeAvatar(meta, data, out));
+    }
+
+    /**
+     * Pobiera jednym żądaniem małe miniatury awatarów wielu użytkowników (np. członków grupy lub znajomych)
+     * jako adresy data:, zamiast osobnego żądania dla każdego awatara. Odpowiedź ma ETag wyznaczony z wersji
+     * wszystkich miniatur, więc niezmieniona lista jest potwierdzana odpowiedzią 304.
+     * @param ids Identyfikatory użytkowników (najwyżej {@link AvatarService#BATCH_MAX_IDS}).
+     * @param size Żądana długość boku w pikselach lub null.
+     * @param ifNoneMatch Wartość nagłówka If-None-Match lub null.
+     * @return ResponseEntity z miniaturami awatarów lub odpowiedź 304.
+     */
+    @GetMapping("/avatars")
+    public ResponseEntity<AvatarBatchDTO> getAvatars(@RequestParam List<UUID> ids,
+                                                     @RequestParam(required = false) Integer size,
+                                                     @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        AvatarBatchDTO batch = avatarService.findBatch(ids, size);
+        String etag = "\"" + batch.version() + "\"";
+        CacheControl cacheControl = CacheControl.noCache().cachePublic();
+
+        if (AvatarService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(batch);
     }
-}
\ No newline at end of file
+}
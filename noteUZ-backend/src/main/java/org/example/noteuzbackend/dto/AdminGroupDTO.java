@@ -1,6 +1,8 @@
 package org.example.noteuzbackend.dto;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,7 +17,7 @@ import java.util.UUID;
  * @param memberCount Liczba członków należących do grupy.
  * @param noteCount Liczba notatek przypisanych do grupy.
  * @param createdAt Data i czas utworzenia grupy.
- * @param members Lista uproszczonych obiektów członków grupy.
+ * @param members Lista uproszczonych obiektów członków grupy (null w listingu - ładowana osobno dla wybranej grupy).
  */
 public record AdminGroupDTO(
         UUID id,
@@ -28,6 +30,27 @@ public record AdminGroupDTO(
         LocalDateTime createdAt,
         List<GroupMemberDTO> members // Lista członków do podglądu
 ) {
+    /**
+     * Konstruktor używany przez zapytanie agregujące panelu administracyjnego (bez listy członków).
+     *
+     * @param id Unikalny identyfikator grupy.
+     * @param name Nazwa grupy.
+     * @param description Opis grupy.
+     * @param ownerName Nazwa wyświetlana właściciela grupy.
+     * @param ownerEmail Adres email właściciela grupy.
+     * @param memberCount Liczba członków należących do grupy.
+     * @param noteCount Liczba notatek przypisanych do grupy.
+     * @param createdAt Moment utworzenia grupy (UTC).
+     */
+    public AdminGroupDTO(UUID id, String name, String description, String ownerName, String ownerEmail,
+                         Long memberCount, Long noteCount, Instant createdAt) {
+        this(id, name, description, ownerName, ownerEmail,
+                memberCount.intValue(),
+                noteCount.intValue(),
+                createdAt != null ? LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC) : LocalDateTime.now(),
+                null);
+    }
+
     /**
      * Uproszczony obiekt DTO reprezentujący członka grupy.
      *
@@ -0,0 +1,17 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO ze stanem przesyłania załącznika w częściach.
+ *
+ * @param uploadId Identyfikator przesyłania.
+ * @param noteId Identyfikator notatki.
+ * @param fileName Nazwa pliku.
+ * @param size Zadeklarowany rozmiar pliku w bajtach.
+ * @param received Liczba odebranych bajtów - pozycja, od której należy przesłać kolejny fragment.
+ * @param chunkSize Maksymalny rozmiar jednego fragmentu w bajtach.
+ * @param attachment Utworzony załącznik (po odebraniu całego pliku) lub null.
+ */
+public record AttachmentUploadDTO(UUID uploadId, UUID noteId, String fileName, long size, long received,
+                                  long chunkSize, NoteAttachmentDTO attachment) {}
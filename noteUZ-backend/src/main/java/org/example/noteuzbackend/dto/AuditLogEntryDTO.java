@@ -0,0 +1,27 @@
+package org.example.noteuzbackend.dto;
+
+import org.example.noteuzbackend.model.enums.AuditAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący wpis dziennika audytu dla panelu administracyjnego.
+ *
+ * @param id Unikalny identyfikator wpisu.
+ * @param createdAt Moment wykonania akcji.
+ * @param actorId Identyfikator wykonującego akcję.
+ * @param actorName Nazwa wyświetlana wykonującego akcję.
+ * @param action Rodzaj akcji.
+ * @param targetId Identyfikator obiektu akcji.
+ * @param details Dodatkowe informacje o akcji.
+ */
+public record AuditLogEntryDTO(
+        UUID id,
+        Instant createdAt,
+        UUID actorId,
+        String actorName,
+        AuditAction action,
+        UUID targetId,
+        String details
+) {}
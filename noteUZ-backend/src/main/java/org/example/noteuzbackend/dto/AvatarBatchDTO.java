@@ -0,0 +1,15 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO z miniaturami awatarów wielu użytkowników pobranymi jednym żądaniem.
+ *
+ * @param dimension Długość boku zwróconych miniatur w pikselach.
+ * @param version Skrót wersji wszystkich miniatur w odpowiedzi (podstawa znacznika ETag).
+ * @param avatars Miniatury w postaci adresów data: (base64), w kolejności żądanych identyfikatorów.
+ * @param pending Użytkownicy z awatarem, którego miniatura nie jest jeszcze gotowa - należy użyć pojedynczego adresu awatara.
+ */
+public record AvatarBatchDTO(int dimension, String version, Map<UUID, String> avatars, List<UUID> pending) {}
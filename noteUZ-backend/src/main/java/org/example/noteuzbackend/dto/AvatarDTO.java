@@ -0,0 +1,12 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO opisujący zapisany awatar użytkownika.
+ *
+ * @param userId Identyfikator użytkownika.
+ * @param contentHash Skrót SHA-256 treści (hex).
+ * @param url Wersjonowany adres awatara, który może być przechowywany w pamięci podręcznej bezterminowo.
+ */
+public record AvatarDTO(UUID userId, String contentHash, String url) {}
@@ -0,0 +1,51 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO z metadanymi awatara lub jego miniatury (bez danych obrazu) - wystarcza do obsługi żądań warunkowych.
+ *
+ * @param userId Identyfikator użytkownika.
+ * @param contentType Typ MIME obrazu.
+ * @param contentHash Skrót SHA-256 treści awatara (hex); dla miniatury - skrót awatara źródłowego.
+ * @param size Rozmiar obrazu w bajtach.
+ * @param dimension Długość boku miniatury w pikselach lub null dla oryginału.
+ * @param blobKey Klucz danych obrazu w magazynie danych binarnych lub null, jeśli obraz jest w bazie danych.
+ */
+public record AvatarMetaDTO(UUID userId, String contentType, String contentHash, Long size, Integer dimension, String blobKey) {
+
+    /**
+     * Tworzy metadane obrazu przechowywanego w bazie danych.
+     * @param userId identyfikator użytkownika
+     * @param contentType typ MIME obrazu
+     * @param contentHash skrót treści awatara
+     * @param size rozmiar w bajtach
+     * @param dimension długość boku miniatury lub null
+     */
+    public AvatarMetaDTO(UUID userId, String contentType, String contentHash, Long size, Integer dimension) {
+        this(userId, contentType, contentHash, size, dimension, null);
+    }
+
+    /**
+     * Tworzy metadane oryginalnego awatara.
+     * @param userId identyfikator użytkownika
+     * @param contentType typ MIME obrazu
+     * @param contentHash skrót treści
+     * @param size rozmiar w bajtach
+     */
+    public AvatarMetaDTO(UUID userId, String contentType, String contentHash, Long size) {
+        this(userId, contentType, contentHash, size, null, null);
+    }
+
+    /**
+     * Tworzy metadane oryginalnego awatara przechowywanego w magazynie danych binarnych.
+     * @param userId identyfikator użytkownika
+     * @param contentType typ MIME obrazu
+     * @param contentHash skrót treści
+     * @param size rozmiar w bajtach
+     * @param blobKey klucz obrazu w magazynie lub null
+     */
+    public AvatarMetaDTO(UUID userId, String contentType, String contentHash, Long size, String blobKey) {
+        this(userId, contentType, contentHash, size, null, blobKey);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.noteuzbackend.dto;
+
+/**
+ * Obiekt DTO z podsumowaniem przeniesienia danych obrazów z bazy danych do magazynu danych binarnych.
+ *
+ * @param avatars Liczba przeniesionych awatarów.
+ * @param variants Liczba przeniesionych miniatur.
+ * @param bytes Łączny rozmiar przeniesionych danych w bajtach.
+ * @param skipped Liczba pominiętych wierszy (usuniętych w międzyczasie lub z błędem kopiowania).
+ * @param remaining Liczba wierszy pozostałych do przeniesienia.
+ */
+public record BlobMigrationDTO(int avatars, int variants, long bytes, int skipped, long remaining) {}
@@ -0,0 +1,49 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Klasa kontenerowa dla rekordów zbiorczych akcji moderacyjnych.
+ */
+public class BulkModerationDTO {
+
+    /**
+     * Wynik akcji dla pojedynczego elementu.
+     */
+    public enum Outcome {
+        /** Akcja została wykonana */
+        APPLIED,
+        /** Stan nie wymagał zmiany (np. użytkownik był już zablokowany) */
+        UNCHANGED,
+        /** Element nie istnieje */
+        NOT_FOUND,
+        /** Brak uprawnień do wykonania akcji na elemencie */
+        FORBIDDEN
+    }
+
+    /**
+     * Obiekt DTO reprezentujący żądanie akcji zbiorczej.
+     *
+     * @param ids Identyfikatory użytkowników, których dotyczy akcja.
+     */
+    public record BulkRequest(List<UUID> ids) {}
+
+    /**
+     * Obiekt DTO reprezentujący wynik akcji dla pojedynczego elementu.
+     *
+     * @param id Identyfikator elementu.
+     * @param outcome Wynik akcji.
+     * @param message Opis wyniku.
+     */
+    public record ItemResult(UUID id, Outcome outcome, String message) {}
+
+    /**
+     * Obiekt DTO reprezentujący wynik akcji zbiorczej.
+     *
+     * @param requested Liczba (unikalnych) elementów w żądaniu.
+     * @param applied Liczba elementów, na których wykonano akcję.
+     * @param items Wyniki dla poszczególnych elementów, w kolejności z żądania.
+     */
+    public record BulkResult(int requested, int applied, List<ItemResult> items) {}
+}
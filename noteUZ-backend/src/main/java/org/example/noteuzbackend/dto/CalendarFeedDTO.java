@@ -0,0 +1,14 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący kanał iCalendar użytkownika.
+ *
+ * @param id Identyfikator kanału.
+ * @param groupId Identyfikator grupy (null - kalendarz użytkownika).
+ * @param path Ścieżka kanału (zawiera token dostępu) do subskrypcji w aplikacji kalendarzowej.
+ * @param createdAt Data utworzenia kanału.
+ */
+public record CalendarFeedDTO(UUID id, UUID groupId, String path, Instant createdAt) {}
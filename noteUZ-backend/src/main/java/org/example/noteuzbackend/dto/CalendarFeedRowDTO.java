@@ -0,0 +1,21 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący wiersz kanału iCalendar: wydarzenie połączone z jednym odwołanym wystąpieniem serii.
+ * Wydarzenie bez odwołanych wystąpień zajmuje jeden wiersz z pustym {@code exception}, a seria z wyjątkami -
+ * tyle kolejnych wierszy, ile ma wyjątków.
+ *
+ * @param id Identyfikator wydarzenia.
+ * @param userId Identyfikator właściciela wydarzenia.
+ * @param title Tytuł wydarzenia.
+ * @param description Opis wydarzenia.
+ * @param start Rozpoczęcie (pierwszego wystąpienia).
+ * @param end Zakończenie (pierwszego wystąpienia).
+ * @param recurrenceRule Reguła powtarzania lub null.
+ * @param exception Moment rozpoczęcia odwołanego wystąpienia lub null.
+ */
+public record CalendarFeedRowDTO(UUID id, UUID userId, String title, String description, LocalDateTime start,
+                                 LocalDateTime end, String recurrenceRule, LocalDateTime exception) {}
@@ -0,0 +1,14 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Obiekt DTO reprezentujący liczbę rekordów utworzonych danego dnia.
+ *
+ * @param day Dzień.
+ * @param count Liczba rekordów.
+ */
+public record DailyCountDTO(
+        LocalDate day,
+        Long count
+) {}
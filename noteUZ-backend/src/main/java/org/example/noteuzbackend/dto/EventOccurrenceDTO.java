@@ -0,0 +1,20 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący pojedyncze wystąpienie wydarzenia w oknie kalendarza.
+ * Wystąpienia serii powtarzającej się mają identyfikator wydarzenia serii i własne ramy czasowe.
+ *
+ * @param id Identyfikator wydarzenia (serii).
+ * @param title Tytuł wydarzenia.
+ * @param description Opis wydarzenia.
+ * @param start Rozpoczęcie wystąpienia.
+ * @param end Zakończenie wystąpienia.
+ * @param noteIds Identyfikatory powiązanych notatek.
+ * @param recurrenceRule Reguła powtarzania serii lub null dla pojedynczego wydarzenia.
+ */
+public record EventOccurrenceDTO(UUID id, String title, String description, LocalDateTime start, LocalDateTime end,
+                                 Set<UUID> noteIds, String recurrenceRule) {}
@@ -0,0 +1,14 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący zajęty przedział czasu w kalendarzu użytkownika (np. wydarzenie kolidujące z nowym).
+ *
+ * @param eventId Identyfikator wydarzenia (serii).
+ * @param title Tytuł wydarzenia.
+ * @param start Rozpoczęcie wystąpienia.
+ * @param end Zakończenie wystąpienia.
+ */
+public record EventSlotDTO(UUID eventId, String title, LocalDateTime start, LocalDateTime end) {}
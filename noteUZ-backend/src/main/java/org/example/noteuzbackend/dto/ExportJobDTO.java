@@ -0,0 +1,38 @@
+package org.example.noteuzbackend.dto;
+
+import org.example.noteuzbackend.model.enums.ExportJobStatus;
+import org.example.noteuzbackend.model.enums.PdfExportFormat;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący stan zadania eksportu notatek grupy do PDF.
+ *
+ * @param id Unikalny identyfikator zadania.
+ * @param groupId Identyfikator eksportowanej grupy.
+ * @param format Format pliku eksportu.
+ * @param status Stan zadania.
+ * @param totalNotes Liczba eksportowanych notatek.
+ * @param doneNotes Liczba notatek zapisanych do pliku eksportu.
+ * @param pages Łączna liczba stron eksportowanych dokumentów.
+ * @param size Rozmiar gotowego pliku w bajtach (po zakończeniu zadania).
+ * @param error Opis błędu (jeśli wystąpił).
+ * @param downloadUrl Adres pobierania gotowego pliku (po zakończeniu zadania).
+ * @param createdAt Data utworzenia zadania.
+ * @param finishedAt Data zakończenia zadania.
+ */
+public record ExportJobDTO(
+        UUID id,
+        UUID groupId,
+        PdfExportFormat format,
+        ExportJobStatus status,
+        int totalNotes,
+        int doneNotes,
+        long pages,
+        Long size,
+        String error,
+        String downloadUrl,
+        Instant createdAt,
+        Instant finishedAt
+) {}
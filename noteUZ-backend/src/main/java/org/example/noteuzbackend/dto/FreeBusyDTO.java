@@ -0,0 +1,25 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Obiekt DTO z zajętością członków grupy w przedziale czasu.
+ * Przedziały zajęte są sumą wydarzeń wszystkich członków (bez tytułów), a wolne - ich dopełnieniem w przedziale.
+ *
+ * @param from Początek przedziału.
+ * @param to Koniec przedziału.
+ * @param members Liczba członków grupy uwzględnionych w wyniku.
+ * @param busy Scalone przedziały, w których co najmniej jeden członek jest zajęty.
+ * @param free Przedziały, w których wszyscy członkowie są wolni.
+ */
+public record FreeBusyDTO(LocalDateTime from, LocalDateTime to, int members, List<TimeRange> busy, List<TimeRange> free) {
+
+    /**
+     * Przedział czasu [start, end).
+     *
+     * @param start Początek przedziału.
+     * @param end Koniec przedziału.
+     */
+    public record TimeRange(LocalDateTime start, LocalDateTime end) {}
+}
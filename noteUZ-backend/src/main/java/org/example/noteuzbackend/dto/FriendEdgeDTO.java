@@ -0,0 +1,11 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący krawędź grafu znajomych (zaakceptowaną znajomość).
+ *
+ * @param requesterId Identyfikator użytkownika, który wysłał zaproszenie.
+ * @param addresseeId Identyfikator użytkownika, który zaproszenie zaakceptował.
+ */
+public record FriendEdgeDTO(UUID requesterId, UUID addresseeId) {}
@@ -0,0 +1,13 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący propozycję znajomego.
+ *
+ * @param userId Identyfikator proponowanego użytkownika.
+ * @param displayName Nazwa wyświetlana proponowanego użytkownika.
+ * @param mutualFriends Liczba wspólnych znajomych.
+ * @param sharedGroups Liczba wspólnych grup.
+ */
+public record FriendSuggestionDTO(UUID userId, String displayName, int mutualFriends, int sharedGroups) {}
@@ -0,0 +1,21 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący zaproszenie do grupy (projekcja z zapytania łączącego).
+ *
+ * @param invitationId Identyfikator zaproszenia.
+ * @param groupId Identyfikator grupy.
+ * @param groupName Nazwa grupy.
+ * @param inviterName Nazwa wyświetlana osoby zapraszającej.
+ * @param sentAt Data wysłania zaproszenia.
+ */
+public record GroupInvitationDTO(
+        UUID invitationId,
+        UUID groupId,
+        String groupName,
+        String inviterName,
+        Instant sentAt
+) {}
@@ -0,0 +1,27 @@
+package org.example.noteuzbackend.dto;
+
+import org.example.noteuzbackend.model.enums.GroupRole;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący członka grupy wraz z jego danymi profilowymi (projekcja z zapytania łączącego).
+ *
+ * @param id Identyfikator członkostwa.
+ * @param groupId Identyfikator grupy.
+ * @param userId Identyfikator użytkownika.
+ * @param role Rola członka w grupie.
+ * @param joinedAt Data dołączenia do grupy.
+ * @param displayName Nazwa wyświetlana członka.
+ * @param email Adres email członka.
+ */
+public record GroupMemberDetailsDTO(
+        UUID id,
+        UUID groupId,
+        UUID userId,
+        GroupRole role,
+        Instant joinedAt,
+        String displayName,
+        String email
+) {}
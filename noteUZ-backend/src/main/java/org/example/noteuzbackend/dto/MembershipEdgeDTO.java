@@ -0,0 +1,11 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący członkostwo użytkownika w grupie (krawędź grafu grupa - użytkownik).
+ *
+ * @param groupId Identyfikator grupy.
+ * @param userId Identyfikator członka grupy.
+ */
+public record MembershipEdgeDTO(UUID groupId, UUID userId) {}
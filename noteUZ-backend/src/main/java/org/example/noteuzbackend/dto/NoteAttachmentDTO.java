@@ -0,0 +1,19 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO z opisem załącznika notatki.
+ *
+ * @param id Identyfikator załącznika.
+ * @param noteId Identyfikator notatki.
+ * @param fileName Nazwa pliku.
+ * @param contentType Typ MIME pliku.
+ * @param size Rozmiar pliku w bajtach.
+ * @param uploadedBy Identyfikator użytkownika, który przesłał plik.
+ * @param createdAt Czas dołączenia pliku.
+ * @param url Adres pobierania pliku.
+ */
+public record NoteAttachmentDTO(UUID id, UUID noteId, String fileName, String contentType, long size,
+                                UUID uploadedBy, Instant createdAt, String url) {}
@@ -37,4 +37,13 @@ public class NoteRequests {
      * @param permission Nowy poziom uprawnień.
      */
     public record UpdateShareRequest(String permission) {}
-}
\ No newline at end of file
+
+    /**
+     * Obiekt DTO reprezentujący żądanie rozpoczęcia przesyłania załącznika notatki.
+     *
+     * @param fileName Nazwa pliku.
+     * @param contentType Typ MIME pliku.
+     * @param size Rozmiar całego pliku w bajtach.
+     */
+    public record StartAttachmentUploadRequest(String fileName, String contentType, Long size) {}
+}
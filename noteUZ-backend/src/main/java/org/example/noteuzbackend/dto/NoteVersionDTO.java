@@ -0,0 +1,13 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO identyfikujący wersję notatki (bez treści) - klucz pamięci podręcznej eksportu PDF.
+ *
+ * @param id Identyfikator notatki.
+ * @param title Tytuł notatki.
+ * @param updatedAt Data ostatniej modyfikacji notatki (data utworzenia, jeśli notatki nie modyfikowano).
+ */
+public record NoteVersionDTO(UUID id, String title, LocalDateTime updatedAt) {}
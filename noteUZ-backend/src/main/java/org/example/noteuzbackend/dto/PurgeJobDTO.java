@@ -0,0 +1,38 @@
+package org.example.noteuzbackend.dto;
+
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący stan zadania kaskadowego usuwania danych.
+ *
+ * @param id Unikalny identyfikator zadania.
+ * @param targetType Rodzaj usuwanego obiektu.
+ * @param targetId Identyfikator usuwanego obiektu.
+ * @param status Stan zadania.
+ * @param step Numer bieżącego kroku (liczony od zera).
+ * @param totalSteps Liczba kroków planu usuwania.
+ * @param stepName Nazwa bieżącego kroku.
+ * @param deletedRows Łączna liczba usuniętych wierszy.
+ * @param error Opis ostatniego błędu (jeśli wystąpił).
+ * @param createdAt Data utworzenia zadania.
+ * @param updatedAt Data ostatniej aktualizacji postępu.
+ * @param finishedAt Data zakończenia zadania.
+ */
+public record PurgeJobDTO(
+        UUID id,
+        PurgeTarget targetType,
+        UUID targetId,
+        PurgeStatus status,
+        int step,
+        int totalSteps,
+        String stepName,
+        long deletedRows,
+        String error,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant finishedAt
+) {}
@@ -0,0 +1,15 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący treść przypomnienia o zbliżającym się wystąpieniu wydarzenia.
+ *
+ * @param reminderId Identyfikator przypomnienia.
+ * @param eventId Identyfikator wydarzenia.
+ * @param title Tytuł wydarzenia.
+ * @param start Rozpoczęcie wystąpienia, którego dotyczy przypomnienie.
+ * @param offsetMinutes Wyprzedzenie przypomnienia w minutach.
+ */
+public record ReminderNotificationDTO(UUID reminderId, UUID eventId, String title, LocalDateTime start, int offsetMinutes) {}
@@ -0,0 +1,16 @@
+package org.example.noteuzbackend.dto;
+
+import org.example.noteuzbackend.model.enums.ReminderChannel;
+
+/**
+ * Klasa kontenerowa dla rekordów żądań związanych z przypomnieniami o wydarzeniach.
+ */
+public class ReminderRequests {
+    /**
+     * Obiekt DTO reprezentujący żądanie utworzenia przypomnienia.
+     *
+     * @param offsetMinutes Wyprzedzenie względem rozpoczęcia wydarzenia w minutach (np. 15 lub 1440).
+     * @param channel Kanał dostarczenia (domyślnie EMAIL).
+     */
+    public record CreateReminderRequest(Integer offsetMinutes, ReminderChannel channel) {}
+}
@@ -0,0 +1,12 @@
+package org.example.noteuzbackend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący termin przypomnienia ładowany do koła czasowego.
+ *
+ * @param id Identyfikator przypomnienia.
+ * @param fireAt Termin wysłania.
+ */
+public record ScheduledReminderDTO(UUID id, LocalDateTime fireAt) {}
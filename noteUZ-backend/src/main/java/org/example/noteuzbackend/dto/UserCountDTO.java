@@ -0,0 +1,11 @@
+package org.example.noteuzbackend.dto;
+
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący liczbę rekordów przypisanych do użytkownika.
+ *
+ * @param userId Identyfikator użytkownika.
+ * @param count Liczba rekordów.
+ */
+public record UserCountDTO(UUID userId, Long count) {}
@@ -0,0 +1,23 @@
+package org.example.noteuzbackend.dto;
+
+import org.example.noteuzbackend.model.enums.GroupRole;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Obiekt DTO reprezentujący członkostwo użytkownika w grupie (projekcja z zapytania łączącego).
+ *
+ * @param groupId Identyfikator grupy.
+ * @param groupName Nazwa grupy.
+ * @param description Opis grupy (pusty, jeśli nie ustawiono).
+ * @param myRole Rola użytkownika w grupie.
+ * @param joinedAt Data dołączenia do grupy.
+ */
+public record UserGroupDTO(
+        UUID groupId,
+        String groupName,
+        String description,
+        GroupRole myRole,
+        Instant joinedAt
+) {}
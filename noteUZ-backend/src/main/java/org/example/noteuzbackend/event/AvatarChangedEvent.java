@@ -0,0 +1,23 @@
+package org.example.noteuzbackend.event;
+
+import java.util.UUID;
+
+/**
+ * Zdarzenie publikowane po zapisaniu nowego awatara użytkownika.
+ * Służy do wygenerowania miniatur po zatwierdzeniu transakcji.
+ *
+ * @param userId Identyfikator użytkownika.
+ * @param contentHash Skrót SHA-256 treści nowego awatara.
+ */
+public record AvatarChangedEvent(UUID userId, String contentHash) {
+
+    /**
+     * Tworzy zdarzenie dotyczące awatara konkretnego użytkownika.
+     * @param userId identyfikator użytkownika
+     * @param contentHash skrót treści nowego awatara
+     * @return zdarzenie zmiany awatara
+     */
+    public static AvatarChangedEvent forUser(UUID userId, String contentHash) {
+        return new AvatarChangedEvent(userId, contentHash);
+    }
+}
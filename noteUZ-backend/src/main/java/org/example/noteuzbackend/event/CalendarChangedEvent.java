@@ -0,0 +1,21 @@
+package org.example.noteuzbackend.event;
+
+import java.util.UUID;
+
+/**
+ * Zdarzenie publikowane po zmianie wydarzeń w kalendarzu użytkownika (utworzenie, zmiana, usunięcie, odwołanie wystąpienia).
+ * Służy do unieważniania indeksu przedziałów czasu po zatwierdzeniu transakcji.
+ *
+ * @param userId Identyfikator właściciela kalendarza.
+ */
+public record CalendarChangedEvent(UUID userId) {
+
+    /**
+     * Tworzy zdarzenie dotyczące kalendarza konkretnego użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return zdarzenie zmiany kalendarza
+     */
+    public static CalendarChangedEvent forUser(UUID userId) {
+        return new CalendarChangedEvent(userId);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.noteuzbackend.event;
+
+import java.util.UUID;
+
+/**
+ * Zdarzenie publikowane po zawarciu lub zerwaniu znajomości.
+ * Służy do aktualizacji grafu znajomych w pamięci po zatwierdzeniu transakcji.
+ *
+ * @param userA Identyfikator pierwszego użytkownika.
+ * @param userB Identyfikator drugiego użytkownika.
+ * @param connected true - znajomość została zawarta, false - zerwana.
+ */
+public record FriendshipChangedEvent(UUID userA, UUID userB, boolean connected) {
+
+    /**
+     * Tworzy zdarzenie zawarcia znajomości.
+     * @param userA identyfikator pierwszego użytkownika
+     * @param userB identyfikator drugiego użytkownika
+     * @return zdarzenie zmiany znajomości
+     */
+    public static FriendshipChangedEvent connected(UUID userA, UUID userB) {
+        return new FriendshipChangedEvent(userA, userB, true);
+    }
+
+    /**
+     * Tworzy zdarzenie zerwania znajomości.
+     * @param userA identyfikator pierwszego użytkownika
+     * @param userB identyfikator drugiego użytkownika
+     * @return zdarzenie zmiany znajomości
+     */
+    public static FriendshipChangedEvent disconnected(UUID userA, UUID userB) {
+        return new FriendshipChangedEvent(userA, userB, false);
+    }
+}
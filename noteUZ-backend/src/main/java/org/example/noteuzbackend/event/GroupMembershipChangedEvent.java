@@ -0,0 +1,29 @@
+package org.example.noteuzbackend.event;
+
+import java.util.UUID;
+
+/**
+ * Zdarzenie publikowane po zmianie członkostwa w grupach (dołączenie, usunięcie, zmiana roli, usunięcie grupy).
+ * Służy do unieważniania pamięci podręcznej członkostw po zatwierdzeniu transakcji.
+ *
+ * @param userId Identyfikator użytkownika, którego członkostwa się zmieniły; null oznacza wszystkich użytkowników.
+ */
+public record GroupMembershipChangedEvent(UUID userId) {
+
+    /**
+     * Tworzy zdarzenie dotyczące członkostw konkretnego użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return zdarzenie zmiany członkostwa
+     */
+    public static GroupMembershipChangedEvent forUser(UUID userId) {
+        return new GroupMembershipChangedEvent(userId);
+    }
+
+    /**
+     * Tworzy zdarzenie unieważniające członkostwa wszystkich użytkowników (np. po usunięciu grupy).
+     * @return zdarzenie zmiany członkostwa
+     */
+    public static GroupMembershipChangedEvent forAllUsers() {
+        return new GroupMembershipChangedEvent(null);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.noteuzbackend.event;
+
+import org.example.noteuzbackend.model.enums.AuditAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Zdarzenie publikowane po wykonaniu akcji moderacyjnej. Trafia do dziennika audytu po zatwierdzeniu transakcji.
+ *
+ * @param actorId Identyfikator moderatora/administratora wykonującego akcję.
+ * @param action Rodzaj akcji.
+ * @param targetId Identyfikator obiektu, którego dotyczy akcja (użytkownika, notatki lub grupy).
+ * @param details Dodatkowe informacje o akcji (opcjonalne).
+ * @param occurredAt Moment wykonania akcji.
+ */
+public record ModerationActionEvent(UUID actorId, AuditAction action, UUID targetId, String details, Instant occurredAt) {
+
+    /**
+     * Tworzy zdarzenie akcji moderacyjnej wykonanej w tej chwili.
+     * @param actorId identyfikator wykonującego akcję
+     * @param action rodzaj akcji
+     * @param targetId identyfikator obiektu akcji
+     * @return zdarzenie akcji moderacyjnej
+     */
+    public static ModerationActionEvent of(UUID actorId, AuditAction action, UUID targetId) {
+        return new ModerationActionEvent(actorId, action, targetId, null, Instant.now());
+    }
+
+    /**
+     * Tworzy zdarzenie akcji moderacyjnej z dodatkowymi informacjami.
+     * @param actorId identyfikator wykonującego akcję
+     * @param action rodzaj akcji
+     * @param targetId identyfikator obiektu akcji
+     * @param details dodatkowe informacje
+     * @return zdarzenie akcji moderacyjnej
+     */
+    public static ModerationActionEvent of(UUID actorId, AuditAction action, UUID targetId, String details) {
+        return new ModerationActionEvent(actorId, action, targetId, details, Instant.now());
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.noteuzbackend.event;
+
+import org.example.noteuzbackend.model.enums.StatsMetric;
+
+import java.time.LocalDate;
+
+/**
+ * Zdarzenie publikowane przy zapisie zmieniającym statystyki systemowe.
+ * Liczniki są aktualizowane dopiero po zatwierdzeniu transakcji.
+ *
+ * @param metric Licznik, którego dotyczy zmiana.
+ * @param delta Wartość, o którą zmienia się licznik (ujemna przy usunięciu).
+ * @param day Dzień utworzenia notatki (tylko dla nowych notatek, w pozostałych przypadkach null).
+ */
+public record StatsChangedEvent(StatsMetric metric, long delta, LocalDate day) {
+
+    /**
+     * Tworzy zdarzenie zwiększenia licznika o jeden.
+     * @param metric licznik statystyk
+     * @return zdarzenie zmiany statystyk
+     */
+    public static StatsChangedEvent increment(StatsMetric metric) {
+        return new StatsChangedEvent(metric, 1, null);
+    }
+
+    /**
+     * Tworzy zdarzenie zmniejszenia licznika o jeden.
+     * @param metric licznik statystyk
+     * @return zdarzenie zmiany statystyk
+     */
+    public static StatsChangedEvent decrement(StatsMetric metric) {
+        return new StatsChangedEvent(metric, -1, null);
+    }
+
+    /**
+     * Tworzy zdarzenie zmiany licznika o podaną wartość.
+     * @param metric licznik statystyk
+     * @param delta wartość zmiany
+     * @return zdarzenie zmiany statystyk
+     */
+    public static StatsChangedEvent of(StatsMetric metric, long delta) {
+        return new StatsChangedEvent(metric, delta, null);
+    }
+
+    /**
+     * Tworzy zdarzenie utworzenia notatki (zwiększa licznik notatek i licznik dzienny).
+     * @param day dzień utworzenia notatki
+     * @return zdarzenie zmiany statystyk
+     */
+    public static StatsChangedEvent noteCreated(LocalDate day) {
+        return new StatsChangedEvent(StatsMetric.NOTES, 1, day);
+    }
+}
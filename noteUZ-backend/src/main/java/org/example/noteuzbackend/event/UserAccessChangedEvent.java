@@ -0,0 +1,21 @@
+package org.example.noteuzbackend.event;
+
+import java.util.UUID;
+
+/**
+ * Zdarzenie publikowane po zmianie uprawnień lub stanu konta użytkownika (rola, blokada, ostrzeżenia, usunięcie).
+ * Służy do unieważniania pamięci podręcznej uprawnień po zatwierdzeniu transakcji.
+ *
+ * @param userId Identyfikator użytkownika, którego dane się zmieniły.
+ */
+public record UserAccessChangedEvent(UUID userId) {
+
+    /**
+     * Tworzy zdarzenie dotyczące konkretnego użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return zdarzenie zmiany uprawnień
+     */
+    public static UserAccessChangedEvent forUser(UUID userId) {
+        return new UserAccessChangedEvent(userId);
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje miniaturę awatara w jednym ze stałych rozmiarów (kwadrat o boku {@code dimension} pikseli).
+ * Miniatura jest aktualna, dopóki jej skrót źródła odpowiada skrótowi bieżącego awatara użytkownika.
+ */
+@Entity
+@Table(name = "avatar_variants")
+public class AvatarVariant {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /** Długość boku miniatury w pikselach. */
+    @Column(nullable = false)
+    private Integer dimension;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    /** Skrót treści awatara, z którego wygenerowano miniaturę. */
+    @Column(name = "source_hash", nullable = false)
+    private String sourceHash;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long size;
+
+    /** Dane miniatur sprzed przeniesienia do magazynu danych binarnych (null po przeniesieniu). */
+    @Lob
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Column(name = "data", columnDefinition = "bytea")
+    private byte[] data;
+
+    /** Klucz danych miniatury w magazynie danych binarnych (skrót SHA-256 treści miniatury). */
+    @Column(name = "blob_key")
+    private String blobKey;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public AvatarVariant() {}
+
+    /**
+     * Konstruktor tworzący miniaturę awatara.
+     * @param userId identyfikator użytkownika
+     * @param dimension długość boku w pikselach
+     * @param contentType typ MIME miniatury
+     * @param sourceHash skrót treści awatara źródłowego
+     * @param blobKey klucz danych miniatury w magazynie danych binarnych
+     * @param size rozmiar miniatury w bajtach
+     */
+    public AvatarVariant(UUID userId, int dimension, String contentType, String sourceHash, String blobKey, long size) {
+        this.userId = userId;
+        this.dimension = dimension;
+        this.contentType = contentType;
+        this.sourceHash = sourceHash;
+        this.blobKey = blobKey;
+        this.size = size;
+    }
+
+    /**
+     * Zapewnia wygenerowanie identyfikatora UUID przed zapisem.
+     */
+    @PrePersist
+    public void ensureId() {
+        if (this.id == null) this.id = UUID.randomUUID();
+    }
+
+    /**
+     * Pobiera identyfikator miniatury.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Pobiera identyfikator użytkownika.
+     * @return identyfikator UUID
+     */
+    public UUID getUserId() { return userId; }
+
+    /**
+     * Pobiera długość boku miniatury.
+     * @return długość boku w pikselach
+     */
+    public Integer getDimension() { return dimension; }
+
+    /**
+     * Pobiera typ zawartości miniatury.
+     * @return typ MIME
+     */
+    public String getContentType() { return contentType; }
+
+    /**
+     * Pobiera skrót treści awatara źródłowego.
+     * @return skrót w zapisie szesnastkowym
+     */
+    public String getSourceHash() { return sourceHash; }
+
+    /**
+     * Pobiera rozmiar miniatury.
+     * @return rozmiar w bajtach
+     */
+    public Long getSize() { return size; }
+
+    /**
+     * Pobiera dane obrazu miniatury sprzed przeniesienia do magazynu.
+     * @return tablica bajtów lub null
+     */
+    public byte[] getData() { return data; }
+
+    /**
+     * Pobiera klucz danych miniatury w magazynie danych binarnych.
+     * @return klucz obiektu lub null
+     */
+    public String getBlobKey() { return blobKey; }
+}
@@ -0,0 +1,113 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje subskrypcję kalendarza w formacie iCalendar (.ics) dla zewnętrznych aplikacji kalendarzowych.
+ * Dostęp do kanału wymaga jedynie tokena zawartego w adresie. Kanał obejmuje kalendarz właściciela
+ * lub - gdy ustawiono grupę - zajętość członków grupy.
+ */
+@Entity
+@Table(name = "calendar_feeds")
+public class CalendarFeed {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, unique = true)
+    private String token;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /** Grupa, której zajętość obejmuje kanał; null oznacza kalendarz właściciela. */
+    @Column(name = "group_id")
+    private UUID groupId;
+
+    /** Moment ostatniej zmiany treści kanału (źródło nagłówków ETag i Last-Modified). */
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Zapewnia wygenerowanie tokena i ustawienie momentu zmiany przed zapisem.
+     */
+    @PrePersist
+    public void ensureToken() {
+        if (this.token == null) this.token = UUID.randomUUID().toString();
+        if (this.changedAt == null) this.changedAt = Instant.now();
+    }
+
+    /**
+     * Pobiera identyfikator kanału.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Ustawia identyfikator kanału.
+     * @param id identyfikator UUID
+     */
+    public void setId(UUID id) { this.id = id; }
+
+    /**
+     * Pobiera token dostępu do kanału.
+     * @return token
+     */
+    public String getToken() { return token; }
+
+    /**
+     * Ustawia token dostępu do kanału.
+     * @param token token
+     */
+    public void setToken(String token) { this.token = token; }
+
+    /**
+     * Pobiera identyfikator właściciela kanału.
+     * @return identyfikator UUID użytkownika
+     */
+    public UUID getUserId() { return userId; }
+
+    /**
+     * Ustawia identyfikator właściciela kanału.
+     * @param userId identyfikator UUID użytkownika
+     */
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    /**
+     * Pobiera identyfikator grupy kanału.
+     * @return identyfikator UUID grupy lub null dla kalendarza właściciela
+     */
+    public UUID getGroupId() { return groupId; }
+
+    /**
+     * Ustawia identyfikator grupy kanału.
+     * @param groupId identyfikator UUID grupy lub null dla kalendarza właściciela
+     */
+    public void setGroupId(UUID groupId) { this.groupId = groupId; }
+
+    /**
+     * Pobiera moment ostatniej zmiany treści kanału.
+     * @return moment zmiany
+     */
+    public Instant getChangedAt() { return changedAt; }
+
+    /**
+     * Ustawia moment ostatniej zmiany treści kanału.
+     * @param changedAt moment zmiany
+     */
+    public void setChangedAt(Instant changedAt) { this.changedAt = changedAt; }
+
+    /**
+     * Pobiera datę utworzenia kanału.
+     * @return data utworzenia
+     */
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -1,6 +1,8 @@
 package org.example.noteuzbackend.model.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -34,11 +36,28 @@ public class Event {
     private UUID userId;
 
     // ZMIANA: Zamiast jednego UUID, mamy zbiór (Set) UUID
+    // SUBSELECT: notatki wszystkich wydarzeń z jednego zapytania są doczytywane jednym dodatkowym zapytaniem (bez N+1)
     @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "event_notes", joinColumns = @JoinColumn(name = "event_id"))
     @Column(name = "note_id")
     private Set<UUID> noteIds = new HashSet<>();
 
+    /** Reguła powtarzania w składni RRULE; null oznacza pojedyncze wydarzenie. */
+    @Column(name = "recurrence_rule", columnDefinition = "TEXT")
+    private String recurrenceRule;
+
+    /** Koniec ostatniego wystąpienia serii (null dla serii nieskończonej), wyliczany przy zapisie. */
+    @Column(name = "recurrence_end")
+    private LocalDateTime recurrenceEnd;
+
+    /** Momenty rozpoczęcia wystąpień serii, które zostały odwołane. */
+    @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "event_exceptions", joinColumns = @JoinColumn(name = "event_id"))
+    @Column(name = "occurrence_start")
+    private Set<LocalDateTime> exceptions = new HashSet<>();
+
     /**
      * Pobiera identyfikator wydarzenia.
      * @return identyfikator UUID
@@ -122,4 +141,40 @@ public class Event {
      * @param noteIds zbiór identyfikatorów UUID notatek
      */
     public void setNoteIds(Set<UUID> noteIds) { this.noteIds = noteIds; }
-}
\ No newline at end of file
+
+    /**
+     * Pobiera regułę powtarzania wydarzenia.
+     * @return reguła w składni RRULE lub null dla pojedynczego wydarzenia
+     */
+    public String getRecurrenceRule() { return recurrenceRule; }
+
+    /**
+     * Ustawia regułę powtarzania wydarzenia.
+     * @param recurrenceRule reguła w składni RRULE lub null dla pojedynczego wydarzenia
+     */
+    public void setRecurrenceRule(String recurrenceRule) { this.recurrenceRule = recurrenceRule; }
+
+    /**
+     * Pobiera koniec ostatniego wystąpienia serii.
+     * @return data i czas końca ostatniego wystąpienia lub null dla serii nieskończonej
+     */
+    public LocalDateTime getRecurrenceEnd() { return recurrenceEnd; }
+
+    /**
+     * Ustawia koniec ostatniego wystąpienia serii.
+     * @param recurrenceEnd data i czas końca ostatniego wystąpienia lub null dla serii nieskończonej
+     */
+    public void setRecurrenceEnd(LocalDateTime recurrenceEnd) { this.recurrenceEnd = recurrenceEnd; }
+
+    /**
+     * Pobiera momenty rozpoczęcia odwołanych wystąpień serii.
+     * @return zbiór momentów rozpoczęcia
+     */
+    public Set<LocalDateTime> getExceptions() { return exceptions; }
+
+    /**
+     * Ustawia momenty rozpoczęcia odwołanych wystąpień serii.
+     * @param exceptions zbiór momentów rozpoczęcia
+     */
+    public void setExceptions(Set<LocalDateTime> exceptions) { this.exceptions = exceptions; }
+}
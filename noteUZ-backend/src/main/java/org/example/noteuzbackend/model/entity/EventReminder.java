@@ -0,0 +1,137 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.example.noteuzbackend.model.enums.ReminderChannel;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reprezentuje przypomnienie o wydarzeniu wysyłane z wyprzedzeniem (np. 15 minut lub 1 dzień przed rozpoczęciem).
+ * Dla serii powtarzających się przypomnienie dotyczy każdego wystąpienia; termin najbliższego wysłania
+ * jest przechowywany w {@code nextFireAt} i przeliczany po każdym wysłaniu oraz zmianie wydarzenia.
+ */
+@Entity
+@Table(name = "event_reminders")
+public class EventReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "offset_minutes", nullable = false)
+    private int offsetMinutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReminderChannel channel;
+
+    /** Termin najbliższego wysłania; null, jeśli wydarzenie nie ma już przyszłych wystąpień. */
+    @Column(name = "next_fire_at")
+    private LocalDateTime nextFireAt;
+
+    /** Termin ostatniego wysłanego przypomnienia (chroni przed ponownym wysłaniem dla tego samego wystąpienia). */
+    @Column(name = "last_fire_at")
+    private LocalDateTime lastFireAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Pobiera identyfikator przypomnienia.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Ustawia identyfikator przypomnienia.
+     * @param id identyfikator UUID
+     */
+    public void setId(UUID id) { this.id = id; }
+
+    /**
+     * Pobiera identyfikator wydarzenia.
+     * @return identyfikator UUID wydarzenia
+     */
+    public UUID getEventId() { return eventId; }
+
+    /**
+     * Ustawia identyfikator wydarzenia.
+     * @param eventId identyfikator UUID wydarzenia
+     */
+    public void setEventId(UUID eventId) { this.eventId = eventId; }
+
+    /**
+     * Pobiera identyfikator użytkownika otrzymującego przypomnienie.
+     * @return identyfikator UUID użytkownika
+     */
+    public UUID getUserId() { return userId; }
+
+    /**
+     * Ustawia identyfikator użytkownika otrzymującego przypomnienie.
+     * @param userId identyfikator UUID użytkownika
+     */
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    /**
+     * Pobiera wyprzedzenie przypomnienia względem rozpoczęcia wydarzenia.
+     * @return wyprzedzenie w minutach
+     */
+    public int getOffsetMinutes() { return offsetMinutes; }
+
+    /**
+     * Ustawia wyprzedzenie przypomnienia względem rozpoczęcia wydarzenia.
+     * @param offsetMinutes wyprzedzenie w minutach
+     */
+    public void setOffsetMinutes(int offsetMinutes) { this.offsetMinutes = offsetMinutes; }
+
+    /**
+     * Pobiera kanał dostarczenia przypomnienia.
+     * @return kanał
+     */
+    public ReminderChannel getChannel() { return channel; }
+
+    /**
+     * Ustawia kanał dostarczenia przypomnienia.
+     * @param channel kanał
+     */
+    public void setChannel(ReminderChannel channel) { this.channel = channel; }
+
+    /**
+     * Pobiera termin najbliższego wysłania.
+     * @return data i czas wysłania lub null, jeśli nie ma przyszłych wystąpień
+     */
+    public LocalDateTime getNextFireAt() { return nextFireAt; }
+
+    /**
+     * Ustawia termin najbliższego wysłania.
+     * @param nextFireAt data i czas wysłania lub null
+     */
+    public void setNextFireAt(LocalDateTime nextFireAt) { this.nextFireAt = nextFireAt; }
+
+    /**
+     * Pobiera termin ostatniego wysłanego przypomnienia.
+     * @return data i czas lub null, jeśli przypomnienie nie było jeszcze wysłane
+     */
+    public LocalDateTime getLastFireAt() { return lastFireAt; }
+
+    /**
+     * Ustawia termin ostatniego wysłanego przypomnienia.
+     * @param lastFireAt data i czas
+     */
+    public void setLastFireAt(LocalDateTime lastFireAt) { this.lastFireAt = lastFireAt; }
+
+    /**
+     * Pobiera datę utworzenia przypomnienia.
+     * @return data utworzenia
+     */
+    public Instant getCreatedAt() { return createdAt; }
+}
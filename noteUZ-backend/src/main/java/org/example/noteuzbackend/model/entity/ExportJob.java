@@ -0,0 +1,205 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.example.noteuzbackend.model.enums.ExportJobStatus;
+import org.example.noteuzbackend.model.enums.PdfExportFormat;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje zadanie eksportu notatek grupy do PDF wykonywane w tle. Gotowy plik jest przechowywany
+ * w magazynie danych binarnych do czasu wygaśnięcia zadania.
+ */
+@Entity
+@Table(name = "export_jobs", schema = "public")
+public class ExportJob {
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "group_id", nullable = false)
+    private UUID groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PdfExportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExportJobStatus status = ExportJobStatus.PENDING;
+
+    @Column(name = "total_notes", nullable = false)
+    private int totalNotes;
+
+    @Column(name = "done_notes", nullable = false)
+    private int doneNotes = 0;
+
+    @Column(nullable = false)
+    private long pages = 0;
+
+    /** Klucz gotowego pliku w magazynie danych binarnych (po zakończeniu zadania). */
+    @Column(name = "blob_key")
+    private String blobKey;
+
+    @Column(name = "size_bytes")
+    private Long size;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /**
+     * Zapewnia wygenerowanie identyfikatora UUID przed zapisem.
+     */
+    @PrePersist
+    public void ensureId() {
+        if (this.id == null) this.id = UUID.randomUUID();
+    }
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public ExportJob() {}
+
+    /**
+     * Konstruktor tworzący nowe zadanie eksportu.
+     * @param userId identyfikator zlecającego eksport
+     * @param groupId identyfikator eksportowanej grupy
+     * @param format format pliku eksportu
+     * @param totalNotes liczba notatek grupy w chwili zlecenia
+     */
+    public ExportJob(UUID userId, UUID groupId, PdfExportFormat format, int totalNotes) {
+        this.userId = userId;
+        this.groupId = groupId;
+        this.format = format;
+        this.totalNotes = totalNotes;
+    }
+
+    /**
+     * @return identyfikator zadania
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * @return identyfikator zlecającego eksport
+     */
+    public UUID getUserId() { return userId; }
+
+    /**
+     * @return identyfikator eksportowanej grupy
+     */
+    public UUID getGroupId() { return groupId; }
+
+    /**
+     * @return format pliku eksportu
+     */
+    public PdfExportFormat getFormat() { return format; }
+
+    /**
+     * @return stan zadania
+     */
+    public ExportJobStatus getStatus() { return status; }
+
+    /**
+     * @param status nowy stan zadania
+     */
+    public void setStatus(ExportJobStatus status) { this.status = status; }
+
+    /**
+     * @return liczba eksportowanych notatek
+     */
+    public int getTotalNotes() { return totalNotes; }
+
+    /**
+     * @param totalNotes liczba eksportowanych notatek
+     */
+    public void setTotalNotes(int totalNotes) { this.totalNotes = totalNotes; }
+
+    /**
+     * @return liczba notatek zapisanych do pliku eksportu
+     */
+    public int getDoneNotes() { return doneNotes; }
+
+    /**
+     * @param doneNotes liczba notatek zapisanych do pliku eksportu
+     */
+    public void setDoneNotes(int doneNotes) { this.doneNotes = doneNotes; }
+
+    /**
+     * @return łączna liczba stron eksportowanych dokumentów
+     */
+    public long getPages() { return pages; }
+
+    /**
+     * @param pages łączna liczba stron eksportowanych dokumentów
+     */
+    public void setPages(long pages) { this.pages = pages; }
+
+    /**
+     * @return klucz gotowego pliku w magazynie danych binarnych lub null
+     */
+    public String getBlobKey() { return blobKey; }
+
+    /**
+     * @param blobKey klucz gotowego pliku w magazynie danych binarnych
+     */
+    public void setBlobKey(String blobKey) { this.blobKey = blobKey; }
+
+    /**
+     * @return rozmiar gotowego pliku w bajtach lub null
+     */
+    public Long getSize() { return size; }
+
+    /**
+     * @param size rozmiar gotowego pliku w bajtach
+     */
+    public void setSize(Long size) { this.size = size; }
+
+    /**
+     * @return opis błędu lub null
+     */
+    public String getError() { return error; }
+
+    /**
+     * @param error opis błędu
+     */
+    public void setError(String error) { this.error = error; }
+
+    /**
+     * @return data utworzenia zadania
+     */
+    public Instant getCreatedAt() { return createdAt; }
+
+    /**
+     * @return data ostatniej aktualizacji postępu
+     */
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    /**
+     * @param updatedAt data ostatniej aktualizacji postępu
+     */
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * @return data zakończenia zadania lub null
+     */
+    public Instant getFinishedAt() { return finishedAt; }
+
+    /**
+     * @param finishedAt data zakończenia zadania
+     */
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -18,6 +18,7 @@ public class Friendship {
     private UUID requesterId;
     private String requesterEmail;
     private String addresseeEmail;
+    private UUID addresseeId; // null, jeśli adresat nie ma jeszcze konta
     private String status; // PENDING, ACCEPTED
 
     @CreationTimestamp
@@ -56,6 +57,18 @@ public class Friendship {
      */
     public void setRequesterId(UUID requesterId) { this.requesterId = requesterId; }
 
+    /**
+     * Pobiera identyfikator adresata zaproszenia.
+     * @return identyfikator UUID adresata (null, jeśli adresat nie ma konta)
+     */
+    public UUID getAddresseeId() { return addresseeId; }
+
+    /**
+     * Ustawia identyfikator adresata zaproszenia.
+     * @param addresseeId identyfikator UUID adresata
+     */
+    public void setAddresseeId(UUID addresseeId) { this.addresseeId = addresseeId; }
+
     /**
      * Pobiera email użytkownika wysyłającego zaproszenie.
      * @return email wysyłającego
@@ -0,0 +1,77 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.example.noteuzbackend.model.enums.AuditAction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje wpis dziennika audytu akcji moderacyjnych.
+ * Tabela jest tylko do dopisywania (partycjonowana miesięcznie po created_at) - wpisy zapisuje
+ * wsadowo {@link org.example.noteuzbackend.service.ModerationAuditLog}, encja służy wyłącznie do odczytu.
+ */
+@Entity
+@Table(name = "moderation_audit_log")
+public class ModerationAuditEntry {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "actor_id", updatable = false)
+    private UUID actorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private AuditAction action;
+
+    @Column(name = "target_id", updatable = false)
+    private UUID targetId;
+
+    @Column(columnDefinition = "TEXT", updatable = false)
+    private String details;
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public ModerationAuditEntry() {}
+
+    /**
+     * Pobiera identyfikator wpisu.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Pobiera moment wykonania akcji.
+     * @return czas wykonania akcji
+     */
+    public Instant getCreatedAt() { return createdAt; }
+
+    /**
+     * Pobiera identyfikator wykonującego akcję.
+     * @return identyfikator moderatora/administratora
+     */
+    public UUID getActorId() { return actorId; }
+
+    /**
+     * Pobiera rodzaj akcji.
+     * @return rodzaj akcji
+     */
+    public AuditAction getAction() { return action; }
+
+    /**
+     * Pobiera identyfikator obiektu akcji.
+     * @return identyfikator użytkownika, notatki lub grupy
+     */
+    public UUID getTargetId() { return targetId; }
+
+    /**
+     * Pobiera dodatkowe informacje o akcji.
+     * @return dodatkowe informacje (może być null)
+     */
+    public String getDetails() { return details; }
+}
@@ -0,0 +1,120 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje plik dołączony do notatki. Dane pliku są przechowywane w magazynie danych binarnych
+ * pod kluczem będącym skrótem treści - identyczne pliki dołączone do wielu notatek są przechowywane raz.
+ */
+@Entity
+@Table(name = "note_attachments")
+public class NoteAttachment {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "note_id", nullable = false)
+    private UUID noteId;
+
+    @Column(name = "uploaded_by")
+    private UUID uploadedBy;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long size;
+
+    /** Klucz danych pliku w magazynie danych binarnych (skrót SHA-256 treści). */
+    @Column(name = "blob_key", nullable = false)
+    private String blobKey;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public NoteAttachment() {}
+
+    /**
+     * Konstruktor tworzący załącznik notatki.
+     * @param noteId identyfikator notatki
+     * @param uploadedBy identyfikator użytkownika, który przesłał plik
+     * @param fileName nazwa pliku
+     * @param contentType typ MIME pliku
+     * @param blobKey klucz danych pliku w magazynie danych binarnych
+     * @param size rozmiar pliku w bajtach
+     */
+    public NoteAttachment(UUID noteId, UUID uploadedBy, String fileName, String contentType, String blobKey, long size) {
+        this.noteId = noteId;
+        this.uploadedBy = uploadedBy;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.blobKey = blobKey;
+        this.size = size;
+    }
+
+    /**
+     * Zapewnia wygenerowanie identyfikatora UUID przed zapisem.
+     */
+    @PrePersist
+    public void ensureId() {
+        if (this.id == null) this.id = UUID.randomUUID();
+    }
+
+    /**
+     * Pobiera identyfikator załącznika.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Pobiera identyfikator notatki.
+     * @return identyfikator UUID
+     */
+    public UUID getNoteId() { return noteId; }
+
+    /**
+     * Pobiera identyfikator użytkownika, który przesłał plik.
+     * @return identyfikator UUID
+     */
+    public UUID getUploadedBy() { return uploadedBy; }
+
+    /**
+     * Pobiera nazwę pliku.
+     * @return nazwa pliku
+     */
+    public String getFileName() { return fileName; }
+
+    /**
+     * Pobiera typ zawartości pliku.
+     * @return typ MIME
+     */
+    public String getContentType() { return contentType; }
+
+    /**
+     * Pobiera rozmiar pliku.
+     * @return rozmiar w bajtach
+     */
+    public Long getSize() { return size; }
+
+    /**
+     * Pobiera klucz danych pliku w magazynie danych binarnych.
+     * @return klucz obiektu
+     */
+    public String getBlobKey() { return blobKey; }
+
+    /**
+     * Pobiera znacznik czasu dołączenia pliku.
+     * @return czas utworzenia
+     */
+    public Instant getCreatedAt() { return createdAt; }
+}
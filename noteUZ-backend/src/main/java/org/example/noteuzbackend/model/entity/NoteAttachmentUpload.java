@@ -0,0 +1,103 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje trwające przesyłanie załącznika notatki w częściach. Odebrane dane są w pliku roboczym
+ * magazynu danych binarnych (identyfikator przesyłania jest identyfikatorem tego pliku), a wiersz przechowuje
+ * zadeklarowane metadane pliku, które są sprawdzane przy każdym fragmencie.
+ */
+@Entity
+@Table(name = "note_attachment_uploads")
+public class NoteAttachmentUpload {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "note_id", nullable = false)
+    private UUID noteId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    /** Zadeklarowany rozmiar całego pliku. */
+    @Column(name = "size_bytes", nullable = false)
+    private Long size;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public NoteAttachmentUpload() {}
+
+    /**
+     * Konstruktor tworzący przesyłanie.
+     * @param noteId identyfikator notatki
+     * @param userId identyfikator użytkownika przesyłającego plik
+     * @param fileName nazwa pliku
+     * @param contentType typ MIME pliku
+     * @param size zadeklarowany rozmiar pliku w bajtach
+     */
+    public NoteAttachmentUpload(UUID noteId, UUID userId, String fileName, String contentType, long size) {
+        this.id = UUID.randomUUID();
+        this.noteId = noteId;
+        this.userId = userId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    /**
+     * Pobiera identyfikator przesyłania.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Pobiera identyfikator notatki.
+     * @return identyfikator UUID
+     */
+    public UUID getNoteId() { return noteId; }
+
+    /**
+     * Pobiera identyfikator użytkownika przesyłającego plik.
+     * @return identyfikator UUID
+     */
+    public UUID getUserId() { return userId; }
+
+    /**
+     * Pobiera nazwę pliku.
+     * @return nazwa pliku
+     */
+    public String getFileName() { return fileName; }
+
+    /**
+     * Pobiera typ zawartości pliku.
+     * @return typ MIME
+     */
+    public String getContentType() { return contentType; }
+
+    /**
+     * Pobiera zadeklarowany rozmiar pliku.
+     * @return rozmiar w bajtach
+     */
+    public Long getSize() { return size; }
+
+    /**
+     * Pobiera znacznik czasu rozpoczęcia przesyłania.
+     * @return czas utworzenia
+     */
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,88 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reprezentuje wyrenderowany dokument PDF notatki (pamięć podręczna eksportu). Dokument jest aktualny, dopóki
+ * data modyfikacji notatki jest równa {@link #getNoteUpdatedAt()}; dane dokumentu są w magazynie danych binarnych.
+ */
+@Entity
+@Table(name = "note_pdf_cache")
+public class NotePdf {
+
+    @Id
+    @Column(name = "note_id")
+    private UUID noteId;
+
+    /** Data modyfikacji notatki, z której powstał dokument. */
+    @Column(name = "note_updated_at", nullable = false)
+    private LocalDateTime noteUpdatedAt;
+
+    /** Klucz danych dokumentu w magazynie danych binarnych (skrót SHA-256 treści). */
+    @Column(name = "blob_key", nullable = false)
+    private String blobKey;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long size;
+
+    @Column(nullable = false)
+    private int pages;
+
+    @Column(name = "rendered_at", nullable = false)
+    private Instant renderedAt;
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public NotePdf() {}
+
+    /**
+     * Konstruktor tworzący wpis pamięci podręcznej.
+     * @param noteId identyfikator notatki
+     * @param noteUpdatedAt data modyfikacji notatki, z której powstał dokument
+     * @param blobKey klucz danych dokumentu w magazynie danych binarnych
+     * @param size rozmiar dokumentu w bajtach
+     * @param pages liczba stron dokumentu
+     */
+    public NotePdf(UUID noteId, LocalDateTime noteUpdatedAt, String blobKey, long size, int pages) {
+        this.noteId = noteId;
+        this.noteUpdatedAt = noteUpdatedAt;
+        this.blobKey = blobKey;
+        this.size = size;
+        this.pages = pages;
+        this.renderedAt = Instant.now();
+    }
+
+    /**
+     * @return identyfikator notatki
+     */
+    public UUID getNoteId() { return noteId; }
+
+    /**
+     * @return data modyfikacji notatki, z której powstał dokument
+     */
+    public LocalDateTime getNoteUpdatedAt() { return noteUpdatedAt; }
+
+    /**
+     * @return klucz danych dokumentu w magazynie danych binarnych
+     */
+    public String getBlobKey() { return blobKey; }
+
+    /**
+     * @return rozmiar dokumentu w bajtach
+     */
+    public long getSize() { return size; }
+
+    /**
+     * @return liczba stron dokumentu
+     */
+    public int getPages() { return pages; }
+
+    /**
+     * @return data wyrenderowania dokumentu
+     */
+    public Instant getRenderedAt() { return renderedAt; }
+}
@@ -0,0 +1,214 @@
+package org.example.noteuzbackend.model.entity;
+
+import jakarta.persistence.*;
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reprezentuje zadanie kaskadowego usuwania danych (użytkownika, grupy lub notatki).
+ * Przechowuje numer i nazwę bieżącego kroku oraz postęp, dzięki czemu przerwane zadanie jest wznawiane od miejsca
+ * przerwania (wg nazwy kroku).
+ */
+@Entity
+@Table(name = "purge_jobs", schema = "public")
+public class PurgeJob {
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false)
+    private PurgeTarget targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private UUID targetId;
+
+    @Column(name = "requested_by")
+    private UUID requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PurgeStatus status = PurgeStatus.PENDING;
+
+    @Column(name = "step_index", nullable = false)
+    private int stepIndex = 0;
+
+    @Column(name = "step_name")
+    private String stepName;
+
+    @Column(name = "total_steps", nullable = false)
+    private int totalSteps;
+
+    @Column(name = "deleted_rows", nullable = false)
+    private long deletedRows = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /**
+     * Zapewnia wygenerowanie identyfikatora UUID przed zapisem.
+     */
+    @PrePersist
+    public void ensureId() {
+        if (this.id == null) this.id = UUID.randomUUID();
+    }
+
+    /**
+     * Konstruktor domyślny.
+     */
+    public PurgeJob() {}
+
+    /**
+     * Konstruktor tworzący nowe zadanie czyszczenia.
+     * @param targetType rodzaj usuwanego obiektu
+     * @param targetId identyfikator usuwanego obiektu
+     * @param requestedBy identyfikator administratora/moderatora zlecającego usunięcie
+     * @param totalSteps liczba kroków planu usuwania
+     */
+    public PurgeJob(PurgeTarget targetType, UUID targetId, UUID requestedBy, int totalSteps) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.requestedBy = requestedBy;
+        this.totalSteps = totalSteps;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Pobiera identyfikator zadania.
+     * @return identyfikator UUID
+     */
+    public UUID getId() { return id; }
+
+    /**
+     * Pobiera rodzaj usuwanego obiektu.
+     * @return rodzaj obiektu
+     */
+    public PurgeTarget getTargetType() { return targetType; }
+
+    /**
+     * Pobiera identyfikator usuwanego obiektu.
+     * @return identyfikator obiektu
+     */
+    public UUID getTargetId() { return targetId; }
+
+    /**
+     * Pobiera identyfikator zlecającego usunięcie.
+     * @return identyfikator użytkownika
+     */
+    public UUID getRequestedBy() { return requestedBy; }
+
+    /**
+     * Pobiera stan zadania.
+     * @return stan zadania
+     */
+    public PurgeStatus getStatus() { return status; }
+
+    /**
+     * Ustawia stan zadania.
+     * @param status nowy stan zadania
+     */
+    public void setStatus(PurgeStatus status) { this.status = status; }
+
+    /**
+     * Pobiera numer bieżącego kroku (liczony od zera).
+     * @return numer kroku
+     */
+    public int getStepIndex() { return stepIndex; }
+
+    /**
+     * Ustawia numer bieżącego kroku.
+     * @param stepIndex numer kroku
+     */
+    public void setStepIndex(int stepIndex) { this.stepIndex = stepIndex; }
+
+    /**
+     * Pobiera nazwę bieżącego kroku.
+     * @return nazwa kroku
+     */
+    public String getStepName() { return stepName; }
+
+    /**
+     * Ustawia nazwę bieżącego kroku.
+     * @param stepName nazwa kroku
+     */
+    public void setStepName(String stepName) { this.stepName = stepName; }
+
+    /**
+     * Pobiera liczbę kroków planu usuwania.
+     * @return liczba kroków
+     */
+    public int getTotalSteps() { return totalSteps; }
+
+    /**
+     * Ustawia liczbę kroków planu usuwania (plan mógł zmienić się od utworzenia zadania).
+     * @param totalSteps liczba kroków
+     */
+    public void setTotalSteps(int totalSteps) { this.totalSteps = totalSteps; }
+
+    /**
+     * Pobiera łączną liczbę usuniętych wierszy.
+     * @return liczba usuniętych wierszy
+     */
+    public long getDeletedRows() { return deletedRows; }
+
+    /**
+     * Ustawia łączną liczbę usuniętych wierszy.
+     * @param deletedRows liczba usuniętych wierszy
+     */
+    public void setDeletedRows(long deletedRows) { this.deletedRows = deletedRows; }
+
+    /**
+     * Pobiera opis ostatniego błędu.
+     * @return opis błędu (może być null)
+     */
+    public String getError() { return error; }
+
+    /**
+     * Ustawia opis ostatniego błędu.
+     * @param error opis błędu
+     */
+    public void setError(String error) { this.error = error; }
+
+    /**
+     * Pobiera datę utworzenia zadania.
+     * @return data utworzenia
+     */
+    public Instant getCreatedAt() { return createdAt; }
+
+    /**
+     * Pobiera datę ostatniej aktualizacji postępu.
+     * @return data aktualizacji
+     */
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    /**
+     * Ustawia datę ostatniej aktualizacji postępu.
+     * @param updatedAt data aktualizacji
+     */
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * Pobiera datę zakończenia zadania.
+     * @return data zakończenia (null, jeśli zadanie trwa)
+     */
+    public Instant getFinishedAt() { return finishedAt; }
+
+    /**
+     * Ustawia datę zakończenia zadania.
+     * @param finishedAt data zakończenia
+     */
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
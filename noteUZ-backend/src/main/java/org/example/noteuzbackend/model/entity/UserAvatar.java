@@ -1,14 +1,16 @@
 package org.example.noteuzbackend.model.entity;
 
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.util.UUID;
 
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 /**
- * Reprezentuje awatar użytkownika przechowywany w bazie danych.
- * Zawiera dane binarne obrazu oraz informacje o jego typie (MIME type).
+ * Reprezentuje awatar użytkownika.
+ * Dane obrazu są przechowywane w magazynie danych binarnych (BlobStore) pod kluczem {@code blobKey};
+ * kolumna {@code data} zawiera jedynie awatary sprzed przeniesienia do magazynu.
  */
 @Entity
 @Table(name = "user_avatars")
@@ -17,6 +19,7 @@ public class UserAvatar {
     @Id
     private UUID userId; // Klucz główny to ID użytkownika (relacja 1:1)
 
+    /** Dane obrazu awatarów sprzed przeniesienia do magazynu (null po przeniesieniu). */
     @Lob // Oznacza duży obiekt binarny (BLOB)
     @JdbcTypeCode(SqlTypes.VARBINARY) // <--- TO JEST KLUCZOWE
     @Column(name = "data", columnDefinition="bytea") // bytea dla PostgreSQL
@@ -24,6 +27,21 @@ public class UserAvatar {
 
     private String contentType; // np. image/jpeg, image/png
 
+    /** Skrót SHA-256 treści (hex) - źródło nagłówka ETag i wersji w adresie awatara. */
+    @Column(name = "content_hash")
+    private String contentHash;
+
+    /** Rozmiar obrazu w bajtach (nagłówek Content-Length bez wczytywania danych). */
+    @Column(name = "size_bytes")
+    private Long size;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    /** Klucz danych obrazu w magazynie danych binarnych (skrót SHA-256 treści) lub null dla awatara w kolumnie data. */
+    @Column(name = "blob_key")
+    private String blobKey;
+
     /**
      * Konstruktor domyślny.
      */
@@ -76,4 +94,52 @@ public class UserAvatar {
      * @param contentType typ MIME obrazu
      */
     public void setContentType(String contentType) { this.contentType = contentType; }
-}
\ No newline at end of file
+
+    /**
+     * Pobiera skrót SHA-256 treści awatara.
+     * @return skrót w zapisie szesnastkowym
+     */
+    public String getContentHash() { return contentHash; }
+
+    /**
+     * Ustawia skrót SHA-256 treści awatara.
+     * @param contentHash skrót w zapisie szesnastkowym
+     */
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    /**
+     * Pobiera rozmiar awatara.
+     * @return rozmiar w bajtach
+     */
+    public Long getSize() { return size; }
+
+    /**
+     * Ustawia rozmiar awatara.
+     * @param size rozmiar w bajtach
+     */
+    public void setSize(Long size) { this.size = size; }
+
+    /**
+     * Pobiera moment ostatniej zmiany awatara.
+     * @return moment zmiany
+     */
+    public Instant getUpdatedAt() { return updatedAt; }
+
+    /**
+     * Ustawia moment ostatniej zmiany awatara.
+     * @param updatedAt moment zmiany
+     */
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * Pobiera klucz danych obrazu w magazynie danych binarnych.
+     * @return klucz obiektu lub null
+     */
+    public String getBlobKey() { return blobKey; }
+
+    /**
+     * Ustawia klucz danych obrazu w magazynie danych binarnych.
+     * @param blobKey klucz obiektu
+     */
+    public void setBlobKey(String blobKey) { this.blobKey = blobKey; }
+}
@@ -0,0 +1,27 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje rodzaje akcji moderacyjnych zapisywanych w dzienniku audytu.
+ */
+public enum AuditAction {
+    /** Zablokowanie użytkownika */
+    BAN,
+    /** Odblokowanie użytkownika */
+    UNBAN,
+    /** Nadanie ostrzeżenia */
+    WARN,
+    /** Cofnięcie ostrzeżenia */
+    UNWARN,
+    /** Nadanie rangi moderatora */
+    PROMOTE,
+    /** Degradacja do rangi użytkownika */
+    DEMOTE,
+    /** Usunięcie konta użytkownika */
+    DELETE_USER,
+    /** Usunięcie notatki */
+    DELETE_NOTE,
+    /** Usunięcie grupy */
+    DELETE_GROUP,
+    /** Usunięcie wszystkich notatek autora */
+    DELETE_USER_NOTES
+}
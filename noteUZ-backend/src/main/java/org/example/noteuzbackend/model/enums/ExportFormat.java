@@ -0,0 +1,33 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje formaty eksportu danych z panelu administracyjnego.
+ */
+public enum ExportFormat {
+    /** Wartości rozdzielone przecinkami, pierwszy wiersz zawiera nagłówki kolumn */
+    CSV("text/csv", "csv"),
+    /** Jeden obiekt JSON w każdej linii (newline-delimited JSON) */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * @return typ MIME odpowiedzi dla danego formatu
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return rozszerzenie pliku dla danego formatu
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje stan zadania eksportu notatek do PDF.
+ */
+public enum ExportJobStatus {
+    /** Zadanie oczekuje na uruchomienie */
+    PENDING,
+    /** Zadanie jest w trakcie wykonywania (przerwane przez restart jest wykonywane od początku) */
+    RUNNING,
+    /** Plik eksportu jest gotowy do pobrania */
+    COMPLETED,
+    /** Zadanie zakończyło się błędem */
+    FAILED
+}
@@ -0,0 +1,33 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje formaty eksportu notatek grupy do PDF.
+ */
+public enum PdfExportFormat {
+    /** Jeden dokument PDF ze wszystkimi notatkami (zakładka dla każdej notatki) */
+    PDF("application/pdf", "pdf"),
+    /** Archiwum ZIP z osobnym dokumentem PDF dla każdej notatki */
+    ZIP("application/zip", "zip");
+
+    private final String contentType;
+    private final String extension;
+
+    PdfExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * @return typ MIME odpowiedzi dla danego formatu
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return rozszerzenie pliku dla danego formatu
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
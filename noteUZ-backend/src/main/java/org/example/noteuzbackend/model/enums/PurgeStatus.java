@@ -0,0 +1,15 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje stan zadania czyszczenia danych.
+ */
+public enum PurgeStatus {
+    /** Zadanie oczekuje na uruchomienie */
+    PENDING,
+    /** Zadanie jest w trakcie wykonywania (lub zostało przerwane i zostanie wznowione) */
+    RUNNING,
+    /** Wszystkie dane zostały usunięte */
+    COMPLETED,
+    /** Zadanie zakończyło się błędem i może zostać wznowione */
+    FAILED
+}
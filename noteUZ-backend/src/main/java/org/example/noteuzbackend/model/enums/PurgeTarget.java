@@ -0,0 +1,15 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje rodzaj obiektu usuwanego przez zadanie czyszczenia danych.
+ */
+public enum PurgeTarget {
+    /** Konto użytkownika wraz z jego notatkami, głosami, udostępnieniami i członkostwami */
+    USER,
+    /** Grupa wraz z notatkami grupowymi, zaproszeniami i członkami */
+    GROUP,
+    /** Pojedyncza notatka wraz z głosami i udostępnieniami */
+    NOTE,
+    /** Wszystkie notatki autora wraz z głosami i udostępnieniami (konto autora pozostaje) */
+    AUTHOR_NOTES
+}
@@ -0,0 +1,11 @@
+package org.example.noteuzbackend.model.enums;
+
+/**
+ * Reprezentuje kanały dostarczania przypomnień o wydarzeniach.
+ */
+public enum ReminderChannel {
+    /** Wiadomość email na adres użytkownika */
+    EMAIL,
+    /** Powiadomienie push do otwartych sesji aplikacji (Server-Sent Events) */
+    PUSH
+}
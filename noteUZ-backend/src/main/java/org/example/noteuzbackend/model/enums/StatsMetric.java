@@ -0,0 +1,40 @@
+package org.example.noteuzbackend.model.enums;
+
+import org.example.noteuzbackend.model.entity.NoteShare;
+
+/**
+ * Reprezentuje liczniki statystyk systemowych prezentowanych w panelu administracyjnym.
+ */
+public enum StatsMetric {
+    /** Liczba kont użytkowników */
+    USERS,
+    /** Liczba zablokowanych użytkowników */
+    BANNED_USERS,
+    /** Liczba notatek */
+    NOTES,
+    /** Liczba grup */
+    GROUPS,
+    /** Liczba członkostw w grupach */
+    GROUP_MEMBERS,
+    /** Liczba głosów oddanych na notatki */
+    VOTES,
+    /** Liczba udostępnień oczekujących na akceptację */
+    SHARES_PENDING,
+    /** Liczba zaakceptowanych udostępnień */
+    SHARES_ACCEPTED,
+    /** Liczba odrzuconych udostępnień */
+    SHARES_REJECTED;
+
+    /**
+     * Zwraca licznik udostępnień odpowiadający statusowi udostępnienia.
+     * @param status status udostępnienia
+     * @return licznik statystyk
+     */
+    public static StatsMetric forShareStatus(NoteShare.ShareStatus status) {
+        return switch (status) {
+            case PENDING -> SHARES_PENDING;
+            case ACCEPTED -> SHARES_ACCEPTED;
+            case REJECTED -> SHARES_REJECTED;
+        };
+    }
+}
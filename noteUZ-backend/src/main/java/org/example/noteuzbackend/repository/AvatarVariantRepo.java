@@ -0,0 +1,33 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.model.entity.AvatarVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji AvatarVariant.
+ */
+public interface AvatarVariantRepo extends JpaRepository<AvatarVariant, UUID> {
+    /**
+     * Pobiera metadane aktualnej miniatury awatara (wygenerowanej z bieżącego awatara) bez danych obrazu.
+     * @param userId identyfikator użytkownika
+     * @param dimension długość boku miniatury
+     * @return metadane miniatury lub pusty Optional, jeśli miniatura nie jest jeszcze gotowa
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AvatarMetaDTO(v.userId, v.contentType, v.sourceHash, v.size, v.dimension, v.blobKey) " +
+            "FROM AvatarVariant v, UserAvatar a " +
+            "WHERE v.userId = :userId AND v.dimension = :dimension AND a.userId = v.userId AND a.contentHash = v.sourceHash")
+    Optional<AvatarMetaDTO> findMeta(UUID userId, Integer dimension);
+
+    /**
+     * Usuwa wszystkie miniatury awatara użytkownika.
+     * @param userId identyfikator użytkownika
+     */
+    @Modifying
+    @Query("DELETE FROM AvatarVariant v WHERE v.userId = :userId")
+    void deleteByUserId(UUID userId);
+}
@@ -0,0 +1,26 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.model.entity.CalendarFeed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji CalendarFeed.
+ */
+public interface CalendarFeedRepo extends JpaRepository<CalendarFeed, UUID> {
+    /**
+     * Znajduje kanał na podstawie tokena dostępu.
+     * @param token token z adresu kanału
+     * @return opcjonalny kanał
+     */
+    Optional<CalendarFeed> findByToken(String token);
+
+    /**
+     * Pobiera kanały użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return lista kanałów
+     */
+    List<CalendarFeed> findByUserIdOrderByCreatedAtAsc(UUID userId);
+}
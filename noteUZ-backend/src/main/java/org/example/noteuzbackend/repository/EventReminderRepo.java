@@ -0,0 +1,64 @@
+package org.example.noteuzbackend.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.noteuzbackend.dto.ScheduledReminderDTO;
+import org.example.noteuzbackend.model.entity.EventReminder;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Repozytorium dla encji EventReminder.
+ */
+public interface EventReminderRepo extends JpaRepository<EventReminder, UUID> {
+    /**
+     * Pobiera przypomnienia wydarzenia.
+     * @param eventId identyfikator wydarzenia
+     * @return lista przypomnień
+     */
+    List<EventReminder> findByEventId(UUID eventId);
+
+    /**
+     * Pobiera przypomnienia wydarzenia ustawione przez użytkownika, od największego wyprzedzenia.
+     * @param eventId identyfikator wydarzenia
+     * @param userId identyfikator użytkownika
+     * @return lista przypomnień
+     */
+    List<EventReminder> findByEventIdAndUserIdOrderByOffsetMinutesDesc(UUID eventId, UUID userId);
+
+    /**
+     * Liczy przypomnienia wydarzenia.
+     * @param eventId identyfikator wydarzenia
+     * @return liczba przypomnień
+     */
+    long countByEventId(UUID eventId);
+
+    /**
+     * Usuwa przypomnienia wydarzenia.
+     * @param eventId identyfikator wydarzenia
+     */
+    @Modifying
+    @Query("DELETE FROM EventReminder r WHERE r.eventId = :eventId")
+    void deleteByEventId(UUID eventId);
+
+    /**
+     * Strumieniuje identyfikatory i terminy przypomnień wymagalnych przed podanym momentem
+     * (także zaległych, np. po restarcie aplikacji) do załadowania koła czasowego.
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po użyciu.
+     * @param horizon koniec horyzontu planowania (wyłącznie)
+     * @return strumień terminów przypomnień
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.ScheduledReminderDTO(r.id, r.nextFireAt) " +
+            "FROM EventReminder r WHERE r.nextFireAt < :horizon")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ScheduledReminderDTO> streamDueBefore(LocalDateTime horizon);
+}
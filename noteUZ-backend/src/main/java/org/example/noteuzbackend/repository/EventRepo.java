@@ -1,9 +1,17 @@
 package org.example.noteuzbackend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.noteuzbackend.dto.CalendarFeedRowDTO;
 import org.example.noteuzbackend.model.entity.Event;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium dla encji Event.
@@ -15,4 +23,62 @@ public interface EventRepo extends JpaRepository<Event, UUID> {
      * @return lista wydarzeń
      */
     List<Event> findByUserIdOrderByStartAsc(UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Pobiera wydarzenia użytkownika nachodzące na przedział [from, to), posortowane chronologicznie.
+     * Wydarzenie trwające przez granicę przedziału (np. wielodniowe) również jest zwracane,
+     * podobnie jak serie powtarzające się rozpoczęte przed końcem przedziału i niezakończone przed jego początkiem.
+     * @param userId identyfikator użytkownika
+     * @param from początek przedziału (włącznie)
+     * @param to koniec przedziału (wyłącznie)
+     * @return lista wydarzeń i serii z przedziału
+     */
+    @Query("SELECT e FROM Event e WHERE e.userId = :userId AND e.start < :to AND (e.end > :from " +
+            "OR (e.recurrenceRule IS NOT NULL AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :from))) " +
+            "ORDER BY e.start ASC")
+    List<Event> findInRange(UUID userId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Pobiera wszystkie wydarzenia wskazanych użytkowników jednym zapytaniem (do zbudowania indeksu przedziałów).
+     * @param userIds identyfikatory użytkowników
+     * @return lista wydarzeń
+     */
+    List<Event> findByUserIdIn(Collection<UUID> userIds);
+
+    /**
+     * Strumieniuje wydarzenia użytkownika niezakończone przed podanym momentem (wraz z seriami trwającymi po nim)
+     * do kanału iCalendar. Odwołane wystąpienia serii są dołączane jako kolejne wiersze tego samego wydarzenia.
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po użyciu.
+     * @param userId identyfikator użytkownika
+     * @param from moment, przed którym zakończone wydarzenia są pomijane
+     * @return strumień wierszy uporządkowany według początku i identyfikatora wydarzenia
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.CalendarFeedRowDTO(e.id, e.userId, e.title, e.description, " +
+            "e.start, e.end, e.recurrenceRule, x) FROM Event e LEFT JOIN e.exceptions x " +
+            "WHERE e.userId = :userId AND (e.end > :from " +
+            "OR (e.recurrenceRule IS NOT NULL AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :from))) " +
+            "ORDER BY e.start, e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CalendarFeedRowDTO> streamUserFeed(UUID userId, LocalDateTime from);
+
+    /**
+     * Strumieniuje wydarzenia członków grupy niezakończone przed podanym momentem do kanału iCalendar grupy.
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po użyciu.
+     * @param groupId identyfikator grupy
+     * @param from moment, przed którym zakończone wydarzenia są pomijane
+     * @return strumień wierszy uporządkowany według początku i identyfikatora wydarzenia
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.CalendarFeedRowDTO(e.id, e.userId, e.title, e.description, " +
+            "e.start, e.end, e.recurrenceRule, x) FROM Event e LEFT JOIN e.exceptions x " +
+            "WHERE e.userId IN (SELECT m.userId FROM GroupMember m WHERE m.groupId = :groupId) AND (e.end > :from " +
+            "OR (e.recurrenceRule IS NOT NULL AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :from))) " +
+            "ORDER BY e.start, e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CalendarFeedRowDTO> streamGroupFeed(UUID groupId, LocalDateTime from);
+}
@@ -0,0 +1,45 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.model.entity.ExportJob;
+import org.example.noteuzbackend.model.enums.ExportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji ExportJob.
+ */
+public interface ExportJobRepo extends JpaRepository<ExportJob, UUID> {
+    /**
+     * Pobiera zadania o podanych stanach w kolejności utworzenia.
+     * @param statuses stany zadań
+     * @return lista zadań
+     */
+    List<ExportJob> findByStatusInOrderByCreatedAtAsc(Collection<ExportJobStatus> statuses);
+
+    /**
+     * Pobiera zadanie zlecone przez podanego użytkownika.
+     * @param id identyfikator zadania
+     * @param userId identyfikator zlecającego
+     * @return zadanie lub pusty Optional
+     */
+    Optional<ExportJob> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Zlicza zadania użytkownika o podanych stanach.
+     * @param userId identyfikator zlecającego
+     * @param statuses stany zadań
+     * @return liczba zadań
+     */
+    long countByUserIdAndStatusIn(UUID userId, Collection<ExportJobStatus> statuses);
+
+    /**
+     * Pobiera zadania utworzone przed podaną chwilą.
+     * @param before granica czasu utworzenia
+     * @return lista zadań
+     */
+    List<ExportJob> findByCreatedAtBefore(Instant before);
+}
@@ -1,10 +1,15 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.FriendEdgeDTO;
 import org.example.noteuzbackend.model.entity.Friendship;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium dla encji Friendship.
@@ -26,14 +31,49 @@ public interface FriendshipRepo extends JpaRepository<Friendship, UUID> {
     List<Friendship> findByAddresseeEmail(String addresseeEmail);
 
     /**
-     * Sprawdza czy relacja między dwoma użytkownikami już istnieje.
-     * @param userId identyfikator pierwszego użytkownika
-     * @param userEmail email pierwszego użytkownika
-     * @param targetEmail email drugiego użytkownika
-     * @return lista istniejących relacji
+     * Pobiera wszystkie relacje (wysłane i otrzymane) użytkownika jednym zapytaniem.
+     * @param userId identyfikator użytkownika
+     * @param email adres email użytkownika (dla zaproszeń wysłanych, zanim adresat założył konto)
+     * @return lista relacji znajomości
+     */
+    @Query("SELECT f FROM Friendship f WHERE f.requesterId = :userId OR f.addresseeId = :userId " +
+            "OR (f.addresseeId IS NULL AND f.addresseeEmail = :email)")
+    List<Friendship> findAllInvolving(UUID userId, String email);
+
+    /**
+     * Sprawdza, czy między dwoma użytkownikami istnieje relacja (zaproszenie lub znajomość) w dowolnym kierunku.
+     * Uwzględnia zaproszenia wysłane, zanim adresat założył konto (bez identyfikatora adresata, tylko z adresem email).
+     * @param userA identyfikator pierwszego użytkownika
+     * @param emailA email pierwszego użytkownika
+     * @param userB identyfikator drugiego użytkownika
+     * @param emailB email drugiego użytkownika
+     * @return true, jeśli relacja istnieje
+     */
+    @Query("SELECT COUNT(f) > 0 FROM Friendship f WHERE " +
+            "(f.requesterId = :userA AND (f.addresseeId = :userB OR " +
+            "(f.addresseeId IS NULL AND LOWER(f.addresseeEmail) = LOWER(:emailB)))) OR " +
+            "(f.requesterId = :userB AND (f.addresseeId = :userA OR " +
+            "(f.addresseeId IS NULL AND LOWER(f.addresseeEmail) = LOWER(:emailA))))")
+    boolean existsBetween(UUID userA, String emailA, UUID userB, String emailB);
+
+    /**
+     * Sprawdza, czy użytkownik wysłał już zaproszenie na podany adres email (adresat bez konta).
+     * @param requesterId identyfikator użytkownika wysyłającego
+     * @param addresseeEmail adres email adresata
+     * @return true, jeśli zaproszenie istnieje
+     */
+    boolean existsByRequesterIdAndAddresseeEmailIgnoreCase(UUID requesterId, String addresseeEmail);
+
+    /**
+     * Strumieniuje wszystkie zaakceptowane znajomości (krawędzie grafu znajomych).
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po odczycie.
+     * @return strumień krawędzi grafu
      */
-    @Query("SELECT f FROM Friendship f WHERE " +
-            "(f.requesterId = :userId AND f.addresseeEmail = :targetEmail) OR " +
-            "(f.addresseeEmail = :userEmail AND f.requesterEmail = :targetEmail)")
-    List<Friendship> findExistingRelation(UUID userId, String userEmail, String targetEmail);
-}
\ No newline at end of file
+    @Query("SELECT new org.example.noteuzbackend.dto.FriendEdgeDTO(f.requesterId, f.addresseeId) FROM Friendship f " +
+            "WHERE f.status = 'ACCEPTED' AND f.addresseeId IS NOT NULL")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<FriendEdgeDTO> streamAcceptedEdges();
+}
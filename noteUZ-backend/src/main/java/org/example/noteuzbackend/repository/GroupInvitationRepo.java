@@ -1,7 +1,9 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.GroupInvitationDTO;
 import org.example.noteuzbackend.model.entity.GroupInvitation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,4 +34,15 @@ public interface GroupInvitationRepo extends JpaRepository<GroupInvitation, UUID
      * @return opcjonalny obiekt zaproszenia
      */
     Optional<GroupInvitation> findByIdAndInviteeId(UUID id, UUID inviteeId);
+
+    /**
+     * Pobiera zaproszenia użytkownika wraz z nazwą grupy i osoby zapraszającej jednym zapytaniem.
+     * @param inviteeId identyfikator zapraszanego użytkownika
+     * @return lista projekcji zaproszeń
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.GroupInvitationDTO(i.id, g.id, g.name, COALESCE(u.displayName, 'Użytkownik'), i.createdAt) " +
+            "FROM GroupInvitation i JOIN Group g ON g.id = i.groupId " +
+            "LEFT JOIN AppUser u ON u.id = i.inviterId " +
+            "WHERE i.inviteeId = :inviteeId")
+    List<GroupInvitationDTO> findInvitationDetails(UUID inviteeId);
 }
\ No newline at end of file
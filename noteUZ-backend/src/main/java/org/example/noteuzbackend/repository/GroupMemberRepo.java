@@ -1,11 +1,21 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.GroupMemberDetailsDTO;
+import org.example.noteuzbackend.dto.MembershipEdgeDTO;
+import org.example.noteuzbackend.dto.UserGroupDTO;
 import org.example.noteuzbackend.model.entity.GroupMember;
+import org.example.noteuzbackend.model.enums.GroupRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium dla encji GroupMember.
@@ -40,4 +50,54 @@ public interface GroupMemberRepo extends JpaRepository<GroupMember, UUID> {
      * @return lista powiązań z grupami
      */
     List<GroupMember> findByUserId(UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Pobiera grupy użytkownika wraz z jego rolą jednym zapytaniem łączącym członkostwa z grupami.
+     * @param userId identyfikator użytkownika
+     * @return lista projekcji członkostw w grupach
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.UserGroupDTO(g.id, g.name, COALESCE(g.description, ''), m.role, m.joinedAt) " +
+            "FROM GroupMember m JOIN Group g ON g.id = m.groupId " +
+            "WHERE m.userId = :userId")
+    List<UserGroupDTO> findUserGroups(UUID userId);
+
+    /**
+     * Pobiera stronę członków grupy wraz z ich nazwą i adresem email jednym zapytaniem łączącym z widokiem użytkowników.
+     * @param groupId identyfikator grupy
+     * @param pageable parametry stronicowania (może być niestronicowany)
+     * @return strona projekcji członków grupy
+     */
+    @Query(value = "SELECT new org.example.noteuzbackend.dto.GroupMemberDetailsDTO(m.id, m.groupId, m.userId, m.role, m.joinedAt, " +
+            "COALESCE(u.displayName, 'Użytkownik'), COALESCE(u.email, '')) " +
+            "FROM GroupMember m LEFT JOIN AppUser u ON u.id = m.userId " +
+            "WHERE m.groupId = :groupId",
+            countQuery = "SELECT COUNT(m) FROM GroupMember m WHERE m.groupId = :groupId")
+    Page<GroupMemberDetailsDTO> findMemberDetails(UUID groupId, Pageable pageable);
+
+    /**
+     * Zlicza członków grupy.
+     * @param groupId identyfikator grupy
+     * @return liczba członków grupy
+     */
+    long countByGroupId(UUID groupId);
+
+    /**
+     * Pobiera członkostwa użytkownika o podanej roli.
+     * @param userId identyfikator użytkownika
+     * @param role rola w grupie
+     * @return lista członkostw
+     */
+    List<GroupMember> findByUserIdAndRole(UUID userId, GroupRole role);
+
+    /**
+     * Strumieniuje wszystkie członkostwa w grupach jako pary (grupa, użytkownik) do zbudowania indeksu w pamięci.
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po użyciu.
+     * @return strumień członkostw
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.MembershipEdgeDTO(m.groupId, m.userId) FROM GroupMember m")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<MembershipEdgeDTO> streamMemberships();
+}
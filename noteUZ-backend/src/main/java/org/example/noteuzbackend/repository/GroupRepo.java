@@ -1,11 +1,76 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.AdminGroupDTO;
 import org.example.noteuzbackend.model.entity.Group;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium dla encji Group.
  */
 public interface GroupRepo extends JpaRepository<Group, UUID> {
+
+    /**
+     * Wyszukuje grupy dla panelu administracyjnego jednym zapytaniem agregującym.
+     * Liczba członków, liczba notatek i właściciel wyznaczane są w bazie danych dla grup z bieżącej strony
+     * (przy kilku właścicielach - najdawniej dołączony, aby każda grupa była jednym wierszem zgodnym z countQuery).
+     * @param search wzorzec LIKE (małe litery, znaki specjalne poprzedzone \) dla nazwy lub opisu (null - bez filtra)
+     * @param from początek zakresu daty utworzenia, włącznie (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia, wyłącznie (null - bez ograniczenia)
+     * @param pageable parametry stronicowania i sortowania
+     * @return strona podsumowań grup (bez listy członków)
+     */
+    @Query(value = "SELECT new org.example.noteuzbackend.dto.AdminGroupDTO(g.id, g.name, g.description, " +
+            "COALESCE(ou.displayName, 'Nieznany'), COALESCE(ou.email, ''), " +
+            "(SELECT COUNT(m) FROM GroupMember m WHERE m.groupId = g.id), " +
+            "(SELECT COUNT(n) FROM Note n WHERE n.groupId = g.id), " +
+            "g.createdAt) " +
+            "FROM Group g " +
+            "LEFT JOIN AppUser ou ON ou.id = (SELECT om.userId FROM GroupMember om " +
+            "WHERE om.groupId = g.id AND om.role = org.example.noteuzbackend.model.enums.GroupRole.OWNER " +
+            "ORDER BY om.joinedAt, om.userId LIMIT 1) " +
+            "WHERE (:search IS NULL OR LOWER(g.name) LIKE :search ESCAPE '\\' OR LOWER(g.description) LIKE :search ESCAPE '\\') " +
+            "AND (:from IS NULL OR g.createdAt >= :from) " +
+            "AND (:to IS NULL OR g.createdAt < :to)",
+            countQuery = "SELECT COUNT(g) FROM Group g " +
+                    "WHERE (:search IS NULL OR LOWER(g.name) LIKE :search ESCAPE '\\' OR LOWER(g.description) LIKE :search ESCAPE '\\') " +
+                    "AND (:from IS NULL OR g.createdAt >= :from) " +
+                    "AND (:to IS NULL OR g.createdAt < :to)")
+    Page<AdminGroupDTO> searchAdminGroups(String search, Instant from, Instant to, Pageable pageable);
+
+    /**
+     * Strumieniuje podsumowania grup do eksportu z panelu administracyjnego (kursor jednokierunkowy).
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po odczycie.
+     * @param search wzorzec LIKE (małe litery, znaki specjalne poprzedzone \) dla nazwy lub opisu (null - bez filtra)
+     * @param from początek zakresu daty utworzenia, włącznie (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia, wyłącznie (null - bez ograniczenia)
+     * @return strumień podsumowań grup (bez listy członków)
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AdminGroupDTO(g.id, g.name, g.description, " +
+            "COALESCE(ou.displayName, 'Nieznany'), COALESCE(ou.email, ''), " +
+            "(SELECT COUNT(m) FROM GroupMember m WHERE m.groupId = g.id), " +
+            "(SELECT COUNT(n) FROM Note n WHERE n.groupId = g.id), " +
+            "g.createdAt) " +
+            "FROM Group g " +
+            "LEFT JOIN AppUser ou ON ou.id = (SELECT om.userId FROM GroupMember om " +
+            "WHERE om.groupId = g.id AND om.role = org.example.noteuzbackend.model.enums.GroupRole.OWNER " +
+            "ORDER BY om.joinedAt, om.userId LIMIT 1) " +
+            "WHERE (:search IS NULL OR LOWER(g.name) LIKE :search ESCAPE '\\' OR LOWER(g.description) LIKE :search ESCAPE '\\') " +
+            "AND (:from IS NULL OR g.createdAt >= :from) " +
+            "AND (:to IS NULL OR g.createdAt < :to) " +
+            "ORDER BY g.createdAt, g.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AdminGroupDTO> streamAdminGroups(String search, Instant from, Instant to);
 }
\ No newline at end of file
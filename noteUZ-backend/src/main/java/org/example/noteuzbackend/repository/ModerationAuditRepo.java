@@ -0,0 +1,45 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.dto.AuditLogEntryDTO;
+import org.example.noteuzbackend.model.entity.ModerationAuditEntry;
+import org.example.noteuzbackend.model.enums.AuditAction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Repozytorium (tylko do odczytu) dla dziennika audytu akcji moderacyjnych.
+ */
+public interface ModerationAuditRepo extends JpaRepository<ModerationAuditEntry, UUID> {
+
+    /**
+     * Wyszukuje wpisy dziennika audytu z filtrowaniem i stronicowaniem po stronie bazy danych.
+     * Filtr zakresu dat pozwala bazie danych ograniczyć odczyt do właściwych partycji miesięcznych.
+     * @param actorId filtr wykonującego akcję (null - dowolny)
+     * @param targetId filtr obiektu akcji (null - dowolny)
+     * @param action filtr rodzaju akcji (null - dowolny)
+     * @param from początek zakresu czasu, włącznie (null - bez ograniczenia)
+     * @param to koniec zakresu czasu, wyłącznie (null - bez ograniczenia)
+     * @param pageable parametry stronicowania i sortowania
+     * @return strona wpisów dziennika audytu
+     */
+    @Query(value = "SELECT new org.example.noteuzbackend.dto.AuditLogEntryDTO(a.id, a.createdAt, a.actorId, " +
+            "COALESCE(u.displayName, 'Nieznany'), a.action, a.targetId, a.details) " +
+            "FROM ModerationAuditEntry a LEFT JOIN AppUser u ON u.id = a.actorId " +
+            "WHERE (:actorId IS NULL OR a.actorId = :actorId) " +
+            "AND (:targetId IS NULL OR a.targetId = :targetId) " +
+            "AND (:action IS NULL OR a.action = :action) " +
+            "AND (:from IS NULL OR a.createdAt >= :from) " +
+            "AND (:to IS NULL OR a.createdAt < :to)",
+            countQuery = "SELECT COUNT(a) FROM ModerationAuditEntry a " +
+                    "WHERE (:actorId IS NULL OR a.actorId = :actorId) " +
+                    "AND (:targetId IS NULL OR a.targetId = :targetId) " +
+                    "AND (:action IS NULL OR a.action = :action) " +
+                    "AND (:from IS NULL OR a.createdAt >= :from) " +
+                    "AND (:to IS NULL OR a.createdAt < :to)")
+    Page<AuditLogEntryDTO> search(UUID actorId, UUID targetId, AuditAction action, Instant from, Instant to, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.model.entity.NoteAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji NoteAttachment.
+ */
+public interface NoteAttachmentRepo extends JpaRepository<NoteAttachment, UUID> {
+    /**
+     * Pobiera załączniki notatki w kolejności dołączenia.
+     * @param noteId identyfikator notatki
+     * @return lista załączników
+     */
+    List<NoteAttachment> findByNoteIdOrderByCreatedAtAsc(UUID noteId);
+
+    /**
+     * Pobiera załącznik należący do podanej notatki.
+     * @param id identyfikator załącznika
+     * @param noteId identyfikator notatki
+     * @return załącznik lub pusty Optional
+     */
+    Optional<NoteAttachment> findByIdAndNoteId(UUID id, UUID noteId);
+}
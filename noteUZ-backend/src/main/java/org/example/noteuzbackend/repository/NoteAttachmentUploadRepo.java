@@ -0,0 +1,47 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.model.entity.NoteAttachmentUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji NoteAttachmentUpload.
+ */
+public interface NoteAttachmentUploadRepo extends JpaRepository<NoteAttachmentUpload, UUID> {
+    /**
+     * Pobiera przesyłanie do podanej notatki.
+     * @param id identyfikator przesyłania
+     * @param noteId identyfikator notatki
+     * @return przesyłanie lub pusty Optional
+     */
+    Optional<NoteAttachmentUpload> findByIdAndNoteId(UUID id, UUID noteId);
+
+    /**
+     * Blokuje rozpoczynanie przesyłań użytkownika do końca bieżącej transakcji (blokada doradcza), aby sprawdzenie
+     * limitu trwających przesyłań i zapis nowego przesyłania nie przeplatały się z równoległym żądaniem.
+     * @param userId identyfikator użytkownika
+     * @return zawsze 1
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtextextended('note_attachment_uploads:' || CAST(:userId AS text), 0))) AS locked",
+            nativeQuery = true)
+    long lockUploadsOf(UUID userId);
+
+    /**
+     * Zlicza trwające przesyłania użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return liczba przesyłań
+     */
+    long countByUserId(UUID userId);
+
+    /**
+     * Pobiera przesyłania rozpoczęte przed podaną chwilą.
+     * @param before granica czasu rozpoczęcia
+     * @return lista przesyłań
+     */
+    List<NoteAttachmentUpload> findByCreatedAtBefore(Instant before);
+}
@@ -0,0 +1,11 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.model.entity.NotePdf;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji NotePdf (pamięć podręczna dokumentów PDF notatek).
+ */
+public interface NotePdfRepo extends JpaRepository<NotePdf, UUID> {
+}
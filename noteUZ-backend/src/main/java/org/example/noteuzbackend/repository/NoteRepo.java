@@ -1,12 +1,25 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.AdminNoteDTO;
+import org.example.noteuzbackend.dto.DailyCountDTO;
+import org.example.noteuzbackend.dto.NoteVersionDTO;
+import org.example.noteuzbackend.dto.UserCountDTO;
 import org.example.noteuzbackend.model.entity.Note;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium dla encji Note.
@@ -35,4 +48,101 @@ public interface NoteRepo extends JpaRepository<Note, UUID> {
      * @return lista notatek grupowych
      */
     List<Note> findByGroupIdOrderByCreatedAtDesc(UUID groupId);
+
+    /**
+     * Pobiera wersje (bez treści) notatek grupy w kolejności utworzenia - do eksportu PDF.
+     * @param groupId identyfikator grupy
+     * @return lista wersji notatek
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.NoteVersionDTO(n.id, n.title, COALESCE(n.updatedAt, n.createdAt)) " +
+            "FROM Note n WHERE n.groupId = :groupId ORDER BY n.createdAt, n.id")
+    List<NoteVersionDTO> findVersionsByGroupId(UUID groupId);
+
+    /**
+     * Wyszukuje notatki dla panelu administracyjnego z filtrowaniem i stronicowaniem po stronie bazy danych.
+     * Zamiast pełnej treści zwracany jest jej skrócony podgląd.
+     * @param groupId filtr grupy (null - dowolna)
+     * @param authorId filtr autora (null - dowolny)
+     * @param from początek zakresu daty utworzenia, włącznie (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia, wyłącznie (null - bez ograniczenia)
+     * @param search wzorzec LIKE (małe litery, znaki specjalne poprzedzone \) dla tytułu lub nazwy autora (null - bez filtra)
+     * @param pageable parametry stronicowania i sortowania
+     * @return strona projekcji notatek
+     */
+    @Query(value = "SELECT new org.example.noteuzbackend.dto.AdminNoteDTO(n.id, n.title, SUBSTRING(n.content, 1, 300), n.createdAt, " +
+            "COALESCE(u.displayName, 'Nieznany'), " +
+            "CASE WHEN n.groupId IS NOT NULL THEN COALESCE(g.name, 'Usunięta grupa') END, " +
+            "CASE WHEN n.groupId IS NOT NULL THEN true ELSE false END) " +
+            "FROM Note n LEFT JOIN AppUser u ON u.id = n.userId LEFT JOIN Group g ON g.id = n.groupId " +
+            "WHERE (:groupId IS NULL OR n.groupId = :groupId) " +
+            "AND (:authorId IS NULL OR n.userId = :authorId) " +
+            "AND (:from IS NULL OR n.createdAt >= :from) " +
+            "AND (:to IS NULL OR n.createdAt < :to) " +
+            "AND (:search IS NULL OR LOWER(n.title) LIKE :search ESCAPE '\\' OR LOWER(u.displayName) LIKE :search ESCAPE '\\')",
+            countQuery = "SELECT COUNT(n) FROM Note n LEFT JOIN AppUser u ON u.id = n.userId " +
+                    "WHERE (:groupId IS NULL OR n.groupId = :groupId) " +
+                    "AND (:authorId IS NULL OR n.userId = :authorId) " +
+                    "AND (:from IS NULL OR n.createdAt >= :from) " +
+                    "AND (:to IS NULL OR n.createdAt < :to) " +
+                    "AND (:search IS NULL OR LOWER(n.title) LIKE :search ESCAPE '\\' OR LOWER(u.displayName) LIKE :search ESCAPE '\\')")
+    Page<AdminNoteDTO> searchAdminNotes(UUID groupId, UUID authorId, LocalDateTime from, LocalDateTime to, String search, Pageable pageable);
+
+    /**
+     * Pobiera pełne dane pojedynczej notatki dla panelu administracyjnego.
+     * @param id identyfikator notatki
+     * @return opcjonalna projekcja notatki z pełną treścią
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AdminNoteDTO(n.id, n.title, n.content, n.createdAt, " +
+            "COALESCE(u.displayName, 'Nieznany'), " +
+            "CASE WHEN n.groupId IS NOT NULL THEN COALESCE(g.name, 'Usunięta grupa') END, " +
+            "CASE WHEN n.groupId IS NOT NULL THEN true ELSE false END) " +
+            "FROM Note n LEFT JOIN AppUser u ON u.id = n.userId LEFT JOIN Group g ON g.id = n.groupId " +
+            "WHERE n.id = :id")
+    Optional<AdminNoteDTO> findAdminNote(UUID id);
+
+    /**
+     * Strumieniuje notatki (z pełną treścią) do eksportu z panelu administracyjnego (kursor jednokierunkowy).
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po odczycie.
+     * @param groupId filtr grupy (null - dowolna)
+     * @param authorId filtr autora (null - dowolny)
+     * @param from początek zakresu daty utworzenia, włącznie (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia, wyłącznie (null - bez ograniczenia)
+     * @param search wzorzec LIKE (małe litery, znaki specjalne poprzedzone \) dla tytułu lub nazwy autora (null - bez filtra)
+     * @return strumień projekcji notatek
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AdminNoteDTO(n.id, n.title, n.content, n.createdAt, " +
+            "COALESCE(u.displayName, 'Nieznany'), " +
+            "CASE WHEN n.groupId IS NOT NULL THEN COALESCE(g.name, 'Usunięta grupa') END, " +
+            "CASE WHEN n.groupId IS NOT NULL THEN true ELSE false END) " +
+            "FROM Note n LEFT JOIN AppUser u ON u.id = n.userId LEFT JOIN Group g ON g.id = n.groupId " +
+            "WHERE (:groupId IS NULL OR n.groupId = :groupId) " +
+            "AND (:authorId IS NULL OR n.userId = :authorId) " +
+            "AND (:from IS NULL OR n.createdAt >= :from) " +
+            "AND (:to IS NULL OR n.createdAt < :to) " +
+            "AND (:search IS NULL OR LOWER(n.title) LIKE :search ESCAPE '\\' OR LOWER(u.displayName) LIKE :search ESCAPE '\\') " +
+            "ORDER BY n.createdAt, n.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AdminNoteDTO> streamAdminNotes(UUID groupId, UUID authorId, LocalDateTime from, LocalDateTime to, String search);
+
+    /**
+     * Zlicza notatki utworzone w kolejnych dniach, począwszy od podanego momentu.
+     * @param since początek zakresu daty utworzenia, włącznie
+     * @return liczba notatek dla każdego dnia, w którym utworzono co najmniej jedną notatkę
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.DailyCountDTO(CAST(n.createdAt AS LocalDate), COUNT(n)) " +
+            "FROM Note n WHERE n.createdAt >= :since " +
+            "GROUP BY CAST(n.createdAt AS LocalDate)")
+    List<DailyCountDTO> countCreatedPerDaySince(LocalDateTime since);
+
+    /**
+     * Zlicza notatki podanych autorów (jednym zapytaniem grupującym).
+     * @param authorIds identyfikatory autorów
+     * @return liczba notatek dla każdego autora, który ma co najmniej jedną notatkę
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.UserCountDTO(n.userId, COUNT(n)) " +
+            "FROM Note n WHERE n.userId IN :authorIds GROUP BY n.userId")
+    List<UserCountDTO> countByAuthors(Collection<UUID> authorIds);
 }
@@ -43,4 +43,11 @@ public interface NoteShareRepo extends JpaRepository<NoteShare, UUID> {
      * @return lista udostępnień
      */
     List<NoteShare> findByNoteId(UUID noteId);
+
+    /**
+     * Zlicza udostępnienia o podanym statusie.
+     * @param status status udostępnienia
+     * @return liczba udostępnień
+     */
+    long countByStatus(NoteShare.ShareStatus status);
 }
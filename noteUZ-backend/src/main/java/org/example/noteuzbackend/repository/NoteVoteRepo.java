@@ -44,6 +44,7 @@ public interface NoteVoteRepo extends JpaRepository<NoteVote, UUID> {
     /**
      * Usuwa wszystkie głosy powiązane z notatką o podanym identyfikatorze.
      * @param noteId identyfikator notatki
+     * @return liczba usuniętych głosów
      */
-    void deleteAllByNoteId(UUID noteId);
+    long deleteAllByNoteId(UUID noteId);
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package org.example.noteuzbackend.repository;
+
+import org.example.noteuzbackend.model.entity.PurgeJob;
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repozytorium dla encji PurgeJob.
+ */
+@Repository
+public interface PurgeJobRepo extends JpaRepository<PurgeJob, UUID> {
+
+    /**
+     * Pobiera zadania o podanych stanach w kolejności utworzenia.
+     * @param statuses stany zadań
+     * @return lista zadań
+     */
+    List<PurgeJob> findByStatusInOrderByCreatedAtAsc(Collection<PurgeStatus> statuses);
+
+    /**
+     * Znajduje aktywne (niezakończone) zadanie dla podanego obiektu.
+     * @param targetType rodzaj obiektu
+     * @param targetId identyfikator obiektu
+     * @param statuses stany uznawane za aktywne
+     * @return opcjonalne zadanie
+     */
+    Optional<PurgeJob> findFirstByTargetTypeAndTargetIdAndStatusIn(PurgeTarget targetType, UUID targetId, Collection<PurgeStatus> statuses);
+
+    /**
+     * Pobiera stronę zadań o podanym stanie.
+     * @param status stan zadania
+     * @param pageable parametry stronicowania i sortowania
+     * @return strona zadań
+     */
+    Page<PurgeJob> findByStatus(PurgeStatus status, Pageable pageable);
+}
@@ -1,11 +1,33 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
 import org.example.noteuzbackend.model.entity.UserAvatar;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repozytorium dla encji UserAvatar.
  */
 public interface UserAvatarRepo extends JpaRepository<UserAvatar, UUID> {
-}
\ No newline at end of file
+    /**
+     * Pobiera metadane awatara bez wczytywania danych obrazu.
+     * @param userId identyfikator użytkownika
+     * @return metadane awatara lub pusty Optional
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AvatarMetaDTO(a.userId, a.contentType, a.contentHash, a.size, a.blobKey) " +
+            "FROM UserAvatar a WHERE a.userId = :userId")
+    Optional<AvatarMetaDTO> findMeta(UUID userId);
+
+    /**
+     * Pobiera metadane awatarów wielu użytkowników jednym zapytaniem, bez wczytywania danych obrazu.
+     * @param userIds identyfikatory użytkowników
+     * @return metadane awatarów użytkowników, którzy je mają
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AvatarMetaDTO(a.userId, a.contentType, a.contentHash, a.size, a.blobKey) " +
+            "FROM UserAvatar a WHERE a.userId IN :userIds")
+    List<AvatarMetaDTO> findMetaByUserIds(Collection<UUID> userIds);
+}
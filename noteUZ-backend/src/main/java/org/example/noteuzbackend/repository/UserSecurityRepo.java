@@ -1,12 +1,21 @@
 package org.example.noteuzbackend.repository;
 
+import org.example.noteuzbackend.dto.AdminUserDTO;
 import org.example.noteuzbackend.model.entity.UserSecurity;
+import org.example.noteuzbackend.model.enums.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repozytorium dla encji UserSecurity.
@@ -21,4 +30,71 @@ public interface UserSecurityRepo extends JpaRepository<UserSecurity, UUID> {
     @Transactional
     @Query(value = "DELETE FROM auth.users WHERE id = :userId", nativeQuery = true)
     void deleteAuthUser(UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Wyszukuje użytkowników dla panelu administracyjnego z filtrowaniem i stronicowaniem po stronie bazy danych.
+     * @param role filtr roli (null - dowolna)
+     * @param banned filtr blokady (null - dowolny)
+     * @param search wzorzec LIKE (małe litery, znaki specjalne poprzedzone \) dla emaila lub nazwy (null - bez filtra)
+     * @param pageable parametry stronicowania i sortowania
+     * @return strona projekcji użytkowników
+     */
+    @Query(value = "SELECT new org.example.noteuzbackend.dto.AdminUserDTO(s.id, COALESCE(u.email, 'Brak emaila'), s.role, s.isBanned, s.warnings, " +
+            "COALESCE(u.displayName, 'Brak nazwy')) " +
+            "FROM UserSecurity s LEFT JOIN AppUser u ON u.id = s.id " +
+            "WHERE (:role IS NULL OR s.role = :role) " +
+            "AND (:banned IS NULL OR s.isBanned = :banned) " +
+            "AND (:search IS NULL OR LOWER(u.email) LIKE :search ESCAPE '\\' OR LOWER(u.displayName) LIKE :search ESCAPE '\\')",
+            countQuery = "SELECT COUNT(s) FROM UserSecurity s LEFT JOIN AppUser u ON u.id = s.id " +
+                    "WHERE (:role IS NULL OR s.role = :role) " +
+                    "AND (:banned IS NULL OR s.isBanned = :banned) " +
+                    "AND (:search IS NULL OR LOWER(u.email) LIKE :search ESCAPE '\\' OR LOWER(u.displayName) LIKE :search ESCAPE '\\')")
+    Page<AdminUserDTO> searchAdminUsers(Role role, Boolean banned, String search, Pageable pageable);
+
+    /**
+     * Strumieniuje użytkowników do eksportu z panelu administracyjnego (kursor jednokierunkowy).
+     * Wymaga aktywnej transakcji; strumień należy zamknąć po odczycie.
+     * @param role filtr roli (null - dowolna)
+     * @param banned filtr blokady (null - dowolny)
+     * @param search wzorzec LIKE (małe litery, znaki specjalne poprzedzone \) dla emaila lub nazwy (null - bez filtra)
+     * @return strumień projekcji użytkowników
+     */
+    @Query("SELECT new org.example.noteuzbackend.dto.AdminUserDTO(s.id, COALESCE(u.email, 'Brak emaila'), s.role, s.isBanned, s.warnings, " +
+            "COALESCE(u.displayName, 'Brak nazwy')) " +
+            "FROM UserSecurity s LEFT JOIN AppUser u ON u.id = s.id " +
+            "WHERE (:role IS NULL OR s.role = :role) " +
+            "AND (:banned IS NULL OR s.isBanned = :banned) " +
+            "AND (:search IS NULL OR LOWER(u.email) LIKE :search ESCAPE '\\' OR LOWER(u.displayName) LIKE :search ESCAPE '\\') " +
+            "ORDER BY s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AdminUserDTO> streamAdminUsers(Role role, Boolean banned, String search);
+
+    /**
+     * Zlicza zablokowanych użytkowników.
+     * @return liczba zablokowanych użytkowników
+     */
+    long countByIsBannedTrue();
+
+    /**
+     * Ustawia stan blokady wielu użytkowników jedną instrukcją UPDATE.
+     * Pomija użytkowników, którzy już mają docelowy stan blokady.
+     * @param ids identyfikatory użytkowników
+     * @param banned docelowy stan blokady
+     * @return liczba zmienionych wierszy
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserSecurity s SET s.isBanned = :banned WHERE s.id IN :ids AND s.isBanned <> :banned")
+    int updateBanned(Collection<UUID> ids, boolean banned);
+
+    /**
+     * Zwiększa liczbę ostrzeżeń wielu użytkowników jedną instrukcją UPDATE.
+     * @param ids identyfikatory użytkowników
+     * @return liczba zmienionych wierszy
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserSecurity s SET s.warnings = s.warnings + 1 WHERE s.id IN :ids")
+    int incrementWarnings(Collection<UUID> ids);
+}
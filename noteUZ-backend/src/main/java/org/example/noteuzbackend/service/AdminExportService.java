@@ -0,0 +1,202 @@
+package org.example.noteuzbackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.noteuzbackend.dto.AdminGroupDTO;
+import org.example.noteuzbackend.dto.AdminNoteDTO;
+import org.example.noteuzbackend.dto.AdminUserDTO;
+import org.example.noteuzbackend.model.enums.ExportFormat;
+import org.example.noteuzbackend.model.enums.Role;
+import org.example.noteuzbackend.repository.GroupRepo;
+import org.example.noteuzbackend.repository.NoteRepo;
+import org.example.noteuzbackend.repository.UserSecurityRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Serwis eksportu danych panelu administracyjnego (CSV / NDJSON).
+ * Wiersze są czytane kursorem bazy danych i zapisywane bezpośrednio do strumienia odpowiedzi,
+ * więc zużycie pamięci nie zależy od liczby eksportowanych rekordów.
+ */
+@Service
+public class AdminExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> USER_COLUMNS = List.of("id", "email", "displayName", "role", "isBanned", "warnings");
+    private static final List<String> NOTE_COLUMNS = List.of("id", "title", "createdAt", "authorName", "groupName", "isGroupNote", "content");
+    private static final List<String> GROUP_COLUMNS = List.of("id", "name", "description", "ownerName", "ownerEmail", "memberCount", "noteCount", "createdAt");
+
+    private final UserSecurityRepo securityRepo;
+    private final NoteRepo noteRepo;
+    private final GroupRepo groupRepo;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter valueWriter;
+
+    /**
+     * Konstruktor serwisu AdminExportService.
+     * @param securityRepo repozytorium bezpieczeństwa użytkowników
+     * @param noteRepo repozytorium notatek
+     * @param groupRepo repozytorium grup
+     * @param objectMapper konfiguracja serializacji JSON aplikacji
+     */
+    public AdminExportService(UserSecurityRepo securityRepo, NoteRepo noteRepo, GroupRepo groupRepo, ObjectMapper objectMapper) {
+        this.securityRepo = securityRepo;
+        this.noteRepo = noteRepo;
+        this.groupRepo = groupRepo;
+        this.objectMapper = objectMapper;
+        // Domyślnie Jackson opróżnia bufor po każdej wartości - przy eksporcie zapis ma trafiać do bufora
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Eksportuje użytkowników spełniających filtry do podanego strumienia.
+     * @param format format eksportu
+     * @param role filtr roli (null - dowolna)
+     * @param banned filtr blokady (null - dowolny)
+     * @param search fraza wyszukiwana w emailu lub nazwie (null - bez filtra)
+     * @param out strumień docelowy (nie jest zamykany)
+     * @return liczba wyeksportowanych wierszy
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormat format, Role role, Boolean banned, String search, OutputStream out) {
+        try (Stream<AdminUserDTO> rows = securityRepo.streamAdminUsers(role, banned, AdminService.toLikePattern(search))) {
+            return write(rows, format, USER_COLUMNS, u -> new Object[]{
+                    u.id(), u.email(), u.displayName(), u.role(), u.isBanned(), u.warnings()
+            }, out);
+        }
+    }
+
+    /**
+     * Eksportuje notatki (z pełną treścią) spełniające filtry do podanego strumienia.
+     * @param format format eksportu
+     * @param groupId filtr grupy (null - dowolna)
+     * @param authorId filtr autora (null - dowolny)
+     * @param from początek zakresu daty utworzenia (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia (null - bez ograniczenia)
+     * @param search fraza wyszukiwana w tytule lub nazwie autora (null - bez filtra)
+     * @param out strumień docelowy (nie jest zamykany)
+     * @return liczba wyeksportowanych wierszy
+     */
+    @Transactional(readOnly = true)
+    public long exportNotes(ExportFormat format, UUID groupId, UUID authorId, LocalDateTime from, LocalDateTime to,
+                            String search, OutputStream out) {
+        try (Stream<AdminNoteDTO> rows = noteRepo.streamAdminNotes(groupId, authorId, from, to, AdminService.toLikePattern(search))) {
+            return write(rows, format, NOTE_COLUMNS, n -> new Object[]{
+                    n.id(), n.title(), n.createdAt(), n.authorName(), n.groupName(), n.isGroupNote(), n.content()
+            }, out);
+        }
+    }
+
+    /**
+     * Eksportuje podsumowania grup spełniających filtry do podanego strumienia.
+     * @param format format eksportu
+     * @param search fraza wyszukiwana w nazwie lub opisie (null - bez filtra)
+     * @param from początek zakresu daty utworzenia (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia (null - bez ograniczenia)
+     * @param out strumień docelowy (nie jest zamykany)
+     * @return liczba wyeksportowanych wierszy
+     */
+    @Transactional(readOnly = true)
+    public long exportGroups(ExportFormat format, String search, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        try (Stream<AdminGroupDTO> rows = groupRepo.streamAdminGroups(AdminService.toLikePattern(search),
+                AdminService.toInstant(from), AdminService.toInstant(to))) {
+            return write(rows, format, GROUP_COLUMNS, g -> new Object[]{
+                    g.id(), g.name(), g.description(), g.ownerName(), g.ownerEmail(), g.memberCount(), g.noteCount(), g.createdAt()
+            }, out);
+        }
+    }
+
+    /**
+     * Zapisuje kolejne wiersze w wybranym formacie, nie przechowując ich w pamięci.
+     * @param rows strumień wierszy z bazy danych
+     * @param format format eksportu
+     * @param columns nazwy kolumn (nagłówek CSV i klucze obiektów NDJSON)
+     * @param values funkcja wyznaczająca wartości kolumn dla wiersza
+     * @param out strumień docelowy
+     * @return liczba zapisanych wierszy
+     */
+    private <T> long write(Stream<T> rows, ExportFormat format, List<String> columns,
+                           Function<T, Object[]> values, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long count = 0;
+        try {
+            Iterator<T> it = rows.iterator();
+            if (format == ExportFormat.NDJSON) {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                while (it.hasNext()) {
+                    Object[] row = values.apply(it.next());
+                    json.writeStartObject();
+                    for (int i = 0; i < columns.size(); i++) {
+                        json.writeFieldName(columns.get(i));
+                        valueWriter.writeValue(json, row[i]);
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    count++;
+                }
+                json.flush();
+            } else {
+                writeCsvLine(writer, columns.toArray());
+                while (it.hasNext()) {
+                    writeCsvLine(writer, values.apply(it.next()));
+                    count++;
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Przerwano eksport danych", e);
+        }
+        return count;
+    }
+
+    /**
+     * Zapisuje pojedynczą linię CSV (RFC 4180), cytując wartości zawierające separatory, cudzysłowy lub znaki nowej linii.
+     * Tekst zaczynający się od =, +, -, @ (lub tabulatora i powrotu karetki) jest poprzedzany apostrofem,
+     * aby arkusz kalkulacyjny nie wykonał go jako formuły.
+     * @param writer strumień docelowy
+     * @param values wartości kolumn
+     * @throws IOException w przypadku błędu zapisu
+     */
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] == null) continue;
+            String value = values[i] instanceof CharSequence text ? neutralizeFormula(text.toString()) : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String neutralizeFormula(String value) {
+        if (value.isEmpty()) return value;
+        return switch (value.charAt(0)) {
+            case '=', '+', '-', '@', '\t', '\r' -> "'" + value;
+            default -> value;
+        };
+    }
+}
@@ -3,19 +3,40 @@ package org.example.noteuzbackend.service;
 import org.example.noteuzbackend.dto.AdminGroupDTO;
 import org.example.noteuzbackend.dto.AdminNoteDTO;
 import org.example.noteuzbackend.dto.AdminUserDTO;
+import org.example.noteuzbackend.dto.AuditLogEntryDTO;
+import org.example.noteuzbackend.dto.BulkModerationDTO;
+import org.example.noteuzbackend.dto.PurgeJobDTO;
+import org.example.noteuzbackend.dto.UserCountDTO;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.event.ModerationActionEvent;
+import org.example.noteuzbackend.event.StatsChangedEvent;
+import org.example.noteuzbackend.event.UserAccessChangedEvent;
 import org.example.noteuzbackend.model.entity.*;
-import org.example.noteuzbackend.model.enums.GroupRole;
+import org.example.noteuzbackend.model.enums.AuditAction;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
 import org.example.noteuzbackend.model.enums.Role;
+import org.example.noteuzbackend.model.enums.StatsMetric;
 import org.example.noteuzbackend.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId; // <--- WAŻNY IMPORT
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,11 +45,22 @@ import java.util.stream.Collectors;
 @Service
 public class AdminService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final Set<String> USER_SORT_FIELDS = Set.of("role", "warnings", "isBanned");
+    private static final Set<String> NOTE_SORT_FIELDS = Set.of("createdAt", "updatedAt", "title");
+    private static final Set<String> GROUP_SORT_FIELDS = Set.of("name", "createdAt");
+    private static final Set<String> AUDIT_SORT_FIELDS = Set.of("createdAt", "action");
+
     private final UserSecurityRepo securityRepo;
     private final NoteRepo noteRepo;
     private final GroupRepo groupRepo;
     private final GroupMemberRepo groupMemberRepo;
     private final AppUserRepo appUserRepo;
+    private final ModerationAuditRepo auditRepo;
+    private final PurgeJobService purgeJobs;
+    private final ApplicationEventPublisher events;
+    private final UserAccessCache accessCache;
 
     /**
      * Konstruktor serwisu AdminService.
@@ -37,13 +69,22 @@ public class AdminService {
      * @param groupRepo repozytorium grup
      * @param groupMemberRepo repozytorium członków grup
      * @param appUserRepo repozytorium użytkowników aplikacji
+     * @param auditRepo repozytorium dziennika audytu
+     * @param purgeJobs serwis usuwania danych w tle
+     * @param events publikator zdarzeń aplikacji
+     * @param accessCache pamięć podręczna uprawnień użytkowników
      */
-    public AdminService(UserSecurityRepo securityRepo, NoteRepo noteRepo, GroupRepo groupRepo, GroupMemberRepo groupMemberRepo, AppUserRepo appUserRepo) {
+    public AdminService(UserSecurityRepo securityRepo, NoteRepo noteRepo, GroupRepo groupRepo, GroupMemberRepo groupMemberRepo, AppUserRepo appUserRepo,
+                        ModerationAuditRepo auditRepo, PurgeJobService purgeJobs, ApplicationEventPublisher events, UserAccessCache accessCache) {
         this.securityRepo = securityRepo;
         this.noteRepo = noteRepo;
         this.groupRepo = groupRepo;
         this.groupMemberRepo = groupMemberRepo;
         this.appUserRepo = appUserRepo;
+        this.auditRepo = auditRepo;
+        this.purgeJobs = purgeJobs;
+        this.events = events;
+        this.accessCache = accessCache;
     }
 
     // --- Helpery ---
@@ -54,9 +95,7 @@ public class AdminService {
      * @return true, jeśli użytkownik jest moderatorem lub administratorem
      */
     public boolean isAtLeastModerator(UUID userId) {
-        return securityRepo.findById(userId)
-                .map(u -> u.getRole() == Role.ADMIN || u.getRole() == Role.MODERATOR)
-                .orElse(false);
+        return accessCache.get(userId).isAtLeastModerator();
     }
 
     /**
@@ -65,9 +104,16 @@ public class AdminService {
      * @return true, jeśli użytkownik jest administratorem
      */
     public boolean isAdmin(UUID userId) {
-        return securityRepo.findById(userId)
-                .map(u -> u.getRole() == Role.ADMIN)
-                .orElse(false);
+        return accessCache.get(userId).isAdmin();
+    }
+
+    /**
+     * Sprawdza, czy użytkownik jest zablokowany.
+     * @param userId identyfikator użytkownika
+     * @return true, jeśli użytkownik jest zablokowany
+     */
+    public boolean isBanned(UUID userId) {
+        return accessCache.get(userId).banned();
     }
 
     /**
@@ -98,148 +144,130 @@ public class AdminService {
      * @return liczba ostrzeżeń
      */
     public int getWarningCount(UUID userId) {
-        return securityRepo.findById(userId)
-                .map(UserSecurity::getWarnings)
-                .orElse(0);
+        return accessCache.get(userId).warnings();
     }
 
     // --- Metody dla Kontrolera ---
 
     /**
-     * Pobiera listę wszystkich użytkowników w systemie wraz z ich uprawnieniami i stanem konta.
-     * @return lista obiektów AdminUserDTO
+     * Pobiera stronę użytkowników wraz z ich uprawnieniami i stanem konta.
+     * Filtrowanie, sortowanie i stronicowanie wykonywane są w bazie danych.
+     * @param role filtr roli (null - dowolna)
+     * @param banned filtr blokady (null - dowolny)
+     * @param search fraza wyszukiwana w emailu lub nazwie (null - bez filtra)
+     * @param pageable parametry stronicowania i sortowania (role, warnings, isBanned)
+     * @return strona obiektów AdminUserDTO
      */
-    public List<AdminUserDTO> getAllUsers() {
-        List<UserSecurity> securities = securityRepo.findAll();
-        List<AppUser> profiles = appUserRepo.findAll();
-        Map<UUID, AppUser> profilesMap = profiles.stream()
-                .collect(Collectors.toMap(AppUser::getId, p -> p, (a, b) -> a));
-
-        return securities.stream().map(sec -> {
-            AppUser profile = profilesMap.get(sec.getId());
-            String name = (profile != null && profile.getDisplayName() != null) ? profile.getDisplayName() : "Brak nazwy";
-            String email = (profile != null && profile.getEmail() != null) ? profile.getEmail() : "Brak emaila";
-
-            return new AdminUserDTO(
-                    sec.getId(),
-                    email,
-                    sec.getRole(),
-                    sec.isBanned(),
-                    sec.getWarnings(),
-                    name
-            );
-        }).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<AdminUserDTO> getUsers(Role role, Boolean banned, String search, Pageable pageable) {
+        return securityRepo.searchAdminUsers(role, banned, toLikePattern(search), sanitize(pageable, USER_SORT_FIELDS));
     }
 
     /**
-     * Pobiera listę wszystkich notatek w systemie wraz z informacją o autorze i grupie.
-     * @return lista obiektów AdminNoteDTO
+     * Pobiera stronę notatek wraz z informacją o autorze i grupie (z podglądem treści zamiast pełnej treści).
+     * Filtrowanie, sortowanie i stronicowanie wykonywane są w bazie danych.
+     * @param groupId filtr grupy (null - dowolna)
+     * @param authorId filtr autora (null - dowolny)
+     * @param from początek zakresu daty utworzenia (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia (null - bez ograniczenia)
+     * @param search fraza wyszukiwana w tytule lub nazwie autora (null - bez filtra)
+     * @param pageable parametry stronicowania i sortowania (createdAt, updatedAt, title)
+     * @return strona obiektów AdminNoteDTO
      */
-    public List<AdminNoteDTO> getAllNotes() {
-        List<Note> notes = noteRepo.findAll();
-        List<AppUser> users = appUserRepo.findAll();
-        List<Group> groups = groupRepo.findAll();
-
-        // --- POPRAWKA TUTAJ ---
-        // Zabezpieczenie przed nullem w display_name (u.getDisplayName() != null ? ... : "...")
-        Map<UUID, String> userNames = users.stream()
-                .collect(Collectors.toMap(
-                        AppUser::getId,
-                        u -> u.getDisplayName() != null ? u.getDisplayName() : "Brak nazwy", // <--- TO NAPRAWIA BŁĄD 500
-                        (a, b) -> a
-                ));
-
-        Map<UUID, String> groupNames = groups.stream()
-                .collect(Collectors.toMap(
-                        Group::getId,
-                        g -> g.getName() != null ? g.getName() : "Bez nazwy", // <--- Tu też warto dodać dla bezpieczeństwa
-                        (a, b) -> a
-                ));
-
-        return notes.stream().map(note -> {
-            String author = userNames.getOrDefault(note.getUserId(), "Nieznany (ID: " + note.getUserId() + ")");
-            String group = (note.getGroupId() != null) ? groupNames.getOrDefault(note.getGroupId(), "Usunięta grupa") : null;
-
-            return new AdminNoteDTO(
-                    note.getId(),
-                    note.getTitle(),
-                    note.getContent(),
-                    note.getCreatedAt(),
-                    author,
-                    group,
-                    note.getGroupId() != null
-            );
-        }).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<AdminNoteDTO> getNotes(UUID groupId, UUID authorId, LocalDateTime from, LocalDateTime to, String search, Pageable pageable) {
+        return noteRepo.searchAdminNotes(groupId, authorId, from, to, toLikePattern(search), sanitize(pageable, NOTE_SORT_FIELDS));
     }
 
-    // --- ZAKTUALIZOWANA METODA: Grupy z pełnymi danymi (NAPRAWIONA DATA) ---
     /**
-     * Pobiera listę wszystkich grup w systemie wraz z informacjami o właścicielu, liczbie notatek i członkach.
-     * @return lista obiektów AdminGroupDTO
+     * Pobiera pełne dane pojedynczej notatki (wraz z treścią) dla panelu administracyjnego.
+     * @param id identyfikator notatki
+     * @return obiekt AdminNoteDTO
+     * @throws ResponseStatusException jeśli notatka nie istnieje (404)
      */
-    public List<AdminGroupDTO> getAllGroups() {
-        List<Group> groups = groupRepo.findAll();
-        List<GroupMember> allMembers = groupMemberRepo.findAll();
-        List<Note> allNotes = noteRepo.findAll();
-        List<AppUser> allUsers = appUserRepo.findAll();
-
-        Map<UUID, AppUser> userMap = allUsers.stream()
-                .collect(Collectors.toMap(AppUser::getId, u -> u));
-
-        return groups.stream().map(group -> {
-            // Filtrujemy członków tej grupy
-            List<GroupMember> groupMembers = allMembers.stream()
-                    .filter(m -> m.getGroupId().equals(group.getId()))
-                    .collect(Collectors.toList());
-
-            // Liczymy notatki w tej grupie
-            long noteCount = allNotes.stream()
-                    .filter(n -> group.getId().equals(n.getGroupId()))
-                    .count();
-
-            // Szukamy właściciela
-            GroupMember ownerMember = groupMembers.stream()
-                    .filter(m -> m.getRole() == GroupRole.OWNER)
-                    .findFirst()
-                    .orElse(null);
-
-            String ownerName = "Nieznany";
-            String ownerEmail = "";
-
-            if (ownerMember != null && userMap.containsKey(ownerMember.getUserId())) {
-                AppUser ownerAppUser = userMap.get(ownerMember.getUserId());
-                ownerName = ownerAppUser.getDisplayName();
-                ownerEmail = ownerAppUser.getEmail();
-            }
+    @Transactional(readOnly = true)
+    public AdminNoteDTO getNote(UUID id) {
+        return noteRepo.findAdminNote(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notatka nie istnieje"));
+    }
+
+    /**
+     * Pobiera stronę grup wraz z informacjami o właścicielu, liczbie notatek i liczbie członków.
+     * Wszystkie dane wyznaczane są jednym zapytaniem agregującym; lista członków ładowana jest osobno
+     * przez {@link #getGroupMembers(UUID)}.
+     * @param search fraza wyszukiwana w nazwie lub opisie (null - bez filtra)
+     * @param from początek zakresu daty utworzenia (null - bez ograniczenia)
+     * @param to koniec zakresu daty utworzenia (null - bez ograniczenia)
+     * @param pageable parametry stronicowania i sortowania (name, createdAt)
+     * @return strona obiektów AdminGroupDTO
+     */
+    @Transactional(readOnly = true)
+    public Page<AdminGroupDTO> getGroups(String search, LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return groupRepo.searchAdminGroups(toLikePattern(search), toInstant(from), toInstant(to),
+                sanitize(pageable, GROUP_SORT_FIELDS));
+    }
+
+    /**
+     * Pobiera listę członków grupy do podglądu w panelu administracyjnym (jedno zapytanie łączące).
+     * @param groupId identyfikator grupy
+     * @return lista uproszczonych obiektów członków grupy
+     */
+    @Transactional(readOnly = true)
+    public List<AdminGroupDTO.GroupMemberDTO> getGroupMembers(UUID groupId) {
+        return groupMemberRepo.findMemberDetails(groupId, Pageable.unpaged()).stream()
+                .map(m -> new AdminGroupDTO.GroupMemberDTO(m.displayName(), m.email(), m.role().name()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pobiera stronę wpisów dziennika audytu akcji moderacyjnych.
+     * Filtrowanie, sortowanie i stronicowanie wykonywane są w bazie danych.
+     * @param actorId filtr wykonującego akcję (null - dowolny)
+     * @param targetId filtr obiektu akcji (null - dowolny)
+     * @param action filtr rodzaju akcji (null - dowolny)
+     * @param from początek zakresu czasu akcji (null - bez ograniczenia)
+     * @param to koniec zakresu czasu akcji (null - bez ograniczenia)
+     * @param pageable parametry stronicowania i sortowania (createdAt, action)
+     * @return strona obiektów AuditLogEntryDTO
+     */
+    @Transactional(readOnly = true)
+    public Page<AuditLogEntryDTO> getAuditLog(UUID actorId, UUID targetId, AuditAction action,
+                                              LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return auditRepo.search(actorId, targetId, action, toInstant(from), toInstant(to), sanitize(pageable, AUDIT_SORT_FIELDS));
+    }
 
-            // Tworzymy listę członków do podglądu
-            List<AdminGroupDTO.GroupMemberDTO> memberList = groupMembers.stream()
-                    .map(m -> {
-                        AppUser u = userMap.get(m.getUserId());
-                        return new AdminGroupDTO.GroupMemberDTO(
-                                u != null ? u.getDisplayName() : "Nieznany",
-                                u != null ? u.getEmail() : "",
-                                m.getRole().name()
-                        );
-                    }).collect(Collectors.toList());
-
-            // NAPRAWA BŁĘDU KOMPILACJI: Konwersja Instant -> LocalDateTime
-            LocalDateTime createdDate = group.getCreatedAt() != null
-                    ? LocalDateTime.ofInstant(group.getCreatedAt(), ZoneId.of("UTC"))
-                    : LocalDateTime.now();
-
-            return new AdminGroupDTO(
-                    group.getId(),
-                    group.getName(),
-                    group.getDescription(),
-                    ownerName,
-                    ownerEmail,
-                    groupMembers.size(),
-                    (int) noteCount,
-                    createdDate,
-                    memberList
-            );
-        }).collect(Collectors.toList());
+    /**
+     * Ogranicza rozmiar strony i usuwa z sortowania pola spoza dozwolonej listy.
+     * @param pageable parametry stronicowania z żądania
+     * @param allowedSortFields dozwolone pola sortowania
+     * @return bezpieczne parametry stronicowania
+     */
+    private static Pageable sanitize(Pageable pageable, Set<String> allowedSortFields) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .filter(order -> allowedSortFields.contains(order.getProperty()))
+                .toList());
+        int size = Math.min(pageable.isPaged() ? pageable.getPageSize() : MAX_PAGE_SIZE, MAX_PAGE_SIZE);
+        int page = pageable.isPaged() ? pageable.getPageNumber() : 0;
+        return PageRequest.of(page, size, sort);
+    }
+
+    /**
+     * Zamienia frazę wyszukiwania na wzorzec LIKE (małe litery). Znaki %, _ i \ frazy są poprzedzane znakiem \
+     * (zapytania używają ESCAPE '\'), więc fraza jest dopasowywana dosłownie.
+     * @param search fraza wyszukiwania
+     * @return wzorzec LIKE lub null, jeśli fraza jest pusta
+     */
+    static String toLikePattern(String search) {
+        if (search == null || search.isBlank()) return null;
+        String escaped = search.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant(ZoneOffset.UTC) : null;
     }
 
     // --- Reszta metod akcji ---
@@ -255,6 +283,8 @@ public class AdminService {
         if (target.getRole() == Role.ADMIN) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Już jest Adminem.");
         target.setRole(Role.MODERATOR);
         securityRepo.save(target);
+        events.publishEvent(UserAccessChangedEvent.forUser(targetId));
+        events.publishEvent(ModerationActionEvent.of(adminId, AuditAction.PROMOTE, targetId));
     }
 
     /**
@@ -268,6 +298,8 @@ public class AdminService {
         if (target.getRole() == Role.ADMIN) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nie ruszaj Admina.");
         target.setRole(Role.USER);
         securityRepo.save(target);
+        events.publishEvent(UserAccessChangedEvent.forUser(targetId));
+        events.publishEvent(ModerationActionEvent.of(adminId, AuditAction.DEMOTE, targetId));
     }
 
     /**
@@ -285,6 +317,11 @@ public class AdminService {
 
         target.setBanned(!target.isBanned());
         securityRepo.save(target);
+        events.publishEvent(UserAccessChangedEvent.forUser(targetId));
+        events.publishEvent(target.isBanned()
+                ? StatsChangedEvent.increment(StatsMetric.BANNED_USERS)
+                : StatsChangedEvent.decrement(StatsMetric.BANNED_USERS));
+        events.publishEvent(ModerationActionEvent.of(actorId, target.isBanned() ? AuditAction.BAN : AuditAction.UNBAN, targetId));
     }
 
     /**
@@ -298,6 +335,8 @@ public class AdminService {
         if (target.getRole() == Role.ADMIN) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         target.setWarnings(target.getWarnings() + 1);
         securityRepo.save(target);
+        events.publishEvent(UserAccessChangedEvent.forUser(targetId));
+        events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.WARN, targetId, "warnings=" + target.getWarnings()));
     }
 
     /**
@@ -311,27 +350,45 @@ public class AdminService {
         if (target.getWarnings() > 0) {
             target.setWarnings(target.getWarnings() - 1);
             securityRepo.save(target);
+            events.publishEvent(UserAccessChangedEvent.forUser(targetId));
+            events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.UNWARN, targetId, "warnings=" + target.getWarnings()));
         }
     }
 
     /**
-     * Usuwa notatkę o podanym identyfikatorze (akcja administratora).
+     * Zleca usunięcie notatki (wraz z głosami i udostępnieniami) w tle.
      * @param id identyfikator notatki
+     * @param actorId identyfikator osoby wykonującej akcję
+     * @return stan zadania usuwania
      */
-    public void deleteNote(UUID id) { noteRepo.deleteById(id); }
+    public PurgeJobDTO deleteNote(UUID id, UUID actorId) {
+        PurgeJobDTO job = purgeJobs.enqueue(PurgeTarget.NOTE, id, actorId);
+        events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.DELETE_NOTE, id));
+        return job;
+    }
 
     /**
-     * Usuwa grupę o podanym identyfikatorze (akcja administratora).
+     * Zleca usunięcie grupy (wraz z notatkami grupowymi, zaproszeniami i członkami) w tle.
      * @param id identyfikator grupy
+     * @param actorId identyfikator osoby wykonującej akcję
+     * @return stan zadania usuwania
      */
-    public void deleteGroup(UUID id) { groupRepo.deleteById(id); }
+    public PurgeJobDTO deleteGroup(UUID id, UUID actorId) {
+        PurgeJobDTO job = purgeJobs.enqueue(PurgeTarget.GROUP, id, actorId);
+        events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.DELETE_GROUP, id));
+        return job;
+    }
 
     /**
-     * Usuwa konto użytkownika z systemu.
+     * Zleca usunięcie konta użytkownika (wraz ze wszystkimi jego danymi) w tle.
+     * Na czas usuwania konto jest blokowane, aby użytkownik nie tworzył nowych danych, a jego role i członkostwa
+     * w pamięciach podręcznych są unieważniane od razu, nie dopiero po zakończeniu zadania.
      * @param targetId identyfikator użytkownika do usunięcia
      * @param actorId identyfikator administratora wykonującego akcję
+     * @return stan zadania usuwania
      */
-    public void deleteUser(UUID targetId, UUID actorId) {
+    @Transactional
+    public PurgeJobDTO deleteUser(UUID targetId, UUID actorId) {
         ensureAdmin(actorId);
         UserSecurity target = securityRepo.findById(targetId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
@@ -339,6 +396,175 @@ public class AdminService {
         if (target.getRole() == Role.ADMIN) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie można usunąć Admina.");
         }
-        securityRepo.deleteAuthUser(targetId);
+        if (!target.isBanned()) {
+            target.setBanned(true);
+            securityRepo.save(target);
+            events.publishEvent(StatsChangedEvent.increment(StatsMetric.BANNED_USERS));
+        }
+        PurgeJobDTO job = purgeJobs.enqueue(PurgeTarget.USER, targetId, actorId);
+        events.publishEvent(UserAccessChangedEvent.forUser(targetId));
+        events.publishEvent(GroupMembershipChangedEvent.forUser(targetId));
+        events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.DELETE_USER, targetId));
+        return job;
+    }
+
+    // --- Akcje zbiorcze ---
+
+    /**
+     * Ustawia blokadę (ban) wielu użytkowników naraz.
+     * Uprawnienia wykonującego są sprawdzane raz, stan użytkowników pobierany jednym zapytaniem,
+     * a zmiana zapisywana jedną instrukcją UPDATE.
+     * @param ids identyfikatory użytkowników docelowych
+     * @param banned docelowy stan blokady
+     * @param actorId identyfikator osoby wykonującej akcję (Admin lub Moderator)
+     * @return wynik akcji dla każdego użytkownika
+     */
+    @Transactional
+    public BulkModerationDTO.BulkResult bulkSetBanned(List<UUID> ids, boolean banned, UUID actorId) {
+        ensureAtLeastModerator(actorId);
+        Set<UUID> requested = toBulkSet(ids);
+        Role actorRole = accessCache.get(actorId).role();
+        Map<UUID, UserSecurity> targets = loadTargets(requested);
+
+        List<BulkModerationDTO.ItemResult> items = new ArrayList<>(requested.size());
+        List<UUID> eligible = new ArrayList<>();
+        for (UUID id : requested) {
+            UserSecurity target = targets.get(id);
+            BulkModerationDTO.ItemResult denied = checkTarget(id, target, actorRole);
+            if (denied != null) {
+                items.add(denied);
+            } else if (target.isBanned() == banned) {
+                items.add(new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.UNCHANGED,
+                        banned ? "Użytkownik jest już zablokowany." : "Użytkownik nie jest zablokowany."));
+            } else {
+                eligible.add(id);
+                items.add(new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.APPLIED,
+                        banned ? "Zablokowano." : "Odblokowano."));
+            }
+        }
+
+        if (!eligible.isEmpty()) {
+            securityRepo.updateBanned(eligible, banned);
+            for (UUID id : eligible) {
+                events.publishEvent(UserAccessChangedEvent.forUser(id));
+                events.publishEvent(ModerationActionEvent.of(actorId, banned ? AuditAction.BAN : AuditAction.UNBAN, id, "bulk"));
+            }
+            events.publishEvent(StatsChangedEvent.of(StatsMetric.BANNED_USERS, banned ? eligible.size() : -eligible.size()));
+        }
+        return new BulkModerationDTO.BulkResult(requested.size(), eligible.size(), items);
+    }
+
+    /**
+     * Dodaje ostrzeżenie wielu użytkownikom naraz (jedna instrukcja UPDATE).
+     * @param ids identyfikatory użytkowników docelowych
+     * @param actorId identyfikator osoby wykonującej akcję (Admin lub Moderator)
+     * @return wynik akcji dla każdego użytkownika
+     */
+    @Transactional
+    public BulkModerationDTO.BulkResult bulkWarn(List<UUID> ids, UUID actorId) {
+        ensureAtLeastModerator(actorId);
+        Set<UUID> requested = toBulkSet(ids);
+        Map<UUID, UserSecurity> targets = loadTargets(requested);
+
+        List<BulkModerationDTO.ItemResult> items = new ArrayList<>(requested.size());
+        List<UUID> eligible = new ArrayList<>();
+        for (UUID id : requested) {
+            UserSecurity target = targets.get(id);
+            BulkModerationDTO.ItemResult denied = checkTarget(id, target, null);
+            if (denied != null) {
+                items.add(denied);
+            } else {
+                eligible.add(id);
+                items.add(new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.APPLIED,
+                        "Liczba ostrzeżeń: " + (target.getWarnings() + 1)));
+            }
+        }
+
+        if (!eligible.isEmpty()) {
+            securityRepo.incrementWarnings(eligible);
+            for (UUID id : eligible) {
+                events.publishEvent(UserAccessChangedEvent.forUser(id));
+                events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.WARN, id, "bulk"));
+            }
+        }
+        return new BulkModerationDTO.BulkResult(requested.size(), eligible.size(), items);
+    }
+
+    /**
+     * Zleca usunięcie wszystkich notatek (wraz z głosami, udostępnieniami i powiązaniami z wydarzeniami)
+     * podanych autorów w tle - jedno zadanie {@link PurgeTarget#AUTHOR_NOTES} na autora, usuwające dane partiami.
+     * Liczba notatek autorów pobierana jest jednym zapytaniem grupującym.
+     * @param authorIds identyfikatory autorów
+     * @param actorId identyfikator osoby wykonującej akcję (Admin lub Moderator)
+     * @return wynik akcji dla każdego autora (z liczbą notatek i identyfikatorem zadania usuwania)
+     */
+    @Transactional
+    public BulkModerationDTO.BulkResult bulkDeleteNotesByAuthors(List<UUID> authorIds, UUID actorId) {
+        ensureAtLeastModerator(actorId);
+        Set<UUID> requested = toBulkSet(authorIds);
+        Map<UUID, Long> noteCounts = noteRepo.countByAuthors(requested).stream()
+                .collect(Collectors.toMap(UserCountDTO::userId, UserCountDTO::count));
+
+        List<BulkModerationDTO.ItemResult> items = new ArrayList<>(requested.size());
+        for (UUID id : requested) {
+            long count = noteCounts.getOrDefault(id, 0L);
+            if (count == 0) {
+                items.add(new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.UNCHANGED, "Brak notatek."));
+                continue;
+            }
+            PurgeJobDTO job = purgeJobs.enqueue(PurgeTarget.AUTHOR_NOTES, id, actorId);
+            items.add(new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.APPLIED,
+                    "Zlecono usunięcie notatek: " + count + " (zadanie " + job.id() + ")"));
+            events.publishEvent(ModerationActionEvent.of(actorId, AuditAction.DELETE_USER_NOTES, id, "notes=" + count));
+        }
+        return new BulkModerationDTO.BulkResult(requested.size(), noteCounts.size(), items);
+    }
+
+    /**
+     * Waliduje listę identyfikatorów akcji zbiorczej i usuwa z niej duplikaty (z zachowaniem kolejności).
+     * @param ids identyfikatory z żądania
+     * @return unikalne identyfikatory
+     * @throws ResponseStatusException jeśli lista jest pusta lub przekracza limit (400)
+     */
+    private static Set<UUID> toBulkSet(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lista identyfikatorów jest pusta.");
+        }
+        Set<UUID> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lista identyfikatorów jest pusta.");
+        }
+        if (unique.size() > MAX_BULK_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Maksymalnie " + MAX_BULK_SIZE + " elementów w jednym żądaniu.");
+        }
+        return unique;
+    }
+
+    /**
+     * Pobiera dane bezpieczeństwa wielu użytkowników jednym zapytaniem.
+     * @param ids identyfikatory użytkowników
+     * @return mapa identyfikator -> dane bezpieczeństwa (bez brakujących użytkowników)
+     */
+    private Map<UUID, UserSecurity> loadTargets(Set<UUID> ids) {
+        return securityRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(UserSecurity::getId, Function.identity()));
+    }
+
+    /**
+     * Sprawdza, czy akcja moderacyjna może zostać wykonana na użytkowniku (te same reguły co dla akcji pojedynczych).
+     * @param id identyfikator użytkownika docelowego
+     * @param target dane bezpieczeństwa użytkownika docelowego (null - nie istnieje)
+     * @param actorRole rola osoby wykonującej akcję (null - moderatorzy nie są chronieni przed akcją)
+     * @return wynik odmowy lub null, jeśli akcja jest dozwolona
+     */
+    private static BulkModerationDTO.ItemResult checkTarget(UUID id, UserSecurity target, Role actorRole) {
+        if (target == null) {
+            return new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.NOT_FOUND, "Użytkownik nie istnieje.");
+        }
+        if (target.getRole() == Role.ADMIN || (actorRole == Role.MODERATOR && target.getRole() == Role.MODERATOR)) {
+            return new BulkModerationDTO.ItemResult(id, BulkModerationDTO.Outcome.FORBIDDEN, "Brak uprawnień.");
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.DailyCountDTO;
+import org.example.noteuzbackend.event.StatsChangedEvent;
+import org.example.noteuzbackend.model.entity.NoteShare;
+import org.example.noteuzbackend.model.enums.StatsMetric;
+import org.example.noteuzbackend.repository.*;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serwis statystyk systemowych panelu administracyjnego.
+ * Liczniki są utrzymywane przyrostowo na podstawie zdarzeń {@link StatsChangedEvent} publikowanych
+ * przez ścieżki zapisu, więc odczyt statystyk nie wykonuje żadnych zapytań do bazy danych.
+ * Okresowe uzgadnianie z bazą danych koryguje rozbieżności (np. zmiany wykonane poza aplikacją
+ * lub kaskadowe usunięcia), które mogą się pojawić między kolejnymi uruchomieniami.
+ */
+@Service
+public class AdminStatsService {
+
+    /** Liczba ostatnich dni, dla których przechowywana jest liczba utworzonych notatek. */
+    static final int DAILY_HISTORY_DAYS = 30;
+
+    private final Map<StatsMetric, AtomicLong> counters = new EnumMap<>(StatsMetric.class);
+    private final ConcurrentSkipListMap<LocalDate, AtomicLong> notesPerDay = new ConcurrentSkipListMap<>();
+    private volatile Instant reconciledAt;
+
+    private final UserSecurityRepo securityRepo;
+    private final NoteRepo noteRepo;
+    private final GroupRepo groupRepo;
+    private final GroupMemberRepo memberRepo;
+    private final NoteVoteRepo voteRepo;
+    private final NoteShareRepo shareRepo;
+
+    /**
+     * Konstruktor serwisu AdminStatsService.
+     * @param securityRepo repozytorium bezpieczeństwa użytkowników
+     * @param noteRepo repozytorium notatek
+     * @param groupRepo repozytorium grup
+     * @param memberRepo repozytorium członków grup
+     * @param voteRepo repozytorium głosów
+     * @param shareRepo repozytorium udostępnień
+     */
+    public AdminStatsService(UserSecurityRepo securityRepo, NoteRepo noteRepo, GroupRepo groupRepo,
+                             GroupMemberRepo memberRepo, NoteVoteRepo voteRepo, NoteShareRepo shareRepo) {
+        this.securityRepo = securityRepo;
+        this.noteRepo = noteRepo;
+        this.groupRepo = groupRepo;
+        this.memberRepo = memberRepo;
+        this.voteRepo = voteRepo;
+        this.shareRepo = shareRepo;
+        for (StatsMetric metric : StatsMetric.values()) {
+            counters.put(metric, new AtomicLong());
+        }
+    }
+
+    /**
+     * Zwraca bieżące statystyki systemowe (bez zapytań do bazy danych).
+     * @return mapa statystyk wraz z liczbą notatek z ostatnich dni i czasem ostatniego uzgodnienia
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> shares = new LinkedHashMap<>();
+        for (NoteShare.ShareStatus status : NoteShare.ShareStatus.values()) {
+            shares.put(status.name(), get(StatsMetric.forShareStatus(status)));
+        }
+
+        Map<String, Long> daily = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = today.minusDays(DAILY_HISTORY_DAYS - 1); !day.isAfter(today); day = day.plusDays(1)) {
+            AtomicLong count = notesPerDay.get(day);
+            daily.put(day.toString(), count == null ? 0L : Math.max(0L, count.get()));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", get(StatsMetric.USERS));
+        stats.put("bannedUsers", get(StatsMetric.BANNED_USERS));
+        stats.put("notes", get(StatsMetric.NOTES));
+        stats.put("groups", get(StatsMetric.GROUPS));
+        stats.put("groupMembers", get(StatsMetric.GROUP_MEMBERS));
+        stats.put("votes", get(StatsMetric.VOTES));
+        stats.put("shares", shares);
+        stats.put("notesPerDay", daily);
+        stats.put("reconciledAt", reconciledAt);
+        return stats;
+    }
+
+    /**
+     * Aktualizuje liczniki po zatwierdzeniu transakcji, w której nastąpiła zmiana.
+     * @param event zdarzenie zmiany statystyk
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatsChanged(StatsChangedEvent event) {
+        counters.get(event.metric()).addAndGet(event.delta());
+        if (event.day() != null && !event.day().isBefore(LocalDate.now().minusDays(DAILY_HISTORY_DAYS - 1))) {
+            notesPerDay.computeIfAbsent(event.day(), d -> new AtomicLong()).addAndGet(event.delta());
+        }
+    }
+
+    /**
+     * Uzgadnia liczniki z bazą danych (przy starcie aplikacji i okresowo).
+     * Wykonuje wyłącznie zapytania zliczające, niezależnie od liczby odczytów statystyk.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile-initial-delay-ms:0}",
+            fixedDelayString = "${app.stats.reconcile-interval-ms:900000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        counters.get(StatsMetric.USERS).set(securityRepo.count());
+        counters.get(StatsMetric.BANNED_USERS).set(securityRepo.countByIsBannedTrue());
+        counters.get(StatsMetric.NOTES).set(noteRepo.count());
+        counters.get(StatsMetric.GROUPS).set(groupRepo.count());
+        counters.get(StatsMetric.GROUP_MEMBERS).set(memberRepo.count());
+        counters.get(StatsMetric.VOTES).set(voteRepo.count());
+        for (NoteShare.ShareStatus status : NoteShare.ShareStatus.values()) {
+            counters.get(StatsMetric.forShareStatus(status)).set(shareRepo.countByStatus(status));
+        }
+
+        LocalDate since = LocalDate.now().minusDays(DAILY_HISTORY_DAYS - 1);
+        Map<LocalDate, AtomicLong> daily = new LinkedHashMap<>();
+        for (DailyCountDTO row : noteRepo.countCreatedPerDaySince(since.atStartOfDay())) {
+            daily.put(row.day(), new AtomicLong(row.count()));
+        }
+        notesPerDay.headMap(since).clear();
+        notesPerDay.keySet().retainAll(daily.keySet());
+        daily.forEach((day, count) -> notesPerDay.merge(day, count, (current, fresh) -> {
+            current.set(fresh.get());
+            return current;
+        }));
+
+        reconciledAt = Instant.now();
+    }
+
+    /**
+     * Odczytuje wartość licznika (ujemne wartości przejściowe są zastępowane zerem).
+     * @param metric licznik statystyk
+     * @return wartość licznika
+     */
+    private long get(StatsMetric metric) {
+        return Math.max(0L, counters.get(metric).get());
+    }
+}
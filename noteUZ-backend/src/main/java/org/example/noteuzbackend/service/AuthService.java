@@ -1,6 +1,9 @@
 package org.example.noteuzbackend.service;
 
+import org.example.noteuzbackend.event.StatsChangedEvent;
+import org.example.noteuzbackend.model.enums.StatsMetric;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseCookie;
@@ -26,6 +29,7 @@ public class AuthService {
     private final int refreshMaxAge;
 
     private final String hcaptchaSecretKey;
+    private final ApplicationEventPublisher events;
 
     /**
      * Inicjalizuje serwis autentykacji z danymi konfiguracyjnymi Supabase i hCaptcha.
@@ -36,6 +40,7 @@ public class AuthService {
      * @param refreshCookieName nazwa ciasteczka dla Refresh Tokena
      * @param refreshMaxAge czas życia Refresh Tokena w sekundach
      * @param hcaptchaSecretKey klucz prywatny hCaptcha
+     * @param events publikator zdarzeń aplikacji
      */
     public AuthService(
             @Value("${supabase.auth.url}") String authUrl,
@@ -45,13 +50,15 @@ public class AuthService {
             // Wstrzykujemy nowe wartości z application.properties
             @Value("${app.jwt.refreshCookie}") String refreshCookieName,
             @Value("${app.jwt.refreshMaxAge}") int refreshMaxAge,
-            @Value("${hcaptcha.secret_key}") String hcaptchaSecretKey
+            @Value("${hcaptcha.secret_key}") String hcaptchaSecretKey,
+            ApplicationEventPublisher events
     ) {
         this.cookieName = cookieName;
         this.maxAge = maxAge;
         this.refreshCookieName = refreshCookieName;
         this.refreshMaxAge = refreshMaxAge;
         this.hcaptchaSecretKey = hcaptchaSecretKey;
+        this.events = events;
 
         this.http = RestClient.builder()
                 .baseUrl(authUrl)
@@ -339,6 +346,7 @@ public class AuthService {
             System.out.println("Register response status: " + status);
 
             if (status >= 200 && status < 300) {
+                events.publishEvent(StatsChangedEvent.increment(StatsMetric.USERS));
                 return ResponseEntity.ok(Map.of("registered", true));
             }
 
@@ -0,0 +1,348 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pamięć podręczna miniatur awatarów z budżetem bajtów. Dane obrazów są przechowywane poza stertą
+ * (bezpośrednie {@link ByteBuffer}), więc nawet duży budżet nie zwiększa pracy odśmiecacza pamięci.
+ * Wpis zawiera metadane miniatury (wystarczające do odpowiedzi 304) i - po pierwszym pełnym odczycie - jej dane.
+ * Kolejność usuwania to LRU, a nowy wpis wypiera najdawniej używany tylko wtedy, gdy według szkicu częstości
+ * (TinyLFU) był żądany częściej - jednorazowe przeglądanie długich list nie wypiera popularnych awatarów.
+ * Wpisy są unieważniane zdarzeniem {@link AvatarChangedEvent}, a TTL ogranicza nieaktualność na innych instancjach.
+ * Pamięć natywna usuniętego bufora jest zwalniana przez odśmiecacz, dlatego bufor przekazany do zapisu
+ * pozostaje poprawny nawet po usunięciu wpisu w trakcie wysyłania.
+ */
+@Component
+public class AvatarByteCache {
+    /** Przybliżony koszt wpisu bez danych (klucz, metadane, węzeł listy) wliczany do budżetu. */
+    static final int ENTRY_OVERHEAD = 256;
+
+    private record Key(UUID userId, int dimension) {}
+
+    private record Entry(AvatarMetaDTO meta, ByteBuffer data, long expiresAt) {
+        long cost() {
+            return ENTRY_OVERHEAD + (data != null ? data.capacity() : 0);
+        }
+    }
+
+    private final long budgetBytes;
+    private final int maxEntryBytes;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long usedBytes;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder metaHits = new LongAdder();
+    private final LongAdder metaMisses = new LongAdder();
+    private final LongAdder dataHits = new LongAdder();
+    private final LongAdder dataMisses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Konstruktor pamięci podręcznej awatarów.
+     * @param budgetBytes łączny budżet pamięci na wpisy w bajtach
+     * @param maxEntryBytes maksymalny rozmiar pojedynczego obrazu przechowywanego w pamięci podręcznej
+     * @param ttlMillis czas życia wpisu w milisekundach
+     */
+    public AvatarByteCache(@Value("${app.avatars.cache-budget-bytes:67108864}") long budgetBytes,
+                           @Value("${app.avatars.cache-max-entry-bytes:262144}") int maxEntryBytes,
+                           @Value("${app.avatars.cache-ttl-ms:600000}") long ttlMillis) {
+        this.budgetBytes = budgetBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        // Szkic śledzi ok. 10 razy więcej kluczy, niż mieści pamięć podręczna przy typowym rozmiarze miniatury
+        this.sketch = new FrequencySketch((int) Math.min(1 << 22, Math.max(1024, budgetBytes / 4096 * 10)));
+    }
+
+    /**
+     * Zwraca metadane miniatury z pamięci podręcznej.
+     * @param userId identyfikator użytkownika
+     * @param dimension długość boku miniatury
+     * @return metadane lub null, jeśli wpisu nie ma lub wygasł
+     */
+    public AvatarMetaDTO getMeta(UUID userId, int dimension) {
+        Key key = new Key(userId, dimension);
+        Entry entry = lookup(key);
+        if (entry == null) {
+            metaMisses.increment();
+            return null;
+        }
+        metaHits.increment();
+        return entry.meta();
+    }
+
+    /**
+     * Zwraca dane miniatury z pamięci podręcznej jako widok tylko do odczytu (pozycja 0).
+     * @param meta metadane miniatury
+     * @return dane lub null, jeśli nie zostały jeszcze wczytane albo wpis dotyczy innej wersji awatara
+     */
+    public ByteBuffer getData(AvatarMetaDTO meta) {
+        Entry entry = meta.dimension() != null ? lookup(new Key(meta.userId(), meta.dimension())) : null;
+        if (entry == null || entry.data() == null || !entry.meta().contentHash().equals(meta.contentHash())) {
+            dataMisses.increment();
+            return null;
+        }
+        dataHits.increment();
+        return entry.data().asReadOnlyBuffer();
+    }
+
+    /**
+     * Zwraca bieżący licznik unieważnień; należy go odczytać przed pobraniem metadanych z bazy danych.
+     * @return licznik unieważnień
+     */
+    public long version() {
+        return invalidations.get();
+    }
+
+    /**
+     * Sprawdza, czy obraz o podanym rozmiarze może być przechowywany w pamięci podręcznej.
+     * @param size rozmiar obrazu w bajtach lub null
+     * @return true, jeśli obraz mieści się w limicie pojedynczego wpisu
+     */
+    public boolean accepts(Long size) {
+        return size != null && size <= maxEntryBytes;
+    }
+
+    /**
+     * Zapamiętuje metadane miniatury wczytane z bazy danych. Jeśli od odczytu licznika {@code version}
+     * nastąpiło unieważnienie, wynik może być nieaktualny i nie jest zapamiętywany.
+     * @param meta metadane miniatury
+     * @param version licznik unieważnień odczytany przed zapytaniem
+     */
+    public void putMeta(AvatarMetaDTO meta, long version) {
+        if (meta.dimension() == null || meta.contentHash() == null) return;
+        Entry entry = new Entry(meta, null, System.nanoTime() + ttlNanos);
+        synchronized (this) {
+            if (invalidations.get() != version) return;
+            admit(new Key(meta.userId(), meta.dimension()), entry);
+        }
+    }
+
+    /**
+     * Dołącza dane do wpisu z metadanymi tej samej wersji miniatury, kopiując je poza stertę.
+     * Dane są pomijane, jeśli wpis został w międzyczasie unieważniony lub przekraczają limit wpisu.
+     * @param meta metadane miniatury
+     * @param data dane obrazu
+     */
+    public void putData(AvatarMetaDTO meta, byte[] data) {
+        putData(meta, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Dołącza dane do wpisu z metadanymi tej samej wersji miniatury, kopiując je poza stertę
+     * (np. z pliku odwzorowanego w pamięci). Pozycja przekazanego bufora nie jest zmieniana.
+     * @param meta metadane miniatury
+     * @param data dane obrazu
+     */
+    public void putData(AvatarMetaDTO meta, ByteBuffer data) {
+        if (meta.dimension() == null || data.remaining() > maxEntryBytes) return;
+        Key key = new Key(meta.userId(), meta.dimension());
+        synchronized (this) {
+            Entry current = entries.get(key);
+            if (current == null || current.data() != null || !current.meta().contentHash().equals(meta.contentHash())) return;
+        }
+        // Alokacja i kopiowanie poza blokadą; poprawność wpisu jest sprawdzana ponownie przed podmianą
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.remaining()).put(data.duplicate()).flip();
+        synchronized (this) {
+            Entry current = entries.get(key);
+            if (current == null || current.data() != null || !current.meta().contentHash().equals(meta.contentHash())) return;
+            admit(key, new Entry(current.meta(), buffer, current.expiresAt()));
+        }
+    }
+
+    /**
+     * Unieważnia miniatury użytkownika po zatwierdzeniu transakcji, w której zmieniono awatar.
+     * @param event zdarzenie zmiany awatara
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAvatarChanged(AvatarChangedEvent event) {
+        invalidations.incrementAndGet();
+        for (Integer dimension : AvatarThumbnailer.SIZES) {
+            Entry removed = entries.remove(new Key(event.userId(), dimension));
+            if (removed != null) usedBytes -= removed.cost();
+        }
+    }
+
+    /**
+     * Usuwa wygasłe wpisy.
+     */
+    @Scheduled(fixedDelayString = "${app.avatars.cache-ttl-ms:600000}")
+    public synchronized void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (now - entry.expiresAt() >= 0) {
+                usedBytes -= entry.cost();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Zapisuje dane z bufora do strumienia odpowiedzi bez tworzenia tablicy o rozmiarze obrazu.
+     * @param data dane (od bieżącej pozycji do limitu)
+     * @param out strumień docelowy
+     * @throws IOException w przypadku błędu zapisu
+     */
+    public static void write(ByteBuffer data, OutputStream out) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Zwraca statystyki pamięci podręcznej.
+     * @return mapa z trafieniami i chybieniami metadanych i danych, zajętością budżetu oraz liczbą wypartych
+     *         i odrzuconych wpisów
+     */
+    public synchronized Map<String, Object> stats() {
+        long h = metaHits.sum();
+        long m = metaMisses.sum();
+        long dh = dataHits.sum();
+        long dm = dataMisses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("metaHits", h);
+        stats.put("metaMisses", m);
+        stats.put("metaHitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("dataHits", dh);
+        stats.put("dataMisses", dm);
+        stats.put("dataHitRate", dh + dm == 0 ? 0.0 : (double) dh / (dh + dm));
+        stats.put("entries", entries.size());
+        stats.put("usedBytes", usedBytes);
+        stats.put("budgetBytes", budgetBytes);
+        stats.put("evictions", evictions.sum());
+        stats.put("rejections", rejections.sum());
+        return stats;
+    }
+
+    private Entry lookup(Key key) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            sketch.increment(key.hashCode());
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (now - entry.expiresAt() >= 0) {
+                entries.remove(key);
+                usedBytes -= entry.cost();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Wstawia lub podmienia wpis, wypierając najdawniej używane wpisy, dopóki nie zmieści się w budżecie.
+     * Wpis, który był żądany rzadziej niż kandydat do wyparcia, jest odrzucany (podmieniany wpis pozostaje bez zmian).
+     */
+    private void admit(Key key, Entry entry) {
+        Entry previous = entries.get(key);
+        long needed = entry.cost() - (previous != null ? previous.cost() : 0);
+        int frequency = sketch.frequency(key.hashCode());
+
+        // Najpierw wyznaczamy ofiary bez usuwania - odrzucony kandydat nie może wyprzeć części wpisów
+        long freed = 0;
+        int victims = 0;
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (usedBytes - freed + needed > budgetBytes) {
+            if (!eldest.hasNext()) {
+                rejections.increment();
+                return;
+            }
+            Map.Entry<Key, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) continue;
+            if (sketch.frequency(victim.getKey().hashCode()) > frequency) {
+                rejections.increment();
+                return;
+            }
+            freed += victim.getValue().cost();
+            victims++;
+        }
+
+        eldest = entries.entrySet().iterator();
+        while (victims > 0) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) continue;
+            eldest.remove();
+            victims--;
+            evictions.increment();
+        }
+        entries.put(key, entry);
+        usedBytes += needed - freed;
+    }
+
+    /**
+     * Szkic częstości (count-min) z 4-bitowymi licznikami i okresowym starzeniem (połowienie liczników),
+     * dzięki któremu częstość odzwierciedla niedawną popularność.
+     */
+    static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int width) {
+            int size = Integer.highestOneBit(Math.max(16, width - 1)) << 1;
+            this.counters = new byte[DEPTH][size];
+            this.mask = size - 1;
+            this.sampleSize = size * 10;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(hash, i);
+                if (counters[i][index] < MAX_COUNT) {
+                    counters[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) age();
+        }
+
+        int frequency(int hash) {
+            int min = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                min = Math.min(min, counters[i][index(hash, i)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void age() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) row[i] >>= 1;
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.AvatarBatchDTO;
+import org.example.noteuzbackend.dto.AvatarDTO;
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.example.noteuzbackend.model.entity.UserAvatar;
+import org.example.noteuzbackend.repository.AvatarVariantRepo;
+import org.example.noteuzbackend.repository.UserAvatarRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Serwis awatarów użytkowników. Każdy awatar ma skrót treści (SHA-256), który służy jako ETag
+ * i wersja w adresie: adres z aktualną wersją może być przechowywany przez przeglądarki bezterminowo,
+ * a odpowiedź 304 jest wyznaczana z samych metadanych, bez odczytu obrazu z bazy danych.
+ * Przesłane obrazy są sprawdzane i przetwarzane na miniatury w stałych rozmiarach ({@link AvatarThumbnailer}),
+ * które są serwowane zamiast oryginału. Dane obrazów są przechowywane w {@link BlobStore}, a baza danych zawiera
+ * tylko metadane; awatary sprzed przeniesienia ({@link BlobMigrationService}) są czytane z kolumny bytea.
+ */
+@Service
+public class AvatarService {
+    /** Czas przechowywania w pamięci podręcznej odpowiedzi pod wersjonowanym adresem. */
+    public static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
+    /** Wersjonowany adres awatara; parametr v to skrót treści. */
+    public static final String AVATAR_PATH = "/api/users/%s/avatar?v=%s";
+
+    /** Maksymalna liczba użytkowników w jednym żądaniu zbiorczym. */
+    public static final int BATCH_MAX_IDS = 100;
+
+    /** Największa miniatura zwracana w żądaniu zbiorczym. */
+    public static final int BATCH_MAX_DIMENSION = 64;
+
+    private static final String AVATAR_DATA_SQL = "SELECT data FROM public.user_avatars WHERE user_id = ?";
+    private static final String VARIANT_DATA_SQL =
+            "SELECT data FROM public.avatar_variants WHERE user_id = ? AND dimension = ? AND source_hash = ?";
+
+    private static final String BATCH_DATA_SQL =
+            "SELECT v.user_id, v.content_type, v.source_hash, v.size_bytes, v.blob_key, v.data " +
+            "FROM public.avatar_variants v JOIN public.user_avatars a " +
+            "ON a.user_id = v.user_id AND a.content_hash = v.source_hash " +
+            "WHERE v.dimension = ? AND v.user_id IN (%s)";
+
+    private final UserAvatarRepo avatarRepo;
+    private final AvatarVariantRepo variantRepo;
+    private final AvatarThumbnailer thumbnailer;
+    private final AvatarByteCache cache;
+    private final BlobStore blobs;
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
+    private final long maxUploadBytes;
+
+    /**
+     * Konstruktor serwisu awatarów.
+     * @param avatarRepo repozytorium awatarów
+     * @param variantRepo repozytorium miniatur awatarów
+     * @param thumbnailer generator miniatur
+     * @param cache pamięć podręczna miniatur
+     * @param blobs magazyn danych obrazów
+     * @param jdbc szablon JDBC używany do strumieniowego odczytu obrazów sprzed przeniesienia do magazynu
+     * @param events wydawca zdarzeń aplikacji
+     * @param maxUploadBytes maksymalny rozmiar przesyłanego obrazu w bajtach
+     */
+    public AvatarService(UserAvatarRepo avatarRepo, AvatarVariantRepo variantRepo, AvatarThumbnailer thumbnailer,
+                         AvatarByteCache cache, BlobStore blobs, JdbcTemplate jdbc, ApplicationEventPublisher events,
+                         @Value("${app.avatars.max-upload-bytes:5242880}") long maxUploadBytes) {
+        this.avatarRepo = avatarRepo;
+        this.variantRepo = variantRepo;
+        this.thumbnailer = thumbnailer;
+        this.cache = cache;
+        this.blobs = blobs;
+        this.jdbc = jdbc;
+        this.events = events;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    /**
+     * Zapisuje (lub zastępuje) awatar użytkownika: dane trafiają do magazynu danych binarnych, a w bazie danych
+     * zapisywane są klucz, skrót i rozmiar treści. Po zatwierdzeniu transakcji zlecane jest wygenerowanie miniatur.
+     * Typ MIME jest ustalany na podstawie rzeczywistego formatu pliku.
+     * @param userId identyfikator użytkownika
+     * @param data dane obrazu
+     * @return opis zapisanego awatara z wersjonowanym adresem
+     * @throws ResponseStatusException jeśli plik jest pusty, nie jest obsługiwanym obrazem
+     *         lub ma zbyt dużą rozdzielczość (400), albo przekracza dopuszczalny rozmiar (413)
+     * @throws IOException w przypadku błędu zapisu do magazynu
+     */
+    @Transactional
+    public AvatarDTO saveAvatar(UUID userId, byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Plik jest pusty");
+        }
+        if (data.length > maxUploadBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Plik jest zbyt duży");
+        }
+        AvatarThumbnailer.ImageInfo image = thumbnailer.inspect(data);
+        BlobStore.Blob blob = blobs.put(data);
+        UserAvatar avatar = new UserAvatar(userId, null, image.contentType());
+        avatar.setBlobKey(blob.key());
+        avatar.setContentHash(blob.key());
+        avatar.setSize(blob.size());
+        avatar.setUpdatedAt(Instant.now());
+        avatarRepo.save(avatar);
+        events.publishEvent(AvatarChangedEvent.forUser(userId, avatar.getContentHash()));
+        return new AvatarDTO(userId, avatar.getContentHash(), avatarUrl(userId, avatar.getContentHash()));
+    }
+
+    /**
+     * Pobiera metadane awatara (bez danych obrazu).
+     * @param userId identyfikator użytkownika
+     * @return metadane awatara
+     * @throws ResponseStatusException jeśli użytkownik nie ma awatara (404)
+     */
+    @Transactional(readOnly = true)
+    public AvatarMetaDTO findMeta(UUID userId) {
+        return avatarRepo.findMeta(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Użytkownik nie ma awatara"));
+    }
+
+    /**
+     * Pobiera metadane miniatury awatara w rozmiarze odpowiednim do żądanego ({@link AvatarThumbnailer#variantFor}).
+     * Jeśli miniatura nie jest jeszcze gotowa, zwraca metadane oryginału i zleca jej wygenerowanie.
+     * Metadane miniatur są zapamiętywane w {@link AvatarByteCache}, więc trafienie nie wymaga zapytania do bazy danych.
+     * @param userId identyfikator użytkownika
+     * @param size żądana długość boku w pikselach lub null (największa miniatura)
+     * @return metadane miniatury lub oryginału
+     * @throws ResponseStatusException jeśli użytkownik nie ma awatara (404)
+     */
+    public AvatarMetaDTO findMeta(UUID userId, Integer size) {
+        int dimension = AvatarThumbnailer.variantFor(size);
+        AvatarMetaDTO cached = cache.getMeta(userId, dimension);
+        if (cached != null) return cached;
+
+        long version = cache.version();
+        Optional<AvatarMetaDTO> variant = variantRepo.findMeta(userId, dimension);
+        if (variant.isPresent()) {
+            cache.putMeta(variant.get(), version);
+            return variant.get();
+        }
+        AvatarMetaDTO original = findMeta(userId);
+        if (original.contentHash() != null) thumbnailer.request(userId, original.contentHash());
+        return original;
+    }
+
+    /**
+     * Przygotowuje dane obrazu przed wysłaniem nagłówków odpowiedzi (Content-Length pochodzi z metadanych, więc brak
+     * danych musi zostać wykryty wcześniej). Miniatura jest brana z pamięci podręcznej poza stertą, a przy chybieniu
+     * wczytywana z magazynu (plik odwzorowany w pamięci) lub bazy danych i zapamiętywana; dla oryginału i obrazów
+     * przekraczających limit wpisu sprawdzane jest tylko istnienie obiektu w magazynie.
+     * @param meta metadane awatara lub miniatury
+     * @return dane miniatury lub null, jeśli obraz zostanie przesłany strumieniowo ({@link #writeAvatar})
+     * @throws ResponseStatusException jeśli danych obrazu nie ma (404), np. miniatura została zastąpiona po odczycie metadanych
+     * @throws IOException w przypadku błędu odczytu
+     */
+    public ByteBuffer loadAvatar(AvatarMetaDTO meta) throws IOException {
+        if (meta.dimension() != null) {
+            ByteBuffer cached = cache.getData(meta);
+            if (cached != null) return cached;
+            if (cache.accepts(meta.size())) {
+                ByteBuffer data;
+                try {
+                    data = meta.blobKey() != null ? blobs.read(meta.blobKey()) : readVariant(meta);
+                } catch (NoSuchFileException e) {
+                    data = null;
+                }
+                if (data == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Brak danych awatara");
+                cache.putData(meta, data);
+                return data;
+            }
+        }
+        if (meta.blobKey() != null && !blobs.exists(meta.blobKey())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Brak danych awatara");
+        }
+        return null;
+    }
+
+    /**
+     * Zapisuje dane obrazu do strumienia odpowiedzi. Dane przygotowane przez {@link #loadAvatar} są przesyłane
+     * z bufora; oryginał i obrazy przekraczające limit wpisu pamięci podręcznej są przesyłane z pliku
+     * ({@link BlobStore#transferTo}), a obrazy sprzed przeniesienia do magazynu są kopiowane z wyniku zapytania JDBC
+     * bez tworzenia encji.
+     * @param meta metadane awatara lub miniatury
+     * @param data dane zwrócone przez {@link #loadAvatar} (null - przesyłanie strumieniowe)
+     * @param out strumień docelowy (nie jest zamykany)
+     * @throws IOException w przypadku błędu zapisu
+     */
+    public void writeAvatar(AvatarMetaDTO meta, ByteBuffer data, OutputStream out) throws IOException {
+        if (data != null) {
+            AvatarByteCache.write(data, out);
+            return;
+        }
+        if (meta.blobKey() != null) {
+            blobs.transferTo(meta.blobKey(), out);
+            return;
+        }
+        RowCallbackHandler copy = rs -> {
+            try (InputStream in = rs.getBinaryStream(1)) {
+                if (in != null) in.transferTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Przerwano przesyłanie awatara", e);
+            }
+        };
+        if (meta.dimension() != null) {
+            jdbc.query(VARIANT_DATA_SQL, copy, meta.userId(), meta.dimension(), meta.contentHash());
+        } else {
+            jdbc.query(AVATAR_DATA_SQL, copy, meta.userId());
+        }
+    }
+
+    /**
+     * Pobiera małe miniatury awatarów wielu użytkowników naraz (np. do listy członków grupy). Miniatury są brane
+     * z {@link AvatarByteCache}, a brakujące wczytywane jednym zapytaniem {@code IN} i zapamiętywane. Użytkownicy,
+     * których miniatura nie jest jeszcze gotowa, trafiają na listę oczekujących (generowanie jest zlecane),
+     * a użytkownicy bez awatara są pomijani.
+     * @param userIds identyfikatory użytkowników (duplikaty są pomijane)
+     * @param size żądana długość boku w pikselach lub null; ograniczana do {@link #BATCH_MAX_DIMENSION}
+     * @return miniatury w kolejności identyfikatorów wraz z wersją całej odpowiedzi
+     * @throws ResponseStatusException jeśli podano więcej niż {@link #BATCH_MAX_IDS} identyfikatorów (400)
+     */
+    public AvatarBatchDTO findBatch(List<UUID> userIds, Integer size) {
+        Set<UUID> ids = new LinkedHashSet<>(userIds);
+        if (ids.size() > BATCH_MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Zbyt wiele użytkowników (maksymalnie " + BATCH_MAX_IDS + ")");
+        }
+        int dimension = AvatarThumbnailer.variantFor(size == null ? BATCH_MAX_DIMENSION : Math.min(size, BATCH_MAX_DIMENSION));
+
+        Map<UUID, AvatarMetaDTO> metas = new HashMap<>();
+        Map<UUID, String> uris = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID id : ids) {
+            AvatarMetaDTO meta = cache.getMeta(id, dimension);
+            ByteBuffer data = meta != null ? cache.getData(meta) : null;
+            if (data == null) {
+                misses.add(id);
+                continue;
+            }
+            metas.put(id, meta);
+            uris.put(id, dataUri(meta.contentType(), data));
+        }
+
+        if (!misses.isEmpty()) {
+            long version = cache.version();
+            List<Object> args = new ArrayList<>(misses.size() + 1);
+            args.add(dimension);
+            args.addAll(misses);
+            String sql = String.format(BATCH_DATA_SQL, String.join(", ", Collections.nCopies(misses.size(), "?")));
+            jdbc.query(sql, (RowCallbackHandler) rs -> {
+                AvatarMetaDTO meta = new AvatarMetaDTO(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3),
+                        rs.getLong(4), dimension, rs.getString(5));
+                ByteBuffer data;
+                try {
+                    if (meta.blobKey() != null) {
+                        data = blobs.read(meta.blobKey());
+                    } else {
+                        byte[] bytes = rs.getBytes(6);
+                        // Wiersz bez klucza magazynu i bez danych - miniatura jest traktowana jak niegotowa
+                        if (bytes == null) return;
+                        data = ByteBuffer.wrap(bytes);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Brak miniatury awatara " + meta.userId() + " w magazynie: " + e.getMessage());
+                    return;
+                }
+                cache.putMeta(meta, version);
+                cache.putData(meta, data);
+                metas.put(meta.userId(), meta);
+                uris.put(meta.userId(), dataUri(meta.contentType(), data));
+            }, args.toArray());
+            misses.removeIf(metas::containsKey);
+        }
+
+        Set<UUID> pending = new LinkedHashSet<>();
+        if (!misses.isEmpty()) {
+            for (AvatarMetaDTO original : avatarRepo.findMetaByUserIds(misses)) {
+                if (original.contentHash() != null) thumbnailer.request(original.userId(), original.contentHash());
+                pending.add(original.userId());
+            }
+        }
+
+        Map<UUID, String> avatars = new LinkedHashMap<>();
+        StringBuilder versions = new StringBuilder().append(dimension);
+        for (UUID id : ids) {
+            if (uris.containsKey(id)) {
+                avatars.put(id, uris.get(id));
+                versions.append('|').append(id).append(':').append(metas.get(id).contentHash());
+            } else if (pending.contains(id)) {
+                versions.append('|').append(id).append(":pending");
+            }
+        }
+        String version = hash(versions.toString().getBytes(StandardCharsets.UTF_8));
+        return new AvatarBatchDTO(dimension, version, avatars, ids.stream().filter(pending::contains).toList());
+    }
+
+    private ByteBuffer readVariant(AvatarMetaDTO meta) {
+        byte[] data = jdbc.query(VARIANT_DATA_SQL, (ResultSetExtractor<byte[]>) rs -> rs.next() ? rs.getBytes(1) : null,
+                meta.userId(), meta.dimension(), meta.contentHash());
+        return data != null ? ByteBuffer.wrap(data) : null;
+    }
+
+    /**
+     * Wyznacza znacznik ETag awatara; miniatury różnych rozmiarów mają różne znaczniki.
+     * @param meta metadane awatara lub miniatury
+     * @return znacznik ETag (w cudzysłowie) lub null dla awatara bez skrótu treści
+     */
+    public static String etag(AvatarMetaDTO meta) {
+        if (meta.contentHash() == null) return null;
+        return "\"" + meta.contentHash() + (meta.dimension() != null ? "-" + meta.dimension() : "") + "\"";
+    }
+
+    /**
+     * Sprawdza, czy nagłówek If-None-Match wskazuje aktualną wersję (porównanie słabe, zgodnie z RFC 9110).
+     * @param ifNoneMatch wartość nagłówka If-None-Match lub null
+     * @param etag aktualny znacznik ETag lub null
+     * @return true, jeśli klient ma aktualną wersję
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Buduje wersjonowany adres awatara.
+     * @param userId identyfikator użytkownika
+     * @param contentHash skrót treści awatara
+     * @return adres awatara
+     */
+    public static String avatarUrl(UUID userId, String contentHash) {
+        return String.format(AVATAR_PATH, userId, contentHash);
+    }
+
+    private static String dataUri(String contentType, ByteBuffer data) {
+        return "data:" + contentType + ";base64," + StandardCharsets.US_ASCII.decode(Base64.getEncoder().encode(data));
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package org.example.noteuzbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.example.noteuzbackend.model.entity.AvatarVariant;
+import org.example.noteuzbackend.model.entity.UserAvatar;
+import org.example.noteuzbackend.repository.AvatarVariantRepo;
+import org.example.noteuzbackend.repository.UserAvatarRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generowanie miniatur awatarów w stałych rozmiarach ({@link #SIZES}).
+ * Przesłany obraz jest sprawdzany (format, rozdzielczość) bez dekodowania, a dekodowanie, skalowanie
+ * i ponowne kodowanie odbywa się w ograniczonej puli wątków w tle. Do czasu wygenerowania miniatur
+ * serwowany jest oryginał; awatary bez miniatur (np. sprzed wprowadzenia miniatur) są przetwarzane
+ * przy pierwszym odczycie.
+ */
+@Component
+public class AvatarThumbnailer {
+    /** Rozmiary miniatur (długość boku w pikselach), rosnąco. */
+    public static final List<Integer> SIZES = List.of(32, 64, 256);
+
+    /** Obsługiwane formaty przesyłanych obrazów i ich typy MIME. */
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "png", "image/png",
+            "jpeg", "image/jpeg",
+            "gif", "image/gif");
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final UserAvatarRepo avatarRepo;
+    private final AvatarVariantRepo variantRepo;
+    private final BlobStore blobs;
+    private final TransactionTemplate tx;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+
+    /** Zadania oczekujące lub w toku (identyfikator użytkownika i skrót źródła) - bez duplikatów w kolejce. */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    /** Skróty awatarów, których nie udało się zdekodować - nie są ponawiane przy każdym odczycie. */
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong renderNanos = new AtomicLong();
+
+    /**
+     * Konstruktor generatora miniatur.
+     * @param avatarRepo repozytorium awatarów
+     * @param variantRepo repozytorium miniatur
+     * @param blobs magazyn danych obrazów
+     * @param tx szablon transakcji używany do podmiany miniatur
+     * @param threads liczba wątków generujących miniatury
+     * @param queueCapacity maksymalna liczba zadań oczekujących
+     * @param maxPixels maksymalna liczba pikseli przesyłanego obrazu (ochrona przed "bombami dekompresyjnymi")
+     */
+    public AvatarThumbnailer(UserAvatarRepo avatarRepo, AvatarVariantRepo variantRepo, BlobStore blobs, TransactionTemplate tx,
+                             @Value("${app.avatars.thumbnail-threads:2}") int threads,
+                             @Value("${app.avatars.thumbnail-queue:256}") int queueCapacity,
+                             @Value("${app.avatars.max-pixels:25000000}") long maxPixels) {
+        this.avatarRepo = avatarRepo;
+        this.variantRepo = variantRepo;
+        this.blobs = blobs;
+        this.tx = tx;
+        this.maxPixels = maxPixels;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Opis sprawdzonego obrazu.
+     * @param contentType typ MIME wynikający z rzeczywistego formatu pliku
+     * @param width szerokość w pikselach
+     * @param height wysokość w pikselach
+     */
+    public record ImageInfo(String contentType, int width, int height) {}
+
+    /**
+     * Sprawdza format i rozdzielczość obrazu na podstawie nagłówka, bez dekodowania pikseli.
+     * @param data dane obrazu
+     * @return opis obrazu
+     * @throws ResponseStatusException jeśli format nie jest obsługiwany, plik jest uszkodzony
+     *         lub rozdzielczość przekracza limit (400)
+     */
+    public ImageInfo inspect(byte[] data) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieobsługiwany format obrazu");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String contentType = CONTENT_TYPES.get(reader.getFormatName().toLowerCase(Locale.ROOT));
+                if (contentType == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieobsługiwany format obrazu");
+                }
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Obraz ma zbyt dużą rozdzielczość");
+                }
+                return new ImageInfo(contentType, width, height);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Uszkodzony plik obrazu");
+        }
+    }
+
+    /**
+     * Zleca wygenerowanie miniatur po zatwierdzeniu transakcji, w której zapisano nowy awatar.
+     * @param event zdarzenie zmiany awatara
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvatarChanged(AvatarChangedEvent event) {
+        request(event.userId(), event.contentHash());
+    }
+
+    /**
+     * Zleca wygenerowanie miniatur awatara w tle. Zadanie jest pomijane, jeśli takie samo już oczekuje,
+     * obraz okazał się wcześniej uszkodzony albo kolejka jest pełna (zostanie zlecone ponownie przy kolejnym odczycie).
+     * @param userId identyfikator użytkownika
+     * @param contentHash skrót treści awatara
+     */
+    public void request(UUID userId, String contentHash) {
+        String key = userId + ":" + contentHash;
+        if (failed.contains(contentHash) || !pending.add(key)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(userId, contentHash);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    System.err.println("Błąd generowania miniatur awatara " + userId + ": " + e.getMessage());
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            rejected.incrementAndGet();
+        }
+    }
+
+    /**
+     * Generuje i zapisuje miniatury awatara. Dane miniatur trafiają do magazynu danych binarnych, a ich wiersze
+     * są podmieniane w jednej transakcji i tylko wtedy, gdy awatar nie zmienił się w międzyczasie
+     * (miniatury odrzuconej wersji usuwa {@link BlobGarbageCollector}).
+     * @param userId identyfikator użytkownika
+     * @param contentHash skrót treści awatara, z którego mają powstać miniatury
+     * @return true, jeśli miniatury zapisano; false, jeśli awatar zmienił się lub nie istnieje
+     */
+    public boolean generate(UUID userId, String contentHash) {
+        UserAvatar source = avatarRepo.findById(userId)
+                .filter(avatar -> contentHash.equals(avatar.getContentHash()))
+                .orElse(null);
+        if (source == null) return false;
+
+        List<AvatarVariant> variants;
+        long start = System.nanoTime();
+        try {
+            byte[] data = source.getData();
+            if (source.getBlobKey() != null) {
+                try (InputStream in = blobs.open(source.getBlobKey())) {
+                    data = in.readAllBytes();
+                }
+            }
+            inspect(data);
+            variants = new ArrayList<>(SIZES.size());
+            for (Map.Entry<Integer, Thumbnail> entry : render(data).entrySet()) {
+                Thumbnail thumbnail = entry.getValue();
+                BlobStore.Blob blob = blobs.put(thumbnail.data());
+                variants.add(new AvatarVariant(userId, entry.getKey(), thumbnail.contentType(), contentHash, blob.key(), blob.size()));
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.add(contentHash);
+            failures.incrementAndGet();
+            System.err.println("Nie udało się przetworzyć awatara " + userId + ": " + e.getMessage());
+            return false;
+        }
+        renderNanos.addAndGet(System.nanoTime() - start);
+
+        Boolean saved = tx.execute(status -> {
+            String current = avatarRepo.findMeta(userId).map(AvatarMetaDTO::contentHash).orElse(null);
+            if (!contentHash.equals(current)) return false;
+            variantRepo.deleteByUserId(userId);
+            variantRepo.saveAll(variants);
+            return true;
+        });
+        if (Boolean.TRUE.equals(saved)) generated.incrementAndGet();
+        return Boolean.TRUE.equals(saved);
+    }
+
+    /**
+     * Zakodowana miniatura.
+     * @param contentType typ MIME miniatury
+     * @param data dane obrazu
+     */
+    public record Thumbnail(String contentType, byte[] data) {}
+
+    /**
+     * Dekoduje obraz, wycina środkowy kwadrat i koduje go w każdym z rozmiarów {@link #SIZES}.
+     * Obrazy z przezroczystością są zapisywane jako PNG, pozostałe jako JPEG.
+     * @param data dane obrazu źródłowego
+     * @return miniatury według długości boku (rosnąco)
+     * @throws IOException jeśli obrazu nie da się zdekodować
+     */
+    public static Map<Integer, Thumbnail> render(byte[] data) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+        if (image == null) throw new IOException("Nie można zdekodować obrazu");
+        boolean alpha = image.getColorModel().hasAlpha();
+        int side = Math.min(image.getWidth(), image.getHeight());
+        BufferedImage current = image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+
+        // Od największego rozmiaru: każda miniatura jest skalowana z poprzedniej, a nie z oryginału
+        Map<Integer, Thumbnail> thumbnails = new TreeMap<>();
+        for (int i = SIZES.size() - 1; i >= 0; i--) {
+            int size = SIZES.get(i);
+            current = scale(current, size, alpha);
+            thumbnails.put(size, alpha
+                    ? new Thumbnail("image/png", encodePng(current))
+                    : new Thumbnail("image/jpeg", encodeJpeg(current)));
+        }
+        return thumbnails;
+    }
+
+    /**
+     * Wybiera rozmiar miniatury dla żądanego rozmiaru: najmniejszy nie mniejszy od żądanego
+     * (lub największy dostępny); brak rozmiaru oznacza największą miniaturę.
+     * @param requested żądana długość boku lub null
+     * @return długość boku miniatury
+     */
+    public static int variantFor(Integer requested) {
+        if (requested != null) {
+            for (Integer size : SIZES) {
+                if (size >= requested) return size;
+            }
+        }
+        return SIZES.get(SIZES.size() - 1);
+    }
+
+    /**
+     * Zwraca statystyki generowania miniatur.
+     * @return mapa z liczbą wygenerowanych, nieudanych i odrzuconych zadań oraz stanem kolejki
+     */
+    public Map<String, Object> stats() {
+        long count = generated.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generated", count);
+        stats.put("failures", failures.get());
+        stats.put("rejected", rejected.get());
+        stats.put("pending", pending.size());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("averageRenderMillis", count == 0 ? 0 : renderNanos.get() / count / 1_000_000.0);
+        return stats;
+    }
+
+    /**
+     * Zatrzymuje pulę wątków przy zamykaniu aplikacji.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Zmniejsza kwadratowy obraz do podanego boku, połowiąc rozmiar w kolejnych krokach interpolacji dwuliniowej
+     * (jednokrokowe skalowanie o duży współczynnik pomija większość pikseli źródła). Nie powiększa obrazu.
+     */
+    private static BufferedImage scale(BufferedImage source, int edge, boolean alpha) {
+        int target = Math.min(edge, source.getWidth());
+        BufferedImage current = source;
+        int size = source.getWidth();
+        do {
+            size = Math.max(size / 2, target);
+            BufferedImage next = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, size, size, null);
+            g.dispose();
+            current = next;
+        } while (size > target);
+        return current;
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.noteuzbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Usuwanie nieużywanych obiektów z {@link BlobStore}. Ten sam obiekt może być wskazywany przez wiele wierszy
+ * (deduplikacja treści), a wiersze są usuwane różnymi ścieżkami (zmiana awatara, kaskady, {@link PurgeJobService}),
+ * dlatego zamiast liczników referencji używane jest oznaczanie i zamiatanie: obiekt jest usuwany, gdy żadna tabela
+ * go nie wskazuje. Obiekty użyte w okresie karencji są pomijane - chroni to obiekty zapisane w transakcjach,
+ * które nie zostały jeszcze zatwierdzone.
+ */
+@Component
+public class BlobGarbageCollector {
+    /** Zapytania zwracające klucze wskazywanych obiektów spośród podanych (%s - lista parametrów). */
+    private static final List<String> REFERENCE_SQL = List.of(
+            "SELECT blob_key FROM public.user_avatars WHERE blob_key IN (%s)",
+            "SELECT blob_key FROM public.avatar_variants WHERE blob_key IN (%s)",
+            "SELECT blob_key FROM public.note_attachments WHERE blob_key IN (%s)",
+            "SELECT blob_key FROM public.note_pdf_cache WHERE blob_key IN (%s)",
+            "SELECT blob_key FROM public.export_jobs WHERE blob_key IN (%s)");
+
+    private static final int BATCH_SIZE = 500;
+
+    private final BlobStore blobs;
+    private final JdbcTemplate jdbc;
+    private final Duration grace;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private volatile Instant lastRun;
+
+    /**
+     * Konstruktor.
+     * @param blobs magazyn danych binarnych
+     * @param jdbc szablon JDBC
+     * @param graceMs okres karencji (ms) - obiekty użyte w tym czasie nie są usuwane
+     */
+    public BlobGarbageCollector(BlobStore blobs, JdbcTemplate jdbc,
+                                @Value("${app.blobs.gc-grace-ms:86400000}") long graceMs) {
+        this.blobs = blobs;
+        this.jdbc = jdbc;
+        this.grace = Duration.ofMillis(graceMs);
+    }
+
+    /**
+     * Usuwa obiekty, których nie wskazuje żaden wiersz, sprawdzając wskazania partiami po {@value #BATCH_SIZE} kluczy.
+     * @return liczba usuniętych obiektów
+     */
+    @Scheduled(initialDelayString = "${app.blobs.gc-initial-delay-ms:600000}",
+            fixedDelayString = "${app.blobs.gc-interval-ms:3600000}")
+    public synchronized int collect() {
+        Instant cutoff = Instant.now().minus(grace);
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        int[] removed = {0};
+        try {
+            blobs.scan(cutoff, key -> {
+                batch.add(key);
+                if (batch.size() == BATCH_SIZE) {
+                    removed[0] += sweep(batch, cutoff);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) removed[0] += sweep(batch, cutoff);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Błąd usuwania nieużywanych obiektów: " + e.getMessage());
+        }
+        runs.incrementAndGet();
+        lastRun = Instant.now();
+        return removed[0];
+    }
+
+    /**
+     * Zwraca statystyki usuwania wraz ze statystykami magazynu.
+     * @return mapa statystyk
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(blobs.stats());
+        stats.put("runs", runs.get());
+        stats.put("scanned", scanned.get());
+        stats.put("deleted", deleted.get());
+        stats.put("lastRun", lastRun);
+        stats.put("graceMs", grace.toMillis());
+        return stats;
+    }
+
+    private int sweep(List<String> keys, Instant cutoff) {
+        scanned.addAndGet(keys.size());
+        String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+        Set<String> referenced = new HashSet<>();
+        for (String sql : REFERENCE_SQL) {
+            referenced.addAll(jdbc.queryForList(String.format(sql, placeholders), String.class, keys.toArray()));
+        }
+        int removed = 0;
+        for (String key : keys) {
+            if (referenced.contains(key)) continue;
+            try {
+                if (blobs.deleteIfUnusedSince(key, cutoff)) removed++;
+            } catch (IOException e) {
+                System.err.println("Nie udało się usunąć obiektu " + key + ": " + e.getMessage());
+            }
+        }
+        deleted.addAndGet(removed);
+        return removed;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.BlobMigrationDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Przenoszenie danych obrazów z kolumn bytea do {@link BlobStore}. Wiersze są przenoszone partiami, pojedynczo:
+ * dane są zapisywane w magazynie, a następnie wiersz otrzymuje klucz obiektu, a kolumna data jest czyszczona.
+ * Aktualizacja dotyczy tylko wierszy wciąż nieprzeniesionych, więc awatar zmieniony w trakcie przenoszenia
+ * nie jest nadpisywany, a przerwane przenoszenie można bezpiecznie wznowić (osierocone obiekty usuwa
+ * {@link BlobGarbageCollector}).
+ */
+@Service
+public class BlobMigrationService {
+    private static final String AVATAR_IDS_SQL =
+            "SELECT user_id FROM public.user_avatars WHERE blob_key IS NULL AND data IS NOT NULL LIMIT ?";
+    private static final String AVATAR_DATA_SQL =
+            "SELECT data FROM public.user_avatars WHERE user_id = ? AND blob_key IS NULL";
+    private static final String AVATAR_UPDATE_SQL =
+            "UPDATE public.user_avatars SET blob_key = ?, content_hash = COALESCE(content_hash, ?), size_bytes = ?, data = NULL " +
+            "WHERE user_id = ? AND blob_key IS NULL";
+    private static final String AVATAR_REMAINING_SQL =
+            "SELECT count(*) FROM public.user_avatars WHERE blob_key IS NULL AND data IS NOT NULL";
+
+    private static final String VARIANT_IDS_SQL =
+            "SELECT id FROM public.avatar_variants WHERE blob_key IS NULL AND data IS NOT NULL LIMIT ?";
+    private static final String VARIANT_DATA_SQL =
+            "SELECT data FROM public.avatar_variants WHERE id = ? AND blob_key IS NULL";
+    private static final String VARIANT_UPDATE_SQL =
+            "UPDATE public.avatar_variants SET blob_key = ?, data = NULL WHERE id = ? AND blob_key IS NULL " +
+            "RETURNING user_id, source_hash";
+    private static final String VARIANT_REMAINING_SQL =
+            "SELECT count(*) FROM public.avatar_variants WHERE blob_key IS NULL AND data IS NOT NULL";
+
+    private final BlobStore blobs;
+    private final AvatarByteCache avatarCache;
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Konstruktor.
+     * @param blobs magazyn danych binarnych
+     * @param avatarCache pamięć podręczna miniatur (unieważniana dla przeniesionych miniatur)
+     * @param jdbc szablon JDBC
+     */
+    public BlobMigrationService(BlobStore blobs, AvatarByteCache avatarCache, JdbcTemplate jdbc) {
+        this.blobs = blobs;
+        this.avatarCache = avatarCache;
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Przenosi do magazynu najwyżej {@code limit} awatarów i {@code limit} miniatur.
+     * Wywoływane wielokrotnie, aż liczba pozostałych wierszy spadnie do zera.
+     * @param limit maksymalna liczba wierszy każdej tabeli w jednym wywołaniu
+     * @return podsumowanie przeniesienia z liczbą wierszy pozostałych do przeniesienia
+     */
+    public synchronized BlobMigrationDTO migrate(int limit) {
+        long bytes = 0;
+        int skipped = 0;
+
+        int avatars = 0;
+        for (UUID userId : jdbc.queryForList(AVATAR_IDS_SQL, UUID.class, limit)) {
+            BlobStore.Blob blob = copy(AVATAR_DATA_SQL, userId);
+            if (blob == null) {
+                skipped++;
+                continue;
+            }
+            if (jdbc.update(AVATAR_UPDATE_SQL, blob.key(), blob.key(), blob.size(), userId) == 1) {
+                avatars++;
+                bytes += blob.size();
+            }
+        }
+
+        int variants = 0;
+        for (UUID id : jdbc.queryForList(VARIANT_IDS_SQL, UUID.class, limit)) {
+            BlobStore.Blob blob = copy(VARIANT_DATA_SQL, id);
+            if (blob == null) {
+                skipped++;
+                continue;
+            }
+            List<AvatarChangedEvent> migrated = jdbc.query(VARIANT_UPDATE_SQL,
+                    (rs, rowNum) -> AvatarChangedEvent.forUser(rs.getObject(1, UUID.class), rs.getString(2)), blob.key(), id);
+            // Zapamiętane metadane nie mają klucza obiektu - wymuszamy ich ponowne wczytanie
+            migrated.forEach(avatarCache::onAvatarChanged);
+            if (!migrated.isEmpty()) {
+                variants++;
+                bytes += blob.size();
+            }
+        }
+
+        Long remainingAvatars = jdbc.queryForObject(AVATAR_REMAINING_SQL, Long.class);
+        Long remainingVariants = jdbc.queryForObject(VARIANT_REMAINING_SQL, Long.class);
+        return new BlobMigrationDTO(avatars, variants, bytes, skipped,
+                (remainingAvatars != null ? remainingAvatars : 0) + (remainingVariants != null ? remainingVariants : 0));
+    }
+
+    /**
+     * Kopiuje dane z kolumny bytea do magazynu strumieniowo.
+     * @return zapisany obiekt lub null, jeśli wiersz zniknął lub kopiowanie się nie powiodło
+     */
+    private BlobStore.Blob copy(String sql, UUID id) {
+        try {
+            return jdbc.query(sql, (ResultSetExtractor<BlobStore.Blob>) rs -> {
+                if (!rs.next()) return null;
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    return in != null ? blobs.put(in, Long.MAX_VALUE) : null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, id);
+        } catch (UncheckedIOException e) {
+            System.err.println("Nie udało się przenieść danych " + id + " do magazynu: " + e.getMessage());
+            return null;
+        }
+    }
+}
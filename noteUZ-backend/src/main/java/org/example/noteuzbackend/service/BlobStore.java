@@ -0,0 +1,146 @@
+package org.example.noteuzbackend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Magazyn danych binarnych (obrazów, załączników) adresowanych treścią: kluczem jest skrót SHA-256 (hex),
+ * więc identyczne pliki są przechowywane raz. Baza danych przechowuje tylko klucz i metadane.
+ * Nieużywane dane są usuwane przez {@link BlobGarbageCollector}.
+ */
+public interface BlobStore {
+
+    /**
+     * Zapisany obiekt.
+     * @param key skrót SHA-256 treści (hex)
+     * @param size rozmiar w bajtach
+     */
+    record Blob(String key, long size) {}
+
+    /**
+     * Zapisuje dane ze strumienia bez buforowania całości w pamięci. Jeśli obiekt o tej treści już istnieje,
+     * nie jest zapisywany ponownie (jest jedynie oznaczany jako świeżo użyty).
+     * @param in strumień danych (nie jest zamykany)
+     * @param maxBytes maksymalny rozmiar w bajtach
+     * @return zapisany obiekt
+     * @throws org.springframework.web.server.ResponseStatusException jeśli dane przekraczają {@code maxBytes} (413; nic nie jest zapisywane)
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    Blob put(InputStream in, long maxBytes) throws IOException;
+
+    /**
+     * Zapisuje dane z tablicy.
+     * @param data dane
+     * @return zapisany obiekt
+     * @throws IOException w przypadku błędu zapisu
+     */
+    default Blob put(byte[] data) throws IOException {
+        return put(new ByteArrayInputStream(data), data.length);
+    }
+
+    /**
+     * Dopisuje fragment pliku przesyłanego w częściach (z możliwością wznowienia). Fragmenty są zapisywane
+     * strumieniowo do pliku roboczego przesyłania, który przetrwa ponowne uruchomienie aplikacji.
+     * Jeśli połączenie zostanie przerwane, odebrana część fragmentu jest zachowywana, a przesyłanie
+     * wznawia się od {@link #received}.
+     * @param uploadId identyfikator przesyłania (UUID)
+     * @param offset pozycja fragmentu w pliku - musi być równa liczbie bajtów już odebranych
+     * @param in strumień danych fragmentu (nie jest zamykany)
+     * @param maxBytes maksymalny rozmiar fragmentu w bajtach
+     * @return łączna liczba odebranych bajtów
+     * @throws org.springframework.web.server.ResponseStatusException jeśli pozycja jest inna niż liczba odebranych
+     *         bajtów lub fragment tego przesyłania jest właśnie odbierany (409), albo fragment przekracza
+     *         {@code maxBytes} (413; fragment jest odrzucany w całości)
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    long append(String uploadId, long offset, InputStream in, long maxBytes) throws IOException;
+
+    /**
+     * Zwraca liczbę bajtów odebranych w ramach przesyłania.
+     * @param uploadId identyfikator przesyłania (UUID)
+     * @return liczba odebranych bajtów (0, jeśli nic nie odebrano)
+     * @throws IOException w przypadku błędu odczytu
+     */
+    long received(String uploadId) throws IOException;
+
+    /**
+     * Kończy przesyłanie: plik roboczy staje się obiektem magazynu (bez kopiowania danych) albo, jeśli obiekt
+     * o tej treści już istnieje, istniejący obiekt jest oznaczany jako świeżo użyty. Plik roboczy pozostaje do
+     * wywołania {@link #abort} (po zapisaniu wskazania obiektu), więc nieudane zakończenie można powtórzyć.
+     * @param uploadId identyfikator przesyłania (UUID)
+     * @return zapisany obiekt
+     * @throws org.springframework.web.server.ResponseStatusException jeśli fragment tego przesyłania jest właśnie odbierany (409)
+     * @throws java.nio.file.NoSuchFileException jeśli nic nie odebrano
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    Blob complete(String uploadId) throws IOException;
+
+    /**
+     * Porzuca przesyłanie i usuwa odebrane dane.
+     * @param uploadId identyfikator przesyłania (UUID)
+     * @throws IOException w przypadku błędu usuwania
+     */
+    void abort(String uploadId) throws IOException;
+
+    /**
+     * Sprawdza, czy obiekt istnieje.
+     * @param key klucz obiektu
+     * @return true, jeśli obiekt istnieje
+     */
+    boolean exists(String key);
+
+    /**
+     * Otwiera obiekt do odczytu strumieniowego.
+     * @param key klucz obiektu
+     * @return strumień danych (do zamknięcia przez wywołującego)
+     * @throws java.nio.file.NoSuchFileException jeśli obiekt nie istnieje
+     * @throws IOException w przypadku błędu odczytu
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Zwraca zawartość obiektu jako bufor tylko do odczytu (w magazynie plikowym - odwzorowany w pamięci).
+     * @param key klucz obiektu
+     * @return bufor z danymi (pozycja 0)
+     * @throws IOException w przypadku błędu odczytu
+     */
+    ByteBuffer read(String key) throws IOException;
+
+    /**
+     * Przesyła obiekt do strumienia wyjściowego bez kopiowania przez stertę, o ile pozwala na to implementacja.
+     * @param key klucz obiektu
+     * @param out strumień docelowy (nie jest zamykany)
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    void transferTo(String key, OutputStream out) throws IOException;
+
+    /**
+     * Usuwa obiekt, jeśli nie był zapisywany ani oznaczany jako użyty od podanej chwili. Sprawdzenie i usunięcie
+     * są niepodzielne względem {@link #put}, więc obiekt ponownie zapisany w międzyczasie nie zostanie usunięty.
+     * @param key klucz obiektu
+     * @param unusedSince granica czasu ostatniego użycia
+     * @return true, jeśli obiekt usunięto
+     * @throws IOException w przypadku błędu usuwania
+     */
+    boolean deleteIfUnusedSince(String key, Instant unusedSince) throws IOException;
+
+    /**
+     * Przegląda klucze obiektów, które nie były zapisywane ani oznaczane jako użyte od podanej chwili.
+     * @param unusedSince granica czasu ostatniego użycia
+     * @param keys odbiorca kluczy
+     * @throws IOException w przypadku błędu przeglądania
+     */
+    void scan(Instant unusedSince, Consumer<String> keys) throws IOException;
+
+    /**
+     * Zwraca statystyki magazynu.
+     * @return mapa statystyk
+     */
+    Map<String, Object> stats();
+}
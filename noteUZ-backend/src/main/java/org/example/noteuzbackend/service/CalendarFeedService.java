@@ -0,0 +1,235 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.CalendarFeedDTO;
+import org.example.noteuzbackend.dto.CalendarFeedRowDTO;
+import org.example.noteuzbackend.event.CalendarChangedEvent;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.model.entity.CalendarFeed;
+import org.example.noteuzbackend.repository.CalendarFeedRepo;
+import org.example.noteuzbackend.repository.EventRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Serwis kanałów iCalendar (.ics) subskrybowanych przez zewnętrzne aplikacje kalendarzowe.
+ * Kanał jest generowany strumieniowo: wiersze z zapytania zakresowego trafiają bezpośrednio do strumienia odpowiedzi,
+ * a serie są zapisywane jako jedna pozycja z regułą RRULE, więc zużycie pamięci nie zależy od wielkości kalendarza.
+ * Moment ostatniej zmiany kanału ({@code changed_at}) jest aktualizowany po każdej zmianie kalendarza
+ * i członkostwa w grupach, dzięki czemu odpytujący subskrybenci otrzymują zwykle odpowiedź 304.
+ */
+@Service
+public class CalendarFeedService {
+    /** Jak daleko wstecz kanał obejmuje zakończone wydarzenia. */
+    static final Duration FEED_HISTORY = Duration.ofDays(180);
+
+    /** Sugerowany subskrybentom odstęp odświeżania kanału. */
+    static final String REFRESH_INTERVAL = "PT15M";
+
+    /** Ścieżka kanału; token jest jedynym poświadczeniem subskrybenta. */
+    public static final String FEED_PATH = "/api/calendar/feeds/%s.ics";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String TOUCH_USER_SQL = "UPDATE public.calendar_feeds SET changed_at = now() " +
+            "WHERE (user_id = ? AND group_id IS NULL) " +
+            "OR group_id IN (SELECT group_id FROM public.group_members WHERE user_id = ?)";
+    private static final String TOUCH_ALL_SQL = "UPDATE public.calendar_feeds SET changed_at = now()";
+    private static final String TOUCH_GROUPS_SQL = "UPDATE public.calendar_feeds SET changed_at = now() WHERE group_id IS NOT NULL";
+
+    private final CalendarFeedRepo feedRepo;
+    private final EventRepo eventRepo;
+    private final GroupMembershipCache membershipCache;
+    private final JdbcTemplate jdbc;
+    private final ZoneId zone;
+
+    /**
+     * Konstruktor serwisu kanałów iCalendar.
+     * @param feedRepo repozytorium kanałów
+     * @param eventRepo repozytorium wydarzeń
+     * @param membershipCache pamięć podręczna członkostw w grupach
+     * @param jdbc szablon JDBC używany do oznaczania zmian kanałów po zatwierdzeniu transakcji
+     * @param zone strefa czasowa, w której zapisane są daty wydarzeń
+     */
+    public CalendarFeedService(CalendarFeedRepo feedRepo, EventRepo eventRepo, GroupMembershipCache membershipCache,
+                               JdbcTemplate jdbc, @Value("${app.calendar.zone:Europe/Warsaw}") String zone) {
+        this.feedRepo = feedRepo;
+        this.eventRepo = eventRepo;
+        this.membershipCache = membershipCache;
+        this.jdbc = jdbc;
+        this.zone = ZoneId.of(zone);
+    }
+
+    /**
+     * Pobiera kanały iCalendar użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return lista kanałów
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarFeedDTO> getFeeds(UUID userId) {
+        return feedRepo.findByUserIdOrderByCreatedAtAsc(userId).stream().map(CalendarFeedService::toDto).toList();
+    }
+
+    /**
+     * Tworzy kanał iCalendar z nowym tokenem dostępu. Kanał grupy obejmuje zajętość jej członków, bez tytułów i opisów.
+     * @param userId identyfikator właściciela kanału
+     * @param groupId identyfikator grupy lub null dla kalendarza użytkownika
+     * @return utworzony kanał
+     * @throws ResponseStatusException jeśli użytkownik nie należy do grupy (403)
+     */
+    @Transactional
+    public CalendarFeedDTO createFeed(UUID userId, UUID groupId) {
+        if (groupId != null && !membershipCache.isMember(groupId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie należysz do tej grupy");
+        }
+        CalendarFeed feed = new CalendarFeed();
+        feed.setUserId(userId);
+        feed.setGroupId(groupId);
+        return toDto(feedRepo.save(feed));
+    }
+
+    /**
+     * Usuwa kanał iCalendar (unieważnia jego token).
+     * @param feedId identyfikator kanału
+     * @param userId identyfikator właściciela kanału
+     * @throws ResponseStatusException jeśli kanał nie istnieje lub należy do innego użytkownika (404)
+     */
+    @Transactional
+    public void deleteFeed(UUID feedId, UUID userId) {
+        CalendarFeed feed = feedRepo.findById(feedId)
+                .filter(f -> f.getUserId().equals(userId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono kanału kalendarza."));
+        feedRepo.delete(feed);
+    }
+
+    /**
+     * Znajduje kanał na podstawie tokena. Kanał grupy przestaje działać, gdy właściciel opuści grupę.
+     * @param token token z adresu kanału
+     * @return kanał
+     * @throws ResponseStatusException jeśli token jest nieprawidłowy lub właściciel nie należy już do grupy (404)
+     */
+    @Transactional(readOnly = true)
+    public CalendarFeed findFeed(String token) {
+        CalendarFeed feed = feedRepo.findByToken(token)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono kanału kalendarza."));
+        if (feed.getGroupId() != null && !membershipCache.isMember(feed.getGroupId(), feed.getUserId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono kanału kalendarza.");
+        }
+        return feed;
+    }
+
+    /**
+     * Wyznacza znacznik ETag wersji kanału.
+     * @param feed kanał
+     * @return znacznik ETag (w cudzysłowie)
+     */
+    public static String etag(CalendarFeed feed) {
+        return "\"" + Long.toHexString(feed.getChangedAt().toEpochMilli()) + "\"";
+    }
+
+    /**
+     * Zapisuje kanał w formacie iCalendar do podanego strumienia, czytając wydarzenia kursorem bazy danych.
+     * @param feed kanał
+     * @param out strumień docelowy (nie jest zamykany)
+     * @return liczba zapisanych wydarzeń
+     */
+    @Transactional(readOnly = true)
+    public long writeFeed(CalendarFeed feed, OutputStream out) {
+        LocalDateTime from = LocalDateTime.now(zone).minus(FEED_HISTORY);
+        boolean group = feed.getGroupId() != null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        IcsWriter ics = new IcsWriter(writer, zone);
+        long count = 0;
+        try (Stream<CalendarFeedRowDTO> rows = group
+                ? eventRepo.streamGroupFeed(feed.getGroupId(), from)
+                : eventRepo.streamUserFeed(feed.getUserId(), from)) {
+            ics.beginCalendar(group ? "NoteUZ - zajętość grupy" : "NoteUZ", REFRESH_INTERVAL);
+            // Wiersze jednego wydarzenia (po jednym na odwołane wystąpienie) są sąsiednie - zbieramy tylko ich wyjątki
+            CalendarFeedRowDTO current = null;
+            List<LocalDateTime> exceptions = new ArrayList<>();
+            Iterator<CalendarFeedRowDTO> it = rows.iterator();
+            while (it.hasNext()) {
+                CalendarFeedRowDTO row = it.next();
+                if (current != null && !current.id().equals(row.id())) {
+                    writeEvent(ics, feed, current, exceptions);
+                    count++;
+                    exceptions.clear();
+                }
+                current = row;
+                if (row.exception() != null) exceptions.add(row.exception());
+            }
+            if (current != null) {
+                writeEvent(ics, feed, current, exceptions);
+                count++;
+            }
+            ics.endCalendar();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Przerwano zapis kanału kalendarza", e);
+        }
+        return count;
+    }
+
+    /**
+     * Oznacza zmianę kanałów obejmujących kalendarz użytkownika (jego własnego i grup, do których należy)
+     * po zatwierdzeniu transakcji, w której kalendarz zmieniono.
+     * @param event zdarzenie zmiany kalendarza
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarChangedEvent event) {
+        try {
+            if (event.userId() == null) {
+                jdbc.update(TOUCH_ALL_SQL);
+            } else {
+                jdbc.update(TOUCH_USER_SQL, event.userId(), event.userId());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Błąd oznaczania zmiany kanałów kalendarza: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Oznacza zmianę wszystkich kanałów grup po zmianie członkostwa (po usunięciu członka nie wiadomo już,
+     * których grup dotyczyła zmiana; zmiany członkostwa są rzadkie w porównaniu z odpytywaniem kanałów).
+     * @param event zdarzenie zmiany członkostwa
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(GroupMembershipChangedEvent event) {
+        try {
+            jdbc.update(TOUCH_GROUPS_SQL);
+        } catch (RuntimeException e) {
+            System.err.println("Błąd oznaczania zmiany kanałów kalendarza: " + e.getMessage());
+        }
+    }
+
+    private static void writeEvent(IcsWriter ics, CalendarFeed feed, CalendarFeedRowDTO row,
+                                   List<LocalDateTime> exceptions) throws IOException {
+        boolean group = feed.getGroupId() != null;
+        ics.event(row.id() + "@noteuz", feed.getChangedAt(), row.start(), row.end(),
+                group ? "Zajęte" : row.title(), group ? null : row.description(), row.recurrenceRule(), exceptions);
+    }
+
+    private static CalendarFeedDTO toDto(CalendarFeed feed) {
+        return new CalendarFeedDTO(feed.getId(), feed.getGroupId(), String.format(FEED_PATH, feed.getToken()), feed.getCreatedAt());
+    }
+}
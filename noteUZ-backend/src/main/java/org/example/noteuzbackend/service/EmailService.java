@@ -2,16 +2,24 @@ package org.example.noteuzbackend.service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Serwis odpowiedzialny za wysyłanie powiadomień email.
  */
 @Service
 public class EmailService {
-    
+
+    private static final DateTimeFormatter REMINDER_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
     private final JavaMailSender mailSender;
 
     /**
@@ -107,4 +115,83 @@ public class EmailService {
             throw new RuntimeException("Błąd wysyłania e-maila", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Wysyła przypomnienie o zbliżającym się wydarzeniu z kalendarza.
+     * @param to adres email odbiorcy
+     * @param eventTitle tytuł wydarzenia
+     * @param start moment rozpoczęcia wystąpienia wydarzenia
+     * @param offsetMinutes wyprzedzenie przypomnienia w minutach
+     * @throws MailException jeśli nie uda się zbudować lub wysłać wiadomości (błąd jest przekazywany wywołującemu,
+     *         który liczy nieudane przypomnienia)
+     */
+    public void sendEventReminder(String to, String eventTitle, LocalDateTime start, int offsetMinutes) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setFrom("NoteUZ <no-reply@noteuz.com>");
+            helper.setTo(to);
+            helper.setSubject("Przypomnienie: " + eventTitle + " (" + describeOffset(offsetMinutes) + ")");
+
+            String htmlTemplate = """
+                    <!DOCTYPE html>
+                    <html>
+                    <head>
+                        <style>
+                            body { font-family: 'Segoe UI', Roboto, Helvetica, Arial, sans-serif; background-color: #f3f4f6; margin: 0; padding: 40px 0; }
+                            .card { max-width: 500px; margin: 0 auto; background: #ffffff; border-radius: 12px; overflow: hidden; box-shadow: 0 4px 6px rgba(0,0,0,0.05); border: 1px solid #e5e7eb; }
+                            .header { background-color: #4f46e5; padding: 24px; text-align: center; }
+                            .logo { color: white; font-size: 24px; font-weight: bold; margin: 0; text-decoration: none; }
+                            .content { padding: 32px 24px; color: #374151; text-align: center; }
+                            h2 { margin: 0 0 8px 0; color: #111827; font-size: 18px; font-weight: 600; }
+                            p { margin: 0 0 8px 0; line-height: 1.5; color: #6b7280; font-size: 14px; }
+                            .footer { background-color: #f9fafb; padding: 16px; text-align: center; font-size: 11px; color: #9ca3af; border-top: 1px solid #f3f4f6; }
+                        </style>
+                    </head>
+                    <body>
+                        <div class="card">
+                            <div class="header">
+                                <span class="logo">NoteUZ</span>
+                            </div>
+                            <div class="content">
+                                <h2>📅 {{TITLE}}</h2>
+                                <p>Początek: <strong>{{START}}</strong></p>
+                                <p>Wydarzenie rozpocznie się {{OFFSET}}.</p>
+                            </div>
+                            <div class="footer">
+                                Przypomnienie możesz wyłączyć w szczegółach wydarzenia w kalendarzu.
+                            </div>
+                        </div>
+                    </body>
+                    </html>
+                    """;
+
+            String finalHtml = htmlTemplate
+                    .replace("{{TITLE}}", HtmlUtils.htmlEscape(eventTitle))
+                    .replace("{{START}}", start.format(REMINDER_DATE_FORMAT))
+                    .replace("{{OFFSET}}", describeOffset(offsetMinutes));
+
+            helper.setText(finalHtml, true);
+            mailSender.send(message);
+
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Błąd budowania e-maila z przypomnieniem", e);
+        }
+    }
+
+    /**
+     * Opisuje wyprzedzenie przypomnienia słownie, np. "za 15 min" lub "za 1 dzień".
+     * @param offsetMinutes wyprzedzenie w minutach
+     * @return opis wyprzedzenia
+     */
+    private static String describeOffset(int offsetMinutes) {
+        if (offsetMinutes == 0) return "teraz";
+        if (offsetMinutes % 1440 == 0) {
+            int days = offsetMinutes / 1440;
+            return "za " + days + (days == 1 ? " dzień" : " dni");
+        }
+        if (offsetMinutes % 60 == 0) return "za " + offsetMinutes / 60 + " godz.";
+        return "za " + offsetMinutes + " min";
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.EventSlotDTO;
+import org.example.noteuzbackend.event.CalendarChangedEvent;
+import org.example.noteuzbackend.model.entity.Event;
+import org.example.noteuzbackend.repository.EventRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Indeks przedziałów czasu wydarzeń w postaci drzewa przedziałów ({@link IntervalTree}) dla każdego użytkownika.
+ * Kalendarz użytkownika jest wczytywany przy pierwszym odwołaniu (kalendarze wielu użytkowników - jednym zapytaniem),
+ * a zapytania o kolizje i zajętość nie wymagają dostępu do bazy danych.
+ * Serie powtarzające się są indeksowane całym zakresem trwania i rozwijane tylko w obrębie zapytania.
+ * Wpisy są unieważniane zdarzeniem {@link CalendarChangedEvent} po zatwierdzeniu transakcji, wygasają po czasie życia,
+ * a po przekroczeniu limitu liczby użytkowników usuwane są najdawniej wczytane kalendarze.
+ */
+@Component
+public class EventIntervalIndex {
+
+    private final EventRepo eventRepo;
+    private final TransactionTemplate tx;
+
+    private final int maxUsers;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<UUID, Cached> byUser = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Zapamiętane drzewo kalendarza użytkownika.
+     *
+     * @param tree Drzewo przedziałów.
+     * @param loadedAt Chwila wczytania (System.nanoTime).
+     */
+    private record Cached(IntervalTree<Slot> tree, long loadedAt) {}
+
+    /**
+     * Wpis indeksu: pojedyncze wydarzenie lub cała seria powtarzająca się.
+     *
+     * @param eventId Identyfikator wydarzenia.
+     * @param title Tytuł wydarzenia.
+     * @param start Rozpoczęcie (pierwszego wystąpienia).
+     * @param length Czas trwania (jednego wystąpienia).
+     * @param rule Reguła powtarzania lub null dla pojedynczego wydarzenia.
+     * @param exceptions Odwołane wystąpienia serii.
+     */
+    private record Slot(UUID eventId, String title, LocalDateTime start, Duration length,
+                        RecurrenceRule rule, Set<LocalDateTime> exceptions) {}
+
+    /**
+     * Konstruktor indeksu przedziałów.
+     * @param eventRepo repozytorium wydarzeń
+     * @param tx szablon transakcji używany przy wczytywaniu wydarzeń wraz z wyjątkami serii
+     * @param maxUsers maksymalna liczba zapamiętanych kalendarzy użytkowników
+     * @param ttlMillis czas życia zapamiętanego kalendarza w milisekundach
+     */
+    public EventIntervalIndex(EventRepo eventRepo, TransactionTemplate tx,
+                              @Value("${app.calendar.index-max-users:10000}") int maxUsers,
+                              @Value("${app.calendar.index-ttl-ms:600000}") long ttlMillis) {
+        this.eventRepo = eventRepo;
+        this.tx = tx;
+        this.maxUsers = maxUsers;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Zwraca wystąpienia wydarzeń użytkownika nachodzące na przedział [from, to).
+     * @param userId identyfikator użytkownika
+     * @param from początek przedziału (włącznie)
+     * @param to koniec przedziału (wyłącznie)
+     * @return lista wystąpień w kolejności rosnącego początku
+     */
+    public List<EventSlotDTO> overlapping(UUID userId, LocalDateTime from, LocalDateTime to) {
+        return overlapping(load(List.of(userId)).get(userId), from, to);
+    }
+
+    /**
+     * Zwraca wystąpienia wydarzeń wielu użytkowników nachodzące na przedział [from, to).
+     * Brakujące kalendarze są wczytywane jednym zapytaniem.
+     * @param userIds identyfikatory użytkowników
+     * @param from początek przedziału (włącznie)
+     * @param to koniec przedziału (wyłącznie)
+     * @return mapa identyfikator użytkownika → lista wystąpień
+     */
+    public Map<UUID, List<EventSlotDTO>> overlapping(Collection<UUID> userIds, LocalDateTime from, LocalDateTime to) {
+        Map<UUID, IntervalTree<Slot>> trees = load(userIds);
+        Map<UUID, List<EventSlotDTO>> result = new HashMap<>();
+        for (UUID userId : userIds) {
+            result.put(userId, overlapping(trees.getOrDefault(userId, IntervalTree.empty()), from, to));
+        }
+        return result;
+    }
+
+    /**
+     * Unieważnia kalendarz użytkownika po zatwierdzeniu transakcji, w której go zmieniono
+     * (lub od razu, jeśli zdarzenie opublikowano poza transakcją).
+     * @param event zdarzenie zmiany kalendarza
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(CalendarChangedEvent event) {
+        invalidations.incrementAndGet();
+        if (event.userId() == null) {
+            byUser.clear();
+        } else {
+            byUser.remove(event.userId());
+        }
+    }
+
+    /**
+     * Usuwa wygasłe kalendarze (okresowo, co czas życia wpisu).
+     */
+    @Scheduled(fixedDelayString = "${app.calendar.index-ttl-ms:600000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        byUser.entrySet().removeIf(e -> {
+            boolean expired = isExpired(e.getValue(), now);
+            if (expired) evictions.increment();
+            return expired;
+        });
+    }
+
+    /**
+     * Zwraca statystyki indeksu.
+     * @return mapa z liczbą trafień, chybień, usunięć, zindeksowanych użytkowników i wydarzeń
+     */
+    public Map<String, Object> stats() {
+        long events = 0;
+        for (Cached cached : byUser.values()) events += cached.tree().size();
+        return Map.of(
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "evictions", evictions.sum(),
+                "cachedUsers", byUser.size(),
+                "indexedEvents", events
+        );
+    }
+
+    /**
+     * Zwraca drzewa wskazanych użytkowników, wczytując brakujące jednym zapytaniem.
+     * @param userIds identyfikatory użytkowników
+     * @return mapa identyfikator użytkownika → drzewo przedziałów
+     */
+    private Map<UUID, IntervalTree<Slot>> load(Collection<UUID> userIds) {
+        Map<UUID, IntervalTree<Slot>> trees = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        long now = System.nanoTime();
+        for (UUID userId : userIds) {
+            Cached cached = byUser.get(userId);
+            if (cached != null && !isExpired(cached, now)) {
+                trees.put(userId, cached.tree());
+            } else {
+                missing.add(userId);
+            }
+        }
+        hits.add(trees.size());
+        if (missing.isEmpty()) return trees;
+        misses.add(missing.size());
+
+        // Jeśli w trakcie ładowania nastąpiło unieważnienie, wynik może być nieaktualny - nie zapamiętujemy go
+        long version = invalidations.get();
+        Map<UUID, List<IntervalTree.Entry<Slot>>> entries = new HashMap<>();
+        tx.execute(status -> {
+            for (Event e : eventRepo.findByUserIdIn(missing)) {
+                entries.computeIfAbsent(e.getUserId(), k -> new ArrayList<>()).add(toEntry(e));
+            }
+            return null;
+        });
+        long loadedAt = System.nanoTime();
+        for (UUID userId : missing) {
+            IntervalTree<Slot> tree = IntervalTree.build(entries.getOrDefault(userId, List.of()));
+            trees.put(userId, tree);
+            if (invalidations.get() == version) byUser.put(userId, new Cached(tree, loadedAt));
+        }
+        if (invalidations.get() != version) missing.forEach(byUser::remove);
+        if (byUser.size() > maxUsers) evictOverflow();
+        return trees;
+    }
+
+    /**
+     * Usuwa wygasłe, a następnie najdawniej wczytane kalendarze, aż liczba zapamiętanych kalendarzy spadnie
+     * do 90% limitu (zapas sprawia, że sortowanie nie jest wykonywane przy każdym kolejnym wczytaniu).
+     */
+    private synchronized void evictOverflow() {
+        if (byUser.size() <= maxUsers) return;
+        evictExpired();
+        int target = maxUsers - maxUsers / 10;
+        if (byUser.size() <= target) return;
+        List<Map.Entry<UUID, Cached>> oldest = new ArrayList<>(byUser.entrySet());
+        oldest.sort(Comparator.comparingLong(e -> e.getValue().loadedAt()));
+        for (Map.Entry<UUID, Cached> e : oldest) {
+            if (byUser.size() <= target) break;
+            if (byUser.remove(e.getKey(), e.getValue())) evictions.increment();
+        }
+    }
+
+    private boolean isExpired(Cached cached, long now) {
+        return now - cached.loadedAt() > ttlNanos;
+    }
+
+    private static IntervalTree.Entry<Slot> toEntry(Event e) {
+        Duration length = Duration.between(e.getStart(), e.getEnd());
+        if (e.getRecurrenceRule() == null) {
+            return new IntervalTree.Entry<>(epoch(e.getStart()), epoch(e.getEnd()),
+                    new Slot(e.getId(), e.getTitle(), e.getStart(), length, null, Set.of()));
+        }
+        long end = e.getRecurrenceEnd() != null ? epoch(e.getRecurrenceEnd()) : Long.MAX_VALUE;
+        return new IntervalTree.Entry<>(epoch(e.getStart()), end,
+                new Slot(e.getId(), e.getTitle(), e.getStart(), length,
+                        RecurrenceRule.parse(e.getRecurrenceRule()), Set.copyOf(e.getExceptions())));
+    }
+
+    private static List<EventSlotDTO> overlapping(IntervalTree<Slot> tree, LocalDateTime from, LocalDateTime to) {
+        List<EventSlotDTO> result = new ArrayList<>();
+        tree.forEachOverlapping(epoch(from), epoch(to), slot -> {
+            if (slot.rule() == null) {
+                result.add(new EventSlotDTO(slot.eventId(), slot.title(), slot.start(), slot.start().plus(slot.length())));
+                return;
+            }
+            Iterator<LocalDateTime> it = slot.rule().occurrences(slot.start(), from.minus(slot.length()));
+            while (it.hasNext()) {
+                LocalDateTime start = it.next();
+                if (!start.isBefore(to)) break;
+                LocalDateTime end = start.plus(slot.length());
+                if (end.isAfter(from) && !slot.exceptions().contains(start)) {
+                    result.add(new EventSlotDTO(slot.eventId(), slot.title(), start, end));
+                }
+            }
+        });
+        // Wystąpienia serii mogą wypaść później niż kolejne pojedyncze wydarzenia
+        result.sort(Comparator.comparing(EventSlotDTO::start));
+        return result;
+    }
+
+    private static long epoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -1,37 +1,176 @@
 package org.example.noteuzbackend.service;
 
+import org.example.noteuzbackend.dto.EventOccurrenceDTO;
+import org.example.noteuzbackend.dto.EventSlotDTO;
+import org.example.noteuzbackend.dto.FreeBusyDTO;
+import org.example.noteuzbackend.event.CalendarChangedEvent;
 import org.example.noteuzbackend.model.entity.Event;
+import org.example.noteuzbackend.model.entity.GroupMember;
 import org.example.noteuzbackend.repository.EventRepo;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Serwis zarządzający wydarzeniami w kalendarzu użytkownika.
  */
 @Service
 public class EventService {
+    /** Najdłuższy dozwolony przedział zapytania (widok roczny z zapasem). */
+    static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    /** Najdłuższy dozwolony przedział zapytania o zajętość grupy. */
+    static final Duration MAX_FREE_BUSY_RANGE = Duration.ofDays(62);
+
     private final EventRepo eventRepo;
+    private final EventIntervalIndex intervalIndex;
+    private final GroupMembershipCache membershipCache;
+    private final GroupMemberRepo memberRepo;
+    private final ReminderService reminderService;
+    private final ApplicationEventPublisher events;
 
     /**
      * Konstruktor serwisu EventService.
      * @param eventRepo repozytorium wydarzeń
+     * @param intervalIndex indeks przedziałów czasu wydarzeń
+     * @param membershipCache pamięć podręczna członkostw w grupach
+     * @param memberRepo repozytorium członków grup
+     * @param reminderService serwis przypomnień o wydarzeniach
+     * @param events publikator zdarzeń aplikacji
      */
-    public EventService(EventRepo eventRepo) {
+    public EventService(EventRepo eventRepo, EventIntervalIndex intervalIndex, GroupMembershipCache membershipCache,
+                        GroupMemberRepo memberRepo, ReminderService reminderService, ApplicationEventPublisher events) {
         this.eventRepo = eventRepo;
+        this.intervalIndex = intervalIndex;
+        this.membershipCache = membershipCache;
+        this.memberRepo = memberRepo;
+        this.reminderService = reminderService;
+        this.events = events;
     }
 
     /**
-     * Pobiera listę wydarzeń przypisanych do konkretnego użytkownika, posortowaną chronologicznie.
+     * Pobiera listę wszystkich wydarzeń przypisanych do konkretnego użytkownika, posortowaną chronologicznie.
+     * Kalendarz powinien korzystać z {@link #getUserEvents(UUID, LocalDateTime, LocalDateTime)}.
      * @param userId identyfikator użytkownika
      * @return lista wydarzeń
      */
+    @Transactional(readOnly = true)
     public List<Event> getUserEvents(UUID userId) {
         return eventRepo.findByUserIdOrderByStartAsc(userId);
     }
 
+    /**
+     * Pobiera wystąpienia wydarzeń użytkownika nachodzące na przedział czasu (np. tydzień lub miesiąc widoczny w kalendarzu).
+     * Serie powtarzające się są rozwijane leniwie, tylko w obrębie przedziału, z pominięciem odwołanych wystąpień.
+     * Powiązane notatki i wyjątki wszystkich pobranych wydarzeń są doczytywane po jednym zapytaniu.
+     * @param userId identyfikator użytkownika
+     * @param from początek przedziału (włącznie)
+     * @param to koniec przedziału (wyłącznie)
+     * @return lista wystąpień posortowana chronologicznie
+     * @throws ResponseStatusException jeśli brakuje granicy przedziału, koniec nie jest po początku
+     *         lub przedział jest dłuższy niż 366 dni (400)
+     */
+    @Transactional(readOnly = true)
+    public List<EventOccurrenceDTO> getUserEvents(UUID userId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to, MAX_RANGE);
+
+        List<EventOccurrenceDTO> occurrences = new ArrayList<>();
+        for (Event event : eventRepo.findInRange(userId, from, to)) {
+            Set<UUID> noteIds = Set.copyOf(event.getNoteIds());
+            if (event.getRecurrenceRule() == null) {
+                occurrences.add(new EventOccurrenceDTO(event.getId(), event.getTitle(), event.getDescription(),
+                        event.getStart(), event.getEnd(), noteIds, null));
+                continue;
+            }
+            RecurrenceRule rule = RecurrenceRule.parse(event.getRecurrenceRule());
+            Duration length = Duration.between(event.getStart(), event.getEnd());
+            Iterator<LocalDateTime> it = rule.occurrences(event.getStart(), from.minus(length));
+            while (it.hasNext()) {
+                LocalDateTime start = it.next();
+                if (!start.isBefore(to)) break;
+                LocalDateTime end = start.plus(length);
+                if (end.isAfter(from) && !event.getExceptions().contains(start)) {
+                    occurrences.add(new EventOccurrenceDTO(event.getId(), event.getTitle(), event.getDescription(),
+                            start, end, noteIds, event.getRecurrenceRule()));
+                }
+            }
+        }
+        occurrences.sort(Comparator.comparing(EventOccurrenceDTO::start));
+        return occurrences;
+    }
+
+    /**
+     * Sprawdza regułę powtarzania wydarzenia przed zapisem i wylicza koniec ostatniego wystąpienia serii.
+     * Pusta reguła zamienia wydarzenie w pojedyncze.
+     * @param event wydarzenie z ustawionymi datami rozpoczęcia i zakończenia
+     * @throws ResponseStatusException jeśli reguła jest niepoprawna (400)
+     */
+    public void applyRecurrence(Event event) {
+        if (event.getRecurrenceRule() == null || event.getRecurrenceRule().isBlank()) {
+            event.setRecurrenceRule(null);
+            event.setRecurrenceEnd(null);
+            event.getExceptions().clear();
+            return;
+        }
+        RecurrenceRule rule;
+        try {
+            rule = RecurrenceRule.parse(event.getRecurrenceRule());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieprawidłowa reguła powtarzania: " + e.getMessage());
+        }
+        event.setRecurrenceRule(event.getRecurrenceRule().trim().toUpperCase(Locale.ROOT));
+        LocalDateTime lastStart = rule.lastOccurrenceBound(event.getStart());
+        event.setRecurrenceEnd(lastStart != null ? lastStart.plus(Duration.between(event.getStart(), event.getEnd())) : null);
+    }
+
+    /**
+     * Odwołuje pojedyncze wystąpienie serii powtarzającej się (dodaje wyjątek), pozostawiając pozostałe wystąpienia.
+     * @param eventId identyfikator wydarzenia (serii)
+     * @param userId identyfikator właściciela wydarzenia
+     * @param occurrenceStart moment rozpoczęcia odwoływanego wystąpienia
+     * @return zaktualizowane wydarzenie
+     * @throws ResponseStatusException jeśli wydarzenie nie istnieje (404), należy do innego użytkownika (403),
+     *         nie jest serią lub seria nie ma wystąpienia o podanym początku (400)
+     */
+    @Transactional
+    public Event cancelOccurrence(UUID eventId, UUID userId, LocalDateTime occurrenceStart) {
+        Event event = eventRepo.findById(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono wydarzenia."));
+        if (!event.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak dostępu do wydarzenia.");
+        }
+        if (event.getRecurrenceRule() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Wydarzenie nie jest serią powtarzającą się.");
+        }
+        Iterator<LocalDateTime> it = RecurrenceRule.parse(event.getRecurrenceRule()).occurrences(event.getStart(), occurrenceStart);
+        while (it.hasNext()) {
+            LocalDateTime start = it.next();
+            if (start.equals(occurrenceStart)) {
+                event.getExceptions().add(occurrenceStart);
+                Event saved = eventRepo.save(event);
+                reminderService.onEventChanged(saved);
+                events.publishEvent(CalendarChangedEvent.forUser(userId));
+                return saved;
+            }
+            if (start.isAfter(occurrenceStart)) break;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Seria nie ma wystąpienia o podanym początku.");
+    }
+
     /**
      * Tworzy i zapisuje nowe wydarzenie w systemie.
      * @param event obiekt wydarzenia do zapisania
@@ -39,11 +178,89 @@ public class EventService {
      */
     @Transactional
     public Event createEvent(Event event) {
-        return eventRepo.save(event);
+        Event saved = eventRepo.save(event);
+        events.publishEvent(CalendarChangedEvent.forUser(saved.getUserId()));
+        return saved;
+    }
+
+    /**
+     * Zapisuje zmiany istniejącego wydarzenia i przelicza terminy jego przypomnień.
+     * @param event zmienione wydarzenie
+     * @return zapisane wydarzenie
+     */
+    @Transactional
+    public Event updateEvent(Event event) {
+        Event saved = eventRepo.save(event);
+        reminderService.onEventChanged(saved);
+        events.publishEvent(CalendarChangedEvent.forUser(saved.getUserId()));
+        return saved;
+    }
+
+    /**
+     * Wyszukuje wydarzenia użytkownika kolidujące z przedziałem (np. z tworzonym lub przeciąganym wydarzeniem).
+     * Odpowiedź pochodzi z indeksu przedziałów w pamięci.
+     * @param userId identyfikator użytkownika
+     * @param start początek sprawdzanego przedziału
+     * @param end koniec sprawdzanego przedziału
+     * @param excludeEventId identyfikator wydarzenia pomijanego w wyniku (zmienianego), może być null
+     * @return lista kolidujących wystąpień
+     */
+    public List<EventSlotDTO> findConflicts(UUID userId, LocalDateTime start, LocalDateTime end, UUID excludeEventId) {
+        if (start == null || end == null || !end.isAfter(start)) return List.of();
+        return intervalIndex.overlapping(userId, start, end).stream()
+                .filter(slot -> excludeEventId == null || !excludeEventId.equals(slot.eventId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Wyznacza zajętość członków grupy w przedziale czasu: sumę ich wydarzeń (bez tytułów) i wspólne wolne przedziały.
+     * @param groupId identyfikator grupy
+     * @param userId identyfikator użytkownika pytającego (musi należeć do grupy)
+     * @param from początek przedziału (włącznie)
+     * @param to koniec przedziału (wyłącznie)
+     * @return zajętość grupy
+     * @throws ResponseStatusException jeśli użytkownik nie należy do grupy (403) lub przedział jest niepoprawny
+     *         albo dłuższy niż 62 dni (400)
+     */
+    public FreeBusyDTO getGroupFreeBusy(UUID groupId, UUID userId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to, MAX_FREE_BUSY_RANGE);
+        if (!membershipCache.isMember(groupId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie należysz do tej grupy");
+        }
+        List<UUID> memberIds = memberRepo.findByGroupId(groupId).stream().map(GroupMember::getUserId).toList();
+
+        List<FreeBusyDTO.TimeRange> slots = new ArrayList<>();
+        for (List<EventSlotDTO> memberSlots : intervalIndex.overlapping(memberIds, from, to).values()) {
+            for (EventSlotDTO slot : memberSlots) {
+                if (!slot.end().isAfter(slot.start())) continue;
+                slots.add(new FreeBusyDTO.TimeRange(max(slot.start(), from), min(slot.end(), to)));
+            }
+        }
+        slots.sort(Comparator.comparing(FreeBusyDTO.TimeRange::start));
+
+        // Scalanie posortowanych przedziałów i wyznaczanie przerw między nimi
+        List<FreeBusyDTO.TimeRange> busy = new ArrayList<>();
+        List<FreeBusyDTO.TimeRange> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        LocalDateTime busyStart = null;
+        for (FreeBusyDTO.TimeRange slot : slots) {
+            if (busyStart != null && slot.start().isAfter(cursor)) {
+                busy.add(new FreeBusyDTO.TimeRange(busyStart, cursor));
+                busyStart = null;
+            }
+            if (busyStart == null) {
+                if (slot.start().isAfter(cursor)) free.add(new FreeBusyDTO.TimeRange(cursor, slot.start()));
+                busyStart = slot.start();
+            }
+            cursor = max(cursor, slot.end());
+        }
+        if (busyStart != null) busy.add(new FreeBusyDTO.TimeRange(busyStart, cursor));
+        if (cursor.isBefore(to)) free.add(new FreeBusyDTO.TimeRange(cursor, to));
+        return new FreeBusyDTO(from, to, memberIds.size(), busy, free);
     }
 
     /**
-     * Usuwa wydarzenie o podanym identyfikatorze, o ile należy ono do wskazanego użytkownika.
+     * Usuwa wydarzenie o podanym identyfikatorze wraz z przypomnieniami, o ile należy ono do wskazanego użytkownika.
      * @param eventId identyfikator wydarzenia
      * @param userId identyfikator użytkownika próbującego usunąć wydarzenie
      */
@@ -52,8 +269,38 @@ public class EventService {
         // Sprawdź czy wydarzenie należy do użytkownika przed usunięciem
         eventRepo.findById(eventId).ifPresent(event -> {
             if (event.getUserId().equals(userId)) {
+                reminderService.onEventDeleted(eventId);
                 eventRepo.delete(event);
+                events.publishEvent(CalendarChangedEvent.forUser(userId));
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Sprawdza poprawność przedziału zapytania.
+     * @param from początek przedziału
+     * @param to koniec przedziału
+     * @param maxRange najdłuższy dozwolony przedział
+     * @throws ResponseStatusException jeśli brakuje granicy, koniec nie jest po początku lub przedział jest za długi (400)
+     */
+    private static void validateRange(LocalDateTime from, LocalDateTime to, Duration maxRange) {
+        if (from == null || to == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Podaj oba parametry: from i to.");
+        }
+        if (!to.isAfter(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Koniec przedziału musi być po jego początku.");
+        }
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Przedział nie może być dłuższy niż " + maxRange.toDays() + " dni.");
+        }
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
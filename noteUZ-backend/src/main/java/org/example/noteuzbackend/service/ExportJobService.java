@@ -0,0 +1,250 @@
+package org.example.noteuzbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.noteuzbackend.dto.ExportJobDTO;
+import org.example.noteuzbackend.dto.NoteVersionDTO;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.ExportJob;
+import org.example.noteuzbackend.model.enums.ExportJobStatus;
+import org.example.noteuzbackend.model.enums.PdfExportFormat;
+import org.example.noteuzbackend.repository.ExportJobRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serwis zadań eksportu notatek grupy do PDF (dla dużych grup, których eksport nie mieści się w jednym żądaniu).
+ * Zadania są wykonywane po kolei w osobnym wątku (nie w wątku harmonogramu): notatki renderuje pula {@link PdfExportService}, plik eksportu powstaje
+ * w pliku tymczasowym i po zakończeniu trafia do {@link BlobStore}. Postęp jest zapisywany co
+ * {@value #PROGRESS_EVERY} notatek, a gotowy plik można pobrać do wygaśnięcia zadania. Zadanie przerwane
+ * restartem aplikacji jest wykonywane od początku (dokumenty notatek już wyrenderowanych są w pamięci podręcznej).
+ */
+@Service
+public class ExportJobService {
+    private static final List<ExportJobStatus> ACTIVE = List.of(ExportJobStatus.PENDING, ExportJobStatus.RUNNING);
+    private static final String DOWNLOAD_PATH = "/api/export-jobs/%s/file";
+    private static final int PROGRESS_EVERY = 20;
+
+    private final ExportJobRepo jobRepo;
+    private final PdfExportService exportService;
+    private final BlobStore blobs;
+    private final int maxActiveJobs;
+    private final Duration jobTtl;
+    private final ThreadPoolExecutor worker;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    /**
+     * Konstruktor serwisu zadań eksportu.
+     * @param jobRepo repozytorium zadań eksportu
+     * @param exportService serwis eksportu notatek do PDF
+     * @param blobs magazyn danych binarnych (gotowe pliki eksportu)
+     * @param maxActiveJobs maksymalna liczba niezakończonych zadań jednego użytkownika
+     * @param jobTtlMs czas (ms) od utworzenia, po którym zadanie i jego plik są usuwane
+     */
+    public ExportJobService(ExportJobRepo jobRepo, PdfExportService exportService, BlobStore blobs,
+                            @Value("${app.pdf.max-active-jobs:3}") int maxActiveJobs,
+                            @Value("${app.pdf.job-ttl-ms:86400000}") long jobTtlMs) {
+        this.jobRepo = jobRepo;
+        this.exportService = exportService;
+        this.blobs = blobs;
+        this.maxActiveJobs = maxActiveJobs;
+        this.jobTtl = Duration.ofMillis(jobTtlMs);
+        this.worker = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), runnable -> {
+            Thread thread = new Thread(runnable, "export-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Zleca eksport notatek grupy w tle.
+     * @param groupId identyfikator grupy
+     * @param format format eksportu
+     * @param user zalogowany użytkownik
+     * @return stan zadania
+     * @throws ResponseStatusException jeśli użytkownik nie należy do grupy (403), grupa nie ma notatek (404)
+     *         lub użytkownik ma zbyt wiele niezakończonych zadań (429)
+     */
+    public ExportJobDTO enqueue(UUID groupId, PdfExportFormat format, UserSummary user) {
+        List<NoteVersionDTO> notes = exportService.groupNotes(groupId, user.id(), false);
+        if (jobRepo.countByUserIdAndStatusIn(user.id(), ACTIVE) >= maxActiveJobs) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Zbyt wiele eksportów w toku");
+        }
+        return toDto(jobRepo.save(new ExportJob(user.id(), groupId, format, notes.size())));
+    }
+
+    /**
+     * Pobiera stan zadania zleconego przez użytkownika.
+     * @param jobId identyfikator zadania
+     * @param user zalogowany użytkownik
+     * @return stan zadania
+     * @throws ResponseStatusException jeśli zadanie nie istnieje lub zlecił je inny użytkownik (404)
+     */
+    public ExportJobDTO getJob(UUID jobId, UserSummary user) {
+        return toDto(find(jobId, user));
+    }
+
+    /**
+     * Pobiera zakończone zadanie do pobrania pliku eksportu.
+     * @param jobId identyfikator zadania
+     * @param user zalogowany użytkownik
+     * @return zadanie z gotowym plikiem
+     * @throws ResponseStatusException jeśli zadanie nie istnieje (404) lub plik nie jest jeszcze gotowy (409)
+     */
+    public ExportJob completedJob(UUID jobId, UserSummary user) {
+        ExportJob job = find(jobId, user);
+        if (job.getStatus() != ExportJobStatus.COMPLETED || job.getBlobKey() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Eksport nie jest jeszcze gotowy");
+        }
+        return job;
+    }
+
+    /**
+     * Przesyła plik eksportu do strumienia.
+     * @param job zakończone zadanie
+     * @param out strumień wyjściowy
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    public void writeFile(ExportJob job, OutputStream out) throws IOException {
+        blobs.transferTo(job.getBlobKey(), out);
+    }
+
+    /**
+     * Zleca wykonanie oczekujących zadań wątkowi zadań eksportu, jeśli nie wykonuje on już poprzednich.
+     * Długie eksporty nie zajmują więc współdzielonego wątku harmonogramu.
+     */
+    @Scheduled(initialDelayString = "${app.pdf.jobs-initial-delay-ms:15000}",
+            fixedDelayString = "${app.pdf.jobs-poll-interval-ms:2000}")
+    public void schedulePendingJobs() {
+        if (!polling.compareAndSet(false, true)) return;
+        try {
+            worker.execute(() -> {
+                try {
+                    runPendingJobs();
+                } catch (RuntimeException e) {
+                    System.err.println("Błąd wykonywania zadań eksportu: " + e.getMessage());
+                } finally {
+                    polling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Zatrzymuje wątek zadań eksportu przy zamykaniu aplikacji (przerwane zadanie zostanie wykonane ponownie po starcie).
+     */
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Wykonuje oczekujące zadania (także przerwane w trakcie - np. przez restart aplikacji) w bieżącym wątku.
+     */
+    public void runPendingJobs() {
+        for (ExportJob job : jobRepo.findByStatusInOrderByCreatedAtAsc(ACTIVE)) {
+            run(job);
+        }
+    }
+
+    /**
+     * Usuwa wygasłe zadania; ich pliki usuwa później {@link BlobGarbageCollector}.
+     * @return liczba usuniętych zadań
+     */
+    @Scheduled(initialDelayString = "${app.pdf.jobs-cleanup-initial-delay-ms:300000}",
+            fixedDelayString = "${app.pdf.jobs-cleanup-interval-ms:3600000}")
+    public int expireJobs() {
+        List<ExportJob> expired = jobRepo.findByCreatedAtBefore(Instant.now().minus(jobTtl)).stream()
+                .filter(job -> job.getStatus() != ExportJobStatus.RUNNING)
+                .toList();
+        jobRepo.deleteAll(expired);
+        return expired.size();
+    }
+
+    /**
+     * Wykonuje eksport zadania do pliku tymczasowego i zapisuje gotowy plik w magazynie.
+     * @param job zadanie do wykonania
+     */
+    void run(ExportJob job) {
+        job.setStatus(ExportJobStatus.RUNNING);
+        job.setDoneNotes(0);
+        job.setPages(0);
+        saveProgress(job);
+        Path file = null;
+        try {
+            // Członkostwo jest sprawdzane ponownie - użytkownik mógł opuścić grupę od zlecenia eksportu
+            List<NoteVersionDTO> notes = exportService.groupNotes(job.getGroupId(), job.getUserId(), false);
+            job.setTotalNotes(notes.size());
+            file = Files.createTempFile("noteuz-export-", "." + job.getFormat().getExtension());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                exportService.writeGroup(notes, job.getFormat(), out, (done, pages) -> {
+                    job.setDoneNotes(done);
+                    job.setPages(pages);
+                    if (done % PROGRESS_EVERY == 0) saveProgress(job);
+                });
+            }
+            BlobStore.Blob blob;
+            try (InputStream in = Files.newInputStream(file)) {
+                blob = blobs.put(in, Files.size(file));
+            }
+            job.setBlobKey(blob.key());
+            job.setSize(blob.size());
+            job.setStatus(ExportJobStatus.COMPLETED);
+            job.setFinishedAt(Instant.now());
+            saveProgress(job);
+        } catch (IOException | RuntimeException e) {
+            String message = e instanceof ResponseStatusException status ? status.getReason() : e.getMessage();
+            System.err.println("Błąd zadania eksportu " + job.getId() + ": " + message);
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setError(message);
+            job.setFinishedAt(Instant.now());
+            saveProgress(job);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Nie udało się usunąć pliku tymczasowego " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private ExportJob find(UUID jobId, UserSummary user) {
+        return jobRepo.findByIdAndUserId(jobId, user.id())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Zadanie nie istnieje"));
+    }
+
+    private void saveProgress(ExportJob job) {
+        job.setUpdatedAt(Instant.now());
+        jobRepo.save(job);
+    }
+
+    private static ExportJobDTO toDto(ExportJob job) {
+        String downloadUrl = job.getStatus() == ExportJobStatus.COMPLETED ? String.format(DOWNLOAD_PATH, job.getId()) : null;
+        return new ExportJobDTO(job.getId(), job.getGroupId(), job.getFormat(), job.getStatus(), job.getTotalNotes(),
+                job.getDoneNotes(), job.getPages(), job.getSize(), job.getError(), downloadUrl,
+                job.getCreatedAt(), job.getFinishedAt());
+    }
+}
@@ -0,0 +1,383 @@
+package org.example.noteuzbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Magazyn danych binarnych w lokalnym systemie plików, adresowany treścią. Obiekt o kluczu {@code abcd...}
+ * jest przechowywany w pliku {@code <root>/ab/cd/abcd...}. Dane są zapisywane strumieniowo do pliku tymczasowego
+ * (z jednoczesnym wyznaczaniem skrótu), a następnie atomowo przenoszone pod docelową nazwę - czytelnik nigdy
+ * nie widzi częściowo zapisanego obiektu. Odczyt korzysta z {@link FileChannel#transferTo} i odwzorowania
+ * pliku w pamięci, bez kopiowania danych przez sterty aplikacji i bazy danych.
+ * Czas modyfikacji pliku oznacza ostatnie użycie obiektu (zapis lub ponowny zapis tej samej treści)
+ * i chroni świeże obiekty przed usunięciem przez {@link BlobGarbageCollector}.
+ * Pliki przesyłane w częściach są dopisywane do plików roboczych w {@code <root>/uploads}, a skrót jest wyznaczany
+ * przyrostowo podczas odbioru kolejnych fragmentów; po wznowieniu przesyłania w innym procesie (lub po przerwanym
+ * fragmencie) skrót jest wyznaczany ponownie z pliku roboczego przy zakończeniu.
+ */
+@Component
+public class FileBlobStore implements BlobStore {
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path temp;
+    private final Path uploads;
+    private final boolean fsync;
+    /** Blokady (według klucza) dla publikacji obiektu i jego usuwania. */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    /** Przyrostowo wyznaczane skróty przesyłań (według identyfikatora przesyłania). */
+    private final Map<String, UploadDigest> digests = new ConcurrentHashMap<>();
+    /** Przesyłania, których fragment jest właśnie odbierany lub które są właśnie kończone. */
+    private final Set<String> receiving = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder bytesTransferred = new LongAdder();
+    private final LongAdder mappedReads = new LongAdder();
+    private final LongAdder deletes = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+
+    /**
+     * Konstruktor magazynu. Usuwa pliki tymczasowe pozostałe po przerwanych zapisach
+     * (pliki robocze przesyłań w częściach są zachowywane, aby można je było wznowić).
+     * @param root katalog główny magazynu
+     * @param fsync czy wymuszać zapis danych na dysk przed udostępnieniem obiektu
+     * @throws IOException jeśli nie można utworzyć katalogów magazynu
+     */
+    public FileBlobStore(@Value("${app.blobs.root:data/blobs}") String root,
+                         @Value("${app.blobs.fsync:true}") boolean fsync) throws IOException {
+        this.root = Path.of(root).toAbsolutePath();
+        this.temp = this.root.resolve("tmp");
+        this.uploads = this.root.resolve("uploads");
+        this.fsync = fsync;
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new Object();
+        Files.createDirectories(temp);
+        Files.createDirectories(uploads);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(temp)) {
+            for (Path leftover : leftovers) Files.deleteIfExists(leftover);
+        }
+    }
+
+    @Override
+    public Blob put(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path part = Files.createTempFile(temp, "blob-", ".part");
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+                byte[] chunk = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    size += read;
+                    if (size > maxBytes) throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Plik jest zbyt duży");
+                    digest.update(chunk, 0, read);
+                    buffer.clear().limit(read);
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                }
+                if (fsync) channel.force(false);
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest());
+            publish(part, key, size);
+            return new Blob(key, size);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    @Override
+    public long append(String uploadId, long offset, InputStream in, long maxBytes) throws IOException {
+        Path file = uploadPath(uploadId);
+        begin(uploadId);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (offset != size) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Oczekiwano fragmentu od pozycji " + size);
+            }
+            // Skrót jest kontynuowany tylko wtedy, gdy obejmuje dokładnie dotychczasowe dane; jest przywracany
+            // dopiero po odebraniu całego fragmentu, więc przerwany fragment wymusza ponowne wyznaczenie skrótu
+            UploadDigest state = digests.remove(uploadId);
+            MessageDigest digest = state != null && state.position() == size ? state.digest() : size == 0 ? sha256() : null;
+
+            long position = size;
+            byte[] chunk = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                if (position - offset + read > maxBytes) {
+                    channel.truncate(offset);
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Fragment jest zbyt duży");
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) position += channel.write(buffer, position);
+                if (digest != null) digest.update(chunk, 0, read);
+            }
+            if (digest != null) digests.put(uploadId, new UploadDigest(digest, position));
+            chunks.increment();
+            bytesReceived.add(position - offset);
+            return position;
+        } finally {
+            receiving.remove(uploadId);
+        }
+    }
+
+    @Override
+    public long received(String uploadId) throws IOException {
+        Path file = uploadPath(uploadId);
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    @Override
+    public Blob complete(String uploadId) throws IOException {
+        Path file = uploadPath(uploadId);
+        begin(uploadId);
+        try {
+            UploadDigest state = digests.remove(uploadId);
+            long size = Files.size(file);
+            MessageDigest digest = state != null && state.position() == size ? state.digest() : rehash(file);
+            if (fsync) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            publishLinked(file, key, size);
+            return new Blob(key, size);
+        } finally {
+            receiving.remove(uploadId);
+        }
+    }
+
+    @Override
+    public void abort(String uploadId) throws IOException {
+        Path file = uploadPath(uploadId);
+        digests.remove(uploadId);
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(path(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(path(key));
+    }
+
+    @Override
+    public ByteBuffer read(String key) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(key), StandardOpenOption.READ)) {
+            mappedReads.increment();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Dla strumienia gniazda lub pliku jądro kopiuje dane bezpośrednio (sendfile); dla strumienia odpowiedzi
+     * serwletu kopiowanie odbywa się przez bufor kanału, ale bez tworzenia tablic na stercie.
+     */
+    @Override
+    public void transferTo(String key, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(key), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            transfers.increment();
+            bytesTransferred.add(size);
+        }
+    }
+
+    @Override
+    public boolean deleteIfUnusedSince(String key, Instant unusedSince) throws IOException {
+        Path file = path(key);
+        synchronized (lock(key)) {
+            if (!Files.exists(file) || Files.getLastModifiedTime(file).toInstant().isAfter(unusedSince)) return false;
+            Files.delete(file);
+        }
+        deletes.increment();
+        return true;
+    }
+
+    @Override
+    public void scan(Instant unusedSince, Consumer<String> keys) throws IOException {
+        FileTime cutoff = FileTime.from(unusedSince);
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(file -> !file.startsWith(temp) && !file.startsWith(uploads))
+                    .filter(file -> KEY.matcher(file.getFileName().toString()).matches())
+                    .filter(file -> {
+                        try {
+                            return Files.getLastModifiedTime(file).compareTo(cutoff) < 0;
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    })
+                    .forEach(file -> keys.accept(file.getFileName().toString()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("root", root.toString());
+        stats.put("writes", writes.sum());
+        stats.put("deduplicated", deduplicated.sum());
+        stats.put("bytesWritten", bytesWritten.sum());
+        stats.put("transfers", transfers.sum());
+        stats.put("bytesTransferred", bytesTransferred.sum());
+        stats.put("mappedReads", mappedReads.sum());
+        stats.put("deletes", deletes.sum());
+        stats.put("chunks", chunks.sum());
+        stats.put("bytesReceived", bytesReceived.sum());
+        stats.put("rehashed", rehashed.sum());
+        stats.put("receiving", receiving.size());
+        return stats;
+    }
+
+    /**
+     * Udostępnia w pełni zapisany plik jako obiekt o podanym kluczu: przenosi go atomowo pod docelową nazwę
+     * albo, jeśli obiekt już istnieje, usuwa plik i oznacza istniejący obiekt jako świeżo użyty.
+     */
+    private void publish(Path source, String key, long size) throws IOException {
+        Path target = path(key);
+        synchronized (lock(key)) {
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                Files.delete(source);
+                deduplicated.increment();
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                writes.increment();
+                bytesWritten.add(size);
+            }
+        }
+    }
+
+    /**
+     * Udostępnia plik roboczy jako obiekt magazynu przez dowiązanie twarde (bez kopiowania danych), pozostawiając
+     * plik roboczy do wywołania {@link #abort}. Jeśli system plików nie obsługuje dowiązań, dane są kopiowane.
+     */
+    private void publishLinked(Path source, String key, long size) throws IOException {
+        Path target = path(key);
+        synchronized (lock(key)) {
+            if (Files.exists(target)) {
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                deduplicated.increment();
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.createLink(target, source);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Path copy = Files.createTempFile(temp, "blob-", ".part");
+                try {
+                    Files.copy(source, copy, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(copy, target, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(copy);
+                }
+            }
+            writes.increment();
+            bytesWritten.add(size);
+        }
+    }
+
+    private MessageDigest rehash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(chunk)) != -1) digest.update(chunk, 0, read);
+        }
+        rehashed.increment();
+        return digest;
+    }
+
+    /**
+     * Oznacza przesyłanie jako zajęte - dwa fragmenty tego samego pliku nie mogą być odbierane jednocześnie.
+     */
+    private void begin(String uploadId) {
+        if (!receiving.add(uploadId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Fragment tego pliku jest właśnie przesyłany");
+        }
+    }
+
+    /**
+     * Wyznacza ścieżkę pliku roboczego przesyłania. Identyfikator musi być poprawnym UUID.
+     */
+    private Path uploadPath(String uploadId) {
+        return uploads.resolve(UUID.fromString(uploadId) + ".part");
+    }
+
+    /**
+     * Wyznacza ścieżkę pliku obiektu. Klucz jest sprawdzany, więc nie może wskazać pliku poza magazynem.
+     */
+    private Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Nieprawidłowy klucz obiektu: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Object lock(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Brak algorytmu SHA-256", e);
+        }
+    }
+
+    /**
+     * Skrót danych przesyłania wyznaczony do podanej pozycji.
+     */
+    private record UploadDigest(MessageDigest digest, long position) {}
+}
@@ -0,0 +1,211 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.FriendEdgeDTO;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.repository.FriendshipRepo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+/**
+ * Graf znajomych w pamięci w postaci listy sąsiedztwa (użytkownik → zbiór znajomych).
+ * Każda zaakceptowana znajomość jest zapisana w obu kierunkach, więc sprawdzenie znajomości to odczyt z mapy i zbioru,
+ * a liczenie wspólnych znajomych i znajomych znajomych nie wymaga zapytań do bazy danych.
+ * Graf jest ładowany w całości przy starcie (i okresowo odświeżany), a pomiędzy odświeżeniami
+ * aktualizowany przyrostowo zdarzeniami {@link FriendshipChangedEvent}.
+ */
+@Component
+public class FriendGraph {
+
+    /** Zmiany zgłoszone w trakcie przeładowania grafu (stosowane ponownie do nowo załadowanego grafu). */
+    private final Queue<FriendshipChangedEvent> changesDuringReload = new ConcurrentLinkedQueue<>();
+
+    private final FriendshipRepo friendshipRepo;
+
+    private volatile ConcurrentHashMap<UUID, Set<UUID>> adjacency = new ConcurrentHashMap<>();
+    private volatile boolean reloading;
+    private volatile Instant loadedAt;
+
+    /**
+     * Konstruktor grafu znajomych.
+     * @param friendshipRepo repozytorium relacji znajomości
+     */
+    public FriendGraph(FriendshipRepo friendshipRepo) {
+        this.friendshipRepo = friendshipRepo;
+    }
+
+    /**
+     * Sprawdza, czy dwaj użytkownicy są znajomymi.
+     * @param userA identyfikator pierwszego użytkownika
+     * @param userB identyfikator drugiego użytkownika
+     * @return true, jeśli znajomość została zaakceptowana
+     */
+    public boolean areFriends(UUID userA, UUID userB) {
+        if (userA == null || userB == null) return false;
+        Set<UUID> friends = adjacency.get(userA);
+        return friends != null && friends.contains(userB);
+    }
+
+    /**
+     * Zwraca znajomych użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return niemodyfikowalny zbiór identyfikatorów znajomych
+     */
+    public Set<UUID> friendsOf(UUID userId) {
+        Set<UUID> friends = userId != null ? adjacency.get(userId) : null;
+        return friends != null ? Collections.unmodifiableSet(friends) : Set.of();
+    }
+
+    /**
+     * Zwraca użytkowników mających co najmniej jednego znajomego.
+     * @return niemodyfikowalny widok identyfikatorów użytkowników
+     */
+    public Set<UUID> users() {
+        return Collections.unmodifiableSet(adjacency.keySet());
+    }
+
+    /**
+     * Zwraca wspólnych znajomych dwóch użytkowników.
+     * Przegląda mniejszy ze zbiorów i sprawdza przynależność do większego.
+     * @param userA identyfikator pierwszego użytkownika
+     * @param userB identyfikator drugiego użytkownika
+     * @return lista identyfikatorów wspólnych znajomych
+     */
+    public List<UUID> mutualFriends(UUID userA, UUID userB) {
+        Set<UUID> a = friendsOf(userA);
+        Set<UUID> b = friendsOf(userB);
+        Set<UUID> smaller = a.size() <= b.size() ? a : b;
+        Set<UUID> larger = smaller == a ? b : a;
+        List<UUID> mutual = new ArrayList<>();
+        for (UUID id : smaller) {
+            if (larger.contains(id)) mutual.add(id);
+        }
+        return mutual;
+    }
+
+    /**
+     * Zlicza wspólnych znajomych dwóch użytkowników.
+     * @param userA identyfikator pierwszego użytkownika
+     * @param userB identyfikator drugiego użytkownika
+     * @return liczba wspólnych znajomych
+     */
+    public int mutualCount(UUID userA, UUID userB) {
+        Set<UUID> a = friendsOf(userA);
+        Set<UUID> b = friendsOf(userB);
+        Set<UUID> smaller = a.size() <= b.size() ? a : b;
+        Set<UUID> larger = smaller == a ? b : a;
+        int count = 0;
+        for (UUID id : smaller) {
+            if (larger.contains(id)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Zlicza wspólnych znajomych ze wszystkimi znajomymi znajomych użytkownika,
+     * z pominięciem samego użytkownika i jego obecnych znajomych.
+     * @param userId identyfikator użytkownika
+     * @return mapa identyfikator kandydata → liczba wspólnych znajomych (bez określonej kolejności)
+     */
+    public Map<UUID, Integer> friendsOfFriends(UUID userId) {
+        Set<UUID> friends = friendsOf(userId);
+        Map<UUID, Integer> mutualCounts = new HashMap<>();
+        for (UUID friend : friends) {
+            for (UUID candidate : friendsOf(friend)) {
+                if (!candidate.equals(userId) && !friends.contains(candidate)) {
+                    mutualCounts.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        return mutualCounts;
+    }
+
+    /**
+     * Aktualizuje graf po zatwierdzeniu transakcji, w której zawarto lub zerwano znajomość.
+     * @param event zdarzenie zmiany znajomości
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        if (event.userA() == null || event.userB() == null) return;
+        apply(adjacency, event);
+        if (reloading) changesDuringReload.add(event);
+    }
+
+    /**
+     * Ładuje cały graf z bazy danych (przy starcie aplikacji i okresowo) jednym zapytaniem strumieniowym.
+     * Zmiany zgłoszone w trakcie ładowania są stosowane ponownie do nowego grafu.
+     */
+    @Scheduled(initialDelayString = "${app.friends.reload-initial-delay-ms:0}",
+            fixedDelayString = "${app.friends.reload-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        changesDuringReload.clear();
+        reloading = true;
+        try {
+            ConcurrentHashMap<UUID, Set<UUID>> loaded = new ConcurrentHashMap<>();
+            try (Stream<FriendEdgeDTO> edges = friendshipRepo.streamAcceptedEdges()) {
+                edges.forEach(e -> apply(loaded, FriendshipChangedEvent.connected(e.requesterId(), e.addresseeId())));
+            }
+            adjacency = loaded;
+            FriendshipChangedEvent change;
+            while ((change = changesDuringReload.poll()) != null) {
+                apply(loaded, change);
+            }
+        } finally {
+            reloading = false;
+        }
+        loadedAt = Instant.now();
+    }
+
+    /**
+     * Zwraca statystyki grafu.
+     * @return mapa z liczbą użytkowników, krawędzi i czasem ostatniego załadowania
+     */
+    public Map<String, Object> stats() {
+        long edges = 0;
+        for (Set<UUID> friends : adjacency.values()) edges += friends.size();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", adjacency.size());
+        stats.put("friendships", edges / 2);
+        stats.put("loadedAt", loadedAt);
+        return stats;
+    }
+
+    /**
+     * Dodaje lub usuwa krawędź grafu w obu kierunkach.
+     * @param graph lista sąsiedztwa
+     * @param change zmiana znajomości
+     */
+    private static void apply(ConcurrentHashMap<UUID, Set<UUID>> graph, FriendshipChangedEvent change) {
+        if (change.userA().equals(change.userB())) return;
+        if (change.connected()) {
+            graph.computeIfAbsent(change.userA(), k -> ConcurrentHashMap.newKeySet()).add(change.userB());
+            graph.computeIfAbsent(change.userB(), k -> ConcurrentHashMap.newKeySet()).add(change.userA());
+        } else {
+            removeEdge(graph, change.userA(), change.userB());
+            removeEdge(graph, change.userB(), change.userA());
+        }
+    }
+
+    private static void removeEdge(ConcurrentHashMap<UUID, Set<UUID>> graph, UUID from, UUID to) {
+        graph.computeIfPresent(from, (k, friends) -> {
+            friends.remove(to);
+            return friends.isEmpty() ? null : friends;
+        });
+    }
+}
@@ -1,14 +1,25 @@
 package org.example.noteuzbackend.service;
 
+import org.example.noteuzbackend.dto.FriendSuggestionDTO;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.model.entity.AppUser;
 import org.example.noteuzbackend.model.entity.Friendship;
+import org.example.noteuzbackend.repository.AppUserRepo;
 import org.example.noteuzbackend.repository.FriendshipRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serwis zarządzający relacjami znajomości między użytkownikami.
@@ -16,13 +27,26 @@ import java.util.UUID;
 @Service
 public class FriendService {
     private final FriendshipRepo repo;
+    private final AppUserRepo userRepo;
+    private final FriendGraph graph;
+    private final FriendSuggestionEngine suggestionEngine;
+    private final ApplicationEventPublisher events;
 
     /**
      * Konstruktor serwisu FriendService.
      * @param repo repozytorium relacji znajomości
+     * @param userRepo repozytorium użytkowników
+     * @param graph graf znajomych w pamięci
+     * @param suggestionEngine silnik propozycji znajomych
+     * @param events publikator zdarzeń aplikacji
      */
-    public FriendService(FriendshipRepo repo) {
+    public FriendService(FriendshipRepo repo, AppUserRepo userRepo, FriendGraph graph,
+                         FriendSuggestionEngine suggestionEngine, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.userRepo = userRepo;
+        this.graph = graph;
+        this.suggestionEngine = suggestionEngine;
+        this.events = events;
     }
 
     // Wyślij zaproszenie
@@ -40,9 +64,13 @@ public class FriendService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nie możesz zaprosić samego siebie.");
         }
 
-        // Sprawdź czy już nie są znajomymi lub czy nie ma zaproszenia
-        var existing = repo.findExistingRelation(requesterId, requesterEmail, targetEmail);
-        if (!existing.isEmpty()) {
+        // Sprawdź czy już nie są znajomymi lub czy nie ma zaproszenia (po identyfikatorach, jeśli adresat ma konto,
+        // oraz po adresie email dla zaproszeń wysłanych, zanim adresat założył konto)
+        UUID targetId = userRepo.findByEmail(targetEmail).map(AppUser::getId).orElse(null);
+        boolean exists = targetId != null
+                ? graph.areFriends(requesterId, targetId) || repo.existsBetween(requesterId, requesterEmail, targetId, targetEmail)
+                : repo.existsByRequesterIdAndAddresseeEmailIgnoreCase(requesterId, targetEmail);
+        if (exists) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Zaproszenie lub znajomość już istnieje.");
         }
 
@@ -50,6 +78,7 @@ public class FriendService {
         f.setRequesterId(requesterId);
         f.setRequesterEmail(requesterEmail);
         f.setAddresseeEmail(targetEmail);
+        f.setAddresseeId(targetId);
         f.setStatus("PENDING");
         return repo.save(f);
     }
@@ -62,22 +91,20 @@ public class FriendService {
      * @return lista obiektów Friendship
      */
     public List<Friendship> getMyFriendships(UUID myId, String myEmail) {
-        // Pobieramy to co wysłałem i to co dostałem
-        List<Friendship> sent = repo.findByRequesterId(myId);
-        List<Friendship> received = repo.findByAddresseeEmail(myEmail);
-        sent.addAll(received);
-        return sent;
+        // To co wysłałem i to co dostałem - jednym zapytaniem
+        return repo.findAllInvolving(myId, myEmail);
     }
 
     // Zaakceptuj zaproszenie
     /**
      * Akceptuje otrzymane zaproszenie do znajomych.
      * @param friendshipId identyfikator relacji
+     * @param myId identyfikator użytkownika akceptującego
      * @param myEmail email użytkownika akceptującego
      * @throws ResponseStatusException jeśli relacja nie istnieje (404) lub zaproszenie nie jest skierowane do tego użytkownika (403)
      */
     @Transactional
-    public void accept(UUID friendshipId, String myEmail) {
+    public void accept(UUID friendshipId, UUID myId, String myEmail) {
         Friendship f = repo.findById(friendshipId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
@@ -86,7 +113,9 @@ public class FriendService {
         }
 
         f.setStatus("ACCEPTED");
+        f.setAddresseeId(myId);
         repo.save(f);
+        events.publishEvent(FriendshipChangedEvent.connected(f.getRequesterId(), myId));
     }
 
     // Odrzuć/Usuń znajomego
@@ -108,5 +137,82 @@ public class FriendService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN);
         }
         repo.delete(f);
+        if ("ACCEPTED".equals(f.getStatus()) && f.getAddresseeId() != null) {
+            events.publishEvent(FriendshipChangedEvent.disconnected(f.getRequesterId(), f.getAddresseeId()));
+        }
+    }
+
+    // --- Graf znajomych ---
+
+    /**
+     * Sprawdza, czy użytkownicy są znajomymi (odczyt z grafu w pamięci).
+     * @param myId identyfikator zalogowanego użytkownika
+     * @param otherId identyfikator drugiego użytkownika
+     * @return true, jeśli znajomość została zaakceptowana
+     */
+    public boolean areFriends(UUID myId, UUID otherId) {
+        return graph.areFriends(myId, otherId);
+    }
+
+    /**
+     * Pobiera listę znajomych użytkownika (identyfikatory z grafu, nazwy jednym zapytaniem).
+     * @param myId identyfikator użytkownika
+     * @return lista znajomych z identyfikatorem, nazwą i adresem email
+     */
+    public List<Map<String, Object>> getFriends(UUID myId) {
+        return describe(graph.friendsOf(myId)).values().stream()
+                .map(u -> Map.<String, Object>of("id", u.getId(),
+                        "displayName", u.getDisplayName() != null ? u.getDisplayName() : "",
+                        "email", u.getEmail() != null ? u.getEmail() : ""))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pobiera wspólnych znajomych dwóch użytkowników.
+     * @param myId identyfikator zalogowanego użytkownika
+     * @param otherId identyfikator drugiego użytkownika
+     * @return mapa z liczbą wspólnych znajomych i ich identyfikatorami
+     */
+    public Map<String, Object> getMutualFriends(UUID myId, UUID otherId) {
+        List<UUID> mutual = graph.mutualFriends(myId, otherId);
+        return Map.of("count", mutual.size(), "ids", mutual);
+    }
+
+    /**
+     * Pobiera propozycje znajomych (znajomi znajomych i członkowie wspólnych grup) wyliczone wcześniej w tle.
+     * @param myId identyfikator użytkownika
+     * @param limit maksymalna liczba propozycji (najwyżej {@value FriendSuggestionEngine#MAX_SUGGESTIONS})
+     * @return lista propozycji od najlepszej
+     */
+    public List<FriendSuggestionDTO> getSuggestions(UUID myId, int limit) {
+        List<FriendSuggestionEngine.Suggestion> suggestions = suggestionEngine.suggestionsFor(myId,
+                Math.max(1, Math.min(limit, FriendSuggestionEngine.MAX_SUGGESTIONS)));
+        Set<UUID> ids = new LinkedHashSet<>();
+        suggestions.forEach(s -> ids.add(s.userId()));
+        Map<UUID, AppUser> users = describe(ids);
+        return suggestions.stream()
+                .map(s -> {
+                    AppUser u = users.get(s.userId());
+                    String name = u != null && u.getDisplayName() != null ? u.getDisplayName() : "Użytkownik";
+                    return new FriendSuggestionDTO(s.userId(), name, s.mutualFriends(), s.sharedGroups());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pobiera dane użytkowników jednym zapytaniem, zachowując kolejność identyfikatorów.
+     * @param ids identyfikatory użytkowników
+     * @return mapa identyfikator → użytkownik
+     */
+    private Map<UUID, AppUser> describe(Set<UUID> ids) {
+        if (ids.isEmpty()) return Map.of();
+        Map<UUID, AppUser> byId = userRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(AppUser::getId, Function.identity()));
+        Map<UUID, AppUser> ordered = new LinkedHashMap<>();
+        for (UUID id : ids) {
+            AppUser u = byId.get(id);
+            if (u != null) ordered.put(id, u);
+        }
+        return ordered;
     }
 }
\ No newline at end of file
@@ -0,0 +1,285 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.MembershipEdgeDTO;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.model.entity.GroupMember;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Silnik propozycji znajomych. Kandydaci (znajomi znajomych oraz członkowie wspólnych grup) są oceniani
+ * według liczby wspólnych znajomych i wspólnych grup, a wyniki są wyliczane w tle i przechowywane w pamięci,
+ * więc żądanie propozycji nie przegląda grafu.
+ * Po zmianie znajomości lub członkostwa przeliczani są tylko użytkownicy, których propozycje mogły się zmienić.
+ */
+@Component
+public class FriendSuggestionEngine {
+
+    /** Maksymalna liczba zapamiętanych propozycji na użytkownika. */
+    public static final int MAX_SUGGESTIONS = 50;
+    /** Waga wspólnego znajomego w ocenie kandydata. */
+    private static final int MUTUAL_FRIEND_WEIGHT = 2;
+    /** Waga wspólnej grupy w ocenie kandydata. */
+    private static final int SHARED_GROUP_WEIGHT = 1;
+    /** Grupy większe niż ten próg nie są brane pod uwagę - przynależność do nich niewiele mówi o znajomości. */
+    private static final int MAX_GROUP_SIZE = 500;
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::score)
+            .thenComparingInt(Suggestion::mutualFriends)
+            .thenComparing(Suggestion::userId, Comparator.reverseOrder());
+
+    private final FriendGraph graph;
+    private final GroupMemberRepo memberRepo;
+    private final TransactionTemplate tx;
+
+    private volatile ConcurrentHashMap<UUID, Set<UUID>> groupsByUser = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<UUID, Set<UUID>> usersByGroup = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, List<Suggestion>> suggestions = new ConcurrentHashMap<>();
+
+    /** Użytkownicy, których propozycje trzeba przeliczyć. */
+    private final Set<UUID> dirtyUsers = ConcurrentHashMap.newKeySet();
+    /** Użytkownicy, których członkostwa w grupach trzeba ponownie wczytać. */
+    private final Set<UUID> membershipReloads = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuildRequested;
+
+    private final AtomicLong recomputations = new AtomicLong();
+    private volatile Instant rebuiltAt;
+
+    /**
+     * Propozycja znajomego wraz z oceną.
+     *
+     * @param userId Identyfikator proponowanego użytkownika.
+     * @param mutualFriends Liczba wspólnych znajomych.
+     * @param sharedGroups Liczba wspólnych grup.
+     * @param score Ocena kandydata (im wyższa, tym lepsza propozycja).
+     */
+    public record Suggestion(UUID userId, int mutualFriends, int sharedGroups, int score) {}
+
+    /**
+     * Konstruktor silnika propozycji.
+     * @param graph graf znajomych w pamięci
+     * @param memberRepo repozytorium członków grup
+     * @param tx szablon transakcji używany przy strumieniowym wczytywaniu członkostw
+     */
+    public FriendSuggestionEngine(FriendGraph graph, GroupMemberRepo memberRepo, TransactionTemplate tx) {
+        this.graph = graph;
+        this.memberRepo = memberRepo;
+        this.tx = tx;
+    }
+
+    /**
+     * Zwraca propozycje znajomych użytkownika z pamięci. Propozycje użytkownika, dla którego nie zostały
+     * jeszcze wyliczone (np. nowego konta), są wyliczane i zapamiętywane przy pierwszym odwołaniu.
+     * @param userId identyfikator użytkownika
+     * @param limit maksymalna liczba propozycji (najwyżej {@value #MAX_SUGGESTIONS})
+     * @return lista propozycji od najlepszej
+     */
+    public List<Suggestion> suggestionsFor(UUID userId, int limit) {
+        if (userId == null || limit <= 0) return List.of();
+        List<Suggestion> cached = suggestions.computeIfAbsent(userId, this::compute);
+        return cached.size() <= limit ? cached : cached.subList(0, limit);
+    }
+
+    /**
+     * Oznacza do przeliczenia użytkowników, których propozycje zależą od zmienionej znajomości:
+     * obie strony relacji oraz ich znajomych (dla nich zmienia się zbiór znajomych znajomych).
+     * @param event zdarzenie zmiany znajomości
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipChangedEvent event) {
+        if (event.userA() == null || event.userB() == null) return;
+        dirtyUsers.add(event.userA());
+        dirtyUsers.add(event.userB());
+        dirtyUsers.addAll(graph.friendsOf(event.userA()));
+        dirtyUsers.addAll(graph.friendsOf(event.userB()));
+    }
+
+    /**
+     * Zleca ponowne wczytanie członkostw użytkownika (lub całego indeksu grup, jeśli zdarzenie dotyczy wszystkich użytkowników).
+     * @param event zdarzenie zmiany członkostwa
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(GroupMembershipChangedEvent event) {
+        if (event.userId() == null) {
+            rebuildRequested = true;
+        } else {
+            membershipReloads.add(event.userId());
+        }
+    }
+
+    /**
+     * Stosuje zaległe zmiany: wczytuje zmienione członkostwa i przelicza propozycje oznaczonych użytkowników.
+     */
+    @Scheduled(fixedDelayString = "${app.friends.suggestions.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (rebuildRequested) {
+            rebuild();
+            return;
+        }
+        for (UUID userId : drain(membershipReloads)) {
+            reloadMemberships(userId);
+        }
+        for (UUID userId : drain(dirtyUsers)) {
+            suggestions.put(userId, compute(userId));
+        }
+    }
+
+    /**
+     * Wczytuje indeks grup jednym zapytaniem strumieniowym i wylicza propozycje wszystkich użytkowników
+     * mających znajomych lub grupy. Wykonywane po starcie (po załadowaniu grafu znajomych) i okresowo.
+     */
+    @Scheduled(initialDelayString = "${app.friends.suggestions.rebuild-initial-delay-ms:10000}",
+            fixedDelayString = "${app.friends.suggestions.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        rebuildRequested = false;
+        membershipReloads.clear();
+        dirtyUsers.clear();
+
+        ConcurrentHashMap<UUID, Set<UUID>> byUser = new ConcurrentHashMap<>();
+        ConcurrentHashMap<UUID, Set<UUID>> byGroup = new ConcurrentHashMap<>();
+        tx.execute(status -> {
+            try (Stream<MembershipEdgeDTO> memberships = memberRepo.streamMemberships()) {
+                memberships.forEach(m -> {
+                    byUser.computeIfAbsent(m.userId(), k -> ConcurrentHashMap.newKeySet()).add(m.groupId());
+                    byGroup.computeIfAbsent(m.groupId(), k -> ConcurrentHashMap.newKeySet()).add(m.userId());
+                });
+            }
+            return null;
+        });
+        groupsByUser = byUser;
+        usersByGroup = byGroup;
+
+        Set<UUID> users = new HashSet<>(graph.users());
+        users.addAll(byUser.keySet());
+        Map<UUID, List<Suggestion>> computed = new HashMap<>();
+        for (UUID userId : users) {
+            computed.put(userId, compute(userId));
+        }
+        suggestions.keySet().retainAll(computed.keySet());
+        suggestions.putAll(computed);
+        rebuiltAt = Instant.now();
+    }
+
+    /**
+     * Zwraca statystyki silnika propozycji.
+     * @return mapa z liczbą zapamiętanych użytkowników, zaległych przeliczeń, wykonanych przeliczeń i czasem ostatniej przebudowy
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedUsers", suggestions.size());
+        stats.put("pending", dirtyUsers.size() + membershipReloads.size());
+        stats.put("recomputations", recomputations.get());
+        stats.put("rebuiltAt", rebuiltAt);
+        return stats;
+    }
+
+    /**
+     * Wczytuje członkostwa użytkownika, aktualizuje indeks grup i oznacza do przeliczenia użytkownika
+     * oraz członków grup, do których dołączył lub które opuścił.
+     * @param userId identyfikator użytkownika
+     */
+    private void reloadMemberships(UUID userId) {
+        Set<UUID> current = ConcurrentHashMap.newKeySet();
+        for (GroupMember m : memberRepo.findByUserId(userId)) {
+            current.add(m.getGroupId());
+        }
+        Set<UUID> previous = groupsByUser.getOrDefault(userId, Set.of());
+
+        Set<UUID> changed = new HashSet<>();
+        for (UUID groupId : previous) {
+            if (!current.contains(groupId)) {
+                changed.add(groupId);
+                usersByGroup.computeIfPresent(groupId, (k, members) -> {
+                    members.remove(userId);
+                    return members.isEmpty() ? null : members;
+                });
+            }
+        }
+        for (UUID groupId : current) {
+            if (!previous.contains(groupId)) {
+                changed.add(groupId);
+                usersByGroup.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+            }
+        }
+        if (current.isEmpty()) {
+            groupsByUser.remove(userId);
+        } else {
+            groupsByUser.put(userId, current);
+        }
+
+        dirtyUsers.add(userId);
+        for (UUID groupId : changed) {
+            Set<UUID> members = usersByGroup.getOrDefault(groupId, Set.of());
+            if (members.size() <= MAX_GROUP_SIZE) dirtyUsers.addAll(members);
+        }
+    }
+
+    /**
+     * Wylicza najlepsze propozycje użytkownika z grafu znajomych i indeksu grup.
+     * @param userId identyfikator użytkownika
+     * @return lista co najwyżej {@value #MAX_SUGGESTIONS} propozycji od najlepszej
+     */
+    private List<Suggestion> compute(UUID userId) {
+        recomputations.incrementAndGet();
+        Set<UUID> friends = graph.friendsOf(userId);
+        Map<UUID, Integer> mutual = graph.friendsOfFriends(userId);
+
+        Map<UUID, Integer> shared = new HashMap<>();
+        for (UUID groupId : groupsByUser.getOrDefault(userId, Set.of())) {
+            Set<UUID> members = usersByGroup.getOrDefault(groupId, Set.of());
+            if (members.size() > MAX_GROUP_SIZE) continue;
+            for (UUID member : members) {
+                if (!member.equals(userId) && !friends.contains(member)) {
+                    shared.merge(member, 1, Integer::sum);
+                }
+            }
+        }
+
+        Set<UUID> candidates = new HashSet<>(mutual.keySet());
+        candidates.addAll(shared.keySet());
+
+        // Wybór najlepszych kandydatów kopcem o rozmiarze MAX_SUGGESTIONS (bez sortowania wszystkich kandydatów)
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(RANKING);
+        for (UUID candidate : candidates) {
+            int m = mutual.getOrDefault(candidate, 0);
+            int g = shared.getOrDefault(candidate, 0);
+            top.offer(new Suggestion(candidate, m, g, m * MUTUAL_FRIEND_WEIGHT + g * SHARED_GROUP_WEIGHT));
+            if (top.size() > MAX_SUGGESTIONS) top.poll();
+        }
+        List<Suggestion> best = new ArrayList<>(top);
+        best.sort(RANKING.reversed());
+        return List.copyOf(best);
+    }
+
+    /**
+     * Pobiera i usuwa wszystkie elementy współbieżnego zbioru.
+     * @param pending zbiór zaległych identyfikatorów
+     * @return pobrane identyfikatory
+     */
+    private static List<UUID> drain(Set<UUID> pending) {
+        List<UUID> drained = new ArrayList<>();
+        for (UUID id : pending) {
+            if (pending.remove(id)) drained.add(id);
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.model.entity.GroupMember;
+import org.example.noteuzbackend.model.enums.GroupRole;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pamięć podręczna członkostw w grupach w postaci indeksu użytkownik → (grupa → rola).
+ * Przy pierwszym odwołaniu wszystkie członkostwa użytkownika są ładowane jednym zapytaniem,
+ * a kolejne sprawdzenia uprawnień to dwa odczyty z map bez dostępu do bazy danych.
+ * Wpisy są unieważniane zdarzeniem {@link GroupMembershipChangedEvent} po zatwierdzeniu transakcji.
+ */
+@Component
+public class GroupMembershipCache {
+
+    private final GroupMemberRepo memberRepo;
+
+    private final ConcurrentHashMap<UUID, Map<UUID, GroupRole>> rolesByUser = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Konstruktor pamięci podręcznej członkostw.
+     * @param memberRepo repozytorium członków grup
+     */
+    public GroupMembershipCache(GroupMemberRepo memberRepo) {
+        this.memberRepo = memberRepo;
+    }
+
+    /**
+     * Zwraca rolę użytkownika w grupie.
+     * @param groupId identyfikator grupy
+     * @param userId identyfikator użytkownika
+     * @return rola użytkownika lub pusty Optional, jeśli nie należy do grupy
+     */
+    public Optional<GroupRole> roleOf(UUID groupId, UUID userId) {
+        if (groupId == null || userId == null) return Optional.empty();
+        return Optional.ofNullable(membershipsOf(userId).get(groupId));
+    }
+
+    /**
+     * Sprawdza, czy użytkownik należy do grupy.
+     * @param groupId identyfikator grupy
+     * @param userId identyfikator użytkownika
+     * @return true, jeśli użytkownik jest członkiem grupy
+     */
+    public boolean isMember(UUID groupId, UUID userId) {
+        if (groupId == null || userId == null) return false;
+        return membershipsOf(userId).containsKey(groupId);
+    }
+
+    /**
+     * Unieważnia członkostwa po zatwierdzeniu transakcji, w której je zmieniono
+     * (lub od razu, jeśli zdarzenie opublikowano poza transakcją).
+     * @param event zdarzenie zmiany członkostwa
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(GroupMembershipChangedEvent event) {
+        invalidations.incrementAndGet();
+        if (event.userId() == null) {
+            rolesByUser.clear();
+        } else {
+            rolesByUser.remove(event.userId());
+        }
+    }
+
+    /**
+     * Zwraca statystyki trafień pamięci podręcznej.
+     * @return mapa z liczbą trafień, chybień, współczynnikiem trafień i liczbą zapamiętanych użytkowników
+     */
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return Map.of(
+                "hits", h,
+                "misses", m,
+                "hitRate", h + m == 0 ? 0.0 : (double) h / (h + m),
+                "cachedUsers", rolesByUser.size()
+        );
+    }
+
+    private Map<UUID, GroupRole> membershipsOf(UUID userId) {
+        Map<UUID, GroupRole> cached = rolesByUser.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        // Jeśli w trakcie ładowania nastąpiło unieważnienie, wynik może być nieaktualny - nie zapamiętujemy go
+        long version = invalidations.get();
+        Map<UUID, GroupRole> loaded = new HashMap<>();
+        for (GroupMember m : memberRepo.findByUserId(userId)) {
+            loaded.put(m.getGroupId(), m.getRole() != null ? m.getRole() : GroupRole.MEMBER);
+        }
+        Map<UUID, GroupRole> compact = Map.copyOf(loaded);
+        if (invalidations.get() == version) {
+            rolesByUser.put(userId, compact);
+            if (invalidations.get() != version) rolesByUser.remove(userId, compact);
+        }
+        return compact;
+    }
+}
@@ -1,14 +1,25 @@
 package org.example.noteuzbackend.service;
 
+import org.example.noteuzbackend.dto.GroupInvitationDTO;
+import org.example.noteuzbackend.dto.GroupMemberDetailsDTO;
+import org.example.noteuzbackend.dto.UserGroupDTO;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.event.StatsChangedEvent;
 import org.example.noteuzbackend.model.entity.AppUser;
 import org.example.noteuzbackend.model.entity.Group;
 import org.example.noteuzbackend.model.entity.GroupInvitation;
 import org.example.noteuzbackend.model.entity.GroupMember;
 import org.example.noteuzbackend.model.enums.GroupRole;
+import org.example.noteuzbackend.model.enums.StatsMetric;
 import org.example.noteuzbackend.repository.AppUserRepo;
 import org.example.noteuzbackend.repository.GroupInvitationRepo;
 import org.example.noteuzbackend.repository.GroupMemberRepo;
 import org.example.noteuzbackend.repository.GroupRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +28,6 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Serwis zarządzający grupami użytkowników.
@@ -25,10 +35,14 @@ import java.util.stream.Collectors;
 @Service
 public class GroupService {
 
+    private static final int MAX_MEMBERS_PAGE_SIZE = 500;
+
     private final GroupRepo groupRepo;
     private final GroupMemberRepo memberRepo;
     private final AppUserRepo userRepo;
     private final GroupInvitationRepo invitationRepo;
+    private final GroupMembershipCache membershipCache;
+    private final ApplicationEventPublisher events;
 
     /**
      * Konstruktor serwisu.
@@ -36,12 +50,17 @@ public class GroupService {
      * @param memberRepo Repozytorium członków grup
      * @param userRepo Repozytorium użytkowników
      * @param invitationRepo Repozytorium zaproszeń do grup
+     * @param membershipCache Pamięć podręczna członkostw w grupach
+     * @param events Publikator zdarzeń aplikacji
      */
-    public GroupService(GroupRepo groupRepo, GroupMemberRepo memberRepo, AppUserRepo userRepo, GroupInvitationRepo invitationRepo) {
+    public GroupService(GroupRepo groupRepo, GroupMemberRepo memberRepo, AppUserRepo userRepo, GroupInvitationRepo invitationRepo,
+                        GroupMembershipCache membershipCache, ApplicationEventPublisher events) {
         this.groupRepo = groupRepo;
         this.memberRepo = memberRepo;
         this.userRepo = userRepo;
         this.invitationRepo = invitationRepo;
+        this.membershipCache = membershipCache;
+        this.events = events;
     }
 
     // 1. TWORZENIE GRUPY
@@ -61,50 +80,39 @@ public class GroupService {
 
         GroupMember owner = new GroupMember(savedGroup.getId(), creatorId, GroupRole.OWNER);
         memberRepo.save(owner);
+        events.publishEvent(GroupMembershipChangedEvent.forUser(creatorId));
+        events.publishEvent(StatsChangedEvent.increment(StatsMetric.GROUPS));
+        events.publishEvent(StatsChangedEvent.increment(StatsMetric.GROUP_MEMBERS));
 
         return savedGroup;
     }
 
     // 2. LISTA GRUP UŻYTKOWNIKA
     /**
-     * Pobiera listę grup, do których należy użytkownik.
+     * Pobiera listę grup, do których należy użytkownik (jedno zapytanie łączące).
      * @param userId identyfikator użytkownika
-     * @return lista map zawierających szczegóły członkostwa w grupach
+     * @return lista projekcji zawierających szczegóły członkostwa w grupach
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getUserGroups(UUID userId) {
-        List<GroupMember> memberships = memberRepo.findByUserId(userId);
-
-        return memberships.stream().map(m -> {
-            Group g = groupRepo.findById(m.getGroupId()).orElse(null);
-            if (g == null) return null;
-
-            // Tutaj też warto dodać jawne typowanie dla bezpieczeństwa
-            return Map.<String, Object>of(
-                    "groupId", g.getId(),
-                    "groupName", g.getName(),
-                    "description", g.getDescription() != null ? g.getDescription() : "",
-                    "myRole", m.getRole(),
-                    "joinedAt", m.getJoinedAt()
-            );
-        }).filter(item -> item != null).collect(Collectors.toList());
+    public List<UserGroupDTO> getUserGroups(UUID userId) {
+        return memberRepo.findUserGroups(userId);
     }
 
     /**
      * Weryfikuje, czy użytkownik ma uprawnienia administracyjne w grupie (OWNER lub ADMIN).
      * @param groupId identyfikator grupy
      * @param requesterId identyfikator użytkownika sprawdzanego
-     * @return obiekt GroupMember jeśli weryfikacja przebiegła pomyślnie
+     * @return rola użytkownika w grupie, jeśli weryfikacja przebiegła pomyślnie
      * @throws ResponseStatusException jeśli użytkownik nie należy do grupy lub nie ma uprawnień (403)
      */
-    private GroupMember validateAdminAccess(UUID groupId, UUID requesterId) {
-        GroupMember member = memberRepo.findByGroupIdAndUserId(groupId, requesterId)
+    private GroupRole validateAdminAccess(UUID groupId, UUID requesterId) {
+        GroupRole role = membershipCache.roleOf(groupId, requesterId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie należysz do tej grupy"));
 
-        if (member.getRole() == GroupRole.MEMBER) {
+        if (role == GroupRole.MEMBER) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak uprawnień administratora");
         }
-        return member;
+        return role;
     }
 
     // 3. ZAPRASZANIE CZŁONKA
@@ -133,27 +141,13 @@ public class GroupService {
 
     // 4. POBIERANIE ZAPROSZEŃ
     /**
-     * Pobiera listę zaproszeń do grup dla konkretnego użytkownika.
+     * Pobiera listę zaproszeń do grup dla konkretnego użytkownika (jedno zapytanie łączące).
      * @param userId identyfikator użytkownika
-     * @return lista map z informacjami o zaproszeniach
+     * @return lista projekcji z informacjami o zaproszeniach
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getUserInvitations(UUID userId) {
-        return invitationRepo.findByInviteeId(userId).stream().map(inv -> {
-            Group g = groupRepo.findById(inv.getGroupId()).orElse(null);
-            if (g == null) return null;
-
-            String inviterName = userRepo.findById(inv.getInviterId())
-                    .map(AppUser::getDisplayName).orElse("Użytkownik");
-
-            return Map.<String, Object>of(
-                    "invitationId", inv.getId(),
-                    "groupId", g.getId(),
-                    "groupName", g.getName(),
-                    "inviterName", inviterName,
-                    "sentAt", inv.getCreatedAt()
-            );
-        }).filter(item -> item != null).collect(Collectors.toList());
+    public List<GroupInvitationDTO> getUserInvitations(UUID userId) {
+        return invitationRepo.findInvitationDetails(userId);
     }
 
     // 5. ODPOWIEDŹ NA ZAPROSZENIE
@@ -172,6 +166,8 @@ public class GroupService {
         if (accept) {
             GroupMember newMember = new GroupMember(inv.getGroupId(), userId, GroupRole.MEMBER);
             memberRepo.save(newMember);
+            events.publishEvent(GroupMembershipChangedEvent.forUser(userId));
+            events.publishEvent(StatsChangedEvent.increment(StatsMetric.GROUP_MEMBERS));
         }
         invitationRepo.delete(inv);
     }
@@ -197,6 +193,8 @@ public class GroupService {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Właściciel nie może opuścić grupy (musi ją usunąć).");
             }
             memberRepo.delete(target);
+            events.publishEvent(GroupMembershipChangedEvent.forUser(targetUserId));
+            events.publishEvent(StatsChangedEvent.decrement(StatsMetric.GROUP_MEMBERS));
             return;
         }
 
@@ -210,6 +208,8 @@ public class GroupService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie możesz usunąć innego Administratora.");
         }
         memberRepo.delete(target);
+        events.publishEvent(GroupMembershipChangedEvent.forUser(targetUserId));
+        events.publishEvent(StatsChangedEvent.decrement(StatsMetric.GROUP_MEMBERS));
     }
 
     // 7. ZMIANA ROLI
@@ -223,7 +223,7 @@ public class GroupService {
      */
     @Transactional
     public void changeRole(UUID groupId, UUID requesterId, UUID targetUserId, String newRoleStr) {
-        GroupMember requester = validateAdminAccess(groupId, requesterId);
+        GroupRole requesterRole = validateAdminAccess(groupId, requesterId);
         GroupMember target = memberRepo.findByGroupIdAndUserId(groupId, targetUserId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Użytkownik nie jest w grupie"));
 
@@ -234,62 +234,61 @@ public class GroupService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieprawidłowa rola");
         }
 
-        if (newRole == GroupRole.OWNER && requester.getRole() != GroupRole.OWNER) {
+        if (newRole == GroupRole.OWNER && requesterRole != GroupRole.OWNER) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Tylko Właściciel może nadać rolę OWNER");
         }
-        if (requester.getRole() == GroupRole.ADMIN && target.getRole() == GroupRole.OWNER) {
+        if (requesterRole == GroupRole.ADMIN && target.getRole() == GroupRole.OWNER) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie możesz edytować Właściciela");
         }
         target.setRole(newRole);
         memberRepo.save(target);
+        events.publishEvent(GroupMembershipChangedEvent.forUser(targetUserId));
     }
 
-    // 8. SZCZEGÓŁY GRUPY (ZMODYFIKOWANA METODA)
+    // 8. SZCZEGÓŁY GRUPY
     /**
-     * Pobiera szczegółowe informacje o grupie wraz z listą jej członków i ich danymi profilowymi.
+     * Pobiera szczegółowe informacje o grupie wraz z pełną listą jej członków i ich danymi profilowymi.
      * @param groupId identyfikator grupy
      * @param requesterId identyfikator użytkownika żądającego
-     * @return mapa zawierająca obiekt grupy oraz listę wzbogaconych członków
+     * @return mapa zawierająca obiekt grupy, listę członków oraz ich łączną liczbę
      * @throws ResponseStatusException jeśli grupa nie istnieje (404) lub użytkownik nie ma do niej dostępu (403)
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getGroupDetails(UUID groupId, UUID requesterId) {
-        memberRepo.findByGroupIdAndUserId(groupId, requesterId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak dostępu do grupy"));
+        return getGroupDetails(groupId, requesterId, null, null);
+    }
+
+    /**
+     * Pobiera szczegółowe informacje o grupie wraz ze stroną listy członków.
+     * Dane członków są pobierane jednym zapytaniem łączącym z widokiem użytkowników, niezależnie od wielkości grupy.
+     * @param groupId identyfikator grupy
+     * @param requesterId identyfikator użytkownika żądającego
+     * @param page numer strony listy członków (od 0), domyślnie 0
+     * @param size rozmiar strony listy członków; null oznacza wszystkich członków
+     * @return mapa zawierająca obiekt grupy, stronę członków oraz ich łączną liczbę
+     * @throws ResponseStatusException jeśli grupa nie istnieje (404) lub użytkownik nie ma do niej dostępu (403)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getGroupDetails(UUID groupId, UUID requesterId, Integer page, Integer size) {
+        if (!membershipCache.isMember(groupId, requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak dostępu do grupy");
+        }
 
         Group group = groupRepo.findById(groupId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        List<GroupMember> members = memberRepo.findByGroupId(groupId);
-
-        List<Map<String, Object>> enrichedMembers = members.stream().map(m -> {
-            String displayName = "Użytkownik";
-            String email = "";
-
-            var userOpt = userRepo.findById(m.getUserId());
-            if (userOpt.isPresent()) {
-                displayName = userOpt.get().getDisplayName();
-                email = userOpt.get().getEmail();
-            }
+        Pageable pageable = size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page != null ? Math.max(page, 0) : 0,
+                        Math.min(Math.max(size, 1), MAX_MEMBERS_PAGE_SIZE),
+                        Sort.by("joinedAt", "id"));
 
-            if (displayName == null) displayName = "Użytkownik";
-            if (email == null) email = "";
-
-            // --- POPRAWKA TUTAJ: Jawne wskazanie typów <String, Object> ---
-            return Map.<String, Object>of(
-                    "id", m.getId(),
-                    "groupId", m.getGroupId(),
-                    "userId", m.getUserId(),
-                    "role", m.getRole(),
-                    "joinedAt", m.getJoinedAt(),
-                    "displayName", displayName,
-                    "email", email
-            );
-        }).collect(Collectors.toList());
+        Page<GroupMemberDetailsDTO> members = memberRepo.findMemberDetails(groupId, pageable);
 
         return Map.of(
                 "group", group,
-                "members", enrichedMembers
+                "members", members.getContent(),
+                "totalMembers", members.getTotalElements()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package org.example.noteuzbackend.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Zapis kalendarza w formacie iCalendar (RFC 5545) bezpośrednio do strumienia: linie zakończone CRLF,
+ * zawijane po 75 oktetach, z ucieczką znaków specjalnych w tekstach. Czasy wydarzeń są zapisywane w strefie
+ * kalendarza (TZID) wraz z definicją VTIMEZONE, dzięki czemu serie zachowują godzinę po zmianie czasu.
+ */
+final class IcsWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final List<String> DAY_CODES = List.of("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+
+    private final Writer out;
+    private final ZoneId zone;
+
+    /**
+     * Tworzy zapis kalendarza.
+     * @param out strumień docelowy (powinien być buforowany)
+     * @param zone strefa czasowa dat wydarzeń
+     */
+    IcsWriter(Writer out, ZoneId zone) {
+        this.out = out;
+        this.zone = zone;
+    }
+
+    /**
+     * Zapisuje nagłówek kalendarza wraz z definicją strefy czasowej.
+     * @param name nazwa kalendarza wyświetlana w aplikacji subskrybenta
+     * @param refreshInterval sugerowany odstęp odświeżania w formacie ISO-8601 (np. PT15M)
+     * @throws IOException w przypadku błędu zapisu
+     */
+    void beginCalendar(String name, String refreshInterval) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//NoteUZ//Kalendarz//PL");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(name));
+        line("X-WR-TIMEZONE:" + zone.getId());
+        line("REFRESH-INTERVAL;VALUE=DURATION:" + refreshInterval);
+        line("X-PUBLISHED-TTL:" + refreshInterval);
+        timeZone();
+    }
+
+    /**
+     * Zapisuje wydarzenie (lub całą serię z regułą RRULE i odwołanymi wystąpieniami jako EXDATE).
+     * @param uid identyfikator wydarzenia unikalny w kalendarzu
+     * @param stamp moment wygenerowania danych (DTSTAMP)
+     * @param start rozpoczęcie (pierwszego wystąpienia)
+     * @param end zakończenie (pierwszego wystąpienia)
+     * @param summary tytuł
+     * @param description opis lub null
+     * @param rule reguła powtarzania lub null
+     * @param exceptions momenty rozpoczęcia odwołanych wystąpień
+     * @throws IOException w przypadku błędu zapisu
+     */
+    void event(String uid, Instant stamp, LocalDateTime start, LocalDateTime end, String summary, String description,
+               String rule, Collection<LocalDateTime> exceptions) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + UTC.format(stamp));
+        line("DTSTART;TZID=" + zone.getId() + ":" + LOCAL.format(start));
+        line("DTEND;TZID=" + zone.getId() + ":" + LOCAL.format(end));
+        line("SUMMARY:" + escape(summary));
+        if (description != null && !description.isBlank()) line("DESCRIPTION:" + escape(description));
+        if (rule != null) {
+            line("RRULE:" + rrule(rule));
+            for (LocalDateTime exception : exceptions) {
+                line("EXDATE;TZID=" + zone.getId() + ":" + LOCAL.format(exception));
+            }
+        }
+        line("END:VEVENT");
+    }
+
+    /**
+     * Zapisuje regułę powtarzania z UNTIL w UTC (z sufiksem Z) - RFC 5545 wymaga tego, gdy DTSTART ma TZID.
+     * UNTIL jest w aplikacji czasem lokalnym strefy kalendarza (sama data oznacza koniec tego dnia).
+     */
+    private String rrule(String rule) {
+        String body = rule.startsWith("RRULE:") ? rule.substring("RRULE:".length()) : rule;
+        if (!body.toUpperCase(Locale.ROOT).contains("UNTIL=")) return body;
+        LocalDateTime until = RecurrenceRule.parse(body).until();
+        StringBuilder sb = new StringBuilder(body.length() + 8);
+        for (String part : body.split(";")) {
+            if (part.isEmpty()) continue;
+            if (!sb.isEmpty()) sb.append(';');
+            sb.append(part.toUpperCase(Locale.ROOT).startsWith("UNTIL=")
+                    ? "UNTIL=" + UTC.format(until.atZone(zone).toInstant())
+                    : part);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Zapisuje zakończenie kalendarza.
+     * @throws IOException w przypadku błędu zapisu
+     */
+    void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+    }
+
+    /**
+     * Zapisuje definicję VTIMEZONE na podstawie bieżących reguł zmiany czasu strefy.
+     */
+    private void timeZone() throws IOException {
+        ZoneRules rules = zone.getRules();
+        line("BEGIN:VTIMEZONE");
+        line("TZID:" + zone.getId());
+        List<ZoneOffsetTransitionRule> transitions = rules.getTransitionRules();
+        if (transitions.isEmpty()) {
+            ZoneOffset offset = rules.getOffset(Instant.now());
+            line("BEGIN:STANDARD");
+            line("DTSTART:19700101T000000");
+            line("TZOFFSETFROM:" + offset(offset));
+            line("TZOFFSETTO:" + offset(offset));
+            line("END:STANDARD");
+        }
+        for (ZoneOffsetTransitionRule rule : transitions) {
+            String component = rule.getOffsetAfter().getTotalSeconds() > rule.getStandardOffset().getTotalSeconds()
+                    ? "DAYLIGHT" : "STANDARD";
+            line("BEGIN:" + component);
+            line("DTSTART:" + LOCAL.format(rule.createTransition(1970).getDateTimeBefore()));
+            line("TZOFFSETFROM:" + offset(rule.getOffsetBefore()));
+            line("TZOFFSETTO:" + offset(rule.getOffsetAfter()));
+            line("RRULE:FREQ=YEARLY;BYMONTH=" + rule.getMonth().getValue() + byDay(rule));
+            line("END:" + component);
+        }
+        line("END:VTIMEZONE");
+    }
+
+    /**
+     * Opisuje dzień zmiany czasu w składni RRULE. Reguła "dzień tygodnia w dniu d lub po nim" (np. ostatnia
+     * niedziela marca to niedziela od 25. dnia) jest zapisywana jako siedem kolejnych dni miesiąca z filtrem BYDAY.
+     */
+    private static String byDay(ZoneOffsetTransitionRule rule) {
+        int indicator = rule.getDayOfMonthIndicator();
+        DayOfWeek day = rule.getDayOfWeek();
+        if (day == null) return ";BYMONTHDAY=" + indicator;
+        StringBuilder days = new StringBuilder(";BYMONTHDAY=");
+        for (int i = 0; i < 7; i++) {
+            if (i > 0) days.append(',');
+            // Wskaźnik ujemny liczy dni od końca miesiąca (-1 to ostatni dzień), a dzień tygodnia przypada w nim lub przed nim
+            days.append(indicator > 0 ? indicator + i : indicator - i);
+        }
+        return days + ";BYDAY=" + DAY_CODES.get(day.ordinal());
+    }
+
+    private static String offset(ZoneOffset offset) {
+        int seconds = offset.getTotalSeconds();
+        int abs = Math.abs(seconds);
+        return String.format(Locale.ROOT, "%s%02d%02d", seconds < 0 ? "-" : "+", abs / 3600, abs / 60 % 60);
+    }
+
+    /**
+     * Ucieka znaki specjalne wartości tekstowej (RFC 5545, 3.3.11).
+     */
+    static String escape(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Zapisuje linię zawiniętą po 75 oktetach UTF-8 (kontynuacja zaczyna się spacją), bez dzielenia znaków.
+     */
+    private void line(String content) throws IOException {
+        int octets = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int codePoint = content.codePointAt(i);
+            int length = Character.charCount(codePoint);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(content, i, length);
+            octets += size;
+            i += length;
+        }
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.noteuzbackend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Niemodyfikowalne rozszerzone drzewo przedziałów. Przedziały są posortowane według początku i ułożone
+ * w tablicach jako zrównoważone drzewo binarne (korzeń poddrzewa to środek zakresu tablicy), a każdy węzeł
+ * przechowuje największy koniec przedziału w swoim poddrzewie. Zapytanie o przedziały nachodzące na [from, to)
+ * odcina poddrzewa, które nie mogą go przeciąć, więc działa w czasie O(log n + k).
+ * Zmiana danych wymaga zbudowania nowego drzewa (O(n log n)).
+ *
+ * @param <T> typ wartości powiązanej z przedziałem
+ */
+public final class IntervalTree<T> {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final List<T> values;
+
+    /**
+     * Przedział [start, end) z powiązaną wartością.
+     *
+     * @param start Początek przedziału (włącznie).
+     * @param end Koniec przedziału (wyłącznie).
+     * @param value Wartość powiązana z przedziałem.
+     * @param <T> typ wartości
+     */
+    public record Entry<T>(long start, long end, T value) {}
+
+    private IntervalTree(List<Entry<T>> sorted) {
+        int n = sorted.size();
+        starts = new long[n];
+        ends = new long[n];
+        maxEnds = new long[n];
+        values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Entry<T> e = sorted.get(i);
+            starts[i] = e.start();
+            ends[i] = e.end();
+            values.add(e.value());
+        }
+        if (n > 0) augment(0, n - 1);
+    }
+
+    /**
+     * Buduje drzewo z listy przedziałów.
+     * @param entries przedziały (w dowolnej kolejności)
+     * @param <T> typ wartości
+     * @return drzewo przedziałów
+     */
+    public static <T> IntervalTree<T> build(List<Entry<T>> entries) {
+        List<Entry<T>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::start));
+        return new IntervalTree<>(sorted);
+    }
+
+    /**
+     * Zwraca puste drzewo.
+     * @param <T> typ wartości
+     * @return drzewo bez przedziałów
+     */
+    public static <T> IntervalTree<T> empty() {
+        return new IntervalTree<>(List.of());
+    }
+
+    /**
+     * Przekazuje wartości wszystkich przedziałów nachodzących na [from, to), w kolejności rosnącego początku.
+     * @param from początek przedziału zapytania (włącznie)
+     * @param to koniec przedziału zapytania (wyłącznie)
+     * @param action akcja wywoływana dla każdej znalezionej wartości
+     */
+    public void forEachOverlapping(long from, long to, Consumer<? super T> action) {
+        if (from < to && starts.length > 0) visit(0, starts.length - 1, from, to, action);
+    }
+
+    /**
+     * Zwraca wartości przedziałów nachodzących na [from, to).
+     * @param from początek przedziału zapytania (włącznie)
+     * @param to koniec przedziału zapytania (wyłącznie)
+     * @return lista wartości w kolejności rosnącego początku
+     */
+    public List<T> overlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        forEachOverlapping(from, to, result::add);
+        return result;
+    }
+
+    /**
+     * Zwraca liczbę przedziałów w drzewie.
+     * @return liczba przedziałów
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    private long augment(int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        long max = ends[mid];
+        if (lo < mid) max = Math.max(max, augment(lo, mid - 1));
+        if (mid < hi) max = Math.max(max, augment(mid + 1, hi));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private void visit(int lo, int hi, long from, long to, Consumer<? super T> action) {
+        if (lo > hi) return;
+        int mid = (lo + hi) >>> 1;
+        // Żaden przedział w poddrzewie nie kończy się po początku zapytania
+        if (maxEnds[mid] <= from) return;
+        visit(lo, mid - 1, from, to, action);
+        // Prawe poddrzewo zaczyna się nie wcześniej niż węzeł, więc też nie może przeciąć zapytania
+        if (starts[mid] >= to) return;
+        if (ends[mid] > from) action.accept(values.get(mid));
+        visit(mid + 1, hi, from, to, action);
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.noteuzbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.noteuzbackend.event.ModerationActionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchroniczny zapis dziennika audytu akcji moderacyjnych.
+ * Akcja moderacyjna jedynie umieszcza wpis w ograniczonym buforze w pamięci (bez dostępu do bazy danych),
+ * a zadanie w tle zapisuje zgromadzone wpisy wsadowymi instrukcjami INSERT do tabeli partycjonowanej miesięcznie.
+ * Gdy bufor jest pełny, wpisy są zapisywane synchronicznie w wątku wywołującym. Jeśli mimo to nie ma w nim miejsca
+ * (baza danych jest niedostępna), po {@value #OVERFLOW_FLUSH_ATTEMPTS} próbach wpis jest odrzucany i liczony
+ * w statystyce dropped - wątek żądania nie czeka na bazę danych bez końca.
+ */
+@Component
+public class ModerationAuditLog {
+
+    /** Maksymalna liczba wpisów zapisywanych jedną instrukcją wsadową. */
+    static final int BATCH_SIZE = 500;
+
+    /** Liczba synchronicznych zapisów podejmowanych przy pełnym buforze, zanim wpis zostanie odrzucony. */
+    static final int OVERFLOW_FLUSH_ATTEMPTS = 3;
+
+    private static final String TABLE = "moderation_audit_log";
+    private static final String INSERT_SQL = "INSERT INTO public." + TABLE +
+            " (id, created_at, actor_id, action, target_id, details) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final BlockingQueue<ModerationActionEvent> buffer;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Konstruktor dziennika audytu.
+     * @param jdbc szablon JDBC używany do zapisów wsadowych
+     * @param capacity pojemność bufora wpisów oczekujących na zapis
+     */
+    public ModerationAuditLog(JdbcTemplate jdbc, @Value("${app.audit.buffer-size:8192}") int capacity) {
+        this.jdbc = jdbc;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Rejestruje akcję moderacyjną po zatwierdzeniu transakcji, w której została wykonana.
+     * Nie wykonuje zapytań do bazy danych, chyba że bufor jest pełny.
+     * @param event zdarzenie akcji moderacyjnej
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModerationAction(ModerationActionEvent event) {
+        recorded.incrementAndGet();
+        for (int attempt = 0; !buffer.offer(event); attempt++) {
+            if (attempt == OVERFLOW_FLUSH_ATTEMPTS) {
+                dropped.incrementAndGet();
+                System.err.println("Bufor dziennika audytu jest pełny - odrzucono wpis " + event.action() + " " + event.targetId());
+                return;
+            }
+            overflows.incrementAndGet();
+            flush();
+        }
+    }
+
+    /**
+     * Zapisuje wszystkie oczekujące wpisy do bazy danych partiami po {@value #BATCH_SIZE}.
+     * W przypadku błędu zapisu partia wraca do bufora i zostanie ponowiona przy kolejnym uruchomieniu
+     * (wpisy, dla których w międzyczasie zabrakło miejsca w buforze, są liczone jako odrzucone).
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:500}")
+    public synchronized void flush() {
+        List<ModerationActionEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                jdbc.batchUpdate(INSERT_SQL, toRows(batch));
+                written.addAndGet(batch.size());
+            } catch (DataAccessException e) {
+                failures.incrementAndGet();
+                System.err.println("Nie udało się zapisać dziennika audytu: " + e.getMessage());
+                for (ModerationActionEvent event : batch) {
+                    if (!buffer.offer(event)) dropped.incrementAndGet();
+                }
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Zapisuje oczekujące wpisy przy zamykaniu aplikacji.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Tworzy partycje dziennika dla bieżącego i następnego miesiąca (przy starcie aplikacji i raz dziennie).
+     * Funkcja bazy danych (moderation_audit_log.sql) przenosi do nowej partycji wiersze tego miesiąca,
+     * które trafiły wcześniej do partycji domyślnej.
+     */
+    @Scheduled(initialDelayString = "${app.audit.partition-initial-delay-ms:0}",
+            fixedDelayString = "${app.audit.partition-interval-ms:86400000}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (YearMonth month : List.of(current, current.plusMonths(1))) {
+            LocalDate from = month.atDay(1);
+            try {
+                jdbc.execute("SELECT public." + TABLE + "_ensure_partition(DATE '" + from + "')");
+            } catch (DataAccessException e) {
+                System.err.println("Nie udało się utworzyć partycji dziennika audytu " + month + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Zwraca statystyki dziennika audytu.
+     * @return mapa z liczbą zarejestrowanych, zapisanych i oczekujących wpisów
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recorded", recorded.get());
+        stats.put("written", written.get());
+        stats.put("pending", buffer.size());
+        stats.put("overflows", overflows.get());
+        stats.put("failures", failures.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    /**
+     * Zamienia wpisy na parametry instrukcji INSERT.
+     * @param batch partia wpisów
+     * @return lista parametrów dla kolejnych wierszy
+     */
+    private static List<Object[]> toRows(List<ModerationActionEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ModerationActionEvent e : batch) {
+            rows.add(new Object[]{
+                    UUID.randomUUID(), Timestamp.from(e.occurredAt()), e.actorId(), e.action().name(), e.targetId(), e.details()
+            });
+        }
+        return rows;
+    }
+}
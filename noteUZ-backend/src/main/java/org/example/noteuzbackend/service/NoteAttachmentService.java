@@ -0,0 +1,394 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.AttachmentUploadDTO;
+import org.example.noteuzbackend.dto.NoteAttachmentDTO;
+import org.example.noteuzbackend.dto.NoteRequests.StartAttachmentUploadRequest;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.Note;
+import org.example.noteuzbackend.model.entity.NoteAttachment;
+import org.example.noteuzbackend.model.entity.NoteAttachmentUpload;
+import org.example.noteuzbackend.repository.NoteAttachmentRepo;
+import org.example.noteuzbackend.repository.NoteAttachmentUploadRepo;
+import org.example.noteuzbackend.repository.NoteRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Serwis załączników notatek. Pliki są przesyłane w częściach (z możliwością wznowienia od ostatniego odebranego
+ * bajtu) i zapisywane strumieniowo w {@link BlobStore}, bez buforowania całego pliku w pamięci. Typ pliku jest
+ * sprawdzany na liście dozwolonych typów i z nagłówkiem pliku w pierwszym fragmencie, a rozmiar - z limitem pliku
+ * i fragmentu. Identyczne pliki są przechowywane raz (klucz to skrót treści); wskazania z tabeli note_attachments
+ * są referencjami uwzględnianymi przez {@link BlobGarbageCollector}.
+ * Dostęp do załączników wynika z uprawnień do notatki ({@link NoteService#permissionFor}): odczyt wymaga dowolnego
+ * uprawnienia, a dodawanie i usuwanie - uprawnienia do edycji.
+ */
+@Service
+public class NoteAttachmentService {
+    private static final String ATTACHMENT_PATH = "/api/notes/%s/attachments/%s";
+    /** Liczba początkowych bajtów pliku sprawdzanych pod kątem zgodności z zadeklarowanym typem. */
+    private static final int HEADER_BYTES = 512;
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+
+    /** Dozwolone typy plików wraz ze sprawdzeniem nagłówka pliku. */
+    private static final Map<String, Predicate<byte[]>> ALLOWED_TYPES = Map.ofEntries(
+            Map.entry("image/png", header -> startsWith(header, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)),
+            Map.entry("image/jpeg", header -> startsWith(header, 0xFF, 0xD8, 0xFF)),
+            Map.entry("image/gif", header -> startsWith(header, 'G', 'I', 'F', '8')),
+            Map.entry("image/webp", header -> startsWith(header, 'R', 'I', 'F', 'F')
+                    && header.length >= 12 && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P'),
+            Map.entry("application/pdf", header -> startsWith(header, '%', 'P', 'D', 'F', '-')),
+            Map.entry("application/zip", NoteAttachmentService::isZip),
+            Map.entry("application/vnd.openxmlformats-officedocument.wordprocessingml.document", NoteAttachmentService::isZip),
+            Map.entry("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", NoteAttachmentService::isZip),
+            Map.entry("application/vnd.openxmlformats-officedocument.presentationml.presentation", NoteAttachmentService::isZip),
+            Map.entry("text/plain", NoteAttachmentService::isText),
+            Map.entry("text/markdown", NoteAttachmentService::isText),
+            Map.entry("text/csv", NoteAttachmentService::isText));
+
+    /** Typy wyświetlane bezpośrednio w przeglądarce; pozostałe są pobierane jako plik. */
+    private static final Set<String> INLINE_TYPES = Set.of("image/png", "image/jpeg", "image/gif", "image/webp", "application/pdf");
+
+    private final NoteAttachmentRepo attachmentRepo;
+    private final NoteAttachmentUploadRepo uploadRepo;
+    private final NoteRepo noteRepo;
+    private final NoteService noteService;
+    private final BlobStore blobs;
+    private final TransactionTemplate tx;
+    private final long maxFileBytes;
+    private final long chunkBytes;
+    private final int maxPendingUploads;
+    private final Duration uploadTtl;
+
+    /**
+     * Konstruktor.
+     * @param attachmentRepo repozytorium załączników
+     * @param uploadRepo repozytorium trwających przesyłań
+     * @param noteRepo repozytorium notatek
+     * @param noteService serwis notatek (uprawnienia do notatki)
+     * @param blobs magazyn danych binarnych
+     * @param tx szablon transakcji (zakończenie przesyłania)
+     * @param maxFileBytes maksymalny rozmiar pliku w bajtach
+     * @param chunkBytes maksymalny rozmiar jednego fragmentu w bajtach
+     * @param maxPendingUploads maksymalna liczba jednocześnie trwających przesyłań użytkownika
+     * @param uploadTtlMs czas (ms), po którym nieukończone przesyłanie jest porzucane
+     */
+    public NoteAttachmentService(NoteAttachmentRepo attachmentRepo, NoteAttachmentUploadRepo uploadRepo, NoteRepo noteRepo,
+                                 NoteService noteService, BlobStore blobs, TransactionTemplate tx,
+                                 @Value("${app.attachments.max-file-bytes:52428800}") long maxFileBytes,
+                                 @Value("${app.attachments.chunk-bytes:8388608}") long chunkBytes,
+                                 @Value("${app.attachments.max-pending-uploads:10}") int maxPendingUploads,
+                                 @Value("${app.attachments.upload-ttl-ms:86400000}") long uploadTtlMs) {
+        this.attachmentRepo = attachmentRepo;
+        this.uploadRepo = uploadRepo;
+        this.noteRepo = noteRepo;
+        this.noteService = noteService;
+        this.blobs = blobs;
+        this.tx = tx;
+        this.maxFileBytes = maxFileBytes;
+        this.chunkBytes = chunkBytes;
+        this.maxPendingUploads = maxPendingUploads;
+        this.uploadTtl = Duration.ofMillis(uploadTtlMs);
+    }
+
+    /**
+     * Pobiera załączniki notatki.
+     * @param noteId identyfikator notatki
+     * @param user zalogowany użytkownik
+     * @return lista załączników w kolejności dołączenia
+     * @throws ResponseStatusException jeśli notatka nie istnieje (404) lub użytkownik nie ma do niej dostępu (403)
+     */
+    public List<NoteAttachmentDTO> list(UUID noteId, UserSummary user) {
+        requireAccess(noteId, user, false);
+        return attachmentRepo.findByNoteIdOrderByCreatedAtAsc(noteId).stream().map(NoteAttachmentService::toDto).toList();
+    }
+
+    /**
+     * Rozpoczyna przesyłanie załącznika. Zadeklarowany typ i rozmiar są sprawdzane przed odebraniem danych.
+     * @param noteId identyfikator notatki
+     * @param request nazwa, typ i rozmiar pliku
+     * @param user zalogowany użytkownik
+     * @return stan przesyłania (kolejny fragment od pozycji 0)
+     * @throws ResponseStatusException jeśli notatka nie istnieje (404), użytkownik nie może jej edytować (403),
+     *         brakuje nazwy lub rozmiaru pliku (400), plik jest zbyt duży (413), typ pliku jest niedozwolony (415)
+     *         albo użytkownik ma zbyt wiele trwających przesyłań (429)
+     */
+    public AttachmentUploadDTO startUpload(UUID noteId, StartAttachmentUploadRequest request, UserSummary user) {
+        requireAccess(noteId, user, true);
+        String fileName = sanitizeFileName(request.fileName());
+        String contentType = normalizeContentType(request.contentType());
+        if (request.size() == null || request.size() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Plik jest pusty");
+        }
+        if (request.size() > maxFileBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Plik jest zbyt duży (maksymalnie " + maxFileBytes / (1024 * 1024) + " MB)");
+        }
+        if (!ALLOWED_TYPES.containsKey(contentType)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Niedozwolony typ pliku: " + contentType);
+        }
+        // Limit jest sprawdzany i zapis wykonywany pod blokadą użytkownika w bazie danych - równoległe żądania
+        // nie mogą obu zobaczyć wolnego miejsca
+        NoteAttachmentUpload upload = tx.execute(status -> {
+            uploadRepo.lockUploadsOf(user.id());
+            if (uploadRepo.countByUserId(user.id()) >= maxPendingUploads) return null;
+            return uploadRepo.save(new NoteAttachmentUpload(noteId, user.id(), fileName, contentType, request.size()));
+        });
+        if (upload == null) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Zbyt wiele jednocześnie przesyłanych plików");
+        }
+        return status(upload, 0, null);
+    }
+
+    /**
+     * Pobiera stan przesyłania - pozycję, od której należy wznowić przesyłanie po przerwaniu.
+     * @param noteId identyfikator notatki
+     * @param uploadId identyfikator przesyłania
+     * @param user zalogowany użytkownik
+     * @return stan przesyłania
+     * @throws ResponseStatusException jeśli przesyłanie nie istnieje lub należy do innego użytkownika (404),
+     *         albo użytkownik nie może już edytować notatki (403)
+     * @throws IOException w przypadku błędu odczytu magazynu
+     */
+    public AttachmentUploadDTO uploadStatus(UUID noteId, UUID uploadId, UserSummary user) throws IOException {
+        NoteAttachmentUpload upload = findUpload(noteId, uploadId, user);
+        return status(upload, blobs.received(uploadId.toString()), null);
+    }
+
+    /**
+     * Odbiera fragment pliku i zapisuje go strumieniowo w magazynie. Pierwszy fragment musi zaczynać się nagłówkiem
+     * zgodnym z zadeklarowanym typem. Po odebraniu ostatniego bajtu tworzony jest załącznik; jeśli wcześniejsza próba
+     * zakończenia się nie powiodła (odebrano już cały plik), żądanie tylko ją ponawia, niezależnie od pozycji.
+     * Uprawnienia do notatki są sprawdzane przy każdym fragmencie, a połączenie z bazą danych nie jest
+     * utrzymywane podczas odbierania danych.
+     * @param noteId identyfikator notatki
+     * @param uploadId identyfikator przesyłania
+     * @param offset pozycja fragmentu w pliku
+     * @param in strumień danych fragmentu
+     * @param user zalogowany użytkownik
+     * @return stan przesyłania, po odebraniu całego pliku z utworzonym załącznikiem
+     * @throws ResponseStatusException jeśli przesyłanie nie istnieje (404), użytkownik nie może edytować notatki (403),
+     *         pozycja jest niepoprawna (400) lub różna od liczby odebranych bajtów (409), fragment przekracza limit
+     *         lub zadeklarowany rozmiar pliku (413) albo zawartość nie odpowiada typowi pliku (415)
+     * @throws IOException w przypadku błędu odczytu żądania lub zapisu do magazynu
+     */
+    public AttachmentUploadDTO uploadChunk(UUID noteId, UUID uploadId, long offset, InputStream in, UserSummary user) throws IOException {
+        NoteAttachmentUpload upload = findUpload(noteId, uploadId, user);
+        long alreadyReceived = blobs.received(uploadId.toString());
+        if (alreadyReceived == upload.getSize()) return status(upload, alreadyReceived, complete(upload));
+        if (offset < 0 || offset >= upload.getSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nieprawidłowa pozycja fragmentu");
+        }
+        InputStream data = in;
+        if (offset == 0) {
+            byte[] header = in.readNBytes(HEADER_BYTES);
+            if (!ALLOWED_TYPES.get(upload.getContentType()).test(header)) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                        "Zawartość pliku nie odpowiada typowi " + upload.getContentType());
+            }
+            data = new SequenceInputStream(new ByteArrayInputStream(header), in);
+        }
+
+        long received = blobs.append(uploadId.toString(), offset, data, Math.min(chunkBytes, upload.getSize() - offset));
+        if (received < upload.getSize()) return status(upload, received, null);
+        return status(upload, received, complete(upload));
+    }
+
+    /**
+     * Porzuca przesyłanie i usuwa odebrane dane.
+     * @param noteId identyfikator notatki
+     * @param uploadId identyfikator przesyłania
+     * @param user zalogowany użytkownik
+     * @throws ResponseStatusException jeśli przesyłanie nie istnieje lub należy do innego użytkownika (404)
+     * @throws IOException w przypadku błędu usuwania danych
+     */
+    public void abortUpload(UUID noteId, UUID uploadId, UserSummary user) throws IOException {
+        NoteAttachmentUpload upload = uploadRepo.findByIdAndNoteId(uploadId, noteId)
+                .filter(found -> found.getUserId().equals(user.id()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Przesyłanie nie istnieje"));
+        uploadRepo.delete(upload);
+        blobs.abort(uploadId.toString());
+    }
+
+    /**
+     * Pobiera załącznik do odczytu.
+     * @param noteId identyfikator notatki
+     * @param attachmentId identyfikator załącznika
+     * @param user zalogowany użytkownik
+     * @return załącznik
+     * @throws ResponseStatusException jeśli notatka lub załącznik nie istnieje (404) albo użytkownik nie ma dostępu (403)
+     */
+    public NoteAttachment find(UUID noteId, UUID attachmentId, UserSummary user) {
+        requireAccess(noteId, user, false);
+        return attachmentRepo.findByIdAndNoteId(attachmentId, noteId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Załącznik nie istnieje"));
+    }
+
+    /**
+     * Przesyła dane załącznika do strumienia odpowiedzi bezpośrednio z pliku magazynu.
+     * @param attachment załącznik
+     * @param out strumień docelowy (nie jest zamykany)
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    public void writeAttachment(NoteAttachment attachment, OutputStream out) throws IOException {
+        blobs.transferTo(attachment.getBlobKey(), out);
+    }
+
+    /**
+     * Usuwa załącznik notatki. Dane pliku są usuwane z magazynu przez {@link BlobGarbageCollector},
+     * gdy nie wskazuje ich żaden inny załącznik.
+     * @param noteId identyfikator notatki
+     * @param attachmentId identyfikator załącznika
+     * @param user zalogowany użytkownik
+     * @throws ResponseStatusException jeśli notatka lub załącznik nie istnieje (404) albo użytkownik nie może edytować notatki (403)
+     */
+    public void delete(UUID noteId, UUID attachmentId, UserSummary user) {
+        requireAccess(noteId, user, true);
+        NoteAttachment attachment = attachmentRepo.findByIdAndNoteId(attachmentId, noteId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Załącznik nie istnieje"));
+        attachmentRepo.delete(attachment);
+    }
+
+    /**
+     * Porzuca przesyłania nieukończone w wyznaczonym czasie i usuwa ich pliki robocze.
+     * @return liczba porzuconych przesyłań
+     */
+    @Scheduled(initialDelayString = "${app.attachments.cleanup-initial-delay-ms:300000}",
+            fixedDelayString = "${app.attachments.cleanup-interval-ms:3600000}")
+    public int expireUploads() {
+        int expired = 0;
+        for (NoteAttachmentUpload upload : uploadRepo.findByCreatedAtBefore(Instant.now().minus(uploadTtl))) {
+            try {
+                uploadRepo.delete(upload);
+                blobs.abort(upload.getId().toString());
+                expired++;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Nie udało się porzucić przesyłania " + upload.getId() + ": " + e.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Sprawdza, czy typ jest wyświetlany bezpośrednio w przeglądarce.
+     * @param contentType typ MIME
+     * @return true dla obrazów i dokumentów PDF
+     */
+    public static boolean isInline(String contentType) {
+        return INLINE_TYPES.contains(contentType);
+    }
+
+    /**
+     * Buduje adres pobierania załącznika.
+     * @param noteId identyfikator notatki
+     * @param attachmentId identyfikator załącznika
+     * @return adres załącznika
+     */
+    public static String attachmentUrl(UUID noteId, UUID attachmentId) {
+        return String.format(ATTACHMENT_PATH, noteId, attachmentId);
+    }
+
+    /**
+     * Kończy przesyłanie: dane stają się obiektem magazynu, a wiersz przesyłania jest zastępowany załącznikiem
+     * w jednej transakcji. Plik roboczy jest usuwany dopiero po jej zatwierdzeniu - po błędzie transakcji
+     * przesyłanie nadal ma wszystkie odebrane bajty i kolejne żądanie kończy je ponownie (obiekt magazynu
+     * o tej treści już istnieje, więc dane nie są zapisywane drugi raz).
+     */
+    private NoteAttachmentDTO complete(NoteAttachmentUpload upload) throws IOException {
+        String uploadId = upload.getId().toString();
+        BlobStore.Blob blob = blobs.complete(uploadId);
+        NoteAttachment attachment = tx.execute(status -> {
+            uploadRepo.delete(upload);
+            return attachmentRepo.save(new NoteAttachment(upload.getNoteId(), upload.getUserId(), upload.getFileName(),
+                    upload.getContentType(), blob.key(), blob.size()));
+        });
+        try {
+            blobs.abort(uploadId);
+        } catch (IOException e) {
+            System.err.println("Nie udało się usunąć pliku roboczego przesyłania " + uploadId + ": " + e.getMessage());
+        }
+        return toDto(attachment);
+    }
+
+    private NoteAttachmentUpload findUpload(UUID noteId, UUID uploadId, UserSummary user) {
+        NoteAttachmentUpload upload = uploadRepo.findByIdAndNoteId(uploadId, noteId)
+                .filter(found -> found.getUserId().equals(user.id()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Przesyłanie nie istnieje"));
+        requireAccess(noteId, user, true);
+        return upload;
+    }
+
+    /**
+     * Sprawdza uprawnienia użytkownika do notatki - te same, które obowiązują przy odczycie i edycji notatki.
+     */
+    private void requireAccess(UUID noteId, UserSummary user, boolean write) {
+        Note note = noteRepo.findById(noteId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notatka nie istnieje"));
+        String permission = noteService.permissionFor(note, user.id(), user.email());
+        if (permission == null || (write && "READ".equals(permission))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak dostępu do notatki");
+        }
+    }
+
+    private AttachmentUploadDTO status(NoteAttachmentUpload upload, long received, NoteAttachmentDTO attachment) {
+        return new AttachmentUploadDTO(upload.getId(), upload.getNoteId(), upload.getFileName(), upload.getSize(),
+                received, chunkBytes, attachment);
+    }
+
+    private static NoteAttachmentDTO toDto(NoteAttachment attachment) {
+        return new NoteAttachmentDTO(attachment.getId(), attachment.getNoteId(), attachment.getFileName(),
+                attachment.getContentType(), attachment.getSize(), attachment.getUploadedBy(), attachment.getCreatedAt(),
+                attachmentUrl(attachment.getNoteId(), attachment.getId()));
+    }
+
+    /**
+     * Usuwa z nazwy pliku ścieżkę i znaki sterujące oraz ogranicza jej długość.
+     */
+    private static String sanitizeFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        name = name.replaceAll("[\\p{Cntrl}\"]", "").trim();
+        if (name.isEmpty()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Brak nazwy pliku");
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(0, MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    private static String normalizeContentType(String contentType) {
+        if (contentType == null) return "";
+        int parameters = contentType.indexOf(';');
+        return (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim().toLowerCase();
+    }
+
+    private static boolean startsWith(byte[] header, int... magic) {
+        if (header.length < magic.length) return false;
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isZip(byte[] header) {
+        return startsWith(header, 'P', 'K', 0x03, 0x04);
+    }
+
+    private static boolean isText(byte[] header) {
+        for (byte b : header) {
+            if (b == 0) return false;
+        }
+        return true;
+    }
+}
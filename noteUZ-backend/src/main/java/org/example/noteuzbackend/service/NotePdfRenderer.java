@@ -0,0 +1,599 @@
+package org.example.noteuzbackend.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.commonmark.node.*;
+import org.commonmark.parser.Parser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renderowanie notatek (Markdown) do dokumentów PDF (A4). Obsługiwane są nagłówki, akapity z pogrubieniem
+ * i kodem w tekście, listy (także zagnieżdżone), cytaty, bloki kodu i linie poziome; każda strona ma stopkę
+ * z tytułem i numerem strony, a dokument - zakładkę z tytułem notatki (zachowywaną przy łączeniu dokumentów).
+ * Polskie znaki wymagają fontu TrueType (app.pdf.font-path lub font systemowy DejaVu/Liberation); bez niego
+ * używane są fonty standardowe PDF, a znaki spoza ich kodowania są zastępowane literami bez znaków diakrytycznych.
+ * Klasa jest bezpieczna wątkowo - każdy dokument ma własny stan układu i własne instancje fontów.
+ */
+@Component
+public class NotePdfRenderer {
+    private static final PDRectangle PAGE_SIZE = PDRectangle.A4;
+    private static final float MARGIN = 56;
+    private static final float FOOTER_HEIGHT = 24;
+    private static final float WIDTH = PAGE_SIZE.getWidth() - 2 * MARGIN;
+    private static final float TITLE_SIZE = 22;
+    private static final float BODY_SIZE = 11;
+    private static final float CODE_SIZE = 9;
+    private static final float META_SIZE = 9;
+    private static final float FOOTER_SIZE = 8;
+    private static final float LEADING = 1.4f;
+    private static final float LIST_INDENT = 18;
+    private static final float QUOTE_INDENT = 14;
+    private static final float CODE_PADDING = 4;
+    private static final float[] HEADING_SIZES = {18, 15, 13, 12, 11, 11};
+
+    private static final float[] TEXT_COLOR = {0.1f, 0.1f, 0.1f};
+    private static final float[] MUTED_COLOR = {0.45f, 0.45f, 0.45f};
+    private static final float[] CODE_BACKGROUND = {0.95f, 0.95f, 0.95f};
+    private static final float[] RULE_COLOR = {0.8f, 0.8f, 0.8f};
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** Domyślne lokalizacje fontów z polskimi znakami (pakiety fonts-dejavu / fonts-liberation). */
+    private static final List<String> REGULAR_FONTS = List.of(
+            "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf",
+            "/usr/share/fonts/dejavu/DejaVuSans.ttf",
+            "/usr/share/fonts/TTF/DejaVuSans.ttf",
+            "/usr/share/fonts/truetype/liberation/LiberationSans-Regular.ttf");
+    private static final List<String> BOLD_FONTS = List.of(
+            "/usr/share/fonts/truetype/dejavu/DejaVuSans-Bold.ttf",
+            "/usr/share/fonts/dejavu/DejaVuSans-Bold.ttf",
+            "/usr/share/fonts/TTF/DejaVuSans-Bold.ttf",
+            "/usr/share/fonts/truetype/liberation/LiberationSans-Bold.ttf");
+    private static final List<String> MONO_FONTS = List.of(
+            "/usr/share/fonts/truetype/dejavu/DejaVuSansMono.ttf",
+            "/usr/share/fonts/dejavu/DejaVuSansMono.ttf",
+            "/usr/share/fonts/TTF/DejaVuSansMono.ttf",
+            "/usr/share/fonts/truetype/liberation/LiberationMono-Regular.ttf");
+
+    private final Parser parser = Parser.builder().build();
+    private final byte[] regularFont;
+    private final byte[] boldFont;
+    private final byte[] monoFont;
+
+    /**
+     * Wynik renderowania.
+     * @param data dane dokumentu PDF
+     * @param pages liczba stron
+     */
+    public record RenderedPdf(byte[] data, int pages) {}
+
+    /**
+     * Konstruktor. Fonty TrueType są wczytywane raz i osadzane (tylko użyte znaki) w każdym dokumencie.
+     * @param fontPath ścieżka fontu TrueType tekstu (pusta - font systemowy, jeśli istnieje)
+     * @param boldFontPath ścieżka fontu TrueType nagłówków (pusta - font systemowy lub font tekstu)
+     * @param monoFontPath ścieżka fontu TrueType kodu (pusta - font systemowy lub font tekstu)
+     */
+    public NotePdfRenderer(@Value("${app.pdf.font-path:}") String fontPath,
+                           @Value("${app.pdf.bold-font-path:}") String boldFontPath,
+                           @Value("${app.pdf.mono-font-path:}") String monoFontPath) {
+        this.regularFont = loadFont(fontPath, REGULAR_FONTS);
+        this.boldFont = regularFont != null ? loadFont(boldFontPath, BOLD_FONTS) : null;
+        this.monoFont = regularFont != null ? loadFont(monoFontPath, MONO_FONTS) : null;
+        if (regularFont == null) {
+            System.err.println("Brak fontu TrueType dla eksportu PDF (app.pdf.font-path) - polskie znaki zostaną uproszczone");
+        }
+    }
+
+    /**
+     * Renderuje notatkę do dokumentu PDF.
+     * @param title tytuł notatki
+     * @param markdown treść notatki w formacie Markdown
+     * @param updatedAt data ostatniej modyfikacji (wyświetlana pod tytułem) lub null
+     * @return dane dokumentu i liczba stron
+     * @throws IOException w przypadku błędu wczytania fontu lub zapisu dokumentu
+     */
+    public RenderedPdf render(String title, String markdown, LocalDateTime updatedAt) throws IOException {
+        String name = title == null || title.isBlank() ? "Bez tytułu" : title;
+        try (PDDocument doc = new PDDocument()) {
+            int pages = new Layout(doc).note(name, markdown != null ? markdown : "", updatedAt);
+            doc.getDocumentInformation().setTitle(name);
+            doc.getDocumentInformation().setCreator("NoteUZ");
+            ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024 * pages);
+            doc.save(out);
+            return new RenderedPdf(out.toByteArray(), pages);
+        }
+    }
+
+    /**
+     * Informuje, czy dokumenty używają fontu TrueType (z pełnym zestawem polskich znaków).
+     * @return true, jeśli wczytano font TrueType
+     */
+    public boolean hasUnicodeFont() {
+        return regularFont != null;
+    }
+
+    private static byte[] loadFont(String configured, List<String> defaults) {
+        try {
+            if (configured != null && !configured.isBlank()) return Files.readAllBytes(Path.of(configured));
+            for (String candidate : defaults) {
+                Path path = Path.of(candidate);
+                if (Files.isReadable(path)) return Files.readAllBytes(path);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Nie można wczytać fontu " + configured, e);
+        }
+    }
+
+    /** Wczytanie fontu do dokumentu. */
+    @FunctionalInterface
+    private interface FontLoader {
+        PDFont load() throws IOException;
+    }
+
+    /**
+     * Font dokumentu wczytywany przy pierwszym użyciu, z zapamiętaną informacją o obsługiwanych znakach.
+     */
+    private static final class Face {
+        private final FontLoader loader;
+        private final Map<Integer, Boolean> supported = new HashMap<>();
+        private PDFont font;
+
+        Face(FontLoader loader) {
+            this.loader = loader;
+        }
+
+        PDFont font() throws IOException {
+            if (font == null) font = loader.load();
+            return font;
+        }
+
+        boolean supports(int codePoint) throws IOException {
+            Boolean known = supported.get(codePoint);
+            if (known != null) return known;
+            PDFont pdFont = font();
+            boolean result;
+            try {
+                pdFont.encode(new String(Character.toChars(codePoint)));
+                result = true;
+            } catch (IllegalArgumentException | IOException e) {
+                result = false;
+            }
+            supported.put(codePoint, result);
+            return result;
+        }
+
+        /**
+         * Zastępuje znaki, których font nie obsługuje: litery z diakrytykami - literami podstawowymi,
+         * pozostałe - znakiem zapytania. Tabulatory są zamieniane na spacje, a znaki sterujące pomijane.
+         */
+        String safe(String text) throws IOException {
+            StringBuilder result = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                i += Character.charCount(codePoint);
+                if (codePoint == '\t') {
+                    result.append("    ");
+                } else if (!Character.isISOControl(codePoint)) {
+                    if (supports(codePoint)) result.appendCodePoint(codePoint);
+                    else result.append(substitute(codePoint));
+                }
+            }
+            return result.toString();
+        }
+
+        private String substitute(int codePoint) throws IOException {
+            if (codePoint == 'ł') return "l";
+            if (codePoint == 'Ł') return "L";
+            int base = Normalizer.normalize(new String(Character.toChars(codePoint)), Normalizer.Form.NFD).codePointAt(0);
+            return base != codePoint && supports(base) ? new String(Character.toChars(base)) : "?";
+        }
+
+        float width(String safeText, float size) throws IOException {
+            return font().getStringWidth(safeText) / 1000 * size;
+        }
+
+        /** Dzieli tekst na fragmenty mieszczące się w podanej szerokości (bez względu na granice słów). */
+        List<String> split(String safeText, float size, float maxWidth) throws IOException {
+            List<String> parts = new ArrayList<>();
+            StringBuilder part = new StringBuilder();
+            float partWidth = 0;
+            for (int i = 0; i < safeText.length(); ) {
+                int codePoint = safeText.codePointAt(i);
+                i += Character.charCount(codePoint);
+                float charWidth = width(new String(Character.toChars(codePoint)), size);
+                if (partWidth + charWidth > maxWidth && !part.isEmpty()) {
+                    parts.add(part.toString());
+                    part.setLength(0);
+                    partWidth = 0;
+                }
+                part.appendCodePoint(codePoint);
+                partWidth += charWidth;
+            }
+            if (!part.isEmpty() || parts.isEmpty()) parts.add(part.toString());
+            return parts;
+        }
+    }
+
+    /**
+     * Fragment tekstu w jednym stylu (przed podziałem na linie).
+     * @param face font
+     * @param size rozmiar fontu
+     * @param text tekst (ze znakami obsługiwanymi przez font)
+     */
+    private record Run(Face face, float size, String text) {}
+
+    /** Wymuszone złamanie linii. */
+    private static final Run LINE_BREAK = new Run(null, 0, "\n");
+
+    /**
+     * Fragment linii w jednym stylu, z pozycją względem początku linii.
+     */
+    private static final class Span {
+        final Face face;
+        final float size;
+        final float x;
+        final StringBuilder text;
+
+        Span(Face face, float size, float x, String text) {
+            this.face = face;
+            this.size = size;
+            this.x = x;
+            this.text = new StringBuilder(text);
+        }
+    }
+
+    /**
+     * Stan układu jednego dokumentu: bieżąca strona, pozycja pionowa, znacznik elementu listy i cytaty.
+     */
+    private final class Layout {
+        private final PDDocument doc;
+        private final Face regular;
+        private final Face bold;
+        private final Face mono;
+        /** Pozycje pionowych linii otwartych cytatów (względem lewego marginesu). */
+        private final List<Float> quoteBars = new ArrayList<>();
+        private PDPageContentStream content;
+        private float y;
+        private float[] color = TEXT_COLOR;
+        /** Znacznik elementu listy rysowany w pierwszej linii elementu. */
+        private String marker;
+        private float markerX;
+
+        Layout(PDDocument doc) {
+            this.doc = doc;
+            if (regularFont != null) {
+                this.regular = new Face(() -> PDType0Font.load(doc, new ByteArrayInputStream(regularFont)));
+                this.bold = boldFont != null ? new Face(() -> PDType0Font.load(doc, new ByteArrayInputStream(boldFont))) : regular;
+                this.mono = monoFont != null ? new Face(() -> PDType0Font.load(doc, new ByteArrayInputStream(monoFont))) : regular;
+            } else {
+                this.regular = new Face(() -> new PDType1Font(Standard14Fonts.FontName.HELVETICA));
+                this.bold = new Face(() -> new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD));
+                this.mono = new Face(() -> new PDType1Font(Standard14Fonts.FontName.COURIER));
+            }
+        }
+
+        /**
+         * Dodaje strony notatki na końcu dokumentu.
+         * @return liczba dodanych stron
+         */
+        int note(String title, String markdown, LocalDateTime updatedAt) throws IOException {
+            int first = doc.getNumberOfPages();
+            newPage();
+            paragraph(List.of(run(bold, TITLE_SIZE, title)), 0);
+            if (updatedAt != null) {
+                color = MUTED_COLOR;
+                paragraph(List.of(run(regular, META_SIZE, "Ostatnia zmiana: " + DATE_FORMAT.format(updatedAt))), 0);
+                color = TEXT_COLOR;
+            }
+            rule();
+            blocks(parser.parse(markdown), 0);
+            content.close();
+            content = null;
+            footers(first, title);
+            outline(first, title);
+            return doc.getNumberOfPages() - first;
+        }
+
+        private void blocks(Node parent, float indent) throws IOException {
+            for (Node node = parent.getFirstChild(); node != null; node = node.getNext()) {
+                if (node instanceof Heading heading) {
+                    float size = HEADING_SIZES[Math.min(heading.getLevel(), HEADING_SIZES.length) - 1];
+                    space(size * 0.6f);
+                    paragraph(inline(heading, bold, size), indent);
+                    space(size * 0.3f);
+                } else if (node instanceof Paragraph) {
+                    paragraph(inline(node, regular, BODY_SIZE), indent);
+                    space(inTightList(node) ? 1 : BODY_SIZE * 0.5f);
+                } else if (node instanceof BulletList list) {
+                    items(list, indent, null);
+                } else if (node instanceof OrderedList list) {
+                    Integer start = list.getMarkerStartNumber();
+                    items(list, indent, start != null ? start : 1);
+                } else if (node instanceof BlockQuote) {
+                    float[] previous = color;
+                    quoteBars.add(indent);
+                    color = MUTED_COLOR;
+                    blocks(node, indent + QUOTE_INDENT);
+                    color = previous;
+                    quoteBars.remove(quoteBars.size() - 1);
+                } else if (node instanceof FencedCodeBlock code) {
+                    code(code.getLiteral(), indent);
+                } else if (node instanceof IndentedCodeBlock code) {
+                    code(code.getLiteral(), indent);
+                } else if (node instanceof HtmlBlock html) {
+                    code(html.getLiteral(), indent);
+                } else if (node instanceof ThematicBreak) {
+                    rule();
+                } else {
+                    blocks(node, indent);
+                }
+            }
+        }
+
+        private void items(ListBlock list, float indent, Integer start) throws IOException {
+            int number = start != null ? start : 1;
+            for (Node item = list.getFirstChild(); item != null; item = item.getNext()) {
+                marker = start != null ? (number++) + "." : bullet();
+                markerX = indent;
+                blocks(item, indent + LIST_INDENT);
+                marker = null;
+            }
+            space(BODY_SIZE * 0.3f);
+        }
+
+        private void code(String literal, float indent) throws IOException {
+            String text = literal.endsWith("\n") ? literal.substring(0, literal.length() - 1) : literal;
+            float height = CODE_SIZE * LEADING;
+            float[] previous = color;
+            color = TEXT_COLOR;
+            space(2);
+            for (String line : text.split("\n", -1)) {
+                for (String part : mono.split(mono.safe(line), CODE_SIZE, WIDTH - indent - 2 * CODE_PADDING)) {
+                    writeLine(List.of(new Span(mono, CODE_SIZE, CODE_PADDING, part)), indent, height, CODE_BACKGROUND);
+                }
+            }
+            color = previous;
+            space(BODY_SIZE * 0.5f);
+        }
+
+        private List<Run> inline(Node parent, Face face, float size) throws IOException {
+            List<Run> runs = new ArrayList<>();
+            inline(parent, face, size, runs);
+            return runs;
+        }
+
+        private void inline(Node parent, Face face, float size, List<Run> runs) throws IOException {
+            for (Node node = parent.getFirstChild(); node != null; node = node.getNext()) {
+                if (node instanceof Text text) {
+                    runs.add(run(face, size, text.getLiteral()));
+                } else if (node instanceof Code code) {
+                    runs.add(run(mono, size * 0.9f, code.getLiteral()));
+                } else if (node instanceof StrongEmphasis) {
+                    inline(node, bold, size, runs);
+                } else if (node instanceof SoftLineBreak) {
+                    runs.add(run(face, size, " "));
+                } else if (node instanceof HardLineBreak) {
+                    runs.add(LINE_BREAK);
+                } else if (node instanceof Image) {
+                    runs.add(run(face, size, "["));
+                    inline(node, face, size, runs);
+                    runs.add(run(face, size, "]"));
+                } else if (node instanceof Link link) {
+                    inline(node, face, size, runs);
+                    if (!(link.getFirstChild() instanceof Text text && text.getLiteral().equals(link.getDestination()))
+                            && link.getDestination() != null && !link.getDestination().isBlank()) {
+                        runs.add(run(face, size, " (" + link.getDestination() + ")"));
+                    }
+                } else if (node instanceof HtmlInline html) {
+                    runs.add(run(face, size, html.getLiteral()));
+                } else {
+                    inline(node, face, size, runs);
+                }
+            }
+        }
+
+        private Run run(Face face, float size, String text) throws IOException {
+            return new Run(face, size, face.safe(text));
+        }
+
+        /** Dzieli fragmenty tekstu na linie o podanej szerokości, łamiąc na spacjach (zbyt długie słowa - w dowolnym miejscu). */
+        private List<List<Span>> wrap(List<Run> runs, float width) throws IOException {
+            List<List<Span>> lines = new ArrayList<>();
+            List<Span> line = new ArrayList<>();
+            float x = 0;
+            for (Run run : runs) {
+                if (run == LINE_BREAK) {
+                    lines.add(line);
+                    line = new ArrayList<>();
+                    x = 0;
+                    continue;
+                }
+                for (String token : tokens(run.text())) {
+                    boolean space = token.equals(" ");
+                    if (space && x == 0) continue;
+                    float tokenWidth = run.face().width(token, run.size());
+                    if (!space && x > 0 && x + tokenWidth > width) {
+                        lines.add(line);
+                        line = new ArrayList<>();
+                        x = 0;
+                    }
+                    if (!space && tokenWidth > width) {
+                        List<String> parts = run.face().split(token, run.size(), width);
+                        for (int i = 0; i < parts.size() - 1; i++) {
+                            line.add(new Span(run.face(), run.size(), 0, parts.get(i)));
+                            lines.add(line);
+                            line = new ArrayList<>();
+                        }
+                        token = parts.get(parts.size() - 1);
+                        tokenWidth = run.face().width(token, run.size());
+                    }
+                    append(line, run, token, x);
+                    x += tokenWidth;
+                }
+            }
+            if (!line.isEmpty() || lines.isEmpty()) lines.add(line);
+            return lines;
+        }
+
+        private void append(List<Span> line, Run run, String token, float x) {
+            Span last = line.isEmpty() ? null : line.get(line.size() - 1);
+            if (last != null && last.face == run.face() && last.size == run.size()) {
+                last.text.append(token);
+            } else {
+                line.add(new Span(run.face(), run.size(), x, token));
+            }
+        }
+
+        private void paragraph(List<Run> runs, float indent) throws IOException {
+            for (List<Span> line : wrap(runs, WIDTH - indent)) {
+                float size = BODY_SIZE;
+                for (Span span : line) size = Math.max(size, span.size);
+                writeLine(line, indent, size * LEADING, null);
+            }
+        }
+
+        private void writeLine(List<Span> spans, float indent, float height, float[] background) throws IOException {
+            ensure(height);
+            y -= height;
+            float baseline = y + height * 0.28f;
+            if (background != null) fill(MARGIN + indent, y, WIDTH - indent, height, background);
+            for (float bar : quoteBars) fill(MARGIN + bar, y, 2, height, RULE_COLOR);
+            if (marker != null) {
+                text(content, regular, BODY_SIZE, MARGIN + markerX, baseline, marker, color);
+                marker = null;
+            }
+            for (Span span : spans) {
+                if (span.text.isEmpty()) continue;
+                text(content, span.face, span.size, MARGIN + indent + span.x, baseline, span.text.toString(), color);
+            }
+        }
+
+        private void rule() throws IOException {
+            ensure(12);
+            y -= 6;
+            content.setStrokingColor(RULE_COLOR[0], RULE_COLOR[1], RULE_COLOR[2]);
+            content.setLineWidth(0.5f);
+            content.moveTo(MARGIN, y);
+            content.lineTo(MARGIN + WIDTH, y);
+            content.stroke();
+            y -= 6;
+        }
+
+        private void fill(float x, float bottom, float width, float height, float[] rgb) throws IOException {
+            content.setNonStrokingColor(rgb[0], rgb[1], rgb[2]);
+            content.addRect(x, bottom, width, height);
+            content.fill();
+        }
+
+        private void space(float amount) {
+            if (y < PAGE_SIZE.getHeight() - MARGIN) y -= amount;
+        }
+
+        private void ensure(float height) throws IOException {
+            if (y - height < MARGIN + FOOTER_HEIGHT) newPage();
+        }
+
+        private void newPage() throws IOException {
+            if (content != null) content.close();
+            PDPage page = new PDPage(PAGE_SIZE);
+            doc.addPage(page);
+            content = new PDPageContentStream(doc, page);
+            y = PAGE_SIZE.getHeight() - MARGIN;
+        }
+
+        private boolean inTightList(Node paragraph) {
+            return paragraph.getParent() instanceof ListItem item && item.getParent() instanceof ListBlock list && list.isTight();
+        }
+
+        private String bullet() throws IOException {
+            return regular.supports('•') ? "•" : "-";
+        }
+
+        /** Dopisuje stopki (tytuł i numer strony) do stron notatki, gdy znana jest już liczba stron. */
+        private void footers(int first, String title) throws IOException {
+            int total = doc.getNumberOfPages() - first;
+            String label = regular.safe(title);
+            for (int i = 0; i < total; i++) {
+                PDPage page = doc.getPage(first + i);
+                try (PDPageContentStream footer = new PDPageContentStream(doc, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+                    String number = (i + 1) + " / " + total;
+                    float numberWidth = regular.width(number, FOOTER_SIZE);
+                    float baseline = MARGIN - FOOTER_SIZE;
+                    text(footer, regular, FOOTER_SIZE, MARGIN, baseline, fit(label, WIDTH - numberWidth - 20), MUTED_COLOR);
+                    text(footer, regular, FOOTER_SIZE, MARGIN + WIDTH - numberWidth, baseline, number, MUTED_COLOR);
+                }
+            }
+        }
+
+        private String fit(String label, float maxWidth) throws IOException {
+            if (regular.width(label, FOOTER_SIZE) <= maxWidth) return label;
+            String ellipsis = regular.supports('…') ? "…" : "...";
+            int end = label.length();
+            while (end > 0 && regular.width(label.substring(0, end) + ellipsis, FOOTER_SIZE) > maxWidth) {
+                end = label.offsetByCodePoints(end, -1);
+            }
+            return label.substring(0, end) + ellipsis;
+        }
+
+        private void outline(int first, String title) {
+            PDDocumentOutline outline = doc.getDocumentCatalog().getDocumentOutline();
+            if (outline == null) {
+                outline = new PDDocumentOutline();
+                doc.getDocumentCatalog().setDocumentOutline(outline);
+            }
+            PDOutlineItem item = new PDOutlineItem();
+            item.setTitle(title);
+            item.setDestination(doc.getPage(first));
+            outline.addLast(item);
+        }
+    }
+
+    private static void text(PDPageContentStream stream, Face face, float size, float x, float baseline,
+                             String text, float[] rgb) throws IOException {
+        stream.beginText();
+        stream.setFont(face.font(), size);
+        stream.setNonStrokingColor(rgb[0], rgb[1], rgb[2]);
+        stream.newLineAtOffset(x, baseline);
+        stream.showText(text);
+        stream.endText();
+    }
+
+    /** Dzieli tekst na słowa i pojedyncze spacje. */
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                if (i > start) tokens.add(text.substring(start, i));
+                tokens.add(" ");
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) tokens.add(text.substring(start));
+        return tokens;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.noteuzbackend.service;
 
+import org.example.noteuzbackend.event.StatsChangedEvent;
 import org.example.noteuzbackend.model.entity.AppUser;
 import org.example.noteuzbackend.model.entity.Note;
 import org.example.noteuzbackend.model.entity.NoteShare;
@@ -7,10 +8,13 @@ import org.example.noteuzbackend.model.entity.NoteVote;
 import org.example.noteuzbackend.repository.AppUserRepo;
 import org.example.noteuzbackend.repository.NoteRepo;
 import org.example.noteuzbackend.repository.NoteShareRepo;
+import org.example.noteuzbackend.model.enums.StatsMetric;
 import org.example.noteuzbackend.repository.NoteVoteRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -25,6 +29,8 @@ public class NoteService {
     private final NoteShareRepo shareRepo;
     private final AppUserRepo userRepo;
     private final NoteVoteRepo voteRepo; // <--- NOWE
+    private final ApplicationEventPublisher events;
+    private final GroupMembershipCache membershipCache;
 
     /**
      * Konstruktor serwisu NoteService.
@@ -32,12 +38,17 @@ public class NoteService {
      * @param shareRepo repozytorium udostępnień
      * @param userRepo repozytorium użytkowników
      * @param voteRepo repozytorium głosów
+     * @param events publikator zdarzeń aplikacji
+     * @param membershipCache pamięć podręczna członkostw w grupach
      */
-    public NoteService(NoteRepo noteRepo, NoteShareRepo shareRepo, AppUserRepo userRepo, NoteVoteRepo voteRepo) {
+    public NoteService(NoteRepo noteRepo, NoteShareRepo shareRepo, AppUserRepo userRepo, NoteVoteRepo voteRepo,
+                       ApplicationEventPublisher events, GroupMembershipCache membershipCache) {
         this.noteRepo = noteRepo;
         this.shareRepo = shareRepo;
         this.userRepo = userRepo;
         this.voteRepo = voteRepo;
+        this.events = events;
+        this.membershipCache = membershipCache;
     }
 
     // --- Helper do uzupełniania głosów ---
@@ -116,6 +127,25 @@ public class NoteService {
         return note;
     }
 
+    /**
+     * Wyznacza uprawnienia użytkownika do notatki: właściciel (OWNER), członek grupy notatki (WRITE)
+     * lub odbiorca zaakceptowanego udostępnienia (uprawnienie z udostępnienia).
+     * @param note notatka
+     * @param userId identyfikator użytkownika
+     * @param email adres email użytkownika (do wyszukania udostępnienia)
+     * @return OWNER, WRITE, READ lub null, jeśli użytkownik nie ma dostępu do notatki
+     */
+    public String permissionFor(Note note, UUID userId, String email) {
+        if (note.getUserId().equals(userId)) return "OWNER";
+        if (note.getGroupId() != null && membershipCache.isMember(note.getGroupId(), userId)) return "WRITE";
+
+        Optional<NoteShare> share = findShare(note.getId(), email);
+        if (share.isPresent() && share.get().getStatus() == NoteShare.ShareStatus.ACCEPTED) {
+            return share.get().getPermission().toString();
+        }
+        return null;
+    }
+
     // --- CRUD ---
 
     /**
@@ -130,7 +160,9 @@ public class NoteService {
         note.setUserId(userId);
         note.setTitle(title);
         note.setContent(content);
-        return noteRepo.save(note);
+        Note saved = noteRepo.save(note);
+        events.publishEvent(StatsChangedEvent.noteCreated(LocalDate.now()));
+        return saved;
     }
 
     /**
@@ -147,7 +179,9 @@ public class NoteService {
         note.setUserId(userId);
         note.setTitle(title);
         note.setContent(content);
-        return noteRepo.save(note);
+        Note saved = noteRepo.save(note);
+        events.publishEvent(StatsChangedEvent.noteCreated(LocalDate.now()));
+        return saved;
     }
 
     /**
@@ -176,12 +210,17 @@ public class NoteService {
                 .filter(s -> s.getNoteId().equals(id))
                 .collect(Collectors.toList());
         shareRepo.deleteAll(shares);
+        shares.stream()
+                .collect(Collectors.groupingBy(NoteShare::getStatus, Collectors.counting()))
+                .forEach((status, count) -> events.publishEvent(StatsChangedEvent.of(StatsMetric.forShareStatus(status), -count)));
 
         // 2. Usuń głosy
-        voteRepo.deleteAllByNoteId(id);
+        long removedVotes = voteRepo.deleteAllByNoteId(id);
+        if (removedVotes > 0) events.publishEvent(StatsChangedEvent.of(StatsMetric.VOTES, -removedVotes));
 
         // 3. Usuń notatkę
         noteRepo.deleteById(id);
+        events.publishEvent(StatsChangedEvent.decrement(StatsMetric.NOTES));
     }
 
     // --- NOWA FUNKCJONALNOŚĆ: GŁOSOWANIE ---
@@ -201,8 +240,10 @@ public class NoteService {
 
         if (existingVote.isPresent()) {
             voteRepo.delete(existingVote.get());
+            events.publishEvent(StatsChangedEvent.decrement(StatsMetric.VOTES));
         } else {
             voteRepo.save(new NoteVote(note, user));
+            events.publishEvent(StatsChangedEvent.increment(StatsMetric.VOTES));
         }
 
         Map<String, Object> result = new HashMap<>();
@@ -238,6 +279,8 @@ public class NoteService {
             share.setPermission(permission);
             if (share.getStatus() == NoteShare.ShareStatus.REJECTED) {
                 share.setStatus(NoteShare.ShareStatus.PENDING);
+                events.publishEvent(StatsChangedEvent.decrement(StatsMetric.SHARES_REJECTED));
+                events.publishEvent(StatsChangedEvent.increment(StatsMetric.SHARES_PENDING));
             }
             shareRepo.save(share);
             return "http://localhost:3000/notes/shared?token=" + share.getToken();
@@ -252,6 +295,7 @@ public class NoteService {
         share.setPermission(permission);
 
         shareRepo.save(share);
+        events.publishEvent(StatsChangedEvent.increment(StatsMetric.SHARES_PENDING));
 
         return "http://localhost:3000/notes/shared?token=" + share.getToken();
     }
@@ -272,8 +316,12 @@ public class NoteService {
      * Cofa udostępnienie notatki.
      * @param shareId identyfikator udostępnienia
      */
+    @Transactional
     public void revokeShare(UUID shareId) {
-        shareRepo.deleteById(shareId);
+        shareRepo.findById(shareId).ifPresent(share -> {
+            shareRepo.delete(share);
+            events.publishEvent(StatsChangedEvent.decrement(StatsMetric.forShareStatus(share.getStatus())));
+        });
     }
 
     /**
@@ -290,6 +338,10 @@ public class NoteService {
             throw new IllegalArgumentException("To udostępnienie zostało odrzucone.");
         }
 
+        if (share.getStatus() != NoteShare.ShareStatus.ACCEPTED) {
+            events.publishEvent(StatsChangedEvent.decrement(StatsMetric.forShareStatus(share.getStatus())));
+            events.publishEvent(StatsChangedEvent.increment(StatsMetric.SHARES_ACCEPTED));
+        }
         share.setRecipientId(recipientId);
         share.setStatus(NoteShare.ShareStatus.ACCEPTED);
         shareRepo.save(share);
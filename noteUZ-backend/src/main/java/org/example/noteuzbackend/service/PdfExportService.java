@@ -0,0 +1,424 @@
+package org.example.noteuzbackend.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.example.noteuzbackend.dto.NoteVersionDTO;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.Note;
+import org.example.noteuzbackend.model.entity.NotePdf;
+import org.example.noteuzbackend.model.enums.PdfExportFormat;
+import org.example.noteuzbackend.repository.NotePdfRepo;
+import org.example.noteuzbackend.repository.NoteRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Eksport notatek do PDF. Notatki są renderowane ({@link NotePdfRenderer}) na ograniczonej puli wątków, a gotowe
+ * dokumenty trafiają do {@link BlobStore} i tabeli note_pdf_cache - dokument jest używany ponownie, dopóki data
+ * modyfikacji notatki się nie zmieni, a jednoczesne żądania tej samej wersji notatki czekają na jedno renderowanie.
+ * Eksport grupy przetwarza notatki w przesuwanym oknie (kilka renderowań w toku naraz), a dokumenty są przesyłane
+ * z plików magazynu: do archiwum ZIP - od razu, po kolei, a do jednego dokumentu PDF - przez łączenie dokumentów
+ * odwzorowanych w pamięci z buforem wyniku w pliku tymczasowym. W pamięci nie jest więc przechowywany cały eksport.
+ */
+@Service
+public class PdfExportService {
+
+    private final NoteRepo noteRepo;
+    private final NotePdfRepo pdfRepo;
+    private final NoteService noteService;
+    private final GroupMembershipCache membershipCache;
+    private final NotePdfRenderer renderer;
+    private final BlobStore blobs;
+    private final ThreadPoolExecutor executor;
+    private final int windowSize;
+    private final int syncMaxNotes;
+    private final long renderTimeoutMillis;
+
+    /** Renderowania w toku (notatka i jej wersja) - jednoczesne żądania tej samej wersji czekają na ten sam wynik. */
+    private final Map<RenderKey, CompletableFuture<NotePdfFile>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong renderedPages = new AtomicLong();
+    private final AtomicLong renderNanos = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong exports = new AtomicLong();
+    private final AtomicLong exportedPages = new AtomicLong();
+    private final AtomicLong exportNanos = new AtomicLong();
+
+    /**
+     * Wyrenderowany dokument PDF notatki.
+     * @param noteId identyfikator notatki
+     * @param title tytuł notatki
+     * @param blobKey klucz dokumentu w magazynie danych binarnych
+     * @param size rozmiar dokumentu w bajtach
+     * @param pages liczba stron
+     */
+    public record NotePdfFile(UUID noteId, String title, String blobKey, long size, int pages) {}
+
+    /**
+     * Odbiorca postępu eksportu grupy.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        /**
+         * @param notes liczba przetworzonych notatek
+         * @param pages łączna liczba stron zapisanych dokumentów
+         */
+        void update(int notes, long pages);
+    }
+
+    private record RenderKey(UUID noteId, LocalDateTime version) {}
+
+    /**
+     * Konstruktor serwisu eksportu.
+     * @param noteRepo repozytorium notatek
+     * @param pdfRepo repozytorium wyrenderowanych dokumentów
+     * @param noteService serwis notatek (uprawnienia do notatki)
+     * @param membershipCache pamięć podręczna członkostw (dostęp do eksportu grupy)
+     * @param renderer renderowanie notatek do PDF
+     * @param blobs magazyn danych binarnych
+     * @param threads liczba wątków renderujących
+     * @param queueCapacity maksymalna liczba renderowań oczekujących
+     * @param syncMaxNotes maksymalna liczba notatek eksportu grupy pobieranego bezpośrednio (większe - przez zadanie)
+     * @param renderTimeoutMillis maksymalny czas oczekiwania na wyrenderowanie notatki
+     */
+    public PdfExportService(NoteRepo noteRepo, NotePdfRepo pdfRepo, NoteService noteService,
+                            GroupMembershipCache membershipCache, NotePdfRenderer renderer, BlobStore blobs,
+                            @Value("${app.pdf.threads:4}") int threads,
+                            @Value("${app.pdf.queue:64}") int queueCapacity,
+                            @Value("${app.pdf.sync-max-notes:200}") int syncMaxNotes,
+                            @Value("${app.pdf.render-timeout-ms:60000}") long renderTimeoutMillis) {
+        this.noteRepo = noteRepo;
+        this.pdfRepo = pdfRepo;
+        this.noteService = noteService;
+        this.membershipCache = membershipCache;
+        this.renderer = renderer;
+        this.blobs = blobs;
+        this.windowSize = Math.max(1, Math.min(threads * 2, queueCapacity));
+        this.syncMaxNotes = syncMaxNotes;
+        this.renderTimeoutMillis = renderTimeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Pobiera dokument PDF notatki (z pamięci podręcznej lub renderując aktualną wersję).
+     * @param noteId identyfikator notatki
+     * @param user zalogowany użytkownik
+     * @return opis dokumentu
+     * @throws ResponseStatusException jeśli notatka nie istnieje (404), użytkownik nie ma do niej dostępu (403)
+     *         lub wszystkie wątki renderujące są zajęte (503)
+     */
+    public NotePdfFile notePdf(UUID noteId, UserSummary user) {
+        Note note = noteRepo.findById(noteId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notatka nie istnieje"));
+        if (noteService.permissionFor(note, user.id(), user.email()) == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak dostępu do notatki");
+        }
+        NoteVersionDTO version = new NoteVersionDTO(note.getId(), note.getTitle(), versionOf(note));
+        NotePdfFile file = await(request(version, pdfRepo.findById(noteId).orElse(null), note, false));
+        if (file == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Notatka nie istnieje");
+        return file;
+    }
+
+    /**
+     * Pobiera wersje notatek grupy do eksportu, sprawdzając członkostwo użytkownika w grupie.
+     * @param groupId identyfikator grupy
+     * @param userId identyfikator użytkownika
+     * @param sync true - eksport pobierany bezpośrednio (z limitem liczby notatek)
+     * @return wersje notatek w kolejności utworzenia
+     * @throws ResponseStatusException jeśli użytkownik nie należy do grupy (403), grupa nie ma notatek (404)
+     *         lub eksport bezpośredni byłby zbyt duży (413 - należy zlecić zadanie eksportu)
+     */
+    public List<NoteVersionDTO> groupNotes(UUID groupId, UUID userId, boolean sync) {
+        if (!membershipCache.isMember(groupId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Nie jesteś członkiem tej grupy");
+        }
+        List<NoteVersionDTO> notes = noteRepo.findVersionsByGroupId(groupId);
+        if (notes.isEmpty()) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Grupa nie ma notatek");
+        if (sync && notes.size() > syncMaxNotes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Grupa ma ponad " + syncMaxNotes + " notatek - zleć zadanie eksportu");
+        }
+        return notes;
+    }
+
+    /**
+     * Zapisuje eksport notatek do strumienia: archiwum ZIP (dokument każdej notatki zapisywany od razu, w kolejności
+     * notatek) albo jeden dokument PDF. W dokumencie PDF strony każdej notatki są dołączane od razu, a jej dokument
+     * zamykany przed wczytaniem kolejnego; dane stron łączonego dokumentu są buforowane w pliku tymczasowym, więc
+     * zużycie pamięci nie rośnie z liczbą notatek. Gdy pula renderująca jest pełna, notatka jest renderowana
+     * w bieżącym wątku, więc eksport nie jest przerywany w trakcie przesyłania.
+     * @param notes wersje eksportowanych notatek
+     * @param format format eksportu
+     * @param out strumień wyjściowy (nie jest zamykany)
+     * @param progress odbiorca postępu lub null
+     * @return łączna liczba stron
+     * @throws IOException w przypadku błędu odczytu dokumentów lub zapisu do strumienia
+     */
+    public long writeGroup(List<NoteVersionDTO> notes, PdfExportFormat format, OutputStream out, Progress progress) throws IOException {
+        long started = System.nanoTime();
+        Map<UUID, NotePdf> cached = pdfRepo.findAllById(notes.stream().map(NoteVersionDTO::id).toList()).stream()
+                .collect(Collectors.toMap(NotePdf::getNoteId, Function.identity()));
+        ZipOutputStream zip = null;
+        PDFMergerUtility merger = null;
+        PDDocument merged = null;
+        if (format == PdfExportFormat.ZIP) {
+            zip = new ZipOutputStream(out);
+            zip.setLevel(Deflater.BEST_SPEED);
+        } else {
+            merger = new PDFMergerUtility();
+            merged = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+        }
+        long pages;
+        try {
+            pages = writeEntries(notes, cached, zip, merger, merged, progress);
+            if (zip != null) {
+                zip.finish();
+            } else if (merged.getNumberOfPages() > 0) {
+                merged.save(out);
+            } else {
+                writeEmptyDocument(out);
+            }
+        } finally {
+            if (merged != null) merged.close();
+        }
+        exports.incrementAndGet();
+        exportedPages.addAndGet(pages);
+        exportNanos.addAndGet(System.nanoTime() - started);
+        return pages;
+    }
+
+    /**
+     * Renderuje dokumenty notatek w przesuwnym oknie i zapisuje je kolejno do archiwum ZIP lub dołącza
+     * do łączonego dokumentu PDF.
+     */
+    private long writeEntries(List<NoteVersionDTO> notes, Map<UUID, NotePdf> cached, ZipOutputStream zip,
+                              PDFMergerUtility merger, PDDocument merged, Progress progress) throws IOException {
+        String entryFormat = "%0" + String.valueOf(notes.size()).length() + "d %s.pdf";
+
+        Deque<CompletableFuture<NotePdfFile>> window = new ArrayDeque<>();
+        Iterator<NoteVersionDTO> pending = notes.iterator();
+        int done = 0;
+        int written = 0;
+        long pages = 0;
+        while (pending.hasNext() || !window.isEmpty()) {
+            while (pending.hasNext() && window.size() < windowSize) {
+                NoteVersionDTO next = pending.next();
+                window.add(request(next, cached.get(next.id()), null, true));
+            }
+            NotePdfFile file = await(window.poll());
+            done++;
+            if (file != null) {
+                written++;
+                pages += file.pages();
+                if (zip != null) {
+                    zip.putNextEntry(new ZipEntry(String.format(entryFormat, written, fileName(file.title()))));
+                    blobs.transferTo(file.blobKey(), zip);
+                    zip.closeEntry();
+                } else {
+                    // Strony są kopiowane do łączonego dokumentu, więc dokument notatki można od razu zamknąć
+                    try (PDDocument source = Loader.loadPDF(new RandomAccessReadBuffer(blobs.read(file.blobKey())))) {
+                        merger.appendDocument(merged, source);
+                    }
+                }
+            }
+            if (progress != null) progress.update(done, pages);
+        }
+        return pages;
+    }
+
+    /**
+     * Przesyła dokument z magazynu danych binarnych do strumienia.
+     * @param blobKey klucz dokumentu
+     * @param out strumień wyjściowy
+     * @throws IOException w przypadku błędu odczytu lub zapisu
+     */
+    public void writeFile(String blobKey, OutputStream out) throws IOException {
+        blobs.transferTo(blobKey, out);
+    }
+
+    /**
+     * Zwraca statystyki eksportu. Przepustowość jest podawana w stronach na sekundę: renderowania (łączny czas
+     * pracy wątków renderujących) i eksportu grup (czas od rozpoczęcia do zakończenia eksportu, z dokumentami
+     * z pamięci podręcznej).
+     * @return mapa statystyk
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("inFlight", inFlight.size());
+        stats.put("rendered", rendered.get());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("failures", failures.get());
+        stats.put("rejected", rejected.get());
+        stats.put("renderedPages", renderedPages.get());
+        stats.put("renderMs", TimeUnit.NANOSECONDS.toMillis(renderNanos.get()));
+        stats.put("renderPagesPerSecond", perSecond(renderedPages.get(), renderNanos.get()));
+        stats.put("exports", exports.get());
+        stats.put("exportedPages", exportedPages.get());
+        stats.put("exportMs", TimeUnit.NANOSECONDS.toMillis(exportNanos.get()));
+        stats.put("exportPagesPerSecond", perSecond(exportedPages.get(), exportNanos.get()));
+        stats.put("unicodeFont", renderer.hasUnicodeFont());
+        return stats;
+    }
+
+    /**
+     * Zwraca dokument z pamięci podręcznej albo zleca renderowanie wersji notatki.
+     * @param version wersja notatki
+     * @param cached wpis pamięci podręcznej notatki lub null
+     * @param note wczytana notatka lub null (zostanie wczytana przez wątek renderujący)
+     * @param callerRunsWhenFull true - przy pełnej kolejce renderuje w bieżącym wątku; false - odrzuca żądanie (503)
+     * @return przyszły wynik (null - notatka została usunięta)
+     */
+    private CompletableFuture<NotePdfFile> request(NoteVersionDTO version, NotePdf cached, Note note, boolean callerRunsWhenFull) {
+        if (cached != null && cached.getNoteUpdatedAt().equals(version.updatedAt())) {
+            cacheHits.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                    new NotePdfFile(version.id(), version.title(), cached.getBlobKey(), cached.getSize(), cached.getPages()));
+        }
+        RenderKey key = new RenderKey(version.id(), version.updatedAt());
+        CompletableFuture<NotePdfFile> created = new CompletableFuture<>();
+        CompletableFuture<NotePdfFile> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) return existing;
+
+        Runnable task = () -> {
+            try {
+                created.complete(render(note != null ? note : noteRepo.findById(version.id()).orElse(null)));
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            if (!callerRunsWhenFull) {
+                inFlight.remove(key, created);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Zbyt wiele eksportów w toku, spróbuj ponownie później");
+            }
+            task.run();
+        }
+        return created;
+    }
+
+    /**
+     * Renderuje notatkę i zapisuje dokument w magazynie i pamięci podręcznej (wątek renderujący).
+     * @param note notatka lub null
+     * @return opis dokumentu lub null, jeśli notatka nie istnieje
+     */
+    private NotePdfFile render(Note note) {
+        if (note == null) return null;
+        LocalDateTime version = versionOf(note);
+        try {
+            long started = System.nanoTime();
+            NotePdfRenderer.RenderedPdf pdf = renderer.render(note.getTitle(), note.getContent(), version);
+            renderNanos.addAndGet(System.nanoTime() - started);
+            rendered.incrementAndGet();
+            renderedPages.addAndGet(pdf.pages());
+
+            BlobStore.Blob blob = blobs.put(pdf.data());
+            try {
+                pdfRepo.save(new NotePdf(note.getId(), version, blob.key(), blob.size(), pdf.pages()));
+            } catch (DataIntegrityViolationException e) {
+                // Ta sama notatka została jednocześnie zapisana przez inny wątek (albo usunięta) - dokument i tak jest poprawny
+            }
+            return new NotePdfFile(note.getId(), note.getTitle(), blob.key(), blob.size(), pdf.pages());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private NotePdfFile await(CompletableFuture<NotePdfFile> future) {
+        try {
+            return future.get(renderTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ResponseStatusException status) throw status;
+            System.err.println("Błąd renderowania PDF: " + e.getCause());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Nie udało się wygenerować PDF");
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Przekroczono czas generowania PDF");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Przerwano generowanie PDF");
+        }
+    }
+
+    private static void writeEmptyDocument(OutputStream out) throws IOException {
+        try (PDDocument empty = new PDDocument()) {
+            empty.addPage(new PDPage());
+            empty.save(out);
+        }
+    }
+
+    /**
+     * Wersja notatki - data ostatniej modyfikacji lub utworzenia (jak w {@link NoteRepo#findVersionsByGroupId}).
+     * @param note notatka
+     * @return wersja notatki
+     */
+    static LocalDateTime versionOf(Note note) {
+        return note.getUpdatedAt() != null ? note.getUpdatedAt() : note.getCreatedAt();
+    }
+
+    /**
+     * Tworzy bezpieczną nazwę pliku z tytułu notatki.
+     * @param title tytuł notatki
+     * @return nazwa pliku (bez rozszerzenia)
+     */
+    public static String fileName(String title) {
+        String name = title == null ? "" : title.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").strip();
+        if (name.length() > 100) name = name.substring(0, 100).strip();
+        return name.isEmpty() ? "notatka" : name;
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos > 0 ? Math.round(count * 1e10 / nanos) / 10.0 : 0;
+    }
+}
@@ -0,0 +1,457 @@
+package org.example.noteuzbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.noteuzbackend.dto.PurgeJobDTO;
+import org.example.noteuzbackend.event.CalendarChangedEvent;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.event.StatsChangedEvent;
+import org.example.noteuzbackend.event.UserAccessChangedEvent;
+import org.example.noteuzbackend.model.entity.GroupMember;
+import org.example.noteuzbackend.model.entity.NoteShare;
+import org.example.noteuzbackend.model.entity.PurgeJob;
+import org.example.noteuzbackend.model.enums.GroupRole;
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
+import org.example.noteuzbackend.model.enums.StatsMetric;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.example.noteuzbackend.repository.PurgeJobRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serwis kaskadowego usuwania użytkowników, grup i notatek w tle.
+ * Każde usunięcie jest zapisywane jako zadanie {@link PurgeJob} i wykonywane według planu kroków
+ * (najpierw zależne dane, na końcu sam obiekt). Każdy krok usuwa wiersze partiami o ograniczonym rozmiarze,
+ * a każda partia jest osobną, krótką transakcją zapisującą jednocześnie postęp zadania - dzięki temu
+ * nie powstają długie blokady tabel notes, note_votes i note_shares, a przerwane zadanie jest wznawiane
+ * od ostatniego zatwierdzonego kroku (wg jego nazwy - plan może zmienić się między wdrożeniami).
+ * Zadania są wykonywane po kolei na osobnym wątku, a nie na współdzielonym wątku zadań {@code @Scheduled}.
+ */
+@Service
+public class PurgeJobService {
+
+    private static final List<PurgeStatus> ACTIVE = List.of(PurgeStatus.PENDING, PurgeStatus.RUNNING);
+
+    private static final String USER_NOTES = "note_id IN (SELECT id FROM public.notes WHERE user_id = ?)";
+    private static final String GROUP_NOTES = "note_id IN (SELECT id FROM public.notes WHERE group_id = ?)";
+    private static final String ACCOUNT_STEP = "account";
+    private static final String EVENT_LINKS_STEP = "event-links";
+
+    /** Plany usuwania: kolejne kroki dla każdego rodzaju obiektu. */
+    static final Map<PurgeTarget, List<PurgeStep>> PLANS = new EnumMap<>(PurgeTarget.class);
+
+    static {
+        List<PurgeStep> note = new ArrayList<>(shareSteps("note_id = ?", 1));
+        note.add(new PurgeStep("votes", "public.note_votes", "id", "note_id = ?", 1, StatsMetric.VOTES));
+        note.add(new PurgeStep("attachments", "public.note_attachments", "id", "note_id = ?", 1, null));
+        note.add(new PurgeStep(EVENT_LINKS_STEP, "public.event_notes", "ctid", "note_id = ?", 1, null));
+        note.add(new PurgeStep("note", "public.notes", "id", "id = ?", 1, StatsMetric.NOTES));
+        PLANS.put(PurgeTarget.NOTE, List.copyOf(note));
+
+        List<PurgeStep> authorNotes = new ArrayList<>(shareSteps(USER_NOTES, 1));
+        authorNotes.add(new PurgeStep("votes", "public.note_votes", "id", USER_NOTES, 1, StatsMetric.VOTES));
+        authorNotes.add(new PurgeStep("attachments", "public.note_attachments", "id", USER_NOTES, 1, null));
+        authorNotes.add(new PurgeStep(EVENT_LINKS_STEP, "public.event_notes", "ctid", USER_NOTES, 1, null));
+        authorNotes.add(new PurgeStep("notes", "public.notes", "id", "user_id = ?", 1, StatsMetric.NOTES));
+        PLANS.put(PurgeTarget.AUTHOR_NOTES, List.copyOf(authorNotes));
+
+        List<PurgeStep> group = new ArrayList<>(shareSteps(GROUP_NOTES, 1));
+        group.add(new PurgeStep("votes", "public.note_votes", "id", GROUP_NOTES, 1, StatsMetric.VOTES));
+        group.add(new PurgeStep("attachments", "public.note_attachments", "id", GROUP_NOTES, 1, null));
+        group.add(new PurgeStep(EVENT_LINKS_STEP, "public.event_notes", "ctid", GROUP_NOTES, 1, null));
+        group.add(new PurgeStep("notes", "public.notes", "id", "group_id = ?", 1, StatsMetric.NOTES));
+        group.add(new PurgeStep("invitations", "public.group_invitations", "id", "group_id = ?", 1, null));
+        group.add(new PurgeStep("members", "public.group_members", "id", "group_id = ?", 1, StatsMetric.GROUP_MEMBERS));
+        group.add(new PurgeStep("group", "public.groups", "id", "id = ?", 1, StatsMetric.GROUPS));
+        PLANS.put(PurgeTarget.GROUP, List.copyOf(group));
+
+        List<PurgeStep> user = new ArrayList<>(shareSteps("owner_id = ? OR recipient_id = ? OR " + USER_NOTES, 3));
+        user.add(new PurgeStep("votes", "public.note_votes", "id", "user_id = ? OR " + USER_NOTES, 2, StatsMetric.VOTES));
+        user.add(new PurgeStep("attachments", "public.note_attachments", "id", USER_NOTES, 1, null));
+        user.add(new PurgeStep(EVENT_LINKS_STEP, "public.event_notes", "ctid",
+                USER_NOTES + " OR event_id IN (SELECT id FROM public.events WHERE user_id = ?)", 2, null));
+        user.add(new PurgeStep("event-exceptions", "public.event_exceptions", "ctid",
+                "event_id IN (SELECT id FROM public.events WHERE user_id = ?)", 1, null));
+        user.add(new PurgeStep("event-reminders", "public.event_reminders", "id", "user_id = ?", 1, null));
+        user.add(new PurgeStep("calendar-feeds", "public.calendar_feeds", "id", "user_id = ?", 1, null));
+        user.add(new PurgeStep("events", "public.events", "id", "user_id = ?", 1, null));
+        user.add(new PurgeStep("notes", "public.notes", "id", "user_id = ?", 1, StatsMetric.NOTES));
+        user.add(new PurgeStep("invitations", "public.group_invitations", "id", "inviter_id = ? OR invitee_id = ?", 2, null));
+        user.add(new PurgeStep("memberships", "public.group_members", "id", "user_id = ?", 1, StatsMetric.GROUP_MEMBERS));
+        user.add(new PurgeStep("friendships", "public.friendships", "id",
+                "requester_id = ? OR addressee_id = ? OR addressee_email = (SELECT email FROM public.users_view WHERE id = ?)", 3, null));
+        user.add(new PurgeStep("avatar-variants", "public.avatar_variants", "id", "user_id = ?", 1, null));
+        user.add(new PurgeStep("avatar", "public.user_avatars", "user_id", "user_id = ?", 1, null));
+        user.add(new PurgeStep(ACCOUNT_STEP, "auth.users", "id", "id = ?", 1, StatsMetric.USERS));
+        PLANS.put(PurgeTarget.USER, List.copyOf(user));
+    }
+
+    private final PurgeJobRepo jobRepo;
+    private final GroupMemberRepo memberRepo;
+    private final FriendGraph friendGraph;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final ThreadPoolExecutor worker;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    /**
+     * Konstruktor serwisu PurgeJobService.
+     * @param jobRepo repozytorium zadań usuwania
+     * @param memberRepo repozytorium członków grup
+     * @param friendGraph graf znajomych w pamięci (znajomi usuniętego użytkownika)
+     * @param jdbc szablon JDBC wykonujący usuwanie partiami
+     * @param tx szablon transakcji (jedna transakcja na partię)
+     * @param events publikator zdarzeń aplikacji
+     * @param batchSize maksymalna liczba wierszy usuwanych w jednej partii
+     * @param batchPauseMillis przerwa między partiami, pozwalająca innym transakcjom uzyskać blokady
+     */
+    public PurgeJobService(PurgeJobRepo jobRepo, GroupMemberRepo memberRepo, FriendGraph friendGraph,
+                           JdbcTemplate jdbc, TransactionTemplate tx,
+                           ApplicationEventPublisher events,
+                           @Value("${app.purge.batch-size:1000}") int batchSize,
+                           @Value("${app.purge.batch-pause-ms:50}") long batchPauseMillis) {
+        this.jobRepo = jobRepo;
+        this.memberRepo = memberRepo;
+        this.friendGraph = friendGraph;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.events = events;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+        this.worker = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), runnable -> {
+            Thread thread = new Thread(runnable, "purge-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Zleca usunięcie obiektu w tle. Jeśli dla obiektu istnieje już aktywne zadanie, zwraca je zamiast tworzyć nowe.
+     * Usunięcie użytkownika zleca także usunięcie grup, których jest właścicielem.
+     * @param targetType rodzaj usuwanego obiektu
+     * @param targetId identyfikator usuwanego obiektu
+     * @param requestedBy identyfikator zlecającego usunięcie
+     * @return stan zadania
+     */
+    @Transactional
+    public PurgeJobDTO enqueue(PurgeTarget targetType, UUID targetId, UUID requestedBy) {
+        if (targetType == PurgeTarget.USER) {
+            for (GroupMember owned : memberRepo.findByUserIdAndRole(targetId, GroupRole.OWNER)) {
+                findOrCreate(PurgeTarget.GROUP, owned.getGroupId(), requestedBy);
+            }
+        }
+        return toDto(findOrCreate(targetType, targetId, requestedBy));
+    }
+
+    /**
+     * Pobiera stan zadania.
+     * @param jobId identyfikator zadania
+     * @return stan zadania
+     * @throws ResponseStatusException jeśli zadanie nie istnieje (404)
+     */
+    @Transactional(readOnly = true)
+    public PurgeJobDTO getJob(UUID jobId) {
+        return toDto(jobRepo.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Zadanie nie istnieje")));
+    }
+
+    /**
+     * Pobiera stronę zadań o podanym stanie.
+     * @param status stan zadania
+     * @param pageable parametry stronicowania i sortowania
+     * @return strona zadań
+     */
+    @Transactional(readOnly = true)
+    public Page<PurgeJobDTO> getJobs(PurgeStatus status, Pageable pageable) {
+        return jobRepo.findByStatus(status, pageable).map(PurgeJobService::toDto);
+    }
+
+    /**
+     * Wznawia zadanie zakończone błędem (od kroku, na którym zostało przerwane).
+     * @param jobId identyfikator zadania
+     * @return stan zadania
+     * @throws ResponseStatusException jeśli zadanie nie istnieje (404) lub nie zakończyło się błędem (409)
+     */
+    @Transactional
+    public PurgeJobDTO retry(UUID jobId) {
+        PurgeJob job = jobRepo.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Zadanie nie istnieje"));
+        if (job.getStatus() != PurgeStatus.FAILED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Można wznowić tylko zadanie zakończone błędem.");
+        }
+        job.setStatus(PurgeStatus.PENDING);
+        job.setError(null);
+        job.setUpdatedAt(Instant.now());
+        return toDto(jobRepo.save(job));
+    }
+
+    /**
+     * Zleca wykonanie oczekujących zadań wątkowi zadań usuwania, jeśli nie wykonuje on już poprzednich.
+     * Usuwanie (wraz z przerwami między partiami) nie zajmuje więc wątku harmonogramu.
+     */
+    @Scheduled(initialDelayString = "${app.purge.initial-delay-ms:10000}",
+            fixedDelayString = "${app.purge.poll-interval-ms:2000}")
+    public void schedulePendingJobs() {
+        if (!polling.compareAndSet(false, true)) return;
+        try {
+            worker.execute(() -> {
+                try {
+                    runPendingJobs();
+                } catch (RuntimeException e) {
+                    System.err.println("Błąd wykonywania zadań usuwania: " + e.getMessage());
+                } finally {
+                    polling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Zatrzymuje wątek zadań usuwania przy zamykaniu aplikacji (przerwane zadanie zostanie wznowione po starcie).
+     */
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Wykonuje oczekujące zadania (także przerwane w trakcie - np. przez restart aplikacji) w bieżącym wątku.
+     */
+    public void runPendingJobs() {
+        for (PurgeJob job : jobRepo.findByStatusInOrderByCreatedAtAsc(ACTIVE)) {
+            run(job);
+        }
+    }
+
+    /**
+     * Wykonuje kolejne kroki zadania, zaczynając od zapisanego kroku.
+     * @param job zadanie do wykonania
+     */
+    void run(PurgeJob job) {
+        List<PurgeStep> plan = PLANS.get(job.getTargetType());
+        job.setStatus(PurgeStatus.RUNNING);
+        job.setTotalSteps(plan.size());
+        saveProgress(job);
+        boolean accountBanned = false;
+        try {
+            for (int i = resumeIndex(plan, job.getStepName()); i < plan.size(); i++) {
+                PurgeStep step = plan.get(i);
+                job.setStepIndex(i);
+                job.setStepName(step.name());
+                if (job.getTargetType() == PurgeTarget.USER && ACCOUNT_STEP.equals(step.name())) {
+                    accountBanned = isBanned(job.getTargetId());
+                }
+                List<UUID> calendarOwners = EVENT_LINKS_STEP.equals(step.name()) ? linkedEventOwners(job, step) : List.of();
+                int deleted;
+                do {
+                    deleted = deleteBatch(job, step);
+                    if (deleted >= batchSize) pause();
+                } while (deleted >= batchSize);
+                for (UUID owner : calendarOwners) {
+                    events.publishEvent(CalendarChangedEvent.forUser(owner));
+                }
+            }
+            job.setStepIndex(plan.size());
+            job.setStatus(PurgeStatus.COMPLETED);
+            job.setFinishedAt(Instant.now());
+            saveProgress(job);
+            onCompleted(job, accountBanned);
+        } catch (DataAccessException e) {
+            System.err.println("Błąd zadania usuwania " + job.getId() + " (" + job.getStepName() + "): " + e.getMessage());
+            job.setStatus(PurgeStatus.FAILED);
+            job.setError(e.getMostSpecificCause().getMessage());
+            saveProgress(job);
+        }
+    }
+
+    /**
+     * Wyznacza krok, od którego należy wznowić zadanie. Krok jest wyszukiwany po nazwie, a nie po numerze,
+     * bo kolejne wersje aplikacji dodają kroki w środku planu. Jeśli zapisanego kroku nie ma już w planie,
+     * zadanie zaczyna się od początku - kroki usuwają tylko pozostałe wiersze, więc ich powtórzenie jest bezpieczne.
+     * @param plan plan usuwania
+     * @param stepName nazwa zapisanego kroku (null - zadanie nie zostało jeszcze rozpoczęte)
+     * @return numer kroku
+     */
+    static int resumeIndex(List<PurgeStep> plan, String stepName) {
+        if (stepName == null) return 0;
+        for (int i = 0; i < plan.size(); i++) {
+            if (plan.get(i).name().equals(stepName)) return i;
+        }
+        return 0;
+    }
+
+    /**
+     * Sprawdza, czy konto jest zablokowane tuż przed jego usunięciem (licznik zablokowanych kont zmniejsza się
+     * tylko wtedy - konto mogło zostać w międzyczasie odblokowane lub nigdy nie być zablokowane).
+     * @param userId identyfikator użytkownika
+     * @return true, jeśli konto jest zablokowane
+     */
+    private boolean isBanned(UUID userId) {
+        try {
+            return Boolean.TRUE.equals(jdbc.queryForObject(
+                    "SELECT is_banned FROM public.user_security WHERE user_id = ?", Boolean.class, userId));
+        } catch (EmptyResultDataAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Pobiera właścicieli wydarzeń powiązanych z usuwanymi notatkami (przed usunięciem powiązań), aby po kroku
+     * unieważnić ich kalendarze.
+     * @param job zadanie
+     * @param step krok usuwania powiązań wydarzeń z notatkami
+     * @return identyfikatory właścicieli wydarzeń
+     */
+    private List<UUID> linkedEventOwners(PurgeJob job, PurgeStep step) {
+        Object[] args = Arrays.copyOf(step.args(job.getTargetId(), batchSize), step.params());
+        return jdbc.queryForList("SELECT DISTINCT user_id FROM public.events WHERE id IN " +
+                "(SELECT event_id FROM public.event_notes WHERE " + step.condition() + ")", UUID.class, args);
+    }
+
+    /**
+     * Usuwa jedną partię wierszy kroku i zapisuje postęp zadania w tej samej transakcji.
+     * @param job zadanie
+     * @param step krok planu
+     * @return liczba usuniętych wierszy
+     */
+    private int deleteBatch(PurgeJob job, PurgeStep step) {
+        Integer deleted = tx.execute(status -> {
+            int count = jdbc.update(step.sql(), step.args(job.getTargetId(), batchSize));
+            job.setDeletedRows(job.getDeletedRows() + count);
+            job.setUpdatedAt(Instant.now());
+            jobRepo.save(job);
+            if (count > 0 && step.metric() != null) {
+                events.publishEvent(StatsChangedEvent.of(step.metric(), -count));
+            }
+            return count;
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    /**
+     * Publikuje zdarzenia unieważniające pamięci podręczne po zakończeniu zadania.
+     * @param job zakończone zadanie
+     * @param accountBanned czy usunięte konto było zablokowane
+     */
+    private void onCompleted(PurgeJob job, boolean accountBanned) {
+        switch (job.getTargetType()) {
+            case USER -> {
+                if (accountBanned) events.publishEvent(StatsChangedEvent.decrement(StatsMetric.BANNED_USERS));
+                events.publishEvent(UserAccessChangedEvent.forUser(job.getTargetId()));
+                events.publishEvent(GroupMembershipChangedEvent.forUser(job.getTargetId()));
+                events.publishEvent(CalendarChangedEvent.forUser(job.getTargetId()));
+                // Krawędzie usuniętego użytkownika są zrywane pojedynczo - graf i propozycje znajomych
+                // przeliczają wtedy obie strony każdej znajomości (kopia, bo zdarzenia zmieniają graf)
+                for (UUID friend : List.copyOf(friendGraph.friendsOf(job.getTargetId()))) {
+                    events.publishEvent(FriendshipChangedEvent.disconnected(job.getTargetId(), friend));
+                }
+            }
+            case GROUP -> events.publishEvent(GroupMembershipChangedEvent.forAllUsers());
+            case NOTE, AUTHOR_NOTES -> { }
+        }
+    }
+
+    private PurgeJob findOrCreate(PurgeTarget targetType, UUID targetId, UUID requestedBy) {
+        return jobRepo.findFirstByTargetTypeAndTargetIdAndStatusIn(targetType, targetId, ACTIVE)
+                .orElseGet(() -> jobRepo.save(new PurgeJob(targetType, targetId, requestedBy, PLANS.get(targetType).size())));
+    }
+
+    private void saveProgress(PurgeJob job) {
+        job.setUpdatedAt(Instant.now());
+        jobRepo.save(job);
+    }
+
+    private void pause() {
+        if (batchPauseMillis <= 0) return;
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static PurgeJobDTO toDto(PurgeJob job) {
+        return new PurgeJobDTO(job.getId(), job.getTargetType(), job.getTargetId(), job.getStatus(),
+                job.getStepIndex(), job.getTotalSteps(), job.getStepName(), job.getDeletedRows(), job.getError(),
+                job.getCreatedAt(), job.getUpdatedAt(), job.getFinishedAt());
+    }
+
+    /**
+     * Tworzy kroki usuwania udostępnień - osobno dla każdego statusu, aby aktualizować właściwe liczniki statystyk.
+     * @param condition warunek wyboru udostępnień
+     * @param params liczba parametrów warunku
+     * @return lista kroków
+     */
+    private static List<PurgeStep> shareSteps(String condition, int params) {
+        return Arrays.stream(NoteShare.ShareStatus.values())
+                .map(status -> new PurgeStep("shares-" + status.name().toLowerCase(), "public.note_shares", "id",
+                        "(" + condition + ") AND status = '" + status.name() + "'", params, StatsMetric.forShareStatus(status)))
+                .toList();
+    }
+
+    /**
+     * Krok planu usuwania: usuwa partiami wiersze tabeli spełniające warunek.
+     *
+     * @param name Nazwa kroku (widoczna w postępie zadania).
+     * @param table Tabela (ze schematem).
+     * @param key Kolumna identyfikująca wiersz.
+     * @param condition Warunek SQL z parametrami ? (każdy parametr to identyfikator usuwanego obiektu).
+     * @param params Liczba parametrów w warunku.
+     * @param metric Licznik statystyk zmniejszany o liczbę usuniętych wierszy (null - brak).
+     */
+    record PurgeStep(String name, String table, String key, String condition, int params, StatsMetric metric) {
+
+        /**
+         * Buduje instrukcję usuwającą co najwyżej jedną partię wierszy.
+         * @return instrukcja SQL (ostatni parametr to rozmiar partii)
+         */
+        String sql() {
+            return "DELETE FROM " + table + " WHERE " + key + " IN (SELECT " + key + " FROM " + table +
+                    " WHERE " + condition + " LIMIT ?)";
+        }
+
+        /**
+         * Buduje parametry instrukcji usuwającej.
+         * @param targetId identyfikator usuwanego obiektu
+         * @param batchSize rozmiar partii
+         * @return parametry instrukcji
+         */
+        Object[] args(UUID targetId, int batchSize) {
+            Object[] args = new Object[params + 1];
+            Arrays.fill(args, 0, params, targetId);
+            args[params] = batchSize;
+            return args;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.example.noteuzbackend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reguła powtarzania wydarzenia w podzbiorze składni RRULE (RFC 5545):
+ * FREQ=DAILY|WEEKLY|MONTHLY, INTERVAL, BYDAY (tylko dla WEEKLY), UNTIL oraz COUNT,
+ * np. {@code FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20250615}.
+ * Wystąpienia są generowane leniwie iteratorem, który przeskakuje bezpośrednio do okresu obejmującego
+ * początek żądanego okna, więc koszt rozwinięcia zależy od rozmiaru okna, a nie od długości serii.
+ *
+ * @param frequency Częstotliwość powtarzania.
+ * @param interval Co ile okresów wydarzenie się powtarza (co najmniej 1).
+ * @param byDay Dni tygodnia wystąpień (tylko dla WEEKLY; pusta lista - dzień tygodnia początku serii).
+ * @param until Ostatni dopuszczalny moment rozpoczęcia wystąpienia (null - bez ograniczenia).
+ * @param count Maksymalna liczba wystąpień (null - bez ograniczenia).
+ */
+public record RecurrenceRule(Frequency frequency, int interval, List<DayOfWeek> byDay, LocalDateTime until, Integer count) {
+
+    /** Maksymalna liczba wystąpień serii określonej parametrem COUNT. */
+    public static final int MAX_COUNT = 5000;
+
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Map<String, DayOfWeek> DAY_CODES = Map.of(
+            "MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY, "WE", DayOfWeek.WEDNESDAY, "TH", DayOfWeek.THURSDAY,
+            "FR", DayOfWeek.FRIDAY, "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    /**
+     * Obsługiwane częstotliwości powtarzania.
+     */
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    /**
+     * Parsuje regułę zapisaną w składni RRULE (z prefiksem "RRULE:" lub bez).
+     * @param rule tekst reguły
+     * @return sparsowana reguła
+     * @throws IllegalArgumentException jeśli reguła jest niepoprawna lub używa nieobsługiwanych elementów
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) throw new IllegalArgumentException("Reguła jest pusta.");
+        String body = rule.trim().toUpperCase(Locale.ROOT);
+        if (body.startsWith("RRULE:")) body = body.substring("RRULE:".length());
+
+        Frequency frequency = null;
+        int interval = 1;
+        EnumSet<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        LocalDateTime until = null;
+        Integer count = null;
+        for (String part : body.split(";")) {
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Niepoprawny element reguły: " + part);
+            String key = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            switch (key) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Nieobsługiwana częstotliwość: " + value);
+                    }
+                }
+                case "INTERVAL" -> interval = parsePositive(key, value, 1000);
+                case "COUNT" -> count = parsePositive(key, value, MAX_COUNT);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    for (String code : value.split(",")) {
+                        DayOfWeek day = DAY_CODES.get(code);
+                        if (day == null) throw new IllegalArgumentException("Niepoprawny dzień tygodnia: " + code);
+                        byDay.add(day);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Nieobsługiwany element reguły: " + key);
+            }
+        }
+        if (frequency == null) throw new IllegalArgumentException("Brak częstotliwości (FREQ).");
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY jest obsługiwane tylko dla FREQ=WEEKLY.");
+        }
+        return new RecurrenceRule(frequency, interval, List.copyOf(byDay), until, count);
+    }
+
+    /**
+     * Zwraca leniwy iterator momentów rozpoczęcia kolejnych wystąpień serii, w kolejności chronologicznej.
+     * Iterator zaczyna od okresu (dnia, tygodnia) obejmującego {@code notBefore}, więc może zwrócić
+     * kilka wystąpień wcześniejszych niż {@code notBefore} - filtrowanie należy do wywołującego.
+     * Dla serii bez UNTIL i COUNT iterator jest nieskończony.
+     * @param seriesStart moment rozpoczęcia pierwszego wystąpienia
+     * @param notBefore moment, przed którym wystąpienia nie są potrzebne (null - od początku serii)
+     * @return iterator momentów rozpoczęcia wystąpień
+     */
+    public Iterator<LocalDateTime> occurrences(LocalDateTime seriesStart, LocalDateTime notBefore) {
+        return new OccurrenceIterator(seriesStart, notBefore);
+    }
+
+    /**
+     * Wyznacza górne ograniczenie momentu rozpoczęcia ostatniego wystąpienia serii.
+     * Dla reguły z COUNT jest to dokładny moment ostatniego wystąpienia, dla reguły z samym UNTIL - wartość UNTIL.
+     * @param seriesStart moment rozpoczęcia pierwszego wystąpienia
+     * @return ograniczenie lub null, jeśli seria jest nieskończona
+     */
+    public LocalDateTime lastOccurrenceBound(LocalDateTime seriesStart) {
+        if (count == null) return until;
+        LocalDateTime last = seriesStart;
+        Iterator<LocalDateTime> it = occurrences(seriesStart, null);
+        while (it.hasNext()) last = it.next();
+        return last;
+    }
+
+    private static int parsePositive(String key, String value, int max) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 1 && parsed <= max) return parsed;
+        } catch (NumberFormatException ignored) {
+            // obsłużone poniżej
+        }
+        throw new IllegalArgumentException(key + " musi być liczbą od 1 do " + max + ".");
+    }
+
+    private static LocalDateTime parseUntil(String value) {
+        String v = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        try {
+            return v.length() == 8
+                    ? LocalDate.parse(v, UNTIL_DATE).atTime(LocalTime.MAX)
+                    : LocalDateTime.parse(v, UNTIL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Niepoprawna data UNTIL: " + value);
+        }
+    }
+
+    /**
+     * Iterator generujący wystąpienia okres po okresie. Licznik wygenerowanych wystąpień obejmuje także
+     * okresy pominięte przy przeskoku, dzięki czemu ograniczenie COUNT działa tak samo jak przy iteracji od początku.
+     */
+    private final class OccurrenceIterator implements Iterator<LocalDateTime> {
+        private final LocalDateTime seriesStart;
+        private final LocalDate firstMonday;
+        private final ArrayDeque<LocalDateTime> pending = new ArrayDeque<>();
+        private long period;
+        private long generated;
+        private boolean finished;
+
+        OccurrenceIterator(LocalDateTime seriesStart, LocalDateTime notBefore) {
+            this.seriesStart = seriesStart;
+            this.firstMonday = seriesStart.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            if (notBefore != null && notBefore.isAfter(seriesStart)) skipTo(notBefore);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !finished) {
+                generatePeriod();
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return pending.poll();
+        }
+
+        private void skipTo(LocalDateTime notBefore) {
+            switch (frequency) {
+                case DAILY -> {
+                    period = ChronoUnit.DAYS.between(seriesStart, notBefore) / interval;
+                    generated = period;
+                }
+                case WEEKLY -> {
+                    if (byDay.isEmpty()) {
+                        period = ChronoUnit.WEEKS.between(seriesStart, notBefore) / interval;
+                        generated = period;
+                    } else {
+                        LocalDate monday = notBefore.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                        period = ChronoUnit.WEEKS.between(firstMonday, monday) / interval;
+                        generated = period == 0 ? 0 : candidates(0).size() + (period - 1) * byDay.size();
+                    }
+                }
+                // Miesięcy w oknie jest niewiele, a pominięte miesiące (np. bez 31. dnia) utrudniają liczenie COUNT
+                case MONTHLY -> { }
+            }
+            if (count != null && generated >= count) finished = true;
+        }
+
+        private void generatePeriod() {
+            for (LocalDateTime candidate : candidates(period)) {
+                if ((until != null && candidate.isAfter(until)) || (count != null && generated >= count)) {
+                    finished = true;
+                    return;
+                }
+                generated++;
+                pending.add(candidate);
+            }
+            period++;
+        }
+
+        private List<LocalDateTime> candidates(long k) {
+            long step = k * interval;
+            return switch (frequency) {
+                case DAILY -> List.of(seriesStart.plusDays(step));
+                case MONTHLY -> {
+                    LocalDateTime candidate = seriesStart.plusMonths(step);
+                    // Jak w RFC 5545: miesiące bez dnia rozpoczęcia serii (np. 31.) są pomijane
+                    yield candidate.getDayOfMonth() == seriesStart.getDayOfMonth() ? List.of(candidate) : List.of();
+                }
+                case WEEKLY -> {
+                    if (byDay.isEmpty()) yield List.of(seriesStart.plusWeeks(step));
+                    LocalDate monday = firstMonday.plusWeeks(step);
+                    List<LocalDateTime> week = new ArrayList<>(byDay.size());
+                    for (DayOfWeek day : byDay) {
+                        LocalDateTime candidate = monday.plusDays(day.ordinal()).atTime(seriesStart.toLocalTime());
+                        if (!candidate.isBefore(seriesStart)) week.add(candidate);
+                    }
+                    yield week;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.dto.ReminderNotificationDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Kanał powiadomień push oparty na Server-Sent Events: otwarte sesje aplikacji subskrybują strumień
+ * przypomnień zalogowanego użytkownika, a {@link ReminderService} wysyła do nich wymagalne przypomnienia.
+ * Subskrypcje są przechowywane w pamięci instancji aplikacji.
+ */
+@Component
+public class ReminderPushChannel {
+
+    /** Czas życia połączenia SSE; klient (EventSource) łączy się ponownie automatycznie. */
+    static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final ConcurrentHashMap<UUID, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    /**
+     * Rejestruje nowe połączenie SSE użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return emiter połączenia
+     */
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.computeIfAbsent(userId, k -> new CopyOnWriteArraySet<>()).add(emitter);
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * Wysyła przypomnienie do wszystkich otwartych sesji użytkownika.
+     * @param userId identyfikator użytkownika
+     * @param notification treść przypomnienia
+     * @return true, jeśli przypomnienie dotarło do co najmniej jednej sesji
+     */
+    public boolean send(UUID userId, ReminderNotificationDTO notification) {
+        Set<SseEmitter> sessions = emitters.get(userId);
+        if (sessions == null) return false;
+        boolean delivered = false;
+        for (SseEmitter emitter : sessions) {
+            try {
+                emitter.send(SseEmitter.event().name("reminder").data(notification));
+                delivered = true;
+            } catch (IOException | IllegalStateException e) {
+                remove(userId, emitter);
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Zwraca liczbę użytkowników z otwartą sesją.
+     * @return liczba użytkowników
+     */
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, sessions) -> {
+            sessions.remove(emitter);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
@@ -0,0 +1,484 @@
+package org.example.noteuzbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.noteuzbackend.dto.ReminderNotificationDTO;
+import org.example.noteuzbackend.dto.ScheduledReminderDTO;
+import org.example.noteuzbackend.model.entity.AppUser;
+import org.example.noteuzbackend.model.entity.Event;
+import org.example.noteuzbackend.model.entity.EventReminder;
+import org.example.noteuzbackend.model.enums.ReminderChannel;
+import org.example.noteuzbackend.repository.AppUserRepo;
+import org.example.noteuzbackend.repository.EventReminderRepo;
+import org.example.noteuzbackend.repository.EventRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serwis przypomnień o wydarzeniach. Przypomnienia wymagalne w najbliższym horyzoncie (domyślnie 2 godziny)
+ * są przechowywane w hierarchicznym kole czasowym ({@link TimingWheel}), w którym dodanie i anulowanie
+ * przypomnienia kosztuje O(1), a co sekundę przetwarzany jest tylko kubełek bieżącego taktu.
+ * Baza danych jest źródłem prawdy: koło jest uzupełniane z bazy przy starcie i cyklicznie (rehydratacja),
+ * więc przypomnienia dalsze niż horyzont nie zajmują pamięci, a zaległe (np. po restarcie) są wysyłane od razu,
+ * o ile wystąpienie nie rozpoczęło się dawniej niż {@link #MAX_LATENESS} temu.
+ * Przypomnienia są wysyłane emailem lub jako powiadomienia push ({@link ReminderPushChannel}); wysyłka email (SMTP)
+ * odbywa się w osobnej, ograniczonej puli wątków, aby wolny serwer pocztowy nie opóźniał taktów koła.
+ * Koło jest pamięcią jednej instancji aplikacji - przy wielu instancjach wysyłkę powinna obsługiwać jedna z nich.
+ */
+@Service
+public class ReminderService {
+    /** Największe dozwolone wyprzedzenie przypomnienia (4 tygodnie). */
+    static final int MAX_OFFSET_MINUTES = 4 * 7 * 24 * 60;
+
+    /** Największa liczba przypomnień jednego wydarzenia. */
+    static final int MAX_REMINDERS_PER_EVENT = 5;
+
+    /** Jak długo po rozpoczęciu wystąpienia zaległe przypomnienie jest jeszcze wysyłane. */
+    static final Duration MAX_LATENESS = Duration.ofMinutes(5);
+
+    /** Liczba przypomnień wczytywanych z bazy jednym zapytaniem podczas wysyłki. */
+    static final int DISPATCH_BATCH_SIZE = 500;
+
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final EventReminderRepo reminderRepo;
+    private final EventRepo eventRepo;
+    private final AppUserRepo userRepo;
+    private final EmailService emailService;
+    private final ReminderPushChannel pushChannel;
+    private final TransactionTemplate tx;
+    private final ZoneId zone;
+    private final Duration horizon;
+    private final ThreadPoolExecutor mailExecutor;
+
+    /** Koło czasowe i uchwyty zaplanowanych przypomnień; dostęp synchronizowany na {@code wheel}. */
+    private final TimingWheel<UUID> wheel;
+    private final Map<UUID, TimingWheel.Timeout<UUID>> scheduled = new HashMap<>();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Wysyłka przygotowana w transakcji i realizowana po jej zakończeniu.
+     *
+     * @param channel Kanał dostarczenia.
+     * @param userId Identyfikator odbiorcy.
+     * @param email Adres email odbiorcy (dla kanału EMAIL).
+     * @param notification Treść przypomnienia.
+     */
+    private record Delivery(ReminderChannel channel, UUID userId, String email, ReminderNotificationDTO notification) {}
+
+    /**
+     * Konstruktor serwisu przypomnień.
+     * @param reminderRepo repozytorium przypomnień
+     * @param eventRepo repozytorium wydarzeń
+     * @param userRepo repozytorium użytkowników (adresy email odbiorców)
+     * @param emailService serwis wysyłki email
+     * @param pushChannel kanał powiadomień push
+     * @param tx szablon transakcji używany przy wysyłce i rehydratacji
+     * @param zone strefa czasowa, w której zapisane są daty wydarzeń
+     * @param horizonMillis horyzont planowania przypomnień w kole czasowym w milisekundach
+     * @param mailThreads liczba wątków wysyłających przypomnienia email
+     * @param mailQueueCapacity maksymalna liczba przypomnień email oczekujących na wysyłkę
+     */
+    public ReminderService(EventReminderRepo reminderRepo, EventRepo eventRepo, AppUserRepo userRepo,
+                           EmailService emailService, ReminderPushChannel pushChannel, TransactionTemplate tx,
+                           @Value("${app.calendar.zone:Europe/Warsaw}") String zone,
+                           @Value("${app.reminders.horizon-ms:7200000}") long horizonMillis,
+                           @Value("${app.reminders.mail-threads:2}") int mailThreads,
+                           @Value("${app.reminders.mail-queue:10000}") int mailQueueCapacity) {
+        this.reminderRepo = reminderRepo;
+        this.eventRepo = eventRepo;
+        this.userRepo = userRepo;
+        this.emailService = emailService;
+        this.pushChannel = pushChannel;
+        this.tx = tx;
+        this.zone = ZoneId.of(zone);
+        this.horizon = Duration.ofMillis(horizonMillis);
+        this.wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.mailExecutor = new ThreadPoolExecutor(mailThreads, mailThreads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(mailQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "reminder-mail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.mailExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Pobiera przypomnienia wydarzenia ustawione przez użytkownika.
+     * @param eventId identyfikator wydarzenia
+     * @param userId identyfikator właściciela wydarzenia
+     * @return lista przypomnień od największego wyprzedzenia
+     * @throws ResponseStatusException jeśli wydarzenie nie istnieje (404) lub należy do innego użytkownika (403)
+     */
+    @Transactional(readOnly = true)
+    public List<EventReminder> getReminders(UUID eventId, UUID userId) {
+        findOwnedEvent(eventId, userId);
+        return reminderRepo.findByEventIdAndUserIdOrderByOffsetMinutesDesc(eventId, userId);
+    }
+
+    /**
+     * Dodaje przypomnienie o wydarzeniu. Ponowne dodanie przypomnienia o tym samym wyprzedzeniu i kanale
+     * zwraca istniejące przypomnienie.
+     * @param eventId identyfikator wydarzenia
+     * @param userId identyfikator właściciela wydarzenia
+     * @param offsetMinutes wyprzedzenie względem rozpoczęcia wydarzenia w minutach
+     * @param channel kanał dostarczenia (null - EMAIL)
+     * @return zapisane przypomnienie
+     * @throws ResponseStatusException jeśli wyprzedzenie jest spoza zakresu 0 - 4 tygodnie lub wydarzenie
+     *         ma już maksymalną liczbę przypomnień (400), wydarzenie nie istnieje (404) albo należy do innego użytkownika (403)
+     */
+    @Transactional
+    public EventReminder addReminder(UUID eventId, UUID userId, Integer offsetMinutes, ReminderChannel channel) {
+        if (offsetMinutes == null || offsetMinutes < 0 || offsetMinutes > MAX_OFFSET_MINUTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Wyprzedzenie przypomnienia musi wynosić od 0 do " + MAX_OFFSET_MINUTES + " minut.");
+        }
+        ReminderChannel resolvedChannel = channel != null ? channel : ReminderChannel.EMAIL;
+        Event event = findOwnedEvent(eventId, userId);
+
+        List<EventReminder> existing = reminderRepo.findByEventIdAndUserIdOrderByOffsetMinutesDesc(eventId, userId);
+        for (EventReminder reminder : existing) {
+            if (reminder.getOffsetMinutes() == offsetMinutes && reminder.getChannel() == resolvedChannel) return reminder;
+        }
+        if (existing.size() >= MAX_REMINDERS_PER_EVENT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Wydarzenie może mieć najwyżej " + MAX_REMINDERS_PER_EVENT + " przypomnień.");
+        }
+
+        EventReminder reminder = new EventReminder();
+        reminder.setEventId(eventId);
+        reminder.setUserId(userId);
+        reminder.setOffsetMinutes(offsetMinutes);
+        reminder.setChannel(resolvedChannel);
+        reminder.setNextFireAt(nextFireAt(event, offsetMinutes, now(), null));
+        EventReminder saved = reminderRepo.save(reminder);
+        schedule(saved.getId(), saved.getNextFireAt(), Instant.now());
+        return saved;
+    }
+
+    /**
+     * Usuwa przypomnienie o wydarzeniu.
+     * @param eventId identyfikator wydarzenia
+     * @param reminderId identyfikator przypomnienia
+     * @param userId identyfikator właściciela przypomnienia
+     * @throws ResponseStatusException jeśli przypomnienie nie istnieje lub należy do innego wydarzenia albo użytkownika (404)
+     */
+    @Transactional
+    public void deleteReminder(UUID eventId, UUID reminderId, UUID userId) {
+        EventReminder reminder = reminderRepo.findById(reminderId)
+                .filter(r -> r.getEventId().equals(eventId) && r.getUserId().equals(userId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono przypomnienia."));
+        reminderRepo.delete(reminder);
+        unschedule(reminderId);
+    }
+
+    /**
+     * Przelicza terminy przypomnień po zmianie wydarzenia (przesunięcie, zmiana reguły, odwołanie wystąpienia).
+     * Przypomnienie już wysłane dla wystąpienia, którego termin się nie zmienił, nie jest wysyłane ponownie.
+     * @param event zmienione wydarzenie
+     */
+    @Transactional
+    public void onEventChanged(Event event) {
+        List<EventReminder> reminders = reminderRepo.findByEventId(event.getId());
+        if (reminders.isEmpty()) return;
+        LocalDateTime now = now();
+        for (EventReminder reminder : reminders) {
+            reminder.setNextFireAt(nextFireAt(event, reminder.getOffsetMinutes(), now, reminder.getLastFireAt()));
+        }
+        reminderRepo.saveAll(reminders);
+        Instant nowInstant = Instant.now();
+        for (EventReminder reminder : reminders) {
+            unschedule(reminder.getId());
+            schedule(reminder.getId(), reminder.getNextFireAt(), nowInstant);
+        }
+    }
+
+    /**
+     * Usuwa przypomnienia usuwanego wydarzenia i wycofuje je z koła czasowego.
+     * @param eventId identyfikator wydarzenia
+     */
+    @Transactional
+    public void onEventDeleted(UUID eventId) {
+        for (EventReminder reminder : reminderRepo.findByEventId(eventId)) {
+            unschedule(reminder.getId());
+        }
+        reminderRepo.deleteByEventId(eventId);
+    }
+
+    /**
+     * Przesuwa koło czasowe co takt i wysyła wymagalne przypomnienia.
+     */
+    @Scheduled(fixedRateString = "${app.reminders.tick-ms:1000}")
+    public void tick() {
+        dispatchDue(Instant.now());
+    }
+
+    /**
+     * Uzupełnia koło czasowe przypomnieniami z bazy danych wymagalnymi w horyzoncie planowania, przy starcie
+     * aplikacji i cyklicznie. Odstęp między rehydratacjami musi być krótszy niż horyzont.
+     */
+    @Scheduled(initialDelayString = "${app.reminders.rehydrate-initial-delay-ms:0}",
+            fixedDelayString = "${app.reminders.rehydrate-interval-ms:600000}")
+    public void rehydrate() {
+        try {
+            rehydrate(Instant.now());
+        } catch (RuntimeException e) {
+            System.err.println("Błąd wczytywania przypomnień: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Wysyła przypomnienia email oczekujące w kolejce przy zamykaniu aplikacji - ich terminy są już
+     * zapisane w bazie jako wysłane, więc porzucenie kolejki oznaczałoby utratę przypomnień.
+     */
+    @PreDestroy
+    public void shutdown() {
+        mailExecutor.shutdown();
+        try {
+            if (!mailExecutor.awaitTermination(30, TimeUnit.SECONDS)) mailExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            mailExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Zwraca statystyki planisty przypomnień.
+     * @return mapa z liczbą zaplanowanych, wysłanych, pominiętych i nieudanych przypomnień
+     */
+    public Map<String, Object> stats() {
+        int pending;
+        synchronized (wheel) {
+            pending = wheel.size();
+        }
+        return Map.of(
+                "scheduled", pending,
+                "sent", sent.sum(),
+                "missed", missed.sum(),
+                "failures", failures.sum(),
+                "mailQueue", mailExecutor.getQueue().size(),
+                "pushSubscribers", pushChannel.subscribers()
+        );
+    }
+
+    /**
+     * Wczytuje z bazy przypomnienia wymagalne przed końcem horyzontu i planuje te, których nie ma jeszcze w kole.
+     * @param now bieżący czas
+     * @return liczba nowo zaplanowanych przypomnień
+     */
+    public int rehydrate(Instant now) {
+        LocalDateTime until = LocalDateTime.ofInstant(now.plus(horizon), zone);
+        Integer added = tx.execute(status -> {
+            int count = 0;
+            try (Stream<ScheduledReminderDTO> due = reminderRepo.streamDueBefore(until)) {
+                Iterator<ScheduledReminderDTO> it = due.iterator();
+                while (it.hasNext()) {
+                    ScheduledReminderDTO reminder = it.next();
+                    if (schedule(reminder.id(), reminder.fireAt(), now)) count++;
+                }
+            }
+            return count;
+        });
+        return added != null ? added : 0;
+    }
+
+    /**
+     * Przesuwa koło czasowe do podanego czasu i wysyła wymagalne przypomnienia. Przypomnienia są wczytywane
+     * z bazy partiami, a wysyłka odbywa się po zatwierdzeniu transakcji aktualizującej ich terminy.
+     * Przypomnienia email są przekazywane do puli wysyłki i nie blokują taktu.
+     * @param now bieżący czas
+     * @return liczba wysłanych przypomnień (push) i przekazanych do wysyłki (email)
+     */
+    public int dispatchDue(Instant now) {
+        List<UUID> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(now.toEpochMilli(), due::add);
+            due.forEach(scheduled::remove);
+        }
+        int delivered = 0;
+        for (int from = 0; from < due.size(); from += DISPATCH_BATCH_SIZE) {
+            List<UUID> batch = due.subList(from, Math.min(from + DISPATCH_BATCH_SIZE, due.size()));
+            List<Delivery> deliveries = tx.execute(status -> prepareDeliveries(batch, now));
+            if (deliveries == null) continue;
+            for (Delivery delivery : deliveries) {
+                if (deliver(delivery)) delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Wyznacza termin najbliższego przypomnienia: wyprzedzenie przed pierwszym nieodwołanym wystąpieniem,
+     * które jeszcze się nie rozpoczęło i dla którego przypomnienie nie zostało wysłane.
+     * Termin może już minąć (wydarzenie rozpoczyna się szybciej niż wyprzedzenie) - przypomnienie zostanie wtedy
+     * wysłane przy najbliższym takcie koła.
+     * @param event wydarzenie lub seria
+     * @param offsetMinutes wyprzedzenie w minutach
+     * @param now bieżący czas
+     * @param lastFireAt termin ostatniego wysłanego przypomnienia (null - jeszcze nie wysłano)
+     * @return termin przypomnienia lub null, jeśli wydarzenie nie ma przyszłych wystąpień
+     */
+    public static LocalDateTime nextFireAt(Event event, int offsetMinutes, LocalDateTime now, LocalDateTime lastFireAt) {
+        Iterator<LocalDateTime> it = event.getRecurrenceRule() == null
+                ? List.of(event.getStart()).iterator()
+                : RecurrenceRule.parse(event.getRecurrenceRule()).occurrences(event.getStart(), now);
+        while (it.hasNext()) {
+            LocalDateTime start = it.next();
+            if (!start.isAfter(now) || event.getExceptions().contains(start)) continue;
+            LocalDateTime fireAt = start.minusMinutes(offsetMinutes);
+            if (lastFireAt != null && !fireAt.isAfter(lastFireAt)) continue;
+            return fireAt;
+        }
+        return null;
+    }
+
+    private List<Delivery> prepareDeliveries(List<UUID> reminderIds, Instant nowInstant) {
+        LocalDateTime now = LocalDateTime.ofInstant(nowInstant, zone);
+        List<EventReminder> reminders = reminderRepo.findAllById(reminderIds);
+        if (reminders.isEmpty()) return List.of();
+        Map<UUID, Event> eventsById = eventRepo.findAllById(reminders.stream().map(EventReminder::getEventId).distinct().toList())
+                .stream().collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<UUID> emailRecipients = reminders.stream()
+                .filter(r -> r.getChannel() == ReminderChannel.EMAIL)
+                .map(EventReminder::getUserId).distinct().toList();
+        Map<UUID, String> emails = emailRecipients.isEmpty() ? Map.of()
+                : userRepo.findAllById(emailRecipients).stream().collect(Collectors.toMap(AppUser::getId, AppUser::getEmail));
+
+        List<Delivery> deliveries = new ArrayList<>();
+        List<EventReminder> changed = new ArrayList<>();
+        for (EventReminder reminder : reminders) {
+            Event event = eventsById.get(reminder.getEventId());
+            LocalDateTime fireAt = reminder.getNextFireAt();
+            if (event == null || fireAt == null) continue;
+            // Termin przesunięty na później (np. równoległa zmiana wydarzenia) - planujemy ponownie
+            if (fireAt.isAfter(now)) {
+                schedule(reminder.getId(), fireAt, nowInstant);
+                continue;
+            }
+            LocalDateTime occurrenceStart = fireAt.plusMinutes(reminder.getOffsetMinutes());
+            // Zaległe przypomnienie o wystąpieniu, które dawno się rozpoczęło (np. po przerwie w działaniu), jest pomijane
+            if (occurrenceStart.plus(MAX_LATENESS).isBefore(now)) {
+                missed.increment();
+            } else {
+                deliveries.add(new Delivery(reminder.getChannel(), reminder.getUserId(), emails.get(reminder.getUserId()),
+                        new ReminderNotificationDTO(reminder.getId(), event.getId(), event.getTitle(),
+                                occurrenceStart, reminder.getOffsetMinutes())));
+            }
+            reminder.setLastFireAt(fireAt);
+            reminder.setNextFireAt(nextFireAt(event, reminder.getOffsetMinutes(), now, fireAt));
+            changed.add(reminder);
+            schedule(reminder.getId(), reminder.getNextFireAt(), nowInstant);
+        }
+        reminderRepo.saveAll(changed);
+        return deliveries;
+    }
+
+    private boolean deliver(Delivery delivery) {
+        ReminderNotificationDTO n = delivery.notification();
+        if (delivery.channel() == ReminderChannel.EMAIL) {
+            if (delivery.email() == null) {
+                missed.increment();
+                return false;
+            }
+            try {
+                mailExecutor.execute(() -> sendEmail(delivery));
+                return true;
+            } catch (RejectedExecutionException e) {
+                failures.increment();
+                System.err.println("Kolejka wysyłki przypomnień jest pełna - pominięto przypomnienie " + n.reminderId());
+                return false;
+            }
+        }
+        try {
+            boolean delivered = pushChannel.send(delivery.userId(), n);
+            if (delivered) {
+                sent.increment();
+            } else {
+                missed.increment();
+            }
+            return delivered;
+        } catch (RuntimeException e) {
+            failures.increment();
+            System.err.println("Błąd wysyłania przypomnienia " + n.reminderId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void sendEmail(Delivery delivery) {
+        ReminderNotificationDTO n = delivery.notification();
+        try {
+            emailService.sendEventReminder(delivery.email(), n.title(), n.start(), n.offsetMinutes());
+            sent.increment();
+        } catch (RuntimeException e) {
+            failures.increment();
+            System.err.println("Błąd wysyłania przypomnienia " + n.reminderId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Planuje przypomnienie w kole czasowym, jeśli jego termin mieści się w horyzoncie i nie jest już zaplanowane.
+     * @param reminderId identyfikator przypomnienia
+     * @param fireAt termin wysłania (null - brak przyszłych wystąpień)
+     * @param now bieżący czas
+     * @return true, jeśli przypomnienie zostało zaplanowane
+     */
+    private boolean schedule(UUID reminderId, LocalDateTime fireAt, Instant now) {
+        if (fireAt == null) return false;
+        Instant deadline = fireAt.atZone(zone).toInstant();
+        if (!deadline.isBefore(now.plus(horizon))) return false;
+        synchronized (wheel) {
+            if (scheduled.containsKey(reminderId)) return false;
+            scheduled.put(reminderId, wheel.schedule(deadline.toEpochMilli(), reminderId));
+            return true;
+        }
+    }
+
+    private void unschedule(UUID reminderId) {
+        synchronized (wheel) {
+            wheel.cancel(scheduled.remove(reminderId));
+        }
+    }
+
+    private Event findOwnedEvent(UUID eventId, UUID userId) {
+        Event event = eventRepo.findById(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono wydarzenia."));
+        if (!event.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Brak dostępu do wydarzenia.");
+        }
+        return event;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(zone);
+    }
+}
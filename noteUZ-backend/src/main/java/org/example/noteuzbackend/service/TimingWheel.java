@@ -0,0 +1,201 @@
+package org.example.noteuzbackend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchiczne koło czasowe (hierarchical timing wheel) do przechowywania dużej liczby zaplanowanych zadań.
+ * Poziom 0 ma {@code wheelSize} kubełków po jednym takcie, a każdy kolejny poziom obejmuje {@code wheelSize} razy
+ * dłuższy okres. Zadanie trafia do kubełka najniższego poziomu, który obejmuje jego termin, i jest przenoszone
+ * na niższy poziom, gdy koło dojdzie do jego kubełka. Kubełki są listami dwukierunkowymi, więc dodanie
+ * i anulowanie zadania działa w czasie O(1), niezależnie od liczby zaplanowanych zadań.
+ * Klasa nie jest bezpieczna wątkowo - dostęp musi synchronizować wywołujący.
+ *
+ * @param <T> typ zadania
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Bucket<T>[][] levels;
+    /** Okres (w taktach) jednego kubełka na każdym poziomie. */
+    private final long[] spans;
+    /** Ostatni przetworzony takt. */
+    private long currentTick;
+    private int size;
+
+    /**
+     * Zaplanowane zadanie; uchwyt pozwala je anulować.
+     *
+     * @param <T> typ zadania
+     */
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Zwraca zaplanowane zadanie.
+         * @return zadanie
+         */
+        public T task() {
+            return task;
+        }
+
+        /**
+         * Sprawdza, czy zadanie nadal czeka na wykonanie.
+         * @return true, jeśli zadanie nie zostało jeszcze wykonane ani anulowane
+         */
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    /** Kubełek - lista dwukierunkowa z wartownikiem. */
+    private static final class Bucket<T> {
+        private final Timeout<T> head = new Timeout<>(null, 0);
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void add(Timeout<T> t) {
+            t.bucket = this;
+            t.prev = head.prev;
+            t.next = head;
+            head.prev.next = t;
+            head.prev = t;
+        }
+
+        static <T> void unlink(Timeout<T> t) {
+            t.prev.next = t.next;
+            t.next.prev = t.prev;
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+
+        /** Odłącza wszystkie zadania kubełka i zwraca pierwsze z nich (lista zakończona null). */
+        Timeout<T> drain() {
+            if (head.next == head) return null;
+            Timeout<T> first = head.next;
+            head.prev.next = null;
+            head.prev = head;
+            head.next = head;
+            return first;
+        }
+    }
+
+    /**
+     * Tworzy koło czasowe.
+     * @param tickMs długość taktu w milisekundach
+     * @param wheelSize liczba kubełków na każdym poziomie
+     * @param levelCount liczba poziomów (zasięg koła to wheelSize^levelCount taktów)
+     * @param startMs czas początkowy w milisekundach
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, int levelCount, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levels = new Bucket[levelCount][wheelSize];
+        this.spans = new long[levelCount];
+        long span = 1;
+        for (int l = 0; l < levelCount; l++) {
+            spans[l] = span;
+            for (int b = 0; b < wheelSize; b++) levels[l][b] = new Bucket<>();
+            span *= wheelSize;
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Planuje zadanie na podany czas. Termin jest zaokrąglany w górę do pełnego taktu, więc zadanie nigdy nie jest
+     * wymagalne przed terminem; zadanie z terminem w przeszłości zostanie wykonane przy najbliższym takcie.
+     * @param deadlineMs termin wykonania w milisekundach
+     * @param task zadanie
+     * @return uchwyt zadania (do anulowania)
+     */
+    public Timeout<T> schedule(long deadlineMs, T task) {
+        Timeout<T> timeout = new Timeout<>(task, Math.max(Math.ceilDiv(deadlineMs, tickMs), currentTick + 1));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Anuluje zaplanowane zadanie.
+     * @param timeout uchwyt zadania
+     * @return true, jeśli zadanie czekało na wykonanie i zostało anulowane
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket == null) return false;
+        Bucket.unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Przesuwa koło do podanego czasu i przekazuje zadania, których termin minął.
+     * @param nowMs bieżący czas w milisekundach
+     * @param expired akcja wywoływana dla każdego wymagalnego zadania (nie może planować ani anulować zadań)
+     * @return liczba wymagalnych zadań
+     */
+    public int advance(long nowMs, Consumer<T> expired) {
+        long target = nowMs / tickMs;
+        int count = 0;
+        while (currentTick < target) {
+            currentTick++;
+            // Najpierw przenosimy zadania z wyższych poziomów, bo mogą trafić do kubełków niższych poziomów tego taktu
+            for (int l = levels.length - 1; l >= 1; l--) {
+                if (currentTick % spans[l] == 0) cascade(l);
+            }
+            Timeout<T> t = levels[0][(int) (currentTick % wheelSize)].drain();
+            while (t != null) {
+                Timeout<T> next = t.next;
+                t.prev = null;
+                t.next = null;
+                t.bucket = null;
+                size--;
+                expired.accept(t.task);
+                count++;
+                t = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Zwraca liczbę zaplanowanych zadań.
+     * @return liczba zadań
+     */
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        Timeout<T> t = levels[level][(int) ((currentTick / spans[level]) % wheelSize)].drain();
+        while (t != null) {
+            Timeout<T> next = t.next;
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+            place(t);
+            t = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delta >= spans[level + 1]) level++;
+        // Termin poza zasięgiem koła trafia na najwyższy poziom i jest ponownie rozmieszczany przy każdym obrocie
+        levels[level][(int) ((timeout.deadlineTick / spans[level]) % wheelSize)].add(timeout);
+    }
+}
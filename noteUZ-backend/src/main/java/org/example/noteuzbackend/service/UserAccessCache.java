@@ -0,0 +1,144 @@
+package org.example.noteuzbackend.service;
+
+import org.example.noteuzbackend.event.UserAccessChangedEvent;
+import org.example.noteuzbackend.model.entity.UserSecurity;
+import org.example.noteuzbackend.model.enums.Role;
+import org.example.noteuzbackend.repository.UserSecurityRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pamięć podręczna uprawnień użytkowników (rola, blokada, liczba ostrzeżeń) z krótkim czasem życia wpisów.
+ * Sprawdzenia uprawnień w panelu administracyjnym, endpoint /me i filtr blokad korzystają z jednego
+ * odczytu tabeli user_security na użytkownika w oknie TTL. Wpisy są dodatkowo unieważniane zdarzeniem
+ * {@link UserAccessChangedEvent} po zatwierdzeniu transakcji zmieniającej rolę, blokadę lub ostrzeżenia.
+ * TTL ogranicza nieaktualność danych zmienionych poza aplikacją (np. bezpośrednio w bazie danych).
+ */
+@Component
+public class UserAccessCache {
+
+    /**
+     * Migawka uprawnień użytkownika.
+     *
+     * @param role Rola użytkownika w systemie.
+     * @param banned Flaga określająca, czy użytkownik jest zablokowany.
+     * @param warnings Liczba ostrzeżeń użytkownika.
+     */
+    public record UserAccess(Role role, boolean banned, int warnings) {
+
+        /** Uprawnienia użytkownika bez wpisu w tabeli user_security. */
+        public static final UserAccess DEFAULT = new UserAccess(Role.USER, false, 0);
+
+        /**
+         * @return true, jeśli użytkownik jest administratorem
+         */
+        public boolean isAdmin() {
+            return role == Role.ADMIN;
+        }
+
+        /**
+         * @return true, jeśli użytkownik jest moderatorem lub administratorem
+         */
+        public boolean isAtLeastModerator() {
+            return role == Role.ADMIN || role == Role.MODERATOR;
+        }
+    }
+
+    private record Entry(UserAccess access, long expiresAt) {}
+
+    private final UserSecurityRepo securityRepo;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Konstruktor pamięci podręcznej uprawnień.
+     * @param securityRepo repozytorium bezpieczeństwa użytkowników
+     * @param ttlMillis czas życia wpisu w milisekundach
+     */
+    public UserAccessCache(UserSecurityRepo securityRepo,
+                           @Value("${app.security.access-cache-ttl-ms:30000}") long ttlMillis) {
+        this.securityRepo = securityRepo;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Zwraca uprawnienia użytkownika.
+     * @param userId identyfikator użytkownika
+     * @return migawka uprawnień (domyślne uprawnienia, jeśli użytkownik nie ma wpisu w bazie)
+     */
+    public UserAccess get(UUID userId) {
+        if (userId == null) return UserAccess.DEFAULT;
+
+        long now = System.nanoTime();
+        Entry cached = entries.get(userId);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            hits.increment();
+            return cached.access();
+        }
+        misses.increment();
+
+        // Jeśli w trakcie ładowania nastąpiło unieważnienie, wynik może być nieaktualny - nie zapamiętujemy go
+        long version = invalidations.get();
+        UserAccess loaded = securityRepo.findById(userId)
+                .map(UserAccessCache::toAccess)
+                .orElse(UserAccess.DEFAULT);
+        if (invalidations.get() == version) {
+            Entry entry = new Entry(loaded, now + ttlNanos);
+            entries.put(userId, entry);
+            if (invalidations.get() != version) entries.remove(userId, entry);
+        }
+        return loaded;
+    }
+
+    /**
+     * Unieważnia uprawnienia użytkownika po zatwierdzeniu transakcji, w której je zmieniono
+     * (lub od razu, jeśli zdarzenie opublikowano poza transakcją).
+     * @param event zdarzenie zmiany uprawnień
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessChanged(UserAccessChangedEvent event) {
+        invalidations.incrementAndGet();
+        entries.remove(event.userId());
+    }
+
+    /**
+     * Usuwa wygasłe wpisy, aby rozmiar pamięci podręcznej odpowiadał liczbie aktywnych użytkowników.
+     */
+    @Scheduled(fixedDelayString = "${app.security.access-cache-ttl-ms:30000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+    }
+
+    /**
+     * Zwraca statystyki trafień pamięci podręcznej.
+     * @return mapa z liczbą trafień, chybień, współczynnikiem trafień i liczbą zapamiętanych użytkowników
+     */
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return Map.of(
+                "hits", h,
+                "misses", m,
+                "hitRate", h + m == 0 ? 0.0 : (double) h / (h + m),
+                "cachedUsers", entries.size()
+        );
+    }
+
+    private static UserAccess toAccess(UserSecurity security) {
+        return new UserAccess(security.getRole() != null ? security.getRole() : Role.USER,
+                security.isBanned(), security.getWarnings());
+    }
+}
@@ -0,0 +1,13 @@
+-- Miniatury awatarów w stałych rozmiarach (AvatarVariant, AvatarThumbnailer).
+-- Miniatura jest aktualna, gdy source_hash = user_avatars.content_hash; nieaktualne są pomijane i podmieniane w tle.
+CREATE TABLE IF NOT EXISTS public.avatar_variants (
+    id           UUID        PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id      UUID        NOT NULL REFERENCES public.user_avatars (user_id) ON DELETE CASCADE,
+    dimension    INTEGER     NOT NULL,
+    content_type TEXT        NOT NULL,
+    source_hash  TEXT        NOT NULL,
+    size_bytes   BIGINT      NOT NULL,
+    data         BYTEA       NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    UNIQUE (user_id, dimension)
+);
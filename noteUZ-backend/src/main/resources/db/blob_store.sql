@@ -0,0 +1,17 @@
+-- Przeniesienie danych obrazów z kolumn bytea do magazynu danych binarnych (BlobStore, FileBlobStore).
+-- blob_key to skrót SHA-256 treści (hex) - klucz obiektu w magazynie; identyczne obrazy są przechowywane raz.
+-- Kolumna data pozostaje tylko dla wierszy sprzed przeniesienia (BlobMigrationService, POST /api/admin/blobs/migrate).
+ALTER TABLE public.user_avatars ADD COLUMN IF NOT EXISTS blob_key TEXT;
+ALTER TABLE public.user_avatars ALTER COLUMN data DROP NOT NULL;
+ALTER TABLE public.avatar_variants ADD COLUMN IF NOT EXISTS blob_key TEXT;
+ALTER TABLE public.avatar_variants ALTER COLUMN data DROP NOT NULL;
+
+-- Wyszukiwanie wskazań obiektów przez BlobGarbageCollector
+CREATE INDEX IF NOT EXISTS user_avatars_blob_key_idx ON public.user_avatars (blob_key);
+CREATE INDEX IF NOT EXISTS avatar_variants_blob_key_idx ON public.avatar_variants (blob_key);
+
+-- Wiersze do przeniesienia
+CREATE INDEX IF NOT EXISTS user_avatars_unmigrated_idx ON public.user_avatars (user_id) WHERE blob_key IS NULL;
+CREATE INDEX IF NOT EXISTS avatar_variants_unmigrated_idx ON public.avatar_variants (id) WHERE blob_key IS NULL;
+
+-- Po przeniesieniu wszystkich wierszy miejsce po danych odzyskuje: VACUUM FULL public.user_avatars, public.avatar_variants;
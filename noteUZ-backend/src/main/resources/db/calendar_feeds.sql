@@ -0,0 +1,20 @@
+-- Kanały iCalendar (CalendarFeed, CalendarFeedService).
+-- changed_at jest aktualizowane po każdej zmianie kalendarza właściciela lub członków grupy i służy jako ETag / Last-Modified.
+CREATE TABLE IF NOT EXISTS public.calendar_feeds (
+    id         UUID        PRIMARY KEY DEFAULT gen_random_uuid(),
+    token      TEXT        NOT NULL UNIQUE,
+    user_id    UUID        NOT NULL,
+    group_id   UUID        REFERENCES public.groups (id) ON DELETE CASCADE,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS calendar_feeds_user_idx ON public.calendar_feeds (user_id);
+CREATE INDEX IF NOT EXISTS calendar_feeds_group_idx ON public.calendar_feeds (group_id) WHERE group_id IS NOT NULL;
+
+-- Zapytanie kanału czyta wydarzenia użytkownika zakresem po (user_id, end_time) - indeks z events_range.sql.
+-- Benchmark (psql): EXPLAIN (ANALYZE, BUFFERS)
+--   SELECT e.*, x.occurrence_start FROM public.events e
+--   LEFT JOIN public.event_exceptions x ON x.event_id = e.id
+--   WHERE e.user_id = '<uuid>' AND (e.end_time > now() - interval '180 days' OR e.recurrence_rule IS NOT NULL)
+--   ORDER BY e.start_time, e.id;
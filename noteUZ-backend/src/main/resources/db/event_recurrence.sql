@@ -0,0 +1,15 @@
+-- Wydarzenia powtarzające się (Event.recurrenceRule, EventService.getUserEvents).
+-- Seria jest jednym wierszem; wystąpienia są rozwijane w aplikacji tylko w obrębie żądanego okna.
+ALTER TABLE public.events ADD COLUMN IF NOT EXISTS recurrence_rule TEXT;
+ALTER TABLE public.events ADD COLUMN IF NOT EXISTS recurrence_end TIMESTAMP;
+
+-- Odwołane wystąpienia serii (odpowiednik EXDATE)
+CREATE TABLE IF NOT EXISTS public.event_exceptions (
+    event_id         UUID      NOT NULL REFERENCES public.events (id) ON DELETE CASCADE,
+    occurrence_start TIMESTAMP NOT NULL,
+    PRIMARY KEY (event_id, occurrence_start)
+);
+
+-- Serie użytkownika są wybierane niezależnie od end_time pierwszego wystąpienia
+CREATE INDEX IF NOT EXISTS events_user_recurring_idx ON public.events (user_id, start_time)
+    WHERE recurrence_rule IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Przypomnienia o wydarzeniach (EventReminder, ReminderService).
+-- next_fire_at to termin najbliższego wysłania; przypomnienia z najbliższego horyzontu są ładowane do koła czasowego.
+CREATE TABLE IF NOT EXISTS public.event_reminders (
+    id             UUID        PRIMARY KEY DEFAULT gen_random_uuid(),
+    event_id       UUID        NOT NULL REFERENCES public.events (id) ON DELETE CASCADE,
+    user_id        UUID        NOT NULL,
+    offset_minutes INTEGER     NOT NULL CHECK (offset_minutes BETWEEN 0 AND 40320),
+    channel        VARCHAR(16) NOT NULL DEFAULT 'EMAIL',
+    next_fire_at   TIMESTAMP,
+    last_fire_at   TIMESTAMP,
+    created_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS event_reminders_event_idx ON public.event_reminders (event_id, user_id);
+
+-- Rehydratacja wybiera tylko przypomnienia z przyszłymi terminami w horyzoncie (zakres po indeksie częściowym)
+CREATE INDEX IF NOT EXISTS event_reminders_next_fire_idx ON public.event_reminders (next_fire_at)
+    WHERE next_fire_at IS NOT NULL;
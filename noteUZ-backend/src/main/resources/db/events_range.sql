@@ -0,0 +1,23 @@
+-- Zapytania kalendarza o przedział czasu (EventRepo.findInRange, EventService.getUserEvents).
+-- Warunek nakładania się: start_time < :to AND end_time > :from.
+CREATE INDEX IF NOT EXISTS events_user_start_idx ON public.events (user_id, start_time);
+-- Dla widoku bieżącego tygodnia u użytkownika z długą historią selektywny jest warunek na end_time
+CREATE INDEX IF NOT EXISTS events_user_end_idx ON public.events (user_id, end_time);
+
+-- Notatki wydarzeń są doczytywane jednym zapytaniem WHERE event_id IN (...)
+CREATE INDEX IF NOT EXISTS event_notes_event_idx ON public.event_notes (event_id);
+
+-- Pomiar dla 20 000 wydarzeń jednego użytkownika (co 4 godziny wstecz od teraz):
+--
+-- INSERT INTO public.events (id, title, start_time, end_time, user_id)
+-- SELECT gen_random_uuid(), 'Wydarzenie ' || i,
+--        now() - make_interval(hours => i * 4), now() - make_interval(hours => i * 4 - 1),
+--        '00000000-0000-0000-0000-000000000001'
+-- FROM generate_series(1, 20000) AS i;
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM public.events
+-- WHERE user_id = '00000000-0000-0000-0000-000000000001'
+--   AND start_time < date_trunc('week', now()) + interval '7 days'
+--   AND end_time > date_trunc('week', now())
+-- ORDER BY start_time;
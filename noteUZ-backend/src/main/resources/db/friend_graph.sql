@@ -0,0 +1,18 @@
+-- Graf znajomych po identyfikatorach użytkowników (FriendGraph, FriendService).
+ALTER TABLE public.friendships ADD COLUMN IF NOT EXISTS addressee_id UUID;
+
+-- Uzupełnienie identyfikatora adresata dla istniejących relacji
+UPDATE public.friendships f
+SET addressee_id = u.id
+FROM public.users_view u
+WHERE f.addressee_id IS NULL AND lower(u.email) = lower(f.addressee_email);
+
+-- Obie strony krawędzi są indeksowane, więc zapytania w dowolnym kierunku korzystają z indeksu
+CREATE INDEX IF NOT EXISTS friendships_requester_idx ON public.friendships (requester_id, status);
+CREATE INDEX IF NOT EXISTS friendships_addressee_idx ON public.friendships (addressee_id, status);
+CREATE INDEX IF NOT EXISTS friendships_addressee_email_idx ON public.friendships (addressee_email) WHERE addressee_id IS NULL;
+
+-- Co najwyżej jedna relacja dla pary użytkowników, niezależnie od kierunku zaproszenia
+CREATE UNIQUE INDEX IF NOT EXISTS friendships_pair_uq ON public.friendships
+    (LEAST(requester_id, addressee_id), GREATEST(requester_id, addressee_id))
+    WHERE addressee_id IS NOT NULL;
@@ -0,0 +1,53 @@
+-- Dziennik audytu akcji moderacyjnych (tylko do dopisywania), partycjonowany miesięcznie po created_at.
+-- Partycje dla bieżącego i następnego miesiąca tworzy aplikacja (ModerationAuditLog.ensurePartitions
+-- wywołuje funkcję moderation_audit_log_ensure_partition),
+-- starsze partycje można odłączać lub archiwizować bez blokowania bieżących zapisów.
+CREATE TABLE IF NOT EXISTS public.moderation_audit_log (
+    id         UUID        NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    actor_id   UUID,
+    action     VARCHAR(32) NOT NULL,
+    target_id  UUID,
+    details    TEXT,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS moderation_audit_log_created_at_idx ON public.moderation_audit_log (created_at DESC);
+CREATE INDEX IF NOT EXISTS moderation_audit_log_actor_idx ON public.moderation_audit_log (actor_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS moderation_audit_log_target_idx ON public.moderation_audit_log (target_id, created_at DESC);
+
+-- Wiersze spoza utworzonych partycji (np. przy opóźnionym zadaniu tworzenia partycji) nie blokują zapisu
+CREATE TABLE IF NOT EXISTS public.moderation_audit_log_default PARTITION OF public.moderation_audit_log DEFAULT;
+
+-- Tworzy partycję miesiąca zaczynającego się w month_start (UTC). Wiersze tego miesiąca, które trafiły już
+-- do partycji domyślnej, są przenoszone do nowej tabeli przed jej dołączeniem - inaczej ATTACH/PARTITION OF
+-- kończy się błędem. Blokada tabeli nadrzędnej wstrzymuje na ten czas zapisy i równoległe wywołania.
+CREATE OR REPLACE FUNCTION public.moderation_audit_log_ensure_partition(month_start DATE) RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+    part_name  TEXT        := 'moderation_audit_log_' || to_char(month_start, 'YYYY_MM');
+    range_from TIMESTAMPTZ := month_start::timestamp AT TIME ZONE 'UTC';
+    range_to   TIMESTAMPTZ := (month_start + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass('public.' || part_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+    LOCK TABLE public.moderation_audit_log IN SHARE ROW EXCLUSIVE MODE;
+    IF to_regclass('public.' || part_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    EXECUTE format('CREATE TABLE public.%I (LIKE public.moderation_audit_log INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   part_name);
+    EXECUTE format('WITH moved AS (DELETE FROM public.moderation_audit_log_default '
+                   'WHERE created_at >= $1 AND created_at < $2 RETURNING *) '
+                   'INSERT INTO public.%I SELECT * FROM moved', part_name)
+        USING range_from, range_to;
+    EXECUTE format('ALTER TABLE public.moderation_audit_log ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   part_name, range_from, range_to);
+END;
+$$;
+
+-- Dziennik jest tylko do dopisywania na poziomie aplikacji (nie wykonuje ona UPDATE ani DELETE na tej tabeli).
+-- Aplikacja łączy się jako właściciel tabeli, więc uprawnienia tego nie wymuszają - do ochrony przed
+-- modyfikacją potrzebna jest osobna rola bez praw UPDATE/DELETE.
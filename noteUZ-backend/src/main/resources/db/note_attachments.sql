@@ -0,0 +1,33 @@
+-- Załączniki notatek (NoteAttachment, NoteAttachmentService).
+-- Dane plików są w magazynie danych binarnych (BlobStore) pod kluczem blob_key (SHA-256 treści), więc ten sam plik
+-- dołączony do wielu notatek jest przechowywany raz. Liczba wierszy wskazujących blob_key jest licznikiem referencji:
+-- obiekt bez wskazań usuwa BlobGarbageCollector.
+CREATE TABLE IF NOT EXISTS public.note_attachments (
+    id           UUID        PRIMARY KEY DEFAULT gen_random_uuid(),
+    note_id      UUID        NOT NULL REFERENCES public.notes (id) ON DELETE CASCADE,
+    uploaded_by  UUID,
+    file_name    TEXT        NOT NULL,
+    content_type TEXT        NOT NULL,
+    size_bytes   BIGINT      NOT NULL,
+    blob_key     TEXT        NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS note_attachments_note_id_idx ON public.note_attachments (note_id, created_at);
+CREATE INDEX IF NOT EXISTS note_attachments_blob_key_idx ON public.note_attachments (blob_key);
+
+-- Trwające przesyłania w częściach. Liczba odebranych bajtów to rozmiar pliku roboczego w magazynie,
+-- więc zapis fragmentu nie wymaga zapisu w bazie danych. Porzucone przesyłania (także do usuniętych notatek - bez
+-- klucza obcego, aby wiersz nie zniknął przed usunięciem pliku roboczego) usuwa NoteAttachmentService.
+CREATE TABLE IF NOT EXISTS public.note_attachment_uploads (
+    id           UUID        PRIMARY KEY,
+    note_id      UUID        NOT NULL,
+    user_id      UUID        NOT NULL,
+    file_name    TEXT        NOT NULL,
+    content_type TEXT        NOT NULL,
+    size_bytes   BIGINT      NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS note_attachment_uploads_user_id_idx ON public.note_attachment_uploads (user_id);
+CREATE INDEX IF NOT EXISTS note_attachment_uploads_created_at_idx ON public.note_attachment_uploads (created_at);
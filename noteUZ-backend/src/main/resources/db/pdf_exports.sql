@@ -0,0 +1,36 @@
+-- Eksport notatek do PDF (PdfExportService, ExportJobService).
+-- Wyrenderowane dokumenty PDF notatek. Wpis jest aktualny, dopóki note_updated_at jest równe dacie modyfikacji
+-- notatki - nowa wersja notatki nadpisuje wpis, a dokument poprzedniej wersji usuwa BlobGarbageCollector.
+CREATE TABLE IF NOT EXISTS public.note_pdf_cache (
+    note_id         UUID        PRIMARY KEY REFERENCES public.notes (id) ON DELETE CASCADE,
+    note_updated_at TIMESTAMP   NOT NULL,
+    blob_key        TEXT        NOT NULL,
+    size_bytes      BIGINT      NOT NULL,
+    pages           INTEGER     NOT NULL,
+    rendered_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS note_pdf_cache_blob_key_idx ON public.note_pdf_cache (blob_key);
+
+-- Zadania eksportu notatek grupy wykonywane w tle. Gotowy plik (blob_key) jest dostępny do wygaśnięcia zadania;
+-- bez klucza obcego do grupy, aby gotowy eksport przetrwał usunięcie grupy do czasu wygaśnięcia.
+CREATE TABLE IF NOT EXISTS public.export_jobs (
+    id          UUID        PRIMARY KEY,
+    user_id     UUID        NOT NULL,
+    group_id    UUID        NOT NULL,
+    format      TEXT        NOT NULL,
+    status      TEXT        NOT NULL DEFAULT 'PENDING',
+    total_notes INTEGER     NOT NULL DEFAULT 0,
+    done_notes  INTEGER     NOT NULL DEFAULT 0,
+    pages       BIGINT      NOT NULL DEFAULT 0,
+    blob_key    TEXT,
+    size_bytes  BIGINT,
+    error       TEXT,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at  TIMESTAMPTZ,
+    finished_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS export_jobs_status_idx ON public.export_jobs (status, created_at);
+CREATE INDEX IF NOT EXISTS export_jobs_user_id_idx ON public.export_jobs (user_id);
+CREATE INDEX IF NOT EXISTS export_jobs_blob_key_idx ON public.export_jobs (blob_key);
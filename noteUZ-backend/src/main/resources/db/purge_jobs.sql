@@ -0,0 +1,27 @@
+-- Zadania kaskadowego usuwania danych (PurgeJobService). Postęp zapisywany jest po każdej partii,
+-- więc przerwane zadanie (status RUNNING po restarcie) jest wznawiane od zapisanego kroku.
+CREATE TABLE IF NOT EXISTS public.purge_jobs (
+    id           UUID PRIMARY KEY,
+    target_type  VARCHAR(16) NOT NULL,
+    target_id    UUID        NOT NULL,
+    requested_by UUID,
+    status       VARCHAR(16) NOT NULL,
+    step_index   INT         NOT NULL DEFAULT 0,
+    step_name    VARCHAR(64),
+    total_steps  INT         NOT NULL,
+    deleted_rows BIGINT      NOT NULL DEFAULT 0,
+    error        TEXT,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at   TIMESTAMPTZ,
+    finished_at  TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS purge_jobs_status_idx ON public.purge_jobs (status, created_at);
+CREATE INDEX IF NOT EXISTS purge_jobs_target_idx ON public.purge_jobs (target_type, target_id);
+
+-- Indeksy pozwalające wybierać kolejne partie bez pełnego skanu tabel zależnych
+CREATE INDEX IF NOT EXISTS notes_group_id_idx ON public.notes (group_id);
+CREATE INDEX IF NOT EXISTS notes_user_id_idx ON public.notes (user_id);
+CREATE INDEX IF NOT EXISTS note_votes_note_id_idx ON public.note_votes (note_id);
+CREATE INDEX IF NOT EXISTS note_shares_note_id_idx ON public.note_shares (note_id);
+CREATE INDEX IF NOT EXISTS event_notes_note_id_idx ON public.event_notes (note_id);
@@ -0,0 +1,12 @@
+-- Metadane awatarów (UserAvatar, AvatarService).
+-- content_hash (SHA-256, hex) jest ETagiem i wersją w adresie awatara; size_bytes to Content-Length.
+-- Odpowiedź 304 i nagłówki są wyznaczane z tych kolumn, bez odczytu kolumny data.
+ALTER TABLE public.user_avatars ADD COLUMN IF NOT EXISTS content_hash TEXT;
+ALTER TABLE public.user_avatars ADD COLUMN IF NOT EXISTS size_bytes   BIGINT;
+ALTER TABLE public.user_avatars ADD COLUMN IF NOT EXISTS updated_at   TIMESTAMPTZ NOT NULL DEFAULT now();
+
+-- Uzupełnienie istniejących awatarów (sha256() od PostgreSQL 11)
+UPDATE public.user_avatars
+SET content_hash = encode(sha256(data), 'hex'),
+    size_bytes   = octet_length(data)
+WHERE content_hash IS NULL;
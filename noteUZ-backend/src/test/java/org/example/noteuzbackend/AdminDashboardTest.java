@@ -1,21 +1,45 @@
 package org.example.noteuzbackend;
 
+import org.example.noteuzbackend.dto.AdminGroupDTO;
+import org.example.noteuzbackend.dto.BulkModerationDTO;
+import org.example.noteuzbackend.dto.PurgeJobDTO;
+import org.example.noteuzbackend.dto.UserCountDTO;
 import org.example.noteuzbackend.model.entity.UserSecurity;
+import org.example.noteuzbackend.model.enums.AuditAction;
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
 import org.example.noteuzbackend.model.enums.Role;
 import org.example.noteuzbackend.repository.*;
+import org.example.noteuzbackend.event.ModerationActionEvent;
+import org.example.noteuzbackend.event.UserAccessChangedEvent;
 import org.example.noteuzbackend.service.AdminService;
+import org.example.noteuzbackend.service.PurgeJobService;
+import org.example.noteuzbackend.service.UserAccessCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,10 +54,22 @@ public class AdminDashboardTest {
     @Mock private GroupRepo groupRepo;
     @Mock private GroupMemberRepo groupMemberRepo;
     @Mock private AppUserRepo appUserRepo;
+    @Mock private ModerationAuditRepo auditRepo;
+    @Mock private PurgeJobService purgeJobs;
+    @Mock private ApplicationEventPublisher events;
 
-    @InjectMocks
+    private UserAccessCache accessCache;
     private AdminService adminService;
 
+    /**
+     * Tworzy serwis z prawdziwą pamięcią podręczną uprawnień opartą na zamockowanym repozytorium.
+     */
+    @BeforeEach
+    void setUp() {
+        accessCache = new UserAccessCache(securityRepo, 30_000);
+        adminService = new AdminService(securityRepo, noteRepo, groupRepo, groupMemberRepo, appUserRepo, auditRepo, purgeJobs, events, accessCache);
+    }
+
     /**
      * Testuje czy moderator może zablokować (zbanować) zwykłego użytkownika.
      */
@@ -59,6 +95,8 @@ public class AdminDashboardTest {
                 .isTrue();
 
         verify(securityRepo).save(target);
+        verify(events).publishEvent(argThat((Object e) -> e instanceof ModerationActionEvent a
+                && a.action() == AuditAction.BAN && a.actorId().equals(modId) && a.targetId().equals(targetId)));
     }
 
     /**
@@ -111,4 +149,191 @@ public class AdminDashboardTest {
 
         verify(securityRepo).save(target);
     }
-}
\ No newline at end of file
+
+    /**
+     * Testuje czy listing użytkowników deleguje filtrowanie do bazy danych,
+     * ogranicza rozmiar strony i odrzuca niedozwolone pola sortowania.
+     */
+    @Test
+    void shouldSearchUsersWithSanitizedPaging() {
+        when(securityRepo.searchAdminUsers(eq(Role.MODERATOR), eq(false), eq("%jan%"), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        adminService.getUsers(Role.MODERATOR, false, "  Jan ",
+                PageRequest.of(2, 10_000, Sort.by("warnings").and(Sort.by("content"))));
+
+        verify(securityRepo).searchAdminUsers(eq(Role.MODERATOR), eq(false), eq("%jan%"),
+                argThat(p -> p.getPageNumber() == 2
+                        && p.getPageSize() == 200
+                        && p.getSort().equals(Sort.by("warnings"))));
+        verify(securityRepo, never()).findAll();
+        verifyNoInteractions(appUserRepo);
+    }
+
+    /**
+     * Testuje czy znaki specjalne LIKE we frazie wyszukiwania są poprzedzane znakiem ucieczki
+     * (wyszukanie "50%" nie dopasowuje wszystkiego, co zaczyna się od "50").
+     */
+    @Test
+    void shouldEscapeLikeWildcardsInSearch() {
+        when(securityRepo.searchAdminUsers(isNull(), isNull(), anyString(), any(Pageable.class))).thenReturn(Page.empty());
+
+        adminService.getUsers(null, null, "50%_a\\b", PageRequest.of(0, 20));
+
+        verify(securityRepo).searchAdminUsers(isNull(), isNull(), eq("%50\\%\\_a\\\\b%"), any(Pageable.class));
+    }
+
+    /**
+     * Testuje czy listing 1000 grup jest pobierany jednym zapytaniem agregującym,
+     * bez dociągania członków, notatek i profili właścicieli dla każdej grupy.
+     */
+    @Test
+    void shouldListGroupsWithSingleAggregateQuery() {
+        List<AdminGroupDTO> rows = IntStream.range(0, 1_000)
+                .mapToObj(i -> new AdminGroupDTO(UUID.randomUUID(), "Grupa " + i, "", "Właściciel", "owner@uz.pl",
+                        100L, 1_000L, Instant.now()))
+                .toList();
+        when(groupRepo.searchAdminGroups(isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(rows));
+
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(securityRepo, noteRepo, groupRepo, groupMemberRepo, appUserRepo);
+        Page<AdminGroupDTO> result = adminService.getGroups(null, null, null, PageRequest.of(0, 1_000));
+
+        assertThat(result.getContent())
+                .as("Listing powinien zawierać wszystkie grupy zwrócone przez zapytanie")
+                .hasSize(1_000);
+        assertThat(result.getContent().get(0).members())
+                .as("Członkowie grupy nie powinni być ładowani w listingu")
+                .isNull();
+        queries.assertAtMost(1);
+        verifyNoInteractions(groupMemberRepo, noteRepo, appUserRepo);
+    }
+
+    /**
+     * Testuje czy kolejne sprawdzenia uprawnień korzystają z pamięci podręcznej,
+     * a zmiana roli unieważnia wpis użytkownika.
+     */
+    @Test
+    void accessChecksShouldBeCachedAndInvalidatedOnRoleChange() {
+        UUID targetId = UUID.randomUUID();
+        UUID adminId = UUID.randomUUID();
+
+        UserSecurity target = new UserSecurity(targetId);
+        UserSecurity admin = new UserSecurity(adminId);
+        admin.setRole(Role.ADMIN);
+
+        when(securityRepo.findById(adminId)).thenReturn(Optional.of(admin));
+        when(securityRepo.findById(targetId)).thenReturn(Optional.of(target));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(adminService.isAtLeastModerator(targetId)).isFalse();
+            assertThat(adminService.isBanned(targetId)).isFalse();
+        }
+        verify(securityRepo, times(1)).findById(targetId);
+
+        adminService.promoteToModerator(targetId, adminId);
+        verify(events).publishEvent(UserAccessChangedEvent.forUser(targetId));
+        accessCache.onAccessChanged(UserAccessChangedEvent.forUser(targetId));
+
+        assertThat(adminService.isAtLeastModerator(targetId))
+                .as("Po unieważnieniu wpisu uprawnienia powinny zostać odczytane ponownie")
+                .isTrue();
+        verify(securityRepo, times(3)).findById(targetId);
+    }
+
+    /**
+     * Testuje czy zbiorcza blokada 100 użytkowników wykonuje stałą liczbę zapytań
+     * i zwraca wynik dla każdego elementu (z regułami uprawnień akcji pojedynczej).
+     */
+    @Test
+    void shouldBanUsersInBulkWithSetBasedUpdate() {
+        UUID modId = UUID.randomUUID();
+        UserSecurity mod = new UserSecurity(modId);
+        mod.setRole(Role.MODERATOR);
+        when(securityRepo.findById(modId)).thenReturn(Optional.of(mod));
+
+        List<UserSecurity> users = IntStream.range(0, 100).mapToObj(i -> new UserSecurity(UUID.randomUUID())).toList();
+        UserSecurity admin = new UserSecurity(UUID.randomUUID());
+        admin.setRole(Role.ADMIN);
+        UserSecurity otherMod = new UserSecurity(UUID.randomUUID());
+        otherMod.setRole(Role.MODERATOR);
+        UserSecurity alreadyBanned = new UserSecurity(UUID.randomUUID());
+        alreadyBanned.setBanned(true);
+        UUID missing = UUID.randomUUID();
+
+        List<UserSecurity> existing = new ArrayList<>(users);
+        existing.addAll(List.of(admin, otherMod, alreadyBanned));
+        when(securityRepo.findAllById(any())).thenReturn(existing);
+
+        List<UUID> ids = new ArrayList<>(existing.stream().map(UserSecurity::getId).toList());
+        ids.add(missing);
+        ids.add(users.get(0).getId());
+
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(securityRepo, noteRepo, groupRepo, groupMemberRepo, appUserRepo);
+        BulkModerationDTO.BulkResult result = adminService.bulkSetBanned(ids, true, modId);
+
+        queries.assertAtMost(3);
+        verify(securityRepo, never()).save(any());
+        verify(securityRepo).updateBanned(argThat(c -> c.size() == 100), eq(true));
+        assertThat(result.requested())
+                .as("Duplikaty identyfikatorów powinny być pomijane")
+                .isEqualTo(104);
+        assertThat(result.applied()).isEqualTo(100);
+        assertThat(result.items())
+                .extracting(BulkModerationDTO.ItemResult::outcome)
+                .containsOnly(BulkModerationDTO.Outcome.APPLIED, BulkModerationDTO.Outcome.FORBIDDEN,
+                        BulkModerationDTO.Outcome.UNCHANGED, BulkModerationDTO.Outcome.NOT_FOUND);
+        assertThat(result.items().subList(100, 104))
+                .extracting(BulkModerationDTO.ItemResult::outcome)
+                .as("Admin i inny moderator są chronieni, zablokowany pozostaje bez zmian, brakujący nie istnieje")
+                .containsExactly(BulkModerationDTO.Outcome.FORBIDDEN, BulkModerationDTO.Outcome.FORBIDDEN,
+                        BulkModerationDTO.Outcome.UNCHANGED, BulkModerationDTO.Outcome.NOT_FOUND);
+    }
+
+    /**
+     * Testuje czy zbiorcze usunięcie notatek autorów zleca jedno zadanie usuwania partiami na autora
+     * (zamiast usuwać notatki w jednej transakcji) i raportuje wynik dla każdego autora.
+     */
+    @Test
+    void shouldDeleteNotesByAuthorsInBulk() {
+        UUID modId = UUID.randomUUID();
+        UserSecurity mod = new UserSecurity(modId);
+        mod.setRole(Role.MODERATOR);
+        when(securityRepo.findById(modId)).thenReturn(Optional.of(mod));
+
+        UUID spammer = UUID.randomUUID();
+        UUID clean = UUID.randomUUID();
+        when(noteRepo.countByAuthors(any())).thenReturn(List.of(new UserCountDTO(spammer, 250L)));
+        UUID jobId = UUID.randomUUID();
+        when(purgeJobs.enqueue(PurgeTarget.AUTHOR_NOTES, spammer, modId)).thenReturn(new PurgeJobDTO(jobId,
+                PurgeTarget.AUTHOR_NOTES, spammer, PurgeStatus.PENDING, 0, 7, null, 0, null, Instant.now(), Instant.now(), null));
+
+        BulkModerationDTO.BulkResult result = adminService.bulkDeleteNotesByAuthors(List.of(spammer, clean), modId);
+
+        verify(purgeJobs).enqueue(PurgeTarget.AUTHOR_NOTES, spammer, modId);
+        verifyNoMoreInteractions(purgeJobs);
+        verify(noteRepo, never()).deleteById(any());
+        assertThat(result.applied()).isEqualTo(1);
+        assertThat(result.items()).containsExactly(
+                new BulkModerationDTO.ItemResult(spammer, BulkModerationDTO.Outcome.APPLIED,
+                        "Zlecono usunięcie notatek: 250 (zadanie " + jobId + ")"),
+                new BulkModerationDTO.ItemResult(clean, BulkModerationDTO.Outcome.UNCHANGED, "Brak notatek."));
+        verify(events).publishEvent(argThat((Object e) -> e instanceof ModerationActionEvent a
+                && a.action() == AuditAction.DELETE_USER_NOTES && a.targetId().equals(spammer) && "notes=250".equals(a.details())));
+    }
+
+    /**
+     * Testuje czy pusta lista identyfikatorów jest odrzucana (oczekiwany błąd 400).
+     */
+    @Test
+    void shouldRejectEmptyBulkRequest() {
+        UUID modId = UUID.randomUUID();
+        UserSecurity mod = new UserSecurity(modId);
+        mod.setRole(Role.MODERATOR);
+        when(securityRepo.findById(modId)).thenReturn(Optional.of(mod));
+
+        assertThrows(ResponseStatusException.class, () -> adminService.bulkWarn(List.of(), modId));
+        verify(securityRepo, never()).incrementWarnings(any());
+    }
+}
+
@@ -0,0 +1,170 @@
+package org.example.noteuzbackend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.noteuzbackend.dto.AdminNoteDTO;
+import org.example.noteuzbackend.dto.AdminUserDTO;
+import org.example.noteuzbackend.model.enums.ExportFormat;
+import org.example.noteuzbackend.model.enums.Role;
+import org.example.noteuzbackend.repository.GroupRepo;
+import org.example.noteuzbackend.repository.NoteRepo;
+import org.example.noteuzbackend.repository.UserSecurityRepo;
+import org.example.noteuzbackend.service.AdminExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe serwisu AdminExportService.
+ * Weryfikują format plików eksportu oraz strumieniowy zapis dużych zbiorów danych.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AdminExportTest {
+
+    @Mock private UserSecurityRepo securityRepo;
+    @Mock private NoteRepo noteRepo;
+    @Mock private GroupRepo groupRepo;
+
+    private AdminExportService exportService;
+
+    /**
+     * Tworzy serwis z konfiguracją Jacksona odpowiadającą domyślnej konfiguracji Spring Boot.
+     */
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new AdminExportService(securityRepo, noteRepo, groupRepo, objectMapper);
+    }
+
+    /**
+     * Testuje czy eksport CSV cytuje wartości zawierające przecinki, cudzysłowy i znaki nowej linii.
+     */
+    @Test
+    void shouldEscapeCsvValues() {
+        UUID noteId = UUID.randomUUID();
+        AdminNoteDTO note = new AdminNoteDTO(noteId, "Wykład, część 1", "Linia 1\nLinia \"2\"",
+                LocalDateTime.of(2024, 3, 1, 10, 0), "Jan", null, false);
+        when(noteRepo.streamAdminNotes(null, null, null, null, null)).thenReturn(Stream.of(note));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportNotes(ExportFormat.CSV, null, null, null, null, null, out);
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .as("Wartości ze znakami specjalnymi powinny być ujęte w cudzysłowy zgodnie z RFC 4180")
+                .isEqualTo("id,title,createdAt,authorName,groupName,isGroupNote,content\r\n" +
+                        noteId + ",\"Wykład, część 1\",2024-03-01T10:00,Jan,,false,\"Linia 1\nLinia \"\"2\"\"\"\r\n");
+    }
+
+    /**
+     * Testuje czy tekst zaczynający się od znaku formuły arkusza kalkulacyjnego jest poprzedzany apostrofem.
+     */
+    @Test
+    void shouldNeutralizeSpreadsheetFormulasInCsv() {
+        UUID id = UUID.randomUUID();
+        when(securityRepo.streamAdminUsers(null, null, null)).thenReturn(Stream.of(
+                new AdminUserDTO(id, "@uz.pl", Role.USER, false, 0, "=HYPERLINK(\"http://x\",\"a\")")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportUsers(ExportFormat.CSV, null, null, null, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n")[1])
+                .isEqualTo(id + ",'@uz.pl,\"'=HYPERLINK(\"\"http://x\"\",\"\"a\"\")\",USER,false,0");
+    }
+
+    /**
+     * Testuje czy eksport NDJSON zapisuje każdy wiersz jako osobny obiekt JSON w jednej linii.
+     */
+    @Test
+    void shouldWriteOneJsonObjectPerLine() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(securityRepo.streamAdminUsers(Role.USER, null, "%jan%")).thenReturn(Stream.of(
+                new AdminUserDTO(first, "jan@uz.pl", Role.USER, false, 0, "Jan"),
+                new AdminUserDTO(second, "janina@uz.pl", Role.USER, true, 2, "Janina \"J\"")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportUsers(ExportFormat.NDJSON, Role.USER, null, " Jan ", out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .as("Każdy użytkownik powinien zajmować dokładnie jedną linię")
+                .containsExactly(
+                        "{\"id\":\"" + first + "\",\"email\":\"jan@uz.pl\",\"displayName\":\"Jan\",\"role\":\"USER\",\"isBanned\":false,\"warnings\":0}",
+                        "{\"id\":\"" + second + "\",\"email\":\"janina@uz.pl\",\"displayName\":\"Janina \\\"J\\\"\",\"role\":\"USER\",\"isBanned\":true,\"warnings\":2}");
+    }
+
+    /**
+     * Testuje eksport 5 000 000 wierszy. Wiersze są generowane leniwie (jak przez kursor bazy danych),
+     * a test sprawdza, że w żadnym momencie serwis nie przetrzymuje w pamięci więcej niż
+     * zawartość bufora zapisu - liczba wierszy pobranych z kursora, a jeszcze niezapisanych, pozostaje stała.
+     */
+    @Test
+    void shouldStreamFiveMillionRowsWithBoundedMemory() {
+        int total = 5_000_000;
+        AtomicLong fetched = new AtomicLong();
+        AtomicBoolean cursorClosed = new AtomicBoolean();
+        when(securityRepo.streamAdminUsers(null, null, null)).thenReturn(IntStream.range(0, total)
+                .mapToObj(i -> {
+                    fetched.incrementAndGet();
+                    return new AdminUserDTO(new UUID(0, i), "user" + i + "@uz.pl", Role.USER, i % 100 == 0, i % 3, "Student " + i);
+                })
+                .onClose(() -> cursorClosed.set(true)));
+
+        LineCountingOutputStream out = new LineCountingOutputStream(fetched);
+        long rows = exportService.exportUsers(ExportFormat.CSV, null, null, null, out);
+
+        assertThat(rows).isEqualTo(total);
+        assertThat(out.lines)
+                .as("Plik powinien zawierać nagłówek i wszystkie wiersze")
+                .isEqualTo(total + 1L);
+        assertThat(out.maxPendingRows)
+                .as("Liczba wierszy oczekujących na zapis powinna być ograniczona rozmiarem bufora, a nie wielkością eksportu")
+                .isLessThan(5_000);
+        assertThat(cursorClosed)
+                .as("Kursor bazy danych powinien zostać zamknięty po eksporcie")
+                .isTrue();
+    }
+
+    /**
+     * Strumień wyjściowy zliczający zapisane linie i porównujący je z liczbą wierszy pobranych z kursora.
+     */
+    private static class LineCountingOutputStream extends OutputStream {
+        private final AtomicLong fetched;
+        private long lines;
+        private long maxPendingRows;
+
+        LineCountingOutputStream(AtomicLong fetched) {
+            this.fetched = fetched;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+            // Linia nagłówka nie pochodzi z kursora
+            maxPendingRows = Math.max(maxPendingRows, fetched.get() - Math.max(0, lines - 1));
+        }
+    }
+}
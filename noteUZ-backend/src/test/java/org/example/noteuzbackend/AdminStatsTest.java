@@ -0,0 +1,117 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.DailyCountDTO;
+import org.example.noteuzbackend.event.StatsChangedEvent;
+import org.example.noteuzbackend.model.entity.NoteShare;
+import org.example.noteuzbackend.model.enums.StatsMetric;
+import org.example.noteuzbackend.repository.*;
+import org.example.noteuzbackend.service.AdminStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe serwisu AdminStatsService.
+ * Weryfikują uzgadnianie liczników z bazą danych oraz ich przyrostową aktualizację.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AdminStatsTest {
+
+    @Mock private UserSecurityRepo securityRepo;
+    @Mock private NoteRepo noteRepo;
+    @Mock private GroupRepo groupRepo;
+    @Mock private GroupMemberRepo memberRepo;
+    @Mock private NoteVoteRepo voteRepo;
+    @Mock private NoteShareRepo shareRepo;
+
+    private AdminStatsService statsService;
+
+    /**
+     * Tworzy serwis i uzgadnia jego liczniki z zamockowaną bazą danych.
+     */
+    @BeforeEach
+    void setUp() {
+        statsService = new AdminStatsService(securityRepo, noteRepo, groupRepo, memberRepo, voteRepo, shareRepo);
+
+        LocalDate today = LocalDate.now();
+        when(securityRepo.count()).thenReturn(1_000L);
+        when(securityRepo.countByIsBannedTrue()).thenReturn(7L);
+        when(noteRepo.count()).thenReturn(50_000L);
+        when(groupRepo.count()).thenReturn(120L);
+        when(memberRepo.count()).thenReturn(900L);
+        when(voteRepo.count()).thenReturn(3_000L);
+        when(shareRepo.countByStatus(NoteShare.ShareStatus.PENDING)).thenReturn(4L);
+        when(shareRepo.countByStatus(NoteShare.ShareStatus.ACCEPTED)).thenReturn(40L);
+        when(shareRepo.countByStatus(NoteShare.ShareStatus.REJECTED)).thenReturn(2L);
+        when(noteRepo.countCreatedPerDaySince(any())).thenReturn(List.of(
+                new DailyCountDTO(today, 12L),
+                new DailyCountDTO(today.minusDays(1), 30L)));
+
+        statsService.reconcile();
+    }
+
+    /**
+     * Testuje czy kolejne odczyty statystyk nie wykonują żadnych zapytań do bazy danych.
+     */
+    @Test
+    void shouldServeStatsWithoutQueries() {
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(securityRepo, noteRepo, groupRepo, memberRepo, voteRepo, shareRepo);
+
+        Map<String, Object> stats = Map.of();
+        for (int i = 0; i < 1_000; i++) {
+            stats = statsService.getStats();
+        }
+
+        queries.assertAtMost(0);
+        @SuppressWarnings("unchecked")
+        Map<String, Long> perDay = (Map<String, Long>) stats.get("notesPerDay");
+        assertThat(stats)
+                .containsEntry("users", 1_000L)
+                .containsEntry("bannedUsers", 7L)
+                .containsEntry("notes", 50_000L)
+                .containsEntry("groups", 120L)
+                .containsEntry("groupMembers", 900L)
+                .containsEntry("votes", 3_000L)
+                .containsEntry("shares", Map.of("PENDING", 4L, "ACCEPTED", 40L, "REJECTED", 2L));
+        assertThat(perDay)
+                .as("Historia powinna obejmować 30 ostatnich dni, także dni bez nowych notatek")
+                .hasSize(30)
+                .containsEntry(LocalDate.now().toString(), 12L)
+                .containsEntry(LocalDate.now().minusDays(1).toString(), 30L)
+                .containsEntry(LocalDate.now().minusDays(2).toString(), 0L);
+    }
+
+    /**
+     * Testuje czy zdarzenia ze ścieżek zapisu aktualizują liczniki przyrostowo.
+     */
+    @Test
+    void shouldApplyIncrementalChanges() {
+        statsService.onStatsChanged(StatsChangedEvent.noteCreated(LocalDate.now()));
+        statsService.onStatsChanged(StatsChangedEvent.noteCreated(LocalDate.now()));
+        statsService.onStatsChanged(StatsChangedEvent.decrement(StatsMetric.BANNED_USERS));
+        statsService.onStatsChanged(StatsChangedEvent.decrement(StatsMetric.SHARES_PENDING));
+        statsService.onStatsChanged(StatsChangedEvent.increment(StatsMetric.SHARES_ACCEPTED));
+        statsService.onStatsChanged(StatsChangedEvent.of(StatsMetric.GROUP_MEMBERS, -900));
+
+        Map<String, Object> stats = statsService.getStats();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> perDay = (Map<String, Long>) stats.get("notesPerDay");
+        assertThat(stats)
+                .containsEntry("notes", 50_002L)
+                .containsEntry("bannedUsers", 6L)
+                .containsEntry("groupMembers", 0L)
+                .containsEntry("shares", Map.of("PENDING", 3L, "ACCEPTED", 41L, "REJECTED", 2L));
+        assertThat(perDay).containsEntry(LocalDate.now().toString(), 14L);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.event.ModerationActionEvent;
+import org.example.noteuzbackend.model.enums.AuditAction;
+import org.example.noteuzbackend.service.ModerationAuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe dziennika audytu ModerationAuditLog.
+ * Weryfikują, że rejestrowanie akcji nie odwołuje się do bazy danych, a zapis odbywa się wsadowo.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuditLogTest {
+
+    @Mock private JdbcTemplate jdbc;
+
+    /**
+     * Testuje czy rejestrowanie akcji moderacyjnych nie odwołuje się do bazy danych: 5 000 akcji trafia wyłącznie do bufora,
+     * a dopiero zadanie w tle zapisuje je w 10 instrukcjach wsadowych po 500 wierszy.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBufferActionsAndWriteInBatches() {
+        ModerationAuditLog auditLog = new ModerationAuditLog(jdbc, 8_192);
+        UUID moderatorId = UUID.randomUUID();
+        int actions = 5_000;
+
+        for (int i = 0; i < actions; i++) {
+            auditLog.onModerationAction(ModerationActionEvent.of(moderatorId, AuditAction.WARN, new UUID(0, i)));
+        }
+
+        verifyNoInteractions(jdbc);
+        assertThat(auditLog.stats())
+                .as("Wszystkie akcje powinny czekać w buforze na zapis")
+                .containsEntry("pending", actions);
+
+        auditLog.flush();
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbc, times(actions / 500)).batchUpdate(anyString(), batches.capture());
+        assertThat(batches.getAllValues())
+                .as("Każda instrukcja wsadowa powinna zawierać 500 wierszy")
+                .allSatisfy(batch -> assertThat(batch).hasSize(500));
+        assertThat(batches.getAllValues().get(0).get(0)[3])
+                .as("Rodzaj akcji powinien być zapisywany jako tekst")
+                .isEqualTo("WARN");
+        assertThat(auditLog.stats())
+                .containsEntry("written", (long) actions)
+                .containsEntry("pending", 0);
+    }
+
+    /**
+     * Testuje czy przepełnienie bufora wymusza zapis zamiast gubienia wpisów.
+     */
+    @Test
+    void shouldFlushSynchronouslyWhenBufferIsFull() {
+        ModerationAuditLog auditLog = new ModerationAuditLog(jdbc, 2);
+
+        for (int i = 0; i < 5; i++) {
+            auditLog.onModerationAction(ModerationActionEvent.of(UUID.randomUUID(), AuditAction.BAN, UUID.randomUUID()));
+        }
+        auditLog.flush();
+
+        assertThat(auditLog.stats())
+                .as("Żaden wpis nie powinien zostać utracony")
+                .containsEntry("recorded", 5L)
+                .containsEntry("written", 5L)
+                .containsEntry("overflows", 2L);
+    }
+
+    /**
+     * Testuje czy przy niedostępnej bazie danych i pełnym buforze rejestrowanie akcji kończy się po ograniczonej
+     * liczbie prób zapisu, a odrzucony wpis jest liczony w statystykach.
+     */
+    @Test
+    void shouldDropEntryInsteadOfBlockingWhenDatabaseIsDown() {
+        ModerationAuditLog auditLog = new ModerationAuditLog(jdbc, 2);
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        for (int i = 0; i < 3; i++) {
+            auditLog.onModerationAction(ModerationActionEvent.of(UUID.randomUUID(), AuditAction.BAN, UUID.randomUUID()));
+        }
+
+        verify(jdbc, times(3)).batchUpdate(anyString(), anyList());
+        assertThat(auditLog.stats())
+                .containsEntry("recorded", 3L)
+                .containsEntry("written", 0L)
+                .containsEntry("pending", 2)
+                .containsEntry("dropped", 1L);
+    }
+}
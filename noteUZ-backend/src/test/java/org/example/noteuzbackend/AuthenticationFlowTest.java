@@ -6,6 +6,7 @@ import org.example.noteuzbackend.dto.AuthRequests.LoginRequest;
 import org.example.noteuzbackend.dto.AuthRequests.RegisterRequest;
 import org.example.noteuzbackend.service.AdminService;
 import org.example.noteuzbackend.service.AuthService;
+import org.example.noteuzbackend.service.UserAccessCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +46,9 @@ public class AuthenticationFlowTest {
     @MockBean
     private AdminService adminService;
 
+    @MockBean
+    private UserAccessCache accessCache;
+
     /**
      * Testuje czy użytkownik może się zalogować przy podaniu poprawnych danych i tokena CAPTCHA.
      * @throws Exception w przypadku błędu MockMvc
@@ -0,0 +1,202 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.AvatarBatchDTO;
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.example.noteuzbackend.repository.AvatarVariantRepo;
+import org.example.noteuzbackend.repository.UserAvatarRepo;
+import org.example.noteuzbackend.service.AvatarByteCache;
+import org.example.noteuzbackend.service.AvatarService;
+import org.example.noteuzbackend.service.AvatarThumbnailer;
+import org.example.noteuzbackend.service.BlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe zbiorczego pobierania miniatur awatarów (AvatarService.findBatch).
+ */
+@ExtendWith(MockitoExtension.class)
+public class AvatarBatchTest {
+
+    private static final byte[] IMAGE = {(byte) 0xFF, (byte) 0xD8, 1, 2, 3};
+
+    @Mock private UserAvatarRepo avatarRepo;
+    @Mock private AvatarVariantRepo variantRepo;
+    @Mock private AvatarThumbnailer thumbnailer;
+    @Mock private BlobStore blobs;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private ApplicationEventPublisher events;
+
+    private AvatarByteCache cache;
+    private AvatarService avatarService;
+
+    /**
+     * Tworzy serwis awatarów z pamięcią podręczną o budżecie 1 MiB.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new AvatarByteCache(1024 * 1024, 64 * 1024, 60_000);
+        avatarService = new AvatarService(avatarRepo, variantRepo, thumbnailer, cache, blobs, jdbc, events, 5 * 1024 * 1024);
+    }
+
+    /**
+     * Testuje czy miniatury spoza pamięci podręcznej są wczytywane jednym zapytaniem, użytkownik z niegotową miniaturą
+     * trafia na listę oczekujących, użytkownik bez awatara jest pomijany, a kolejność odpowiada żądaniu.
+     * @throws Exception w przypadku błędu odczytu wyniku zapytania
+     */
+    @Test
+    void shouldLoadMissingThumbnailsWithSingleQuery() throws Exception {
+        UUID cached = UUID.randomUUID();
+        UUID stored = UUID.randomUUID();
+        UUID notReady = UUID.randomUUID();
+        UUID noAvatar = UUID.randomUUID();
+        AvatarMetaDTO cachedMeta = new AvatarMetaDTO(cached, "image/png", "h1", (long) IMAGE.length, 64);
+        cache.putMeta(cachedMeta, cache.version());
+        cache.putData(cachedMeta, IMAGE);
+        List<Object[]> queries = stubRows(List.of(stored));
+        when(avatarRepo.findMetaByUserIds(List.of(noAvatar, notReady)))
+                .thenReturn(List.of(new AvatarMetaDTO(notReady, "image/jpeg", "h3", 100L)));
+
+        AvatarBatchDTO batch = avatarService.findBatch(List.of(noAvatar, stored, notReady, cached, stored), 40);
+
+        assertThat(batch.dimension()).isEqualTo(64);
+        assertThat(batch.avatars().keySet()).containsExactly(stored, cached);
+        assertThat(batch.avatars().get(cached)).isEqualTo("data:image/png;base64," + Base64.getEncoder().encodeToString(IMAGE));
+        assertThat(batch.pending()).containsExactly(notReady);
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0)).containsExactly(64, noAvatar, stored, notReady);
+        verify(thumbnailer).request(notReady, "h3");
+        assertThat(cache.getData(new AvatarMetaDTO(stored, "image/jpeg", "h-" + stored, (long) IMAGE.length, 64))).isNotNull();
+    }
+
+    /**
+     * Testuje czy ponowne żądanie tej samej listy jest obsługiwane z pamięci podręcznej i ma tę samą wersję,
+     * a zmiana miniatury jednego użytkownika zmienia wersję odpowiedzi.
+     * @throws Exception w przypadku błędu odczytu wyniku zapytania
+     */
+    @Test
+    void shouldServeRepeatedBatchFromCache() throws Exception {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        List<Object[]> queries = stubRows(ids);
+
+        AvatarBatchDTO first = avatarService.findBatch(ids, 32);
+        AvatarBatchDTO second = avatarService.findBatch(ids, 32);
+        cache.onAvatarChanged(AvatarChangedEvent.forUser(ids.get(0), "nowy"));
+        AvatarMetaDTO changed = new AvatarMetaDTO(ids.get(0), "image/jpeg", "nowy", (long) IMAGE.length, 32);
+        cache.putMeta(changed, cache.version());
+        cache.putData(changed, IMAGE);
+        AvatarBatchDTO third = avatarService.findBatch(ids, 32);
+
+        assertThat(queries).hasSize(1);
+        assertThat(second.version()).isEqualTo(first.version());
+        assertThat(second.avatars()).isEqualTo(first.avatars());
+        assertThat(third.version()).isNotEqualTo(first.version());
+        verify(avatarRepo, never()).findMetaByUserIds(any());
+    }
+
+    /**
+     * Testuje czy żądanie z więcej niż dopuszczalną liczbą użytkowników jest odrzucane bez zapytań do bazy danych.
+     */
+    @Test
+    void shouldRejectTooManyIds() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= AvatarService.BATCH_MAX_IDS; i++) ids.add(UUID.randomUUID());
+
+        assertThatThrownBy(() -> avatarService.findBatch(ids, 32))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Zbyt wiele");
+        verifyNoInteractions(jdbc, avatarRepo);
+    }
+
+    /**
+     * Testuje czy miniatury listy 50 członków bez pamięci podręcznej są wczytywane jednym zapytaniem
+     * (zamiast 2 zapytań na członka przy pobieraniu pojedynczo).
+     * @throws Exception w przypadku błędu odczytu wyniku zapytania
+     */
+    @Test
+    void shouldCollapseQueriesForMemberList() throws Exception {
+        List<UUID> members = new ArrayList<>();
+        for (int i = 0; i < 50; i++) members.add(UUID.randomUUID());
+        List<Object[]> queries = stubRows(members);
+
+        AvatarBatchDTO batch = avatarService.findBatch(members, 64);
+
+        assertThat(batch.avatars()).hasSize(members.size());
+        assertThat(queries).hasSize(1);
+        verify(variantRepo, never()).findMeta(any(), any());
+    }
+
+    /**
+     * Testuje czy miniatura bez klucza magazynu i bez danych (wiersz sprzed migracji) jest traktowana jak niegotowa:
+     * użytkownik trafia na listę oczekujących, a generowanie miniatury jest zlecane ponownie.
+     * @throws Exception w przypadku błędu odczytu wyniku zapytania
+     */
+    @Test
+    void shouldTreatVariantWithoutDataAsPending() throws Exception {
+        UUID legacy = UUID.randomUUID();
+        ResultSet row = row(legacy, null);
+        doAnswer(inv -> {
+            ((RowCallbackHandler) inv.getArgument(1)).processRow(row);
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(avatarRepo.findMetaByUserIds(List.of(legacy)))
+                .thenReturn(List.of(new AvatarMetaDTO(legacy, "image/jpeg", "h-" + legacy, 100L)));
+
+        AvatarBatchDTO batch = avatarService.findBatch(List.of(legacy), 32);
+
+        assertThat(batch.avatars()).isEmpty();
+        assertThat(batch.pending()).containsExactly(legacy);
+        verify(thumbnailer).request(legacy, "h-" + legacy);
+    }
+
+    /**
+     * Symuluje zapytanie zbiorcze: dla każdego wywołania zapisuje jego parametry i przekazuje po jednym wierszu
+     * dla podanych użytkowników (skrót treści "h-&lt;id&gt;", dane w kolumnie bytea).
+     */
+    private List<Object[]> stubRows(List<UUID> users) throws Exception {
+        List<Object[]> queries = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> {
+            queries.add((Object[]) inv.getRawArguments()[2]);
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (UUID user : users) handler.processRow(row(user, IMAGE));
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        return queries;
+    }
+
+    private static ResultSet row(UUID user, byte[] data) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1, UUID.class)).thenReturn(user);
+        when(rs.getString(2)).thenReturn("image/jpeg");
+        when(rs.getString(3)).thenReturn("h-" + user);
+        when(rs.getLong(4)).thenReturn((long) IMAGE.length);
+        when(rs.getString(5)).thenReturn(null);
+        when(rs.getBytes(6)).thenReturn(data);
+        return rs;
+    }
+}
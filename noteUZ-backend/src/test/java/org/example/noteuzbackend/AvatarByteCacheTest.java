@@ -0,0 +1,237 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.example.noteuzbackend.repository.AvatarVariantRepo;
+import org.example.noteuzbackend.repository.UserAvatarRepo;
+import org.example.noteuzbackend.service.AvatarByteCache;
+import org.example.noteuzbackend.service.AvatarService;
+import org.example.noteuzbackend.service.AvatarThumbnailer;
+import org.example.noteuzbackend.service.BlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Testy jednostkowe pamięci podręcznej miniatur awatarów (AvatarByteCache) i jej użycia w AvatarService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AvatarByteCacheTest {
+
+    private static final String HASH = "a1b2c3";
+
+    @Mock private UserAvatarRepo avatarRepo;
+    @Mock private AvatarVariantRepo variantRepo;
+    @Mock private AvatarThumbnailer thumbnailer;
+    @Mock private BlobStore blobs;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private ApplicationEventPublisher events;
+
+    private AvatarByteCache cache;
+    private AvatarService avatarService;
+    private final UUID userId = UUID.randomUUID();
+
+    /**
+     * Tworzy serwis awatarów z pamięcią podręczną o budżecie 1 MiB.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new AvatarByteCache(1024 * 1024, 64 * 1024, 60_000);
+        avatarService = new AvatarService(avatarRepo, variantRepo, thumbnailer, cache, blobs, jdbc, events, 5 * 1024 * 1024);
+    }
+
+    /**
+     * Testuje czy kolejne żądania tej samej miniatury są obsługiwane z pamięci podręcznej,
+     * bez zapytań o metadane i dane obrazu.
+     * @throws IOException w przypadku błędu zapisu
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldServeRepeatedRequestsFromCache() throws IOException {
+        byte[] image = bytes(3000, 7);
+        when(variantRepo.findMeta(userId, 64)).thenReturn(Optional.of(meta(userId, 64, image.length)));
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), eq(userId), eq(64), eq(HASH))).thenReturn(image);
+
+        for (int i = 0; i < 3; i++) {
+            AvatarMetaDTO meta = avatarService.findMeta(userId, 40);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            avatarService.writeAvatar(meta, avatarService.loadAvatar(meta), out);
+            assertThat(out.toByteArray()).as("Żądanie %d", i).isEqualTo(image);
+        }
+
+        verify(variantRepo, times(1)).findMeta(userId, 64);
+        verify(jdbc, times(1)).query(anyString(), any(ResultSetExtractor.class), eq(userId), eq(64), eq(HASH));
+        assertThat(cache.stats()).containsEntry("metaHits", 2L).containsEntry("dataHits", 2L);
+    }
+
+    /**
+     * Testuje czy zmiana awatara unieważnia zapamiętane miniatury użytkownika,
+     * a wynik zapytania rozpoczętego przed unieważnieniem nie jest zapamiętywany.
+     */
+    @Test
+    void shouldInvalidateOnAvatarChange() {
+        AvatarMetaDTO meta = meta(userId, 32, 100);
+        cache.putMeta(meta, cache.version());
+        cache.putData(meta, bytes(100, 1));
+
+        long staleVersion = cache.version();
+        cache.onAvatarChanged(AvatarChangedEvent.forUser(userId, "nowy"));
+        cache.putMeta(meta, staleVersion);
+
+        assertThat(cache.getMeta(userId, 32)).isNull();
+        assertThat(cache.getData(meta)).isNull();
+        assertThat(cache.stats()).containsEntry("usedBytes", 0L);
+    }
+
+    /**
+     * Testuje czy jednorazowe odczyty wielu awatarów (np. przewinięcie długiej listy) nie wypierają
+     * często żądanych awatarów, a zajętość nie przekracza budżetu.
+     */
+    @Test
+    void shouldKeepFrequentEntriesDuringScan() {
+        int entrySize = 1024;
+        AvatarByteCache small = new AvatarByteCache(4L * (entrySize + 256), 64 * 1024, 60_000);
+        UUID[] hot = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        for (int round = 0; round < 5; round++) {
+            for (UUID id : hot) load(small, id, entrySize);
+        }
+
+        for (int i = 0; i < 100; i++) load(small, UUID.randomUUID(), entrySize);
+
+        for (UUID id : hot) {
+            assertThat(small.getData(meta(id, 64, entrySize))).as("Popularny awatar %s", id).isNotNull();
+        }
+        Map<String, Object> stats = small.stats();
+        assertThat((Long) stats.get("usedBytes")).isLessThanOrEqualTo((Long) stats.get("budgetBytes"));
+        assertThat((Long) stats.get("rejections")).isPositive();
+    }
+
+    /**
+     * Testuje czy dane są przekazywane z bufora poza stertą w całości i bez zmiany stanu wpisu.
+     * @throws IOException w przypadku błędu zapisu
+     */
+    @Test
+    void shouldWriteOffHeapBufferRepeatedly() throws IOException {
+        byte[] image = bytes(20_000, 3);
+        AvatarMetaDTO meta = meta(userId, 256, image.length);
+        cache.putMeta(meta, cache.version());
+        cache.putData(meta, image);
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            AvatarByteCache.write(cache.getData(meta), out);
+            assertThat(out.toByteArray()).isEqualTo(image);
+        }
+        assertThat(cache.getData(meta).isDirect()).isTrue();
+    }
+
+    /**
+     * Testuje czy przy 200 000 żądań awatarów 2 000 użytkowników o rozkładzie Zipfa pamięć podręczna mieszcząca
+     * ok. 25% miniatur wielokrotnie zmniejsza liczbę zapytań do bazy danych w porównaniu z odczytem przy każdym
+     * żądaniu (budżet 0), nie przekraczając budżetu.
+     * @throws IOException w przypadku błędu zapisu
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void benchmarkAgainstDatabasePerRequest() throws IOException {
+        int users = 2_000;
+        int requests = 200_000;
+        int imageSize = 4 * 1024;
+        UUID[] ids = new UUID[users];
+        for (int i = 0; i < users; i++) ids[i] = UUID.randomUUID();
+        int[] sequence = zipf(users, requests, 1.0, new Random(42));
+
+        AvatarVariantRepo countingVariants = mock(AvatarVariantRepo.class, withSettings().stubOnly());
+        JdbcTemplate countingJdbc = mock(JdbcTemplate.class, withSettings().stubOnly());
+        AtomicLong dbQueries = new AtomicLong();
+        byte[] image = bytes(imageSize, 5);
+        when(countingVariants.findMeta(any(), anyInt())).thenAnswer(inv -> {
+            dbQueries.incrementAndGet();
+            return Optional.of(meta(inv.getArgument(0), inv.getArgument(1), imageSize));
+        });
+        when(countingJdbc.query(anyString(), any(ResultSetExtractor.class), any(), any(), any())).thenAnswer(inv -> {
+            dbQueries.incrementAndGet();
+            return image.clone();
+        });
+
+        long[] queries = new long[2];
+        long[] budgets = {0, (long) users / 4 * (imageSize + 256)};
+        OutputStream sink = OutputStream.nullOutputStream();
+        for (int run = 0; run < 2; run++) {
+            AvatarByteCache runCache = new AvatarByteCache(budgets[run], 64 * 1024, 600_000);
+            AvatarService service = new AvatarService(avatarRepo, countingVariants, thumbnailer, runCache, blobs, countingJdbc, events, 5 * 1024 * 1024);
+            dbQueries.set(0);
+            for (int index : sequence) {
+                AvatarMetaDTO meta = service.findMeta(ids[index], 64);
+                service.writeAvatar(meta, service.loadAvatar(meta), sink);
+            }
+            queries[run] = dbQueries.get();
+            long usedBytes = (long) runCache.stats().get("usedBytes");
+            assertThat(usedBytes).as("Budżet %d", budgets[run]).isLessThanOrEqualTo(budgets[run]);
+        }
+
+        assertThat(queries[0]).isEqualTo(2L * requests);
+        assertThat(queries[1]).isLessThan(queries[0] / 3);
+    }
+
+    private static void load(AvatarByteCache target, UUID id, int size) {
+        AvatarMetaDTO meta = meta(id, 64, size);
+        if (target.getMeta(id, 64) == null) target.putMeta(meta, target.version());
+        if (target.getData(meta) == null) target.putData(meta, bytes(size, 9));
+    }
+
+    private static AvatarMetaDTO meta(UUID id, int dimension, long size) {
+        return new AvatarMetaDTO(id, "image/jpeg", HASH, size, dimension);
+    }
+
+    private static byte[] bytes(int size, int seed) {
+        byte[] data = new byte[size];
+        Arrays.fill(data, (byte) seed);
+        data[0] = (byte) 0xFF;
+        return data;
+    }
+
+    /**
+     * Losuje sekwencję indeksów o rozkładzie Zipfa (indeks 0 najpopularniejszy).
+     */
+    private static int[] zipf(int n, int count, double exponent, Random random) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        int[] sequence = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            sequence[i] = Math.min(n - 1, index >= 0 ? index : -index - 1);
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.controller.UserController;
+import org.example.noteuzbackend.dto.AvatarBatchDTO;
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.service.AuthService;
+import org.example.noteuzbackend.service.AvatarService;
+import org.example.noteuzbackend.service.UserAccessCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testy integracyjne (WebMvcTest) pobierania awatarów: ETag ze skrótu treści, nagłówki Cache-Control i odpowiedzi 304.
+ */
+@WebMvcTest(UserController.class)
+public class AvatarCachingTest {
+
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AvatarService avatarService;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private UserAccessCache accessCache;
+
+    private final UUID userId = UUID.randomUUID();
+
+    /**
+     * Przygotowuje metadane awatara i jego dane.
+     * @throws IOException nie występuje (zamockowany serwis)
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        when(avatarService.findMeta(eq(userId), any())).thenReturn(new AvatarMetaDTO(userId, "image/png", HASH, (long) IMAGE.length, 64));
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(2);
+            out.write(IMAGE);
+            return null;
+        }).when(avatarService).writeAvatar(any(), any(), any());
+    }
+
+    /**
+     * Testuje czy awatar pod wersjonowanym adresem jest przesyłany z ETag i oznaczeniem immutable.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldServeVersionedAvatarAsImmutable() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/" + userId + "/avatar").param("size", "64").param("v", HASH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "-64\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, IMAGE.length))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    /**
+     * Testuje czy adres bez aktualnej wersji wymaga ponownej weryfikacji przez klienta.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldRequireRevalidationWithoutCurrentVersion() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/" + userId + "/avatar").param("v", "nieaktualna"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    /**
+     * Testuje czy klient z aktualnym ETag otrzymuje 304 bez odczytu danych obrazu.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldReturnNotModifiedWithoutLoadingImage() throws Exception {
+        mockMvc.perform(get("/api/users/" + userId + "/avatar")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"inny\", \"" + HASH + "-64\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "-64\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(avatarService, never()).loadAvatar(any());
+        verify(avatarService, never()).writeAvatar(any(), any(), any());
+    }
+
+    /**
+     * Testuje czy oryginał serwowany przed wygenerowaniem miniatury nie jest oznaczany jako niezmienny.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldNotCacheOriginalServedBeforeThumbnails() throws Exception {
+        when(avatarService.findMeta(eq(userId), any())).thenReturn(new AvatarMetaDTO(userId, "image/png", HASH, (long) IMAGE.length));
+
+        MvcResult result = mockMvc.perform(get("/api/users/" + userId + "/avatar").param("size", "32").param("v", HASH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    /**
+     * Testuje czy brak danych obrazu (np. miniatura zastąpiona po odczycie metadanych) daje 404
+     * zamiast odpowiedzi 200 z nagłówkiem Content-Length i uciętą treścią.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldReturnNotFoundWhenImageDataIsMissing() throws Exception {
+        when(avatarService.loadAvatar(any())).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Brak danych awatara"));
+
+        mockMvc.perform(get("/api/users/" + userId + "/avatar").param("size", "64"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_LENGTH));
+
+        verify(avatarService, never()).writeAvatar(any(), any(), any());
+    }
+
+    /**
+     * Testuje czy miniatury wielu użytkowników są zwracane jednym żądaniem z ETag wyznaczonym z wersji odpowiedzi,
+     * a klient z aktualną wersją otrzymuje 304.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldServeAvatarBatchWithEtag() throws Exception {
+        UUID pendingId = UUID.randomUUID();
+        AvatarBatchDTO batch = new AvatarBatchDTO(32, "wersja", Map.of(userId, "data:image/png;base64,AQID"), List.of(pendingId));
+        when(avatarService.findBatch(List.of(userId, pendingId), 32)).thenReturn(batch);
+
+        mockMvc.perform(get("/api/users/avatars").param("ids", userId + "," + pendingId).param("size", "32"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"wersja\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andExpect(jsonPath("$.avatars['" + userId + "']").value("data:image/png;base64,AQID"))
+                .andExpect(jsonPath("$.pending[0]").value(pendingId.toString()));
+
+        mockMvc.perform(get("/api/users/avatars").param("ids", userId + "," + pendingId).param("size", "32")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"wersja\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    /**
+     * Testuje porównanie nagłówka If-None-Match z aktualnym ETag.
+     */
+    @Test
+    void shouldMatchIfNoneMatchHeader() {
+        String etag = "\"" + HASH + "\"";
+
+        assertThat(AvatarService.matches(etag, etag)).isTrue();
+        assertThat(AvatarService.matches("W/" + etag, etag)).as("Porównanie słabe").isTrue();
+        assertThat(AvatarService.matches("*", etag)).isTrue();
+        assertThat(AvatarService.matches("\"inny\"", etag)).isFalse();
+        assertThat(AvatarService.matches(null, etag)).isFalse();
+        assertThat(AvatarService.matches(etag, null)).as("Awatar bez skrótu").isFalse();
+    }
+}
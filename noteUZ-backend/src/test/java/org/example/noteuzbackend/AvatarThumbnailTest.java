@@ -0,0 +1,231 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.AvatarMetaDTO;
+import org.example.noteuzbackend.event.AvatarChangedEvent;
+import org.example.noteuzbackend.model.entity.AvatarVariant;
+import org.example.noteuzbackend.model.entity.UserAvatar;
+import org.example.noteuzbackend.repository.AvatarVariantRepo;
+import org.example.noteuzbackend.repository.UserAvatarRepo;
+import org.example.noteuzbackend.service.AvatarByteCache;
+import org.example.noteuzbackend.service.AvatarService;
+import org.example.noteuzbackend.service.AvatarThumbnailer;
+import org.example.noteuzbackend.service.BlobStore;
+import org.example.noteuzbackend.service.FileBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe przetwarzania awatarów na miniatury (AvatarThumbnailer, AvatarService).
+ */
+@ExtendWith(MockitoExtension.class)
+public class AvatarThumbnailTest {
+
+    @Mock private UserAvatarRepo avatarRepo;
+    @Mock private AvatarVariantRepo variantRepo;
+    @Mock private TransactionTemplate tx;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private ApplicationEventPublisher events;
+    @TempDir private Path blobRoot;
+
+    private BlobStore blobs;
+    private AvatarThumbnailer thumbnailer;
+    private AvatarService avatarService;
+    private final UUID userId = UUID.randomUUID();
+
+    /**
+     * Tworzy generator miniatur i serwis awatarów z zamockowaną bazą danych i magazynem w katalogu tymczasowym.
+     * @throws IOException w przypadku błędu tworzenia magazynu
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        lenient().when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        blobs = new FileBlobStore(blobRoot.toString(), false);
+        thumbnailer = new AvatarThumbnailer(avatarRepo, variantRepo, blobs, tx, 1, 16, 25_000_000);
+        avatarService = new AvatarService(avatarRepo, variantRepo, thumbnailer, new AvatarByteCache(1024 * 1024, 64 * 1024, 60_000),
+                blobs, jdbc, events, 5 * 1024 * 1024);
+    }
+
+    /**
+     * Zatrzymuje pulę wątków generatora.
+     */
+    @AfterEach
+    void tearDown() {
+        thumbnailer.shutdown();
+    }
+
+    /**
+     * Testuje czy z prostokątnego zdjęcia powstają kwadratowe miniatury JPEG we wszystkich rozmiarach,
+     * a obraz z przezroczystością pozostaje w formacie PNG.
+     * @throws IOException w przypadku błędu kodowania obrazu
+     */
+    @Test
+    void shouldRenderSquareThumbnailsInAllSizes() throws IOException {
+        Map<Integer, AvatarThumbnailer.Thumbnail> photo = AvatarThumbnailer.render(image(1200, 800, false, "jpeg"));
+        Map<Integer, AvatarThumbnailer.Thumbnail> logo = AvatarThumbnailer.render(image(300, 300, true, "png"));
+
+        assertThat(photo.keySet()).containsExactlyElementsOf(AvatarThumbnailer.SIZES);
+        for (Map.Entry<Integer, AvatarThumbnailer.Thumbnail> entry : photo.entrySet()) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(entry.getValue().data()));
+            assertThat(entry.getValue().contentType()).isEqualTo("image/jpeg");
+            assertThat(decoded.getWidth()).as("Szerokość miniatury %d", entry.getKey()).isEqualTo(entry.getKey());
+            assertThat(decoded.getHeight()).as("Wysokość miniatury %d", entry.getKey()).isEqualTo(entry.getKey());
+        }
+        assertThat(logo.values()).allSatisfy(t -> assertThat(t.contentType()).isEqualTo("image/png"));
+    }
+
+    /**
+     * Testuje czy mały obraz nie jest powiększany powyżej swojego rozmiaru.
+     * @throws IOException w przypadku błędu kodowania obrazu
+     */
+    @Test
+    void shouldNotUpscaleSmallImages() throws IOException {
+        Map<Integer, AvatarThumbnailer.Thumbnail> thumbnails = AvatarThumbnailer.render(image(48, 48, false, "png"));
+
+        assertThat(ImageIO.read(new ByteArrayInputStream(thumbnails.get(256).data())).getWidth()).isEqualTo(48);
+        assertThat(ImageIO.read(new ByteArrayInputStream(thumbnails.get(32).data())).getWidth()).isEqualTo(32);
+    }
+
+    /**
+     * Testuje czy przesyłany plik jest odrzucany, gdy nie jest obrazem, ma zbyt dużą rozdzielczość lub rozmiar,
+     * a typ MIME jest ustalany na podstawie treści, nie nagłówka klienta.
+     * @throws IOException w przypadku błędu kodowania obrazu
+     */
+    @Test
+    void shouldValidateUploads() throws IOException {
+        AvatarThumbnailer strict = new AvatarThumbnailer(avatarRepo, variantRepo, blobs, tx, 1, 1, 10_000);
+        try {
+            assertThatThrownBy(() -> avatarService.saveAvatar(userId, "<svg onload=alert(1)>".getBytes()))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("Nieobsługiwany format");
+            assertThatThrownBy(() -> strict.inspect(image(200, 100, false, "png")))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("rozdzielczość");
+            assertThatThrownBy(() -> avatarService.saveAvatar(userId, new byte[6 * 1024 * 1024]))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("zbyt duży");
+            assertThat(strict.inspect(image(90, 90, false, "jpeg")).contentType()).isEqualTo("image/jpeg");
+        } finally {
+            strict.shutdown();
+        }
+        verify(avatarRepo, never()).save(any());
+    }
+
+    /**
+     * Testuje czy zapis awatara ustala typ z treści i po zatwierdzeniu transakcji zleca generowanie miniatur.
+     * @throws IOException w przypadku błędu kodowania obrazu
+     */
+    @Test
+    void shouldPublishChangeAfterUpload() throws IOException {
+        byte[] data = image(400, 400, false, "png");
+
+        avatarService.saveAvatar(userId, data);
+
+        ArgumentCaptor<UserAvatar> saved = ArgumentCaptor.forClass(UserAvatar.class);
+        verify(avatarRepo).save(saved.capture());
+        assertThat(saved.getValue().getContentType()).isEqualTo("image/png");
+        assertThat(saved.getValue().getData()).as("Dane poza bazą danych").isNull();
+        assertThat(saved.getValue().getBlobKey()).isEqualTo(saved.getValue().getContentHash());
+        assertThat(blobs.exists(saved.getValue().getBlobKey())).isTrue();
+        verify(events).publishEvent(AvatarChangedEvent.forUser(userId, saved.getValue().getContentHash()));
+    }
+
+    /**
+     * Testuje czy miniatury są zapisywane tylko dla bieżącej wersji awatara - zadanie dla awatara,
+     * który zmienił się w międzyczasie, niczego nie zapisuje.
+     * @throws IOException w przypadku błędu kodowania obrazu
+     */
+    @Test
+    void shouldStoreVariantsOnlyForCurrentAvatar() throws IOException {
+        UserAvatar avatar = new UserAvatar(userId, image(640, 480, false, "jpeg"), "image/jpeg");
+        avatar.setContentHash("aktualny");
+        when(avatarRepo.findById(userId)).thenReturn(Optional.of(avatar));
+        when(avatarRepo.findMeta(userId)).thenReturn(Optional.of(new AvatarMetaDTO(userId, "image/jpeg", "aktualny", 1L)));
+
+        assertThat(thumbnailer.generate(userId, "nieaktualny")).isFalse();
+        assertThat(thumbnailer.generate(userId, "aktualny")).isTrue();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AvatarVariant>> variants = ArgumentCaptor.forClass(List.class);
+        verify(variantRepo).deleteByUserId(userId);
+        verify(variantRepo).saveAll(variants.capture());
+        assertThat(variants.getValue()).extracting(AvatarVariant::getDimension).containsExactlyElementsOf(AvatarThumbnailer.SIZES);
+        assertThat(variants.getValue()).allSatisfy(v -> {
+            assertThat(v.getSourceHash()).isEqualTo("aktualny");
+            assertThat(blobs.exists(v.getBlobKey())).as("Miniatura %d w magazynie", v.getDimension()).isTrue();
+        });
+    }
+
+    /**
+     * Testuje wybór rozmiaru miniatury dla żądanego rozmiaru.
+     */
+    @Test
+    void shouldPickSmallestSufficientVariant() {
+        assertThat(AvatarThumbnailer.variantFor(null)).isEqualTo(256);
+        assertThat(AvatarThumbnailer.variantFor(20)).isEqualTo(32);
+        assertThat(AvatarThumbnailer.variantFor(40)).isEqualTo(64);
+        assertThat(AvatarThumbnailer.variantFor(2000)).isEqualTo(256);
+    }
+
+    /**
+     * Testuje czy miniatury zdjęcia 3000x2000 są wielokrotnie mniejsze od oryginału, a mniejszy rozmiar
+     * oznacza mniej przesyłanych danych.
+     * @throws IOException w przypadku błędu kodowania obrazu
+     */
+    @Test
+    void shouldShrinkEgressForSmallSlots() throws IOException {
+        byte[] original = image(3000, 2000, false, "png");
+
+        Map<Integer, AvatarThumbnailer.Thumbnail> thumbnails = AvatarThumbnailer.render(original);
+
+        assertThat(thumbnails).containsOnlyKeys(AvatarThumbnailer.SIZES);
+        assertThat(thumbnails.get(32).data().length).isLessThan(original.length / 20);
+        assertThat(thumbnails.get(32).data().length).isLessThan(thumbnails.get(256).data().length);
+        assertThat(thumbnails.get(256).data().length).isLessThan(original.length);
+    }
+
+    private static byte[] image(int width, int height, boolean alpha, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, alpha ? new Color(0, 0, 255, 64) : Color.BLUE));
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.WHITE);
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
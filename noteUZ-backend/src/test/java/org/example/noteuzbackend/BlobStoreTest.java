@@ -0,0 +1,192 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.BlobMigrationDTO;
+import org.example.noteuzbackend.service.AvatarByteCache;
+import org.example.noteuzbackend.service.BlobGarbageCollector;
+import org.example.noteuzbackend.service.BlobMigrationService;
+import org.example.noteuzbackend.service.BlobStore;
+import org.example.noteuzbackend.service.FileBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe magazynu danych binarnych w systemie plików (FileBlobStore), usuwania nieużywanych obiektów
+ * (BlobGarbageCollector) i przenoszenia danych z bazy danych (BlobMigrationService).
+ */
+@ExtendWith(MockitoExtension.class)
+public class BlobStoreTest {
+
+    @TempDir private Path root;
+    @Mock private JdbcTemplate jdbc;
+
+    private FileBlobStore blobs;
+
+    /**
+     * Tworzy magazyn w katalogu tymczasowym.
+     * @throws IOException w przypadku błędu tworzenia katalogów
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        blobs = new FileBlobStore(root.toString(), false);
+    }
+
+    /**
+     * Testuje czy kluczem jest skrót SHA-256 treści, a identyczna treść jest przechowywana tylko raz.
+     * @throws Exception w przypadku błędu zapisu
+     */
+    @Test
+    void shouldDeduplicateByContentHash() throws Exception {
+        byte[] data = bytes(10_000, 1);
+
+        BlobStore.Blob first = blobs.put(data);
+        BlobStore.Blob second = blobs.put(new ByteArrayInputStream(data), data.length);
+
+        assertThat(first.key()).isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)));
+        assertThat(second).isEqualTo(first);
+        assertThat(objectFiles()).hasSize(1);
+        assertThat(blobs.stats()).containsEntry("writes", 1L).containsEntry("deduplicated", 1L);
+    }
+
+    /**
+     * Testuje czy duży obiekt zapisany strumieniowo jest w całości przesyłany przez transferTo
+     * i odczytywany przez odwzorowanie pliku w pamięci.
+     * @throws IOException w przypadku błędu zapisu lub odczytu
+     */
+    @Test
+    void shouldTransferAndMapStoredObject() throws IOException {
+        byte[] data = bytes(3 * 1024 * 1024 + 17, 2);
+        BlobStore.Blob blob = blobs.put(new ByteArrayInputStream(data), data.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        blobs.transferTo(blob.key(), out);
+        ByteBuffer mapped = blobs.read(blob.key());
+        byte[] copy = new byte[mapped.remaining()];
+        mapped.get(copy);
+
+        assertThat(blob.size()).isEqualTo(data.length);
+        assertThat(out.toByteArray()).isEqualTo(data);
+        assertThat(copy).isEqualTo(data);
+        assertThat(mapped.isDirect()).isTrue();
+    }
+
+    /**
+     * Testuje czy zbyt duże dane są odrzucane bez pozostawiania plików, a klucz spoza formatu skrótu
+     * nie może wskazać pliku poza magazynem.
+     * @throws IOException w przypadku błędu przeglądania katalogu
+     */
+    @Test
+    void shouldRejectOversizedDataAndInvalidKeys() throws IOException {
+        assertThatThrownBy(() -> blobs.put(new ByteArrayInputStream(bytes(200_000, 3)), 100_000))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("zbyt duży");
+        assertThatThrownBy(() -> blobs.open("../../etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    /**
+     * Testuje czy usuwane są tylko obiekty niewskazywane przez żaden wiersz i nieużywane w okresie karencji,
+     * a ponowny zapis tej samej treści chroni obiekt przed usunięciem.
+     * @throws IOException w przypadku błędu zapisu
+     */
+    @Test
+    void shouldCollectOnlyUnreferencedStaleObjects() throws IOException {
+        String referenced = blobs.put(bytes(100, 4)).key();
+        String orphan = blobs.put(bytes(100, 5)).key();
+        String reused = blobs.put(bytes(100, 6)).key();
+        String fresh = blobs.put(bytes(100, 7)).key();
+        for (String key : List.of(referenced, orphan, reused)) age(key, Duration.ofDays(2));
+        blobs.put(bytes(100, 6));
+        when(jdbc.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(referenced), List.of());
+
+        int deleted = new BlobGarbageCollector(blobs, jdbc, Duration.ofDays(1).toMillis()).collect();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(blobs.exists(orphan)).isFalse();
+        assertThat(blobs.exists(referenced)).isTrue();
+        assertThat(blobs.exists(reused)).as("Ponownie zapisany").isTrue();
+        assertThat(blobs.exists(fresh)).as("W okresie karencji").isTrue();
+    }
+
+    /**
+     * Testuje czy awatar z kolumny bytea jest przenoszony do magazynu, a wiersz otrzymuje klucz obiektu.
+     * @throws Exception w przypadku błędu odczytu wyniku zapytania
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMigrateDatabaseBlobs() throws Exception {
+        UUID userId = UUID.randomUUID();
+        byte[] data = bytes(50_000, 8);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getBinaryStream(1)).thenReturn(new ByteArrayInputStream(data));
+        when(jdbc.queryForList(startsWith("SELECT user_id FROM public.user_avatars"), eq(UUID.class), eq(10))).thenReturn(List.of(userId));
+        when(jdbc.queryForList(startsWith("SELECT id FROM public.avatar_variants"), eq(UUID.class), eq(10))).thenReturn(List.of());
+        when(jdbc.query(startsWith("SELECT data FROM public.user_avatars"), any(ResultSetExtractor.class), eq(userId)))
+                .thenAnswer(inv -> ((ResultSetExtractor<?>) inv.getArgument(1)).extractData(rs));
+        when(jdbc.update(startsWith("UPDATE public.user_avatars"), any(Object[].class))).thenReturn(1);
+        when(jdbc.queryForObject(startsWith("SELECT count(*)"), eq(Long.class))).thenReturn(0L);
+
+        BlobMigrationDTO result = new BlobMigrationService(blobs, new AvatarByteCache(1024, 1024, 60_000), jdbc).migrate(10);
+
+        String key = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        assertThat(result).isEqualTo(new BlobMigrationDTO(1, 0, data.length, 0, 0));
+        assertThat(blobs.exists(key)).isTrue();
+        verify(jdbc).update(startsWith("UPDATE public.user_avatars"), eq(key), eq(key), eq((long) data.length), eq(userId));
+    }
+
+    private void age(String key, Duration age) throws IOException {
+        Path file = root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    }
+
+    private List<Path> objectFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).filter(file -> !file.startsWith(root.resolve("tmp"))).toList();
+        }
+    }
+
+    private static byte[] bytes(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
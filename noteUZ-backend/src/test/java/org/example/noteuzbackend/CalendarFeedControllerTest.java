@@ -0,0 +1,135 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.controller.CalendarFeedController;
+import org.example.noteuzbackend.model.entity.CalendarFeed;
+import org.example.noteuzbackend.service.AuthService;
+import org.example.noteuzbackend.service.CalendarFeedService;
+import org.example.noteuzbackend.service.UserAccessCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testy integracyjne (WebMvcTest) kanału iCalendar: nagłówki ETag / Last-Modified i odpowiedzi warunkowe 304.
+ */
+@WebMvcTest(CalendarFeedController.class)
+public class CalendarFeedControllerTest {
+
+    private static final String TOKEN = "0f5b3c2e-7a9d-4c1b-9e8f-123456789abc";
+    private static final Instant CHANGED_AT = Instant.parse("2025-03-01T12:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CalendarFeedService feedService;
+
+    @MockBean
+    private AuthService authService;
+
+    @MockBean
+    private UserAccessCache accessCache;
+
+    private CalendarFeed feed;
+
+    /**
+     * Przygotowuje kanał o znanym momencie ostatniej zmiany.
+     */
+    @BeforeEach
+    void setUp() {
+        feed = new CalendarFeed();
+        feed.setId(UUID.randomUUID());
+        feed.setToken(TOKEN);
+        feed.setUserId(UUID.randomUUID());
+        feed.setChangedAt(CHANGED_AT);
+        when(feedService.findFeed(TOKEN)).thenReturn(feed);
+    }
+
+    /**
+     * Testuje czy pierwszy odczyt kanału zwraca kalendarz z nagłówkami ETag i Last-Modified.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldStreamFeedWithValidators() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(1);
+            out.write("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        }).when(feedService).writeFeed(any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/calendar/feeds/" + TOKEN + ".ics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, CalendarFeedService.etag(feed)))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n"));
+    }
+
+    /**
+     * Testuje czy subskrybent z aktualnym ETag otrzymuje 304 bez generowania kalendarza.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        mockMvc.perform(get("/api/calendar/feeds/" + TOKEN + ".ics")
+                        .header(HttpHeaders.IF_NONE_MATCH, CalendarFeedService.etag(feed)))
+                .andExpect(status().isNotModified());
+
+        verify(feedService, never()).writeFeed(any(), any());
+    }
+
+    /**
+     * Testuje czy subskrybent używający If-Modified-Since otrzymuje 304, dopóki kalendarz się nie zmieni.
+     * @throws Exception w przypadku błędu MockMvc
+     */
+    @Test
+    @WithMockUser
+    void shouldReturnNotModifiedSinceLastChange() throws Exception {
+        String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(CHANGED_AT.atOffset(ZoneOffset.UTC));
+
+        mockMvc.perform(get("/api/calendar/feeds/" + TOKEN + ".ics")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        feed.setChangedAt(CHANGED_AT.plusSeconds(60));
+        MvcResult result = mockMvc.perform(get("/api/calendar/feeds/" + TOKEN + ".ics")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(feedService).writeFeed(any(), any());
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.CalendarFeedRowDTO;
+import org.example.noteuzbackend.event.CalendarChangedEvent;
+import org.example.noteuzbackend.model.entity.CalendarFeed;
+import org.example.noteuzbackend.repository.CalendarFeedRepo;
+import org.example.noteuzbackend.repository.EventRepo;
+import org.example.noteuzbackend.service.CalendarFeedService;
+import org.example.noteuzbackend.service.GroupMembershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe generowania kanałów iCalendar przez CalendarFeedService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CalendarFeedTest {
+
+    @Mock private CalendarFeedRepo feedRepo;
+    @Mock private EventRepo eventRepo;
+    @Mock private GroupMembershipCache membershipCache;
+    @Mock private JdbcTemplate jdbc;
+
+    private CalendarFeedService feedService;
+    private final UUID userId = UUID.randomUUID();
+
+    /**
+     * Tworzy serwis kanałów z zamockowaną bazą danych.
+     */
+    @BeforeEach
+    void setUp() {
+        feedService = new CalendarFeedService(feedRepo, eventRepo, membershipCache, jdbc, "Europe/Warsaw");
+    }
+
+    /**
+     * Testuje czy kanał zawiera poprawnie zapisane wydarzenia: ucieczkę znaków, zawijanie długich linii,
+     * serię z regułą RRULE i odwołanymi wystąpieniami jako EXDATE oraz definicję strefy czasowej.
+     */
+    @Test
+    void shouldWriteEventsAndSeriesAsICalendar() {
+        UUID single = UUID.randomUUID();
+        UUID series = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 10, 0);
+        String longDescription = "Zakres: całki, szeregi; pochodne, granice\nSala 101. ".repeat(5);
+        when(eventRepo.streamUserFeed(eq(userId), any())).thenReturn(Stream.of(
+                new CalendarFeedRowDTO(single, userId, "Kolokwium, analiza", longDescription, start, start.plusHours(2), null, null),
+                new CalendarFeedRowDTO(series, userId, "Wykład", null, start, start.plusHours(1), "FREQ=WEEKLY;BYDAY=MO", start.plusWeeks(1)),
+                new CalendarFeedRowDTO(series, userId, "Wykład", null, start, start.plusHours(1), "FREQ=WEEKLY;BYDAY=MO", start.plusWeeks(3))
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = feedService.writeFeed(feed(null), out);
+        String ics = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics).contains("BEGIN:VTIMEZONE\r\nTZID:Europe/Warsaw\r\n")
+                .contains("RRULE:FREQ=YEARLY;BYMONTH=3;BYMONTHDAY=25,26,27,28,29,30,31;BYDAY=SU");
+        assertThat(ics).contains("SUMMARY:Kolokwium\\, analiza\r\n")
+                .contains("DTSTART;TZID=Europe/Warsaw:20250303T100000\r\n")
+                .contains("RRULE:FREQ=WEEKLY;BYDAY=MO\r\n")
+                .contains("EXDATE;TZID=Europe/Warsaw:20250310T100000\r\n")
+                .contains("EXDATE;TZID=Europe/Warsaw:20250324T100000\r\n");
+        assertThat(ics.split("BEGIN:VEVENT", -1)).as("Seria powinna być jedną pozycją").hasSize(3);
+        for (String line : ics.split("\r\n")) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).as("Linia: %s", line).isLessThanOrEqualTo(75);
+        }
+        String unfolded = ics.replace("\r\n ", "");
+        assertThat(unfolded).contains("DESCRIPTION:Zakres: całki\\, szeregi\\; pochodne\\, granice\\nSala 101.");
+    }
+
+    /**
+     * Testuje czy UNTIL reguły powtarzania jest zapisywany w UTC z sufiksem Z (DTSTART ma TZID),
+     * a sama data oznacza koniec dnia w strefie kalendarza.
+     */
+    @Test
+    void shouldWriteUntilInUtc() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 10, 0);
+        when(eventRepo.streamUserFeed(eq(userId), any())).thenReturn(Stream.of(
+                new CalendarFeedRowDTO(UUID.randomUUID(), userId, "Wykład", null, start, start.plusHours(1),
+                        "FREQ=WEEKLY;UNTIL=20250615T100000;BYDAY=MO", null),
+                new CalendarFeedRowDTO(UUID.randomUUID(), userId, "Ćwiczenia", null, start, start.plusHours(1),
+                        "FREQ=DAILY;UNTIL=20250110", null)
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        feedService.writeFeed(feed(null), out);
+        String ics = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(ics).contains("RRULE:FREQ=WEEKLY;UNTIL=20250615T080000Z;BYDAY=MO\r\n")
+                .contains("RRULE:FREQ=DAILY;UNTIL=20250110T225959Z\r\n");
+    }
+
+    /**
+     * Testuje czy kanał grupy nie ujawnia tytułów ani opisów wydarzeń członków.
+     */
+    @Test
+    void shouldHideDetailsInGroupFeed() {
+        UUID groupId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 10, 0);
+        when(eventRepo.streamGroupFeed(eq(groupId), any())).thenReturn(Stream.of(
+                new CalendarFeedRowDTO(UUID.randomUUID(), UUID.randomUUID(), "Wizyta u lekarza", "Prywatne", start, start.plusHours(1), null, null)
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        feedService.writeFeed(feed(groupId), out);
+        String ics = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(ics).contains("SUMMARY:Zajęte").doesNotContain("lekarza").doesNotContain("Prywatne");
+    }
+
+    /**
+     * Testuje czy kanał ze 100 000 wydarzeń jest zapisywany strumieniowo w całości.
+     */
+    @Test
+    void shouldStreamLargeCalendar() {
+        int events = 100_000;
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+        when(eventRepo.streamUserFeed(eq(userId), any())).thenReturn(IntStream.range(0, events).mapToObj(i ->
+                new CalendarFeedRowDTO(UUID.randomUUID(), userId, "Zajęcia " + i, "Opis " + i,
+                        start.plusHours(i), start.plusHours(i).plusMinutes(45), null, null)));
+        long[] bytes = new long[1];
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes[0] += len;
+            }
+        };
+
+        long count = feedService.writeFeed(feed(null), counting);
+
+        assertThat(count).isEqualTo(events);
+        assertThat(bytes[0]).as("Każde wydarzenie zajmuje w kanale co najmniej kilkadziesiąt bajtów")
+                .isGreaterThan(events * 100L);
+    }
+
+    /**
+     * Testuje czy zmiana kalendarza oznacza zmianę kanałów użytkownika i jego grup, a ETag zależy od momentu zmiany.
+     */
+    @Test
+    void shouldTouchFeedsOnCalendarChange() {
+        feedService.onCalendarChanged(CalendarChangedEvent.forUser(userId));
+
+        verify(jdbc).update(contains("group_members"), eq(userId), eq(userId));
+
+        CalendarFeed feed = feed(null);
+        String before = CalendarFeedService.etag(feed);
+        feed.setChangedAt(feed.getChangedAt().plusMillis(1));
+        assertThat(CalendarFeedService.etag(feed)).isNotEqualTo(before);
+    }
+
+    /**
+     * Testuje czy kanał grupy przestaje działać po opuszczeniu grupy przez właściciela,
+     * a nieznany token i cudza grupa są odrzucane.
+     */
+    @Test
+    void shouldRejectUnknownTokenAndFormerGroupMember() {
+        UUID groupId = UUID.randomUUID();
+        CalendarFeed feed = feed(groupId);
+        when(feedRepo.findByToken("znany")).thenReturn(Optional.of(feed));
+        when(feedRepo.findByToken("nieznany")).thenReturn(Optional.empty());
+        when(membershipCache.isMember(groupId, userId)).thenReturn(false);
+
+        assertThatThrownBy(() -> feedService.findFeed("nieznany")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> feedService.findFeed("znany")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> feedService.createFeed(userId, groupId))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Nie należysz");
+    }
+
+    private CalendarFeed feed(UUID groupId) {
+        CalendarFeed feed = new CalendarFeed();
+        feed.setId(UUID.randomUUID());
+        feed.setToken(UUID.randomUUID().toString());
+        feed.setUserId(userId);
+        feed.setGroupId(groupId);
+        feed.setChangedAt(Instant.parse("2025-03-01T12:00:00Z"));
+        return feed;
+    }
+}
@@ -1,20 +1,33 @@
 package org.example.noteuzbackend;
 
+import org.example.noteuzbackend.dto.EventOccurrenceDTO;
 import org.example.noteuzbackend.model.entity.Event;
 import org.example.noteuzbackend.repository.EventRepo;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.example.noteuzbackend.service.EventIntervalIndex;
 import org.example.noteuzbackend.service.EventService;
+import org.example.noteuzbackend.service.GroupMembershipCache;
+import org.example.noteuzbackend.service.RecurrenceRule;
+import org.example.noteuzbackend.service.ReminderService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +39,11 @@ import static org.mockito.Mockito.when;
 public class EventCalendarTest {
 
     @Mock private EventRepo eventRepo;
+    @Mock private EventIntervalIndex intervalIndex;
+    @Mock private GroupMembershipCache membershipCache;
+    @Mock private GroupMemberRepo memberRepo;
+    @Mock private ReminderService reminderService;
+    @Mock private ApplicationEventPublisher events;
     @InjectMocks private EventService eventService;
 
     /**
@@ -64,4 +82,130 @@ public class EventCalendarTest {
 
         verify(eventRepo).save(event);
     }
-}
\ No newline at end of file
+
+    /**
+     * Testuje czy widok tygodnia użytkownika z 20 000 wydarzeń pobiera tylko wydarzenia z przedziału
+     * jednym zapytaniem, bez wczytywania całej historii.
+     */
+    @Test
+    void shouldGetOnlyEventsInRange() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime weekStart = LocalDateTime.of(2025, 3, 3, 0, 0);
+        LocalDateTime weekEnd = weekStart.plusDays(7);
+        // Historia 20 000 wydarzeń co 4 godziny; w tygodniu mieści się 42 z nich
+        List<Event> week = IntStream.range(0, 20_000)
+                .mapToObj(i -> {
+                    Event e = new Event();
+                    e.setStart(weekEnd.minusHours(4L * (i + 1)));
+                    e.setEnd(e.getStart().plusHours(1));
+                    return e;
+                })
+                .filter(e -> e.getStart().isBefore(weekEnd) && e.getEnd().isAfter(weekStart))
+                .toList();
+        when(eventRepo.findInRange(userId, weekStart, weekEnd)).thenReturn(week);
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(eventRepo);
+
+        List<EventOccurrenceDTO> events = eventService.getUserEvents(userId, weekStart, weekEnd);
+
+        queries.assertAtMost(1);
+        assertThat(events).hasSize(42);
+        verify(eventRepo, never()).findByUserIdOrderByStartAsc(any());
+    }
+
+    /**
+     * Testuje odrzucanie niepoprawnych przedziałów: bez końca, odwróconego i dłuższego niż rok.
+     */
+    @Test
+    void shouldRejectInvalidRange() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        assertThatThrownBy(() -> eventService.getUserEvents(userId, from, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> eventService.getUserEvents(userId, from, from.minusDays(1)))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> eventService.getUserEvents(userId, from, from.plusYears(2)))
+                .as("Przedział dłuższy niż 366 dni powinien zostać odrzucony")
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("366");
+        verify(eventRepo, never()).findInRange(any(), any(), any());
+    }
+
+    /**
+     * Testuje czy semestralny wykład zapisany jako jedna seria jest rozwijany tylko w obrębie okna,
+     * z pominięciem odwołanego wystąpienia.
+     */
+    @Test
+    void shouldExpandRecurringEventWithinWindowOnly() {
+        UUID userId = UUID.randomUUID();
+        Event lecture = new Event();
+        lecture.setId(UUID.randomUUID());
+        lecture.setTitle("Wykład");
+        lecture.setStart(LocalDateTime.of(2025, 2, 24, 10, 15));
+        lecture.setEnd(LocalDateTime.of(2025, 2, 24, 11, 45));
+        lecture.setRecurrenceRule("FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20250615");
+        eventService.applyRecurrence(lecture);
+        lecture.getExceptions().add(LocalDateTime.of(2025, 4, 23, 10, 15));
+
+        LocalDateTime weekStart = LocalDateTime.of(2025, 4, 21, 0, 0);
+        when(eventRepo.findInRange(userId, weekStart, weekStart.plusDays(7))).thenReturn(List.of(lecture));
+
+        List<EventOccurrenceDTO> week = eventService.getUserEvents(userId, weekStart, weekStart.plusDays(7));
+
+        assertThat(week)
+                .as("Środowe wystąpienie zostało odwołane")
+                .extracting(EventOccurrenceDTO::start)
+                .containsExactly(LocalDateTime.of(2025, 4, 21, 10, 15));
+        assertThat(week.get(0).end()).isEqualTo(LocalDateTime.of(2025, 4, 21, 11, 45));
+        assertThat(week.get(0).id()).isEqualTo(lecture.getId());
+        assertThat(lecture.getRecurrenceEnd())
+                .as("Seria z UNTIL kończy się najpóźniej w dniu UNTIL")
+                .isEqualTo(LocalDateTime.of(2025, 6, 15, 23, 59, 59, 999_999_999).plusMinutes(90));
+    }
+
+    /**
+     * Testuje czy przeskok do okna daje te same wystąpienia co iteracja od początku serii
+     * (także przy ograniczeniu COUNT) oraz czy miesiące bez dnia rozpoczęcia serii są pomijane.
+     */
+    @Test
+    void shouldSkipAheadWithoutChangingOccurrences() {
+        LocalDateTime seriesStart = LocalDateTime.of(2025, 1, 1, 8, 0); // środa
+        RecurrenceRule weekly = RecurrenceRule.parse("RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR;COUNT=100");
+        LocalDateTime windowStart = LocalDateTime.of(2025, 9, 1, 0, 0);
+
+        List<LocalDateTime> all = new ArrayList<>();
+        weekly.occurrences(seriesStart, null).forEachRemaining(all::add);
+        List<LocalDateTime> skipped = new ArrayList<>();
+        weekly.occurrences(seriesStart, windowStart).forEachRemaining(skipped::add);
+
+        assertThat(all).hasSize(100).startsWith(seriesStart, LocalDateTime.of(2025, 1, 3, 8, 0));
+        assertThat(skipped)
+                .as("Przeskok do okna nie może zmienić wystąpień ani liczenia COUNT")
+                .isEqualTo(all.subList(all.size() - skipped.size(), all.size()))
+                .isNotEmpty()
+                .hasSizeLessThan(all.size());
+        assertThat(weekly.lastOccurrenceBound(seriesStart)).isEqualTo(all.get(99));
+
+        Iterator<LocalDateTime> monthly = RecurrenceRule.parse("FREQ=MONTHLY").occurrences(LocalDateTime.of(2025, 1, 31, 9, 0), null);
+        assertThat(List.of(monthly.next(), monthly.next()))
+                .as("Luty nie ma 31. dnia i powinien zostać pominięty")
+                .containsExactly(LocalDateTime.of(2025, 1, 31, 9, 0), LocalDateTime.of(2025, 3, 31, 9, 0));
+    }
+
+    /**
+     * Testuje odrzucanie niepoprawnych reguł powtarzania kodem 400.
+     */
+    @Test
+    void shouldRejectInvalidRecurrenceRule() {
+        Event event = new Event();
+        event.setStart(LocalDateTime.of(2025, 1, 1, 8, 0));
+        event.setEnd(event.getStart().plusHours(1));
+
+        for (String rule : List.of("FREQ=YEARLY", "FREQ=DAILY;BYDAY=MO", "FREQ=DAILY;COUNT=0", "INTERVAL=2")) {
+            event.setRecurrenceRule(rule);
+            assertThatThrownBy(() -> eventService.applyRecurrence(event))
+                    .as("Reguła %s powinna zostać odrzucona", rule)
+                    .isInstanceOf(ResponseStatusException.class);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.EventSlotDTO;
+import org.example.noteuzbackend.dto.FreeBusyDTO;
+import org.example.noteuzbackend.dto.FreeBusyDTO.TimeRange;
+import org.example.noteuzbackend.event.CalendarChangedEvent;
+import org.example.noteuzbackend.model.entity.Event;
+import org.example.noteuzbackend.model.entity.GroupMember;
+import org.example.noteuzbackend.model.enums.GroupRole;
+import org.example.noteuzbackend.repository.EventRepo;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.example.noteuzbackend.service.EventIntervalIndex;
+import org.example.noteuzbackend.service.EventService;
+import org.example.noteuzbackend.service.GroupMembershipCache;
+import org.example.noteuzbackend.service.IntervalTree;
+import org.example.noteuzbackend.service.ReminderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe drzewa przedziałów, indeksu EventIntervalIndex oraz wyznaczania kolizji i zajętości grupy.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EventIntervalIndexTest {
+
+    @Mock private EventRepo eventRepo;
+    @Mock private GroupMemberRepo memberRepo;
+    @Mock private GroupMembershipCache membershipCache;
+    @Mock private ReminderService reminderService;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private TransactionTemplate tx;
+
+    private EventIntervalIndex index;
+    private EventService eventService;
+
+    /**
+     * Tworzy serwis wydarzeń z rzeczywistym indeksem przedziałów i zamockowaną bazą danych.
+     */
+    @BeforeEach
+    void setUp() {
+        lenient().when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        index = new EventIntervalIndex(eventRepo, tx, 1_000, 600_000);
+        eventService = new EventService(eventRepo, index, membershipCache, memberRepo, reminderService, events);
+    }
+
+    /**
+     * Testuje czy drzewo przedziałów zwraca dokładnie te przedziały, które zwraca przegląd liniowy.
+     */
+    @Test
+    void shouldMatchLinearScan() {
+        Random random = new Random(42);
+        List<IntervalTree.Entry<Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long start = random.nextInt(1_000_000);
+            entries.add(new IntervalTree.Entry<>(start, start + 1 + random.nextInt(random.nextInt(10) == 0 ? 50_000 : 500), i));
+        }
+        IntervalTree<Integer> tree = IntervalTree.build(entries);
+
+        for (int q = 0; q < 1_000; q++) {
+            long from = random.nextInt(1_000_000);
+            long to = from + 1 + random.nextInt(2_000);
+            List<Integer> expected = entries.stream()
+                    .filter(e -> e.start() < to && e.end() > from)
+                    .map(IntervalTree.Entry::value)
+                    .toList();
+            assertThat(tree.overlapping(from, to)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    /**
+     * Testuje wykrywanie kolizji z pominięciem zmienianego wydarzenia oraz unieważnianie indeksu po zmianie kalendarza.
+     */
+    @Test
+    void shouldFindConflictsAndReloadAfterChange() {
+        UUID userId = UUID.randomUUID();
+        Event lecture = event(userId, LocalDateTime.of(2025, 3, 3, 10, 0), 90);
+        lecture.setRecurrenceRule("FREQ=WEEKLY");
+        Event meeting = event(userId, LocalDateTime.of(2025, 3, 12, 10, 30), 30);
+        when(eventRepo.findByUserIdIn(anyCollection())).thenReturn(List.of(lecture, meeting));
+
+        List<EventSlotDTO> conflicts = eventService.findConflicts(userId,
+                LocalDateTime.of(2025, 3, 10, 11, 0), LocalDateTime.of(2025, 3, 12, 11, 0), null);
+
+        assertThat(conflicts)
+                .as("Kolizja z wystąpieniem serii z 10 marca i spotkaniem z 12 marca")
+                .extracting(EventSlotDTO::start)
+                .containsExactly(LocalDateTime.of(2025, 3, 10, 10, 0), LocalDateTime.of(2025, 3, 12, 10, 30));
+        assertThat(eventService.findConflicts(userId,
+                LocalDateTime.of(2025, 3, 12, 10, 0), LocalDateTime.of(2025, 3, 12, 11, 0), meeting.getId()))
+                .as("Przeciągane wydarzenie nie koliduje samo ze sobą")
+                .isEmpty();
+
+        when(eventRepo.findByUserIdIn(anyCollection())).thenReturn(List.of(lecture));
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(eventRepo);
+        index.onCalendarChanged(CalendarChangedEvent.forUser(userId));
+        assertThat(eventService.findConflicts(userId,
+                LocalDateTime.of(2025, 3, 12, 10, 0), LocalDateTime.of(2025, 3, 12, 11, 0), null)).isEmpty();
+        queries.assertAtMost(1);
+    }
+
+    /**
+     * Testuje scalanie zajętości członków grupy oraz wyznaczanie wspólnych wolnych przedziałów.
+     */
+    @Test
+    void shouldMergeGroupFreeBusy() {
+        UUID groupId = UUID.randomUUID();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 0, 0);
+        when(membershipCache.isMember(groupId, alice)).thenReturn(true);
+        when(memberRepo.findByGroupId(groupId)).thenReturn(List.of(
+                new GroupMember(groupId, alice, GroupRole.OWNER), new GroupMember(groupId, bob, GroupRole.MEMBER)));
+        when(eventRepo.findByUserIdIn(anyCollection())).thenReturn(List.of(
+                event(alice, day.withHour(9), 60),
+                event(bob, day.withHour(9).withMinute(30), 60),
+                event(bob, day.withHour(13), 30),
+                event(alice, day.minusHours(1), 90)));
+
+        FreeBusyDTO freeBusy = eventService.getGroupFreeBusy(groupId, alice, day, day.plusDays(1));
+
+        assertThat(freeBusy.members()).isEqualTo(2);
+        assertThat(freeBusy.busy()).containsExactly(
+                new TimeRange(day, day.withMinute(30)),
+                new TimeRange(day.withHour(9), day.withHour(10).withMinute(30)),
+                new TimeRange(day.withHour(13), day.withHour(13).withMinute(30)));
+        assertThat(freeBusy.free()).containsExactly(
+                new TimeRange(day.withMinute(30), day.withHour(9)),
+                new TimeRange(day.withHour(10).withMinute(30), day.withHour(13)),
+                new TimeRange(day.withHour(13).withMinute(30), day.plusDays(1)));
+    }
+
+    /**
+     * Testuje zajętość grupy 200 użytkowników z gęstymi kalendarzami (8 wydarzeń dziennie przez cztery miesiące):
+     * kalendarze są wczytywane jednym zapytaniem, a kolejne zapytania korzystają wyłącznie z indeksu.
+     */
+    @Test
+    void shouldComputeFreeBusyForLargeGroupFromIndex() {
+        UUID groupId = UUID.randomUUID();
+        LocalDateTime semester = LocalDateTime.of(2025, 2, 24, 0, 0);
+        Random random = new Random(7);
+        List<GroupMember> members = new ArrayList<>();
+        List<Event> calendars = new ArrayList<>();
+        for (int u = 0; u < 200; u++) {
+            UUID userId = UUID.randomUUID();
+            members.add(new GroupMember(groupId, userId, GroupRole.MEMBER));
+            for (int d = 0; d < 120; d++) {
+                for (int e = 0; e < 8; e++) {
+                    LocalDateTime start = semester.plusDays(d).withHour(7 + e + random.nextInt(2)).withMinute(random.nextInt(4) * 15);
+                    calendars.add(event(userId, start, 30 + random.nextInt(4) * 15));
+                }
+            }
+        }
+        UUID requester = members.get(0).getUserId();
+        when(membershipCache.isMember(groupId, requester)).thenReturn(true);
+        when(memberRepo.findByGroupId(groupId)).thenReturn(members);
+        when(eventRepo.findByUserIdIn(anyCollection())).thenReturn(calendars);
+
+        LocalDateTime week = semester.plusWeeks(10);
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(eventRepo, memberRepo);
+        FreeBusyDTO cold = eventService.getGroupFreeBusy(groupId, requester, week, week.plusDays(7));
+        queries.assertAtMost(2);
+
+        RepositoryQueryCounter warmQueries = RepositoryQueryCounter.watching(eventRepo, memberRepo);
+        int runs = 100;
+        FreeBusyDTO warm = cold;
+        for (int i = 0; i < runs; i++) {
+            warm = eventService.getGroupFreeBusy(groupId, requester, week, week.plusDays(7));
+        }
+
+        warmQueries.assertAtMost(runs);
+        assertThat(warm).isEqualTo(cold);
+        assertThat(warm.busy()).isNotEmpty();
+        assertThat(warm.free().get(0).start())
+                .as("Noc przed pierwszym dniem tygodnia jest wolna")
+                .isEqualTo(week);
+        assertThat(index.stats()).containsEntry("cachedUsers", 200);
+    }
+
+    /**
+     * Testuje czy liczba zapamiętanych kalendarzy nie przekracza limitu, a usunięty kalendarz jest wczytywany ponownie.
+     */
+    @Test
+    void shouldBoundCachedCalendars() {
+        EventIntervalIndex bounded = new EventIntervalIndex(eventRepo, tx, 10, 600_000);
+        LocalDateTime day = LocalDateTime.of(2025, 3, 3, 0, 0);
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) users.add(UUID.randomUUID());
+        when(eventRepo.findByUserIdIn(anyCollection())).thenReturn(List.of());
+
+        for (UUID userId : users) {
+            bounded.overlapping(userId, day, day.plusDays(1));
+            assertThat((int) bounded.stats().get("cachedUsers")).isLessThanOrEqualTo(10);
+        }
+        bounded.overlapping(users.get(0), day, day.plusDays(1));
+
+        assertThat((long) bounded.stats().get("evictions")).isGreaterThan(0);
+        verify(eventRepo, times(51)).findByUserIdIn(anyCollection());
+    }
+
+    private static Event event(UUID userId, LocalDateTime start, int minutes) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setUserId(userId);
+        event.setTitle("Wydarzenie");
+        event.setStart(start);
+        event.setEnd(start.plusMinutes(minutes));
+        return event;
+    }
+}
@@ -0,0 +1,314 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.ReminderNotificationDTO;
+import org.example.noteuzbackend.dto.ScheduledReminderDTO;
+import org.example.noteuzbackend.model.entity.AppUser;
+import org.example.noteuzbackend.model.entity.Event;
+import org.example.noteuzbackend.model.entity.EventReminder;
+import org.example.noteuzbackend.model.enums.ReminderChannel;
+import org.example.noteuzbackend.repository.AppUserRepo;
+import org.example.noteuzbackend.repository.EventReminderRepo;
+import org.example.noteuzbackend.repository.EventRepo;
+import org.example.noteuzbackend.service.EmailService;
+import org.example.noteuzbackend.service.ReminderPushChannel;
+import org.example.noteuzbackend.service.ReminderService;
+import org.example.noteuzbackend.service.TimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe koła czasowego TimingWheel oraz planisty przypomnień ReminderService.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EventReminderTest {
+
+    private static final String ZONE = "Europe/Warsaw";
+    private static final long HORIZON_MS = 2 * 60 * 60 * 1000L;
+
+    @Mock private EventReminderRepo reminderRepo;
+    @Mock private EventRepo eventRepo;
+    @Mock private AppUserRepo userRepo;
+    @Mock private EmailService emailService;
+    @Mock private ReminderPushChannel pushChannel;
+    @Mock private TransactionTemplate tx;
+
+    private ReminderService reminderService;
+    private final UUID userId = UUID.randomUUID();
+
+    /**
+     * Tworzy serwis przypomnień z zamockowaną bazą danych i kanałami wysyłki.
+     */
+    @BeforeEach
+    void setUp() {
+        lenient().when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(reminderRepo.save(any(EventReminder.class))).thenAnswer(inv -> {
+            EventReminder reminder = inv.getArgument(0);
+            if (reminder.getId() == null) reminder.setId(UUID.randomUUID());
+            return reminder;
+        });
+        reminderService = new ReminderService(reminderRepo, eventRepo, userRepo, emailService, pushChannel, tx, ZONE, HORIZON_MS, 1, 16);
+    }
+
+    /**
+     * Testuje czy koło czasowe wykonuje każde zadanie w pierwszym takcie nie wcześniejszym niż jego termin,
+     * także po przeniesieniu z wyższych poziomów i dla terminów poza zasięgiem koła, a anulowane zadania pomija.
+     */
+    @Test
+    void shouldExpireTasksAtTheirDeadlineAcrossLevels() {
+        // Zasięg koła: 8^3 = 512 taktów; część terminów celowo poza zasięgiem
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, 8, 3, 0);
+        Random random = new Random(42);
+        long[] deadlines = new long[5_000];
+        List<TimingWheel.Timeout<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = random.nextInt(i % 10 == 0 ? 1_500_000 : 400_000);
+            handles.add(wheel.schedule(deadlines[i], i));
+        }
+        for (int i = 0; i < deadlines.length; i += 3) {
+            assertThat(wheel.cancel(handles.get(i))).isTrue();
+        }
+        assertThat(wheel.cancel(handles.get(0))).as("Ponowne anulowanie nie powinno nic zmienić").isFalse();
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 1_600_000; now += 1000) {
+            long tickNow = now;
+            wheel.advance(now, task -> firedAt.put(task, tickNow));
+        }
+
+        assertThat(wheel.size()).isZero();
+        for (int i = 0; i < deadlines.length; i++) {
+            if (i % 3 == 0) {
+                assertThat(firedAt).as("Anulowane zadanie nie powinno zostać wykonane").doesNotContainKey(i);
+                continue;
+            }
+            long expected = Math.max((deadlines[i] + 999) / 1000 * 1000, 1000);
+            assertThat(firedAt.get(i)).as("Zadanie %d z terminem %d", i, deadlines[i]).isEqualTo(expected);
+        }
+    }
+
+    /**
+     * Testuje czy po dodaniu miliona zadań i anulowaniu połowy z nich przejście koła przez cały zakres terminów
+     * wykonuje dokładnie pozostałe zadania.
+     */
+    @Test
+    void shouldScheduleAndCancelMillionTasksQuickly() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, 64, 4, 0);
+        Random random = new Random(7);
+        int count = 1_000_000;
+        List<TimingWheel.Timeout<Integer>> handles = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            // Terminy do 2 godzin, jak w horyzoncie planisty przypomnień
+            handles.add(wheel.schedule(random.nextInt(7_200_000), i));
+        }
+        assertThat(wheel.size()).isEqualTo(count);
+
+        for (int i = 0; i < count; i += 2) wheel.cancel(handles.get(i));
+        assertThat(wheel.size()).isEqualTo(count / 2);
+
+        int[] expired = new int[1];
+        for (long now = 0; now <= 7_200_000; now += 1000) wheel.advance(now, task -> expired[0]++);
+
+        assertThat(expired[0]).isEqualTo(count / 2);
+        assertThat(wheel.size()).isZero();
+    }
+
+    /**
+     * Testuje czy przypomnienie jest wysyłane emailem dopiero w momencie wyprzedzenia przed rozpoczęciem wydarzenia.
+     */
+    @Test
+    void shouldSendEmailReminderAtOffsetBeforeStart() {
+        Event event = event(LocalDateTime.now(ZoneId.of(ZONE)).plusMinutes(20).truncatedTo(ChronoUnit.SECONDS), null);
+        EventReminder reminder = reminderService.addReminder(event.getId(), userId, 15, null);
+        stubDispatch(reminder, event);
+
+        assertThat(reminder.getChannel()).isEqualTo(ReminderChannel.EMAIL);
+        assertThat(reminder.getNextFireAt()).isEqualTo(event.getStart().minusMinutes(15));
+        assertThat(reminderService.dispatchDue(Instant.now().plus(4, ChronoUnit.MINUTES)))
+                .as("Przypomnienie nie powinno zostać wysłane przed terminem").isZero();
+
+        int sent = reminderService.dispatchDue(instant(reminder.getNextFireAt()).plusSeconds(1));
+        // Zamknięcie serwisu czeka na wysłanie przypomnień z kolejki email
+        reminderService.shutdown();
+
+        assertThat(sent).isEqualTo(1);
+        verify(emailService).sendEventReminder("owner@uz.pl", "Kolokwium", event.getStart(), 15);
+        assertThat(reminder.getLastFireAt()).isEqualTo(event.getStart().minusMinutes(15));
+        assertThat(reminder.getNextFireAt()).as("Pojedyncze wydarzenie nie ma kolejnych przypomnień").isNull();
+        assertThat(reminderService.stats()).containsEntry("scheduled", 0).containsEntry("sent", 1L);
+    }
+
+    /**
+     * Testuje czy błąd serwera SMTP jest liczony jako nieudane przypomnienie, a nie jako wysłane.
+     */
+    @Test
+    void shouldCountFailedEmailReminder() {
+        Event event = event(LocalDateTime.now(ZoneId.of(ZONE)).plusMinutes(20).truncatedTo(ChronoUnit.SECONDS), null);
+        EventReminder reminder = reminderService.addReminder(event.getId(), userId, 15, null);
+        stubDispatch(reminder, event);
+        doThrow(new MailSendException("Connection refused"))
+                .when(emailService).sendEventReminder(anyString(), anyString(), any(), anyInt());
+
+        reminderService.dispatchDue(instant(reminder.getNextFireAt()).plusSeconds(1));
+        reminderService.shutdown();
+
+        assertThat(reminderService.stats()).containsEntry("sent", 0L).containsEntry("failures", 1L);
+    }
+
+    /**
+     * Testuje czy przypomnienie o wydarzeniu rozpoczynającym się szybciej niż wyprzedzenie jest wysyłane od razu (kanał push).
+     */
+    @Test
+    void shouldSendPushReminderImmediatelyWhenOffsetAlreadyPassed() {
+        Event event = event(LocalDateTime.now(ZoneId.of(ZONE)).plusMinutes(10), null);
+        EventReminder reminder = reminderService.addReminder(event.getId(), userId, 60, ReminderChannel.PUSH);
+        when(reminderRepo.findAllById(any())).thenReturn(List.of(reminder));
+        when(eventRepo.findAllById(any())).thenReturn(List.of(event));
+        when(pushChannel.send(any(), any())).thenReturn(true);
+
+        int sent = reminderService.dispatchDue(Instant.now().plusSeconds(2));
+
+        assertThat(sent).isEqualTo(1);
+        verify(pushChannel).send(any(UUID.class), any(ReminderNotificationDTO.class));
+        verify(emailService, never()).sendEventReminder(anyString(), anyString(), any(), anyInt());
+    }
+
+    /**
+     * Testuje czy usunięte przypomnienie jest wycofywane z koła czasowego i nie trafia do wysyłki.
+     */
+    @Test
+    void shouldNotSendDeletedReminder() {
+        Event event = event(LocalDateTime.now(ZoneId.of(ZONE)).plusMinutes(20), null);
+        EventReminder reminder = reminderService.addReminder(event.getId(), userId, 15, null);
+        when(reminderRepo.findById(reminder.getId())).thenReturn(Optional.of(reminder));
+
+        reminderService.deleteReminder(event.getId(), reminder.getId(), userId);
+
+        assertThat(reminderService.dispatchDue(Instant.now().plus(30, ChronoUnit.MINUTES))).isZero();
+        verify(reminderRepo, never()).findAllById(any());
+        assertThat(reminderService.stats()).containsEntry("scheduled", 0);
+    }
+
+    /**
+     * Testuje czy po wysłaniu przypomnienia o serii termin kolejnego jest wyliczany dla następnego wystąpienia
+     * z pominięciem odwołanych wystąpień.
+     */
+    @Test
+    void shouldComputeNextReminderOfRecurringSeries() {
+        LocalDateTime start = LocalDateTime.now(ZoneId.of(ZONE)).plusMinutes(20).truncatedTo(ChronoUnit.SECONDS);
+        Event event = event(start, "FREQ=DAILY");
+        event.getExceptions().add(start.plusDays(1));
+        EventReminder reminder = reminderService.addReminder(event.getId(), userId, 15, null);
+        stubDispatch(reminder, event);
+
+        reminderService.dispatchDue(instant(reminder.getNextFireAt()).plusSeconds(1));
+
+        assertThat(reminder.getNextFireAt()).as("Wystąpienie z jutra jest odwołane")
+                .isEqualTo(start.plusDays(2).minusMinutes(15));
+        assertThat(reminderService.stats()).as("Kolejny termin jest poza horyzontem koła").containsEntry("scheduled", 0);
+    }
+
+    /**
+     * Testuje czy rehydratacja planuje tylko przypomnienia nieobecne w kole, a zaległe o dawno rozpoczętych
+     * wystąpieniach pomija bez wysyłki.
+     */
+    @Test
+    void shouldRehydrateMissingRemindersAndSkipStaleOnes() {
+        LocalDateTime now = LocalDateTime.now(ZoneId.of(ZONE)).truncatedTo(ChronoUnit.SECONDS);
+        Event event = event(now.minusMinutes(45), null);
+        EventReminder stale = new EventReminder();
+        stale.setId(UUID.randomUUID());
+        stale.setEventId(event.getId());
+        stale.setUserId(userId);
+        stale.setOffsetMinutes(15);
+        stale.setChannel(ReminderChannel.EMAIL);
+        stale.setNextFireAt(now.minusHours(1));
+        ScheduledReminderDTO upcoming = new ScheduledReminderDTO(UUID.randomUUID(), now.plusMinutes(30));
+        when(reminderRepo.streamDueBefore(any())).thenAnswer(inv ->
+                Stream.of(new ScheduledReminderDTO(stale.getId(), stale.getNextFireAt()), upcoming));
+
+        assertThat(reminderService.rehydrate(Instant.now())).isEqualTo(2);
+        assertThat(reminderService.rehydrate(Instant.now())).as("Zaplanowane przypomnienia nie są dublowane").isZero();
+
+        when(reminderRepo.findAllById(any())).thenReturn(List.of(stale));
+        when(eventRepo.findAllById(any())).thenReturn(List.of(event));
+        when(userRepo.findAllById(any())).thenReturn(List.of());
+
+        assertThat(reminderService.dispatchDue(Instant.now().plusSeconds(2))).isZero();
+        verify(emailService, never()).sendEventReminder(anyString(), anyString(), any(), anyInt());
+        assertThat(reminderService.stats()).containsEntry("missed", 1L).containsEntry("scheduled", 1);
+    }
+
+    /**
+     * Testuje walidację wyprzedzenia i właściciela wydarzenia.
+     */
+    @Test
+    void shouldRejectInvalidOffsetAndForeignEvent() {
+        Event event = event(LocalDateTime.now().plusDays(1), null);
+
+        assertThatThrownBy(() -> reminderService.addReminder(event.getId(), userId, -5, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> reminderService.addReminder(event.getId(), userId, 5 * 7 * 24 * 60, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> reminderService.addReminder(event.getId(), UUID.randomUUID(), 15, null))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Brak dostępu");
+    }
+
+    private Event event(LocalDateTime start, String rule) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setUserId(userId);
+        event.setTitle("Kolokwium");
+        event.setStart(start);
+        event.setEnd(start.plusHours(1));
+        event.setRecurrenceRule(rule);
+        lenient().when(eventRepo.findById(event.getId())).thenReturn(Optional.of(event));
+        return event;
+    }
+
+    private void stubDispatch(EventReminder reminder, Event event) {
+        AppUser owner = mock(AppUser.class);
+        when(owner.getId()).thenReturn(userId);
+        when(owner.getEmail()).thenReturn("owner@uz.pl");
+        when(reminderRepo.findAllById(any())).thenReturn(List.of(reminder));
+        when(eventRepo.findAllById(any())).thenReturn(List.of(event));
+        when(userRepo.findAllById(any())).thenReturn(List.of(owner));
+    }
+
+    private static Instant instant(LocalDateTime time) {
+        return time.atZone(ZoneId.of(ZONE)).toInstant();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.FriendEdgeDTO;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.repository.FriendshipRepo;
+import org.example.noteuzbackend.service.FriendGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe grafu znajomych FriendGraph.
+ * Weryfikują sprawdzanie znajomości, wspólnych znajomych i propozycji bez zapytań do bazy danych.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FriendGraphTest {
+
+    @Mock private FriendshipRepo friendshipRepo;
+
+    /**
+     * Testuje graf, w którym użytkownik ma 5 000 znajomych: po jednorazowym załadowaniu
+     * sprawdzenia znajomości i liczenie wspólnych znajomych nie wykonują żadnych zapytań.
+     */
+    @Test
+    void shouldAnswerRelationshipQueriesFromMemory() {
+        UUID me = new UUID(1, 0);
+        UUID other = new UUID(2, 0);
+        List<UUID> friends = IntStream.range(0, 5_000).mapToObj(i -> new UUID(3, i)).toList();
+
+        List<FriendEdgeDTO> edges = new ArrayList<>();
+        for (int i = 0; i < friends.size(); i++) {
+            edges.add(new FriendEdgeDTO(me, friends.get(i)));
+            // Co drugi znajomy jest też znajomym drugiego użytkownika (zaproszenie w przeciwnym kierunku)
+            if (i % 2 == 0) edges.add(new FriendEdgeDTO(friends.get(i), other));
+        }
+        when(friendshipRepo.streamAcceptedEdges()).thenReturn(edges.stream());
+
+        FriendGraph graph = new FriendGraph(friendshipRepo);
+        graph.reload();
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(friendshipRepo);
+
+        int checks = 100_000;
+        for (int i = 0; i < checks; i++) {
+            assertThat(graph.areFriends(friends.get(i % friends.size()), me)).isTrue();
+        }
+        int mutual = graph.mutualCount(me, other);
+
+        queries.assertAtMost(0);
+        assertThat(graph.areFriends(me, other)).isFalse();
+        assertThat(mutual)
+                .as("Połowa znajomych jest wspólna")
+                .isEqualTo(2_500);
+        assertThat(graph.mutualFriends(other, me)).hasSize(2_500);
+    }
+
+    /**
+     * Testuje czy znajomi znajomych są liczeni z pominięciem obecnych znajomych i samego użytkownika
+     * oraz czy zdarzenia zmiany znajomości aktualizują graf w obu kierunkach.
+     */
+    @Test
+    void shouldCountFriendsOfFriendsAndApplyChanges() {
+        UUID me = UUID.randomUUID();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID strong = UUID.randomUUID();
+        UUID weak = UUID.randomUUID();
+        when(friendshipRepo.streamAcceptedEdges()).thenReturn(List.of(
+                new FriendEdgeDTO(me, a), new FriendEdgeDTO(b, me), new FriendEdgeDTO(me, c),
+                new FriendEdgeDTO(a, b),
+                new FriendEdgeDTO(a, strong), new FriendEdgeDTO(strong, b), new FriendEdgeDTO(c, strong),
+                new FriendEdgeDTO(c, weak)).stream());
+
+        FriendGraph graph = new FriendGraph(friendshipRepo);
+        graph.reload();
+
+        assertThat(graph.friendsOfFriends(me))
+                .as("Obecni znajomi i sam użytkownik nie powinni być liczeni")
+                .containsOnly(Map.entry(strong, 3), Map.entry(weak, 1));
+
+        graph.onFriendshipChanged(FriendshipChangedEvent.connected(me, strong));
+        graph.onFriendshipChanged(FriendshipChangedEvent.disconnected(me, c));
+
+        assertThat(graph.areFriends(strong, me)).isTrue();
+        assertThat(graph.areFriends(c, me))
+                .as("Zerwana znajomość powinna zniknąć z obu stron grafu")
+                .isFalse();
+        assertThat(graph.friendsOfFriends(me)).containsOnlyKeys(c);
+    }
+}
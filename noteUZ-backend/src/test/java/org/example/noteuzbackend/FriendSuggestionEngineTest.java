@@ -0,0 +1,131 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.FriendEdgeDTO;
+import org.example.noteuzbackend.dto.MembershipEdgeDTO;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.model.entity.GroupMember;
+import org.example.noteuzbackend.model.enums.GroupRole;
+import org.example.noteuzbackend.repository.FriendshipRepo;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.example.noteuzbackend.service.FriendGraph;
+import org.example.noteuzbackend.service.FriendSuggestionEngine;
+import org.example.noteuzbackend.service.FriendSuggestionEngine.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe silnika propozycji znajomych FriendSuggestionEngine.
+ * Weryfikują ocenę kandydatów, serwowanie wyników z pamięci oraz przyrostowe przeliczanie po zmianach.
+ */
+@ExtendWith(MockitoExtension.class)
+public class FriendSuggestionEngineTest {
+
+    @Mock private FriendshipRepo friendshipRepo;
+    @Mock private GroupMemberRepo memberRepo;
+    @Mock private TransactionTemplate tx;
+
+    private final UUID me = UUID.randomUUID();
+    private final UUID friendA = UUID.randomUUID();
+    private final UUID friendB = UUID.randomUUID();
+    private final UUID mutualTwo = UUID.randomUUID();
+    private final UUID mutualOne = UUID.randomUUID();
+    private final UUID groupmate = UUID.randomUUID();
+    private final UUID group = UUID.randomUUID();
+
+    private FriendGraph graph;
+    private FriendSuggestionEngine engine;
+
+    /**
+     * Buduje graf: dwóch znajomych, kandydat z dwoma i kandydat z jednym wspólnym znajomym,
+     * oraz grupę, do której należy użytkownik, kandydat z jednym wspólnym znajomym i osoba spoza kręgu znajomych.
+     */
+    @BeforeEach
+    void setUp() {
+        lenient().when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        when(friendshipRepo.streamAcceptedEdges()).thenReturn(List.of(
+                new FriendEdgeDTO(me, friendA), new FriendEdgeDTO(friendB, me),
+                new FriendEdgeDTO(friendA, mutualTwo), new FriendEdgeDTO(mutualTwo, friendB),
+                new FriendEdgeDTO(friendB, mutualOne)).stream());
+        when(memberRepo.streamMemberships()).thenReturn(List.of(
+                new MembershipEdgeDTO(group, me), new MembershipEdgeDTO(group, mutualOne),
+                new MembershipEdgeDTO(group, groupmate), new MembershipEdgeDTO(group, friendA)).stream());
+
+        graph = new FriendGraph(friendshipRepo);
+        graph.reload();
+        engine = new FriendSuggestionEngine(graph, memberRepo, tx);
+        engine.rebuild();
+    }
+
+    /**
+     * Testuje czy kandydaci są oceniani wspólnymi znajomymi i wspólnymi grupami,
+     * a odczyt propozycji nie wykonuje zapytań do bazy danych.
+     */
+    @Test
+    void shouldRankByMutualFriendsAndSharedGroupsFromCache() {
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(friendshipRepo, memberRepo);
+
+        List<Suggestion> suggestions = List.of();
+        for (int i = 0; i < 1_000; i++) {
+            suggestions = engine.suggestionsFor(me, 10);
+        }
+
+        queries.assertAtMost(0);
+        assertThat(suggestions).containsExactly(
+                new Suggestion(mutualTwo, 2, 0, 4),
+                new Suggestion(mutualOne, 1, 1, 3),
+                new Suggestion(groupmate, 0, 1, 1));
+        assertThat(engine.suggestionsFor(me, 1))
+                .extracting(Suggestion::userId)
+                .containsExactly(mutualTwo);
+    }
+
+    /**
+     * Testuje czy po zawarciu znajomości propozycje stron relacji i ich znajomych są przeliczane przy odświeżeniu,
+     * a po opuszczeniu grupy zmiana członkostwa jest wczytywana jednym zapytaniem.
+     */
+    @Test
+    void shouldRecomputeAffectedUsersIncrementally() {
+        FriendshipChangedEvent accepted = FriendshipChangedEvent.connected(me, mutualTwo);
+        graph.onFriendshipChanged(accepted);
+        engine.onFriendshipChanged(accepted);
+
+        assertThat(engine.suggestionsFor(me, 10))
+                .as("Przed odświeżeniem propozycje pochodzą z pamięci")
+                .extracting(Suggestion::userId)
+                .contains(mutualTwo);
+
+        engine.refresh();
+
+        assertThat(engine.suggestionsFor(me, 10))
+                .extracting(Suggestion::userId)
+                .containsExactly(mutualOne, groupmate);
+        assertThat(engine.suggestionsFor(mutualTwo, 10))
+                .as("Druga strona relacji powinna zostać przeliczona")
+                .extracting(Suggestion::userId)
+                .doesNotContain(me);
+
+        when(memberRepo.findByUserId(me)).thenReturn(List.<GroupMember>of());
+        engine.onMembershipChanged(GroupMembershipChangedEvent.forUser(me));
+        engine.refresh();
+
+        assertThat(engine.suggestionsFor(me, 10)).containsExactly(new Suggestion(mutualOne, 1, 0, 2));
+        assertThat(engine.suggestionsFor(groupmate, 10))
+                .as("Członek opuszczonej grupy nie powinien już otrzymywać propozycji tego użytkownika")
+                .extracting(Suggestion::userId)
+                .doesNotContain(me);
+    }
+}
@@ -1,5 +1,9 @@
 package org.example.noteuzbackend;
 
+import org.example.noteuzbackend.dto.GroupInvitationDTO;
+import org.example.noteuzbackend.dto.GroupMemberDetailsDTO;
+import org.example.noteuzbackend.dto.UserGroupDTO;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
 import org.example.noteuzbackend.model.entity.AppUser;
 import org.example.noteuzbackend.model.entity.Group;
 import org.example.noteuzbackend.model.entity.GroupMember;
@@ -8,16 +12,24 @@ import org.example.noteuzbackend.repository.AppUserRepo;
 import org.example.noteuzbackend.repository.GroupInvitationRepo;
 import org.example.noteuzbackend.repository.GroupMemberRepo;
 import org.example.noteuzbackend.repository.GroupRepo;
+import org.example.noteuzbackend.service.GroupMembershipCache;
 import org.example.noteuzbackend.service.GroupService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -35,10 +47,19 @@ public class GroupManagementTest {
     @Mock private GroupMemberRepo memberRepo;
     @Mock private AppUserRepo userRepo;
     @Mock private GroupInvitationRepo invitationRepo;
+    @Mock private ApplicationEventPublisher events;
 
-    @InjectMocks
     private GroupService groupService;
 
+    /**
+     * Tworzy serwis z prawdziwą pamięcią podręczną członkostw opartą na zamockowanym repozytorium.
+     */
+    @BeforeEach
+    void setUp() {
+        groupService = new GroupService(groupRepo, memberRepo, userRepo, invitationRepo,
+                new GroupMembershipCache(memberRepo), events);
+    }
+
     /**
      * Testuje tworzenie nowej grupy i automatyczne przypisanie twórcy jako właściciela.
      */
@@ -61,6 +82,7 @@ public class GroupManagementTest {
         verify(memberRepo).save(argThat(member ->
                 member.getUserId().equals(creatorId) && member.getRole() == GroupRole.OWNER
         ));
+        verify(events).publishEvent(GroupMembershipChangedEvent.forUser(creatorId));
     }
 
     /**
@@ -75,7 +97,7 @@ public class GroupManagementTest {
         UUID friendId = UUID.randomUUID();
 
         GroupMember adminMember = new GroupMember(groupId, adminId, GroupRole.ADMIN);
-        when(memberRepo.findByGroupIdAndUserId(groupId, adminId)).thenReturn(Optional.of(adminMember));
+        when(memberRepo.findByUserId(adminId)).thenReturn(List.of(adminMember));
 
         AppUser mockUser = mock(AppUser.class);
         when(mockUser.getId()).thenReturn(friendId);
@@ -115,4 +137,96 @@ public class GroupManagementTest {
                 .as("Komunikat błędu powinien informować o braku możliwości usunięcia właściciela")
                 .contains("Nie możesz usunąć Właściciela");
     }
-}
\ No newline at end of file
+
+    /**
+     * Testuje czy pobranie grup użytkownika wykonuje jedno zapytanie niezależnie od liczby członkostw.
+     */
+    @Test
+    void shouldLoadUserGroupsWithSingleQuery() {
+        UUID userId = UUID.randomUUID();
+        List<UserGroupDTO> rows = IntStream.range(0, 50)
+                .mapToObj(i -> new UserGroupDTO(UUID.randomUUID(), "Grupa " + i, "", GroupRole.MEMBER, Instant.now()))
+                .toList();
+        when(memberRepo.findUserGroups(userId)).thenReturn(rows);
+
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(groupRepo, memberRepo, userRepo, invitationRepo);
+        List<UserGroupDTO> result = groupService.getUserGroups(userId);
+
+        assertThat(result).hasSize(50);
+        queries.assertAtMost(1);
+    }
+
+    /**
+     * Testuje czy pobranie zaproszeń użytkownika wykonuje jedno zapytanie niezależnie od ich liczby.
+     */
+    @Test
+    void shouldLoadInvitationsWithSingleQuery() {
+        UUID userId = UUID.randomUUID();
+        List<GroupInvitationDTO> rows = IntStream.range(0, 20)
+                .mapToObj(i -> new GroupInvitationDTO(UUID.randomUUID(), UUID.randomUUID(), "Grupa " + i, "Użytkownik", Instant.now()))
+                .toList();
+        when(invitationRepo.findInvitationDetails(userId)).thenReturn(rows);
+
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(groupRepo, memberRepo, userRepo, invitationRepo);
+        List<GroupInvitationDTO> result = groupService.getUserInvitations(userId);
+
+        assertThat(result).hasSize(20);
+        queries.assertAtMost(1);
+    }
+
+    /**
+     * Testuje czy szczegóły grupy liczącej 10 000 członków są pobierane stałą liczbą zapytań
+     * (bez osobnego zapytania o profil każdego członka).
+     */
+    @Test
+    void shouldLoadLargeGroupDetailsWithConstantQueries() {
+        UUID groupId = UUID.randomUUID();
+        UUID requesterId = UUID.randomUUID();
+        Group group = new Group();
+        group.setId(groupId);
+
+        List<GroupMemberDetailsDTO> rows = IntStream.range(0, 10_000)
+                .mapToObj(i -> new GroupMemberDetailsDTO(UUID.randomUUID(), groupId, UUID.randomUUID(),
+                        GroupRole.MEMBER, Instant.now(), "Student " + i, "student" + i + "@uz.pl"))
+                .toList();
+
+        when(memberRepo.findByUserId(requesterId))
+                .thenReturn(List.of(new GroupMember(groupId, requesterId, GroupRole.MEMBER)));
+        when(groupRepo.findById(groupId)).thenReturn(Optional.of(group));
+        when(memberRepo.findMemberDetails(groupId, Pageable.unpaged())).thenReturn(new PageImpl<>(rows));
+
+        RepositoryQueryCounter queries = RepositoryQueryCounter.watching(groupRepo, memberRepo, userRepo, invitationRepo);
+        Map<String, Object> details = groupService.getGroupDetails(groupId, requesterId);
+
+        assertThat((List<?>) details.get("members")).hasSize(10_000);
+        assertThat(details.get("totalMembers")).isEqualTo(10_000L);
+        queries.assertAtMost(3);
+    }
+
+    /**
+     * Testuje czy kolejne sprawdzenia członkostwa korzystają z pamięci podręcznej,
+     * a zdarzenie zmiany członkostwa wymusza ponowne załadowanie danych.
+     */
+    @Test
+    void membershipCacheShouldServeRepeatedChecksAndReloadAfterInvalidation() {
+        UUID groupId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        GroupMembershipCache cache = new GroupMembershipCache(memberRepo);
+
+        when(memberRepo.findByUserId(userId))
+                .thenReturn(List.of(new GroupMember(groupId, userId, GroupRole.MEMBER)))
+                .thenReturn(List.of(new GroupMember(groupId, userId, GroupRole.ADMIN)));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(cache.isMember(groupId, userId)).isTrue();
+        }
+        assertThat(cache.roleOf(groupId, userId)).contains(GroupRole.MEMBER);
+        verify(memberRepo, times(1)).findByUserId(userId);
+
+        cache.onMembershipChanged(GroupMembershipChangedEvent.forUser(userId));
+
+        assertThat(cache.roleOf(groupId, userId)).contains(GroupRole.ADMIN);
+        verify(memberRepo, times(2)).findByUserId(userId);
+        assertThat(cache.stats().get("hits")).isEqualTo(1_000L);
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.dto.AttachmentUploadDTO;
+import org.example.noteuzbackend.dto.NoteRequests.StartAttachmentUploadRequest;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.Note;
+import org.example.noteuzbackend.model.entity.NoteAttachment;
+import org.example.noteuzbackend.model.entity.NoteAttachmentUpload;
+import org.example.noteuzbackend.repository.NoteAttachmentRepo;
+import org.example.noteuzbackend.repository.NoteAttachmentUploadRepo;
+import org.example.noteuzbackend.repository.NoteRepo;
+import org.example.noteuzbackend.service.FileBlobStore;
+import org.example.noteuzbackend.service.NoteAttachmentService;
+import org.example.noteuzbackend.service.NoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe załączników notatek (NoteAttachmentService): przesyłanie w częściach z wznawianiem,
+ * deduplikacja treści, sprawdzanie typu i rozmiaru oraz uprawnienia wynikające z uprawnień do notatki.
+ */
+@ExtendWith(MockitoExtension.class)
+public class NoteAttachmentTest {
+
+    private static final long CHUNK = 64 * 1024;
+
+    @TempDir private Path root;
+    @Mock private NoteAttachmentRepo attachmentRepo;
+    @Mock private NoteAttachmentUploadRepo uploadRepo;
+    @Mock private NoteRepo noteRepo;
+    @Mock private NoteService noteService;
+    @Mock private TransactionTemplate tx;
+
+    private final UUID noteId = UUID.randomUUID();
+    private final UserSummary user = new UserSummary(UUID.randomUUID(), "student@uz.pl");
+    private final Map<UUID, NoteAttachmentUpload> uploads = new ConcurrentHashMap<>();
+    private final List<NoteAttachment> attachments = new ArrayList<>();
+    private FileBlobStore blobs;
+    private NoteAttachmentService service;
+
+    /**
+     * Tworzy serwis z magazynem w katalogu tymczasowym i repozytoriami przechowującymi wiersze w pamięci.
+     * @throws IOException w przypadku błędu tworzenia katalogów
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        blobs = new FileBlobStore(root.toString(), false);
+        service = service(CHUNK);
+
+        Note note = new Note();
+        note.setId(noteId);
+        note.setUserId(user.id());
+        lenient().when(noteRepo.findById(noteId)).thenReturn(Optional.of(note));
+        lenient().when(noteService.permissionFor(note, user.id(), user.email())).thenReturn("OWNER");
+        lenient().when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(uploadRepo.save(any(NoteAttachmentUpload.class))).thenAnswer(inv -> {
+            NoteAttachmentUpload upload = inv.getArgument(0);
+            uploads.put(upload.getId(), upload);
+            return upload;
+        });
+        lenient().doAnswer(inv -> uploads.remove(inv.<NoteAttachmentUpload>getArgument(0).getId())).when(uploadRepo).delete(any());
+        lenient().when(uploadRepo.findByIdAndNoteId(any(), eq(noteId)))
+                .thenAnswer(inv -> Optional.ofNullable(uploads.get(inv.<UUID>getArgument(0))));
+        lenient().when(attachmentRepo.save(any(NoteAttachment.class))).thenAnswer(inv -> {
+            synchronized (attachments) {
+                attachments.add(inv.getArgument(0));
+            }
+            return inv.getArgument(0);
+        });
+    }
+
+    /**
+     * Testuje czy przerwany fragment jest wznawiany od ostatniego odebranego bajtu, plik trafia do magazynu
+     * pod skrótem treści, a ten sam plik przesłany ponownie nie jest przechowywany drugi raz.
+     * @throws Exception w przypadku błędu przesyłania
+     */
+    @Test
+    void shouldResumeInterruptedUploadAndDeduplicate() throws Exception {
+        byte[] file = png(300_000, 1);
+        AttachmentUploadDTO upload = service.startUpload(noteId, request("zrzut.png", "image/png", file.length), user);
+
+        AttachmentUploadDTO first = chunk(upload, 0, file, (int) CHUNK);
+        assertThatThrownBy(() -> service.uploadChunk(noteId, upload.uploadId(), CHUNK,
+                new InterruptedStream(file, (int) CHUNK, 10_000), user))
+                .isInstanceOf(IOException.class);
+        long resumeAt = service.uploadStatus(noteId, upload.uploadId(), user).received();
+        AttachmentUploadDTO last = first;
+        for (long offset = resumeAt; offset < file.length; offset = last.received()) {
+            last = chunk(upload, offset, file, (int) Math.min(CHUNK, file.length - offset));
+        }
+
+        String key = sha256(file);
+        assertThat(first.received()).isEqualTo(CHUNK);
+        assertThat(resumeAt).as("Odebrana część przerwanego fragmentu jest zachowana").isEqualTo(CHUNK + 10_000);
+        assertThat(last.attachment()).isNotNull();
+        assertThat(last.attachment().size()).isEqualTo(file.length);
+        assertThat(attachments.get(0).getBlobKey()).isEqualTo(key);
+        assertThat(uploads).isEmpty();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeAttachment(attachments.get(0), out);
+        assertThat(out.toByteArray()).isEqualTo(file);
+
+        AttachmentUploadDTO again = service.startUpload(noteId, request("kopia.png", "image/png", file.length), user);
+        for (long offset = 0; offset < file.length; offset += CHUNK) {
+            chunk(again, offset, file, (int) Math.min(CHUNK, file.length - offset));
+        }
+        assertThat(attachments).extracting(NoteAttachment::getBlobKey).containsExactly(key, key);
+        assertThat(objectFiles()).hasSize(1);
+        assertThat(blobs.stats()).containsEntry("deduplicated", 1L).containsEntry("rehashed", 1L);
+    }
+
+    /**
+     * Testuje czy odrzucane są niedozwolone typy, pliki zbyt duże, zawartość niezgodna z typem,
+     * fragmenty spoza kolejności i fragmenty wykraczające poza zadeklarowany rozmiar.
+     * @throws Exception w przypadku błędu przesyłania
+     */
+    @Test
+    void shouldValidateTypeSizeAndOffset() throws Exception {
+        byte[] file = png(100_000, 2);
+        assertThatThrownBy(() -> service.startUpload(noteId, request("skrypt.html", "text/html", 100), user))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("415");
+        assertThatThrownBy(() -> service.startUpload(noteId, request("film.png", "image/png", 60L * 1024 * 1024), user))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("413");
+
+        AttachmentUploadDTO fake = service.startUpload(noteId, request("fake.png", "image/png", 1000), user);
+        byte[] pdf = "%PDF-1.7 ...".getBytes();
+        assertThatThrownBy(() -> service.uploadChunk(noteId, fake.uploadId(), 0, new ByteArrayInputStream(pdf), user))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("415");
+
+        AttachmentUploadDTO upload = service.startUpload(noteId, request("../../obraz\u0000.png", "image/png; charset=x", file.length), user);
+        assertThat(upload.fileName()).isEqualTo("obraz.png");
+        assertThatThrownBy(() -> chunk(upload, CHUNK, file, 100))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("409");
+        assertThatThrownBy(() -> chunk(upload, 0, file, (int) CHUNK + 1))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("413");
+        assertThat(service.uploadStatus(noteId, upload.uploadId(), user).received())
+                .as("Zbyt duży fragment jest odrzucany w całości").isZero();
+
+        AttachmentUploadDTO small = service.startUpload(noteId, request("maly.png", "image/png", 20), user);
+        assertThatThrownBy(() -> service.uploadChunk(noteId, small.uploadId(), 0, new ByteArrayInputStream(png(21, 3)), user))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("413");
+        assertThat(attachments).isEmpty();
+    }
+
+    /**
+     * Testuje czy załączniki podlegają uprawnieniom notatki: odczyt wymaga dostępu do notatki,
+     * a przesyłanie - uprawnienia do edycji; fragmenty cudzego przesyłania są odrzucane.
+     */
+    @Test
+    void shouldApplyNoteAccessRules() {
+        UserSummary reader = new UserSummary(UUID.randomUUID(), "czytelnik@uz.pl");
+        UserSummary stranger = new UserSummary(UUID.randomUUID(), "obcy@uz.pl");
+        when(noteService.permissionFor(any(Note.class), eq(reader.id()), anyString())).thenReturn("READ");
+        when(noteService.permissionFor(any(Note.class), eq(stranger.id()), anyString())).thenReturn(null);
+        when(attachmentRepo.findByNoteIdOrderByCreatedAtAsc(noteId)).thenReturn(List.of());
+
+        assertThat(service.list(noteId, reader)).isEmpty();
+        assertThatThrownBy(() -> service.list(noteId, stranger))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("403");
+        assertThatThrownBy(() -> service.startUpload(noteId, request("a.txt", "text/plain", 10), reader))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("403");
+
+        AttachmentUploadDTO upload = service.startUpload(noteId, request("a.txt", "text/plain", 10), user);
+        assertThatThrownBy(() -> service.uploadChunk(noteId, upload.uploadId(), 0, new ByteArrayInputStream(new byte[10]), reader))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("404");
+        verify(attachmentRepo, never()).save(any());
+    }
+
+    /**
+     * Testuje czy po błędzie transakcji kończącej przesyłanie odebrane dane są zachowane, a ponowione żądanie
+     * tworzy załącznik z obiektu już zapisanego w magazynie i usuwa plik roboczy.
+     * @throws Exception w przypadku błędu przesyłania
+     */
+    @Test
+    void shouldRetryCompletionAfterFailedTransaction() throws Exception {
+        byte[] file = png(50_000, 4);
+        AttachmentUploadDTO upload = service.startUpload(noteId, request("wykres.png", "image/png", file.length), user);
+        doThrow(new DataAccessResourceFailureException("connection reset"))
+                .doAnswer(inv -> uploads.remove(inv.<NoteAttachmentUpload>getArgument(0).getId()))
+                .when(uploadRepo).delete(any());
+
+        assertThatThrownBy(() -> chunk(upload, 0, file, file.length)).isInstanceOf(DataAccessResourceFailureException.class);
+        AttachmentUploadDTO status = service.uploadStatus(noteId, upload.uploadId(), user);
+        assertThat(status.received()).as("Odebrane dane są zachowane do zatwierdzenia").isEqualTo(file.length);
+
+        AttachmentUploadDTO retried = service.uploadChunk(noteId, upload.uploadId(), status.received(),
+                new ByteArrayInputStream(new byte[0]), user);
+
+        assertThat(retried.attachment()).isNotNull();
+        assertThat(attachments).extracting(NoteAttachment::getBlobKey).containsExactly(sha256(file));
+        assertThat(uploads).isEmpty();
+        assertThat(objectFiles()).hasSize(1);
+        try (Stream<Path> working = Files.list(root.resolve("uploads"))) {
+            assertThat(working).as("Plik roboczy jest usuwany po zatwierdzeniu").isEmpty();
+        }
+    }
+
+    /**
+     * Testuje czy limit trwających przesyłań użytkownika jest sprawdzany pod blokadą w bazie danych,
+     * przed zapisem nowego przesyłania.
+     */
+    @Test
+    void shouldCheckPendingUploadLimitUnderLock() {
+        when(uploadRepo.countByUserId(user.id())).thenReturn(10L);
+
+        assertThatThrownBy(() -> service.startUpload(noteId, request("a.txt", "text/plain", 10), user))
+                .isInstanceOf(ResponseStatusException.class).hasMessageContaining("429");
+
+        InOrder order = inOrder(uploadRepo);
+        order.verify(uploadRepo).lockUploadsOf(user.id());
+        order.verify(uploadRepo).countByUserId(user.id());
+        verify(uploadRepo, never()).save(any());
+    }
+
+    /**
+     * Testuje czy 8 równoczesnych przesyłań plików 16 MB fragmentami po 4 MB kończy się bez ponownego czytania
+     * plików: fragmenty są zapisywane strumieniowo, a skrót jest wyznaczany przyrostowo.
+     * @throws Exception w przypadku błędu przesyłania
+     */
+    @Test
+    void shouldCompleteConcurrentLargeUploadsWithoutRehashing() throws Exception {
+        int uploadsCount = 8;
+        int fileSize = 16 * 1024 * 1024;
+        int chunkSize = 4 * 1024 * 1024;
+        NoteAttachmentService benchmarked = service(chunkSize);
+        List<byte[]> files = new ArrayList<>();
+        for (int i = 0; i < uploadsCount; i++) files.add(png(fileSize, 100 + i));
+
+        ExecutorService pool = Executors.newFixedThreadPool(uploadsCount);
+        try {
+            List<Future<AttachmentUploadDTO>> results = new ArrayList<>();
+            for (byte[] file : files) {
+                results.add(pool.submit(() -> {
+                    AttachmentUploadDTO upload = benchmarked.startUpload(noteId, request("skan.png", "image/png", file.length), user);
+                    for (long offset = 0; offset < file.length; offset = upload.received()) {
+                        upload = benchmarked.uploadChunk(noteId, upload.uploadId(), offset,
+                                new ByteArrayInputStream(file, (int) offset, (int) Math.min(chunkSize, file.length - offset)), user);
+                    }
+                    return upload;
+                }));
+            }
+            for (Future<AttachmentUploadDTO> result : results) assertThat(result.get().attachment()).isNotNull();
+        } finally {
+            pool.shutdown();
+        }
+
+        long totalBytes = (long) uploadsCount * fileSize;
+        assertThat(attachments).hasSize(uploadsCount);
+        assertThat(blobs.stats()).containsEntry("rehashed", 0L).containsEntry("bytesWritten", totalBytes);
+    }
+
+    private NoteAttachmentService service(long chunkBytes) {
+        return new NoteAttachmentService(attachmentRepo, uploadRepo, noteRepo, noteService, blobs, tx,
+                50L * 1024 * 1024, chunkBytes, 10, 86_400_000);
+    }
+
+    private AttachmentUploadDTO chunk(AttachmentUploadDTO upload, long offset, byte[] file, int length) throws IOException {
+        return service.uploadChunk(noteId, upload.uploadId(), offset, new ByteArrayInputStream(file, (int) offset, length), user);
+    }
+
+    private static StartAttachmentUploadRequest request(String fileName, String contentType, long size) {
+        return new StartAttachmentUploadRequest(fileName, contentType, size);
+    }
+
+    private List<Path> objectFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.startsWith(root.resolve("tmp")) && !file.startsWith(root.resolve("uploads")))
+                    .toList();
+        }
+    }
+
+    private static byte[] png(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        byte[] magic = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        System.arraycopy(magic, 0, data, 0, Math.min(magic.length, size));
+        return data;
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    /**
+     * Strumień fragmentu, którego połączenie zostaje zerwane po odczytaniu podanej liczby bajtów.
+     */
+    private static class InterruptedStream extends InputStream {
+        private final byte[] data;
+        private int position;
+        private final int end;
+
+        InterruptedStream(byte[] data, int offset, int length) {
+            this.data = data;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == end) throw new IOException("Connection reset");
+            return data[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (position == end) throw new IOException("Connection reset");
+            int read = Math.min(length, end - position);
+            System.arraycopy(data, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package org.example.noteuzbackend;
 
 import org.example.noteuzbackend.model.entity.Note;
+import org.example.noteuzbackend.model.entity.NoteShare;
 import org.example.noteuzbackend.repository.AppUserRepo;
 import org.example.noteuzbackend.repository.NoteRepo;
 import org.example.noteuzbackend.repository.NoteShareRepo;
 import org.example.noteuzbackend.repository.NoteVoteRepo;
+import org.example.noteuzbackend.service.GroupMembershipCache;
 import org.example.noteuzbackend.service.NoteService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,8 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,6 +36,8 @@ public class NoteLifecycleTest {
     @Mock private NoteShareRepo shareRepo;
     @Mock private NoteVoteRepo voteRepo;
     @Mock private AppUserRepo userRepo;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private GroupMembershipCache membershipCache;
 
     @InjectMocks private NoteService noteService;
 
@@ -124,4 +130,37 @@ public class NoteLifecycleTest {
         verify(voteRepo).deleteAllByNoteId(noteId);
         verify(noteRepo).deleteById(noteId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Testuje wyznaczanie uprawnień do notatki (wspólne dla widoku notatki i jej załączników):
+     * właściciel, członek grupy, odbiorca zaakceptowanego i oczekującego udostępnienia.
+     */
+    @Test
+    void shouldResolveNotePermission() {
+        UUID ownerId = UUID.randomUUID();
+        UUID memberId = UUID.randomUUID();
+        UUID readerId = UUID.randomUUID();
+        Note note = new Note();
+        note.setId(UUID.randomUUID());
+        note.setUserId(ownerId);
+        note.setGroupId(UUID.randomUUID());
+
+        NoteShare accepted = new NoteShare();
+        accepted.setPermission(NoteShare.Permission.READ);
+        accepted.setStatus(NoteShare.ShareStatus.ACCEPTED);
+        NoteShare pending = new NoteShare();
+        pending.setPermission(NoteShare.Permission.WRITE);
+        pending.setStatus(NoteShare.ShareStatus.PENDING);
+
+        when(membershipCache.isMember(eq(note.getGroupId()), any())).thenAnswer(inv -> memberId.equals(inv.getArgument(1)));
+        when(shareRepo.findByNoteIdAndRecipientEmail(eq(note.getId()), anyString())).thenAnswer(inv -> Optional.ofNullable(
+                Map.of("czytelnik@uz.pl", accepted, "zaproszony@uz.pl", pending).get(inv.<String>getArgument(1))));
+
+        assertThat(noteService.permissionFor(note, ownerId, "wlasciciel@uz.pl")).isEqualTo("OWNER");
+        assertThat(noteService.permissionFor(note, memberId, "czlonek@uz.pl")).isEqualTo("WRITE");
+        assertThat(noteService.permissionFor(note, readerId, "czytelnik@uz.pl")).isEqualTo("READ");
+        assertThat(noteService.permissionFor(note, UUID.randomUUID(), "zaproszony@uz.pl"))
+                .as("Niezaakceptowane udostępnienie nie daje dostępu")
+                .isNull();
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +34,7 @@ public class NoteVotingTest {
     @Mock private NoteShareRepo shareRepo;
     @Mock private AppUserRepo userRepo;
     @Mock private NoteVoteRepo voteRepo;
+    @Mock private ApplicationEventPublisher events;
 
     @InjectMocks
     private NoteService noteService;
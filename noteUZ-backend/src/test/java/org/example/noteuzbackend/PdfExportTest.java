@@ -0,0 +1,296 @@
+package org.example.noteuzbackend;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.example.noteuzbackend.dto.ExportJobDTO;
+import org.example.noteuzbackend.dto.NoteVersionDTO;
+import org.example.noteuzbackend.dto.UserSummary;
+import org.example.noteuzbackend.model.entity.ExportJob;
+import org.example.noteuzbackend.model.entity.Note;
+import org.example.noteuzbackend.model.entity.NotePdf;
+import org.example.noteuzbackend.model.enums.ExportJobStatus;
+import org.example.noteuzbackend.model.enums.PdfExportFormat;
+import org.example.noteuzbackend.repository.ExportJobRepo;
+import org.example.noteuzbackend.repository.NotePdfRepo;
+import org.example.noteuzbackend.repository.NoteRepo;
+import org.example.noteuzbackend.service.ExportJobService;
+import org.example.noteuzbackend.service.FileBlobStore;
+import org.example.noteuzbackend.service.GroupMembershipCache;
+import org.example.noteuzbackend.service.NotePdfRenderer;
+import org.example.noteuzbackend.service.NoteService;
+import org.example.noteuzbackend.service.PdfExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testy jednostkowe eksportu notatek do PDF: renderowanie Markdown (NotePdfRenderer), pamięć podręczna dokumentów
+ * wg wersji notatki i eksport grupy (PdfExportService) oraz zadania eksportu (ExportJobService).
+ */
+@ExtendWith(MockitoExtension.class)
+public class PdfExportTest {
+
+    @TempDir private Path root;
+    @Mock private NoteRepo noteRepo;
+    @Mock private NotePdfRepo pdfRepo;
+    @Mock private NoteService noteService;
+    @Mock private GroupMembershipCache membershipCache;
+    @Mock private ExportJobRepo jobRepo;
+
+    private final UUID groupId = UUID.randomUUID();
+    private final UserSummary user = new UserSummary(UUID.randomUUID(), "student@uz.pl");
+    private final Map<UUID, Note> notes = new ConcurrentHashMap<>();
+    private final Map<UUID, NotePdf> cache = new ConcurrentHashMap<>();
+    private FileBlobStore blobs;
+    private NotePdfRenderer renderer;
+    private PdfExportService service;
+
+    /**
+     * Tworzy serwis z magazynem w katalogu tymczasowym i repozytoriami przechowującymi wiersze w pamięci.
+     * @throws IOException w przypadku błędu tworzenia katalogów
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        blobs = new FileBlobStore(root.toString(), false);
+        renderer = spy(new NotePdfRenderer("", "", ""));
+        service = new PdfExportService(noteRepo, pdfRepo, noteService, membershipCache, renderer, blobs, 4, 64, 200, 60_000);
+
+        lenient().when(noteRepo.findById(any())).thenAnswer(inv -> Optional.ofNullable(notes.get(inv.<UUID>getArgument(0))));
+        lenient().when(noteRepo.findVersionsByGroupId(groupId)).thenAnswer(inv -> notes.values().stream()
+                .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
+                .map(note -> new NoteVersionDTO(note.getId(), note.getTitle(), note.getUpdatedAt()))
+                .toList());
+        lenient().when(noteService.permissionFor(any(), any(), anyString())).thenReturn("OWNER");
+        lenient().when(membershipCache.isMember(groupId, user.id())).thenReturn(true);
+        lenient().when(pdfRepo.findById(any())).thenAnswer(inv -> Optional.ofNullable(cache.get(inv.<UUID>getArgument(0))));
+        lenient().when(pdfRepo.findAllById(any())).thenAnswer(inv -> {
+            List<NotePdf> found = new ArrayList<>();
+            for (UUID id : inv.<Iterable<UUID>>getArgument(0)) {
+                if (cache.containsKey(id)) found.add(cache.get(id));
+            }
+            return found;
+        });
+        lenient().when(pdfRepo.save(any(NotePdf.class))).thenAnswer(inv -> {
+            NotePdf pdf = inv.getArgument(0);
+            cache.put(pdf.getNoteId(), pdf);
+            return pdf;
+        });
+    }
+
+    /**
+     * Testuje czy długa notatka z nagłówkami, listami, cytatem i blokiem kodu jest dzielona na strony,
+     * a dokument ma tekst notatki i zakładkę z tytułem.
+     * @throws IOException w przypadku błędu renderowania lub odczytu dokumentu
+     */
+    @Test
+    void shouldRenderMarkdownIntoPagedDocument() throws IOException {
+        NotePdfRenderer.RenderedPdf pdf = renderer.render("Analiza matematyczna", markdown(40, 1), LocalDateTime.now());
+
+        try (PDDocument document = Loader.loadPDF(pdf.data())) {
+            String text = new PDFTextStripper().getText(document);
+            PDOutlineItem bookmark = document.getDocumentCatalog().getDocumentOutline().getFirstChild();
+
+            assertThat(pdf.pages()).isGreaterThan(1).isEqualTo(document.getNumberOfPages());
+            assertThat(text).contains("Analiza matematyczna", "Rozdzial 1", "Kolokwium", "return total;", "1 / " + pdf.pages());
+            assertThat(bookmark.getTitle()).isEqualTo("Analiza matematyczna");
+        }
+    }
+
+    /**
+     * Testuje czy dokument notatki jest renderowany raz dla danej wersji, ponownie po zmianie notatki,
+     * a użytkownik bez dostępu do notatki go nie otrzyma.
+     * @throws IOException w przypadku błędu renderowania
+     */
+    @Test
+    void shouldReuseCachedDocumentUntilNoteChanges() throws IOException {
+        Note note = note("Wykład 1", markdown(3, 2));
+
+        PdfExportService.NotePdfFile first = service.notePdf(note.getId(), user);
+        PdfExportService.NotePdfFile second = service.notePdf(note.getId(), user);
+        note.setContent(markdown(3, 3));
+        note.setUpdatedAt(note.getUpdatedAt().plusMinutes(5));
+        PdfExportService.NotePdfFile changed = service.notePdf(note.getId(), user);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(changed.blobKey()).isNotEqualTo(first.blobKey());
+        assertThat(blobs.exists(changed.blobKey())).isTrue();
+        assertThat(cache.get(note.getId()).getNoteUpdatedAt()).isEqualTo(note.getUpdatedAt());
+        verify(renderer, times(2)).render(any(), any(), any());
+        assertThat(service.stats()).containsEntry("rendered", 2L).containsEntry("cacheHits", 1L);
+
+        when(noteService.permissionFor(any(), any(), anyString())).thenReturn(null);
+        assertThatThrownBy(() -> service.notePdf(note.getId(), user))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Brak dostępu");
+    }
+
+    /**
+     * Testuje czy eksport grupy do ZIP zawiera dokument każdej notatki w kolejności notatek, a eksport do PDF
+     * łączy dokumenty w jeden z zakładką dla każdej notatki.
+     * @throws IOException w przypadku błędu eksportu lub odczytu wyniku
+     */
+    @Test
+    void shouldExportGroupAsZipAndMergedPdf() throws IOException {
+        for (int i = 1; i <= 5; i++) note("Notatka " + i, markdown(i * 4, i));
+        List<NoteVersionDTO> versions = service.groupNotes(groupId, user.id(), true);
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        long zipPages = service.writeGroup(versions, PdfExportFormat.ZIP, zip, null);
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        long mergedPages = service.writeGroup(versions, PdfExportFormat.PDF, merged, null);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))) {
+            for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+                names.add(entry.getName());
+                assertThat(new String(in.readNBytes(5))).isEqualTo("%PDF-");
+            }
+        }
+        assertThat(names).containsExactly("1 Notatka 1.pdf", "2 Notatka 2.pdf", "3 Notatka 3.pdf", "4 Notatka 4.pdf", "5 Notatka 5.pdf");
+        try (PDDocument document = Loader.loadPDF(merged.toByteArray())) {
+            List<String> bookmarks = new ArrayList<>();
+            document.getDocumentCatalog().getDocumentOutline().children().forEach(item -> bookmarks.add(item.getTitle()));
+            assertThat(document.getNumberOfPages()).isEqualTo(mergedPages);
+            assertThat(bookmarks).containsExactly("Notatka 1", "Notatka 2", "Notatka 3", "Notatka 4", "Notatka 5");
+        }
+        assertThat(mergedPages).isEqualTo(zipPages);
+        verify(renderer, times(5)).render(any(), any(), any());
+    }
+
+    /**
+     * Testuje czy eksportu grupy nie może pobrać osoba spoza grupy, a zbyt duży eksport wymaga zadania.
+     */
+    @Test
+    void shouldRestrictGroupExport() {
+        for (int i = 1; i <= 3; i++) note("Notatka " + i, "Treść");
+        PdfExportService small = new PdfExportService(noteRepo, pdfRepo, noteService, membershipCache, renderer, blobs, 1, 4, 2, 60_000);
+
+        assertThatThrownBy(() -> service.groupNotes(groupId, UUID.randomUUID(), true))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("członkiem");
+        assertThatThrownBy(() -> small.groupNotes(groupId, user.id(), true))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("zadanie eksportu");
+        assertThat(small.groupNotes(groupId, user.id(), false)).hasSize(3);
+    }
+
+    /**
+     * Testuje czy zadanie eksportu zapisuje gotowe archiwum w magazynie i udostępnia adres pobrania.
+     * @throws IOException w przypadku błędu odczytu pliku eksportu
+     */
+    @Test
+    void shouldRunExportJobToCompletion() throws IOException {
+        for (int i = 1; i <= 3; i++) note("Notatka " + i, markdown(2, i));
+        Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+        when(jobRepo.save(any(ExportJob.class))).thenAnswer(inv -> {
+            ExportJob job = inv.getArgument(0);
+            job.ensureId();
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenAnswer(inv -> jobs.values().stream()
+                .filter(job -> job.getStatus() == ExportJobStatus.PENDING).toList());
+        when(jobRepo.findByIdAndUserId(any(), any())).thenAnswer(inv -> Optional.ofNullable(jobs.get(inv.<UUID>getArgument(0))));
+        ExportJobService jobService = new ExportJobService(jobRepo, service, blobs, 3, 86_400_000);
+
+        ExportJobDTO queued = jobService.enqueue(groupId, PdfExportFormat.ZIP, user);
+        jobService.runPendingJobs();
+        ExportJobDTO finished = jobService.getJob(queued.id(), user);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        jobService.writeFile(jobService.completedJob(queued.id(), user), file);
+
+        assertThat(queued.status()).isEqualTo(ExportJobStatus.PENDING);
+        assertThat(finished.status()).isEqualTo(ExportJobStatus.COMPLETED);
+        assertThat(finished.doneNotes()).isEqualTo(3);
+        assertThat(finished.downloadUrl()).isEqualTo("/api/export-jobs/" + queued.id() + "/file");
+        assertThat((long) file.size()).isEqualTo(finished.size());
+        assertThat(file.toByteArray()).startsWith((byte) 'P', (byte) 'K');
+    }
+
+    /**
+     * Testuje czy eksport dużej grupy renderuje każdą notatkę tylko raz: drugi eksport (scalony PDF, łączony
+     * notatka po notatce) korzysta z dokumentów z pamięci podręcznej i zawiera tyle samo stron.
+     * @throws IOException w przypadku błędu eksportu
+     */
+    @Test
+    void shouldRenderOnceAndServeRepeatedExportFromCache() throws IOException {
+        for (int i = 0; i < 120; i++) note("Notatka " + i, markdown(30, i));
+        List<NoteVersionDTO> versions = service.groupNotes(groupId, user.id(), true);
+
+        long pages = service.writeGroup(versions, PdfExportFormat.ZIP, OutputStream.nullOutputStream(), null);
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        long mergedPages = service.writeGroup(versions, PdfExportFormat.PDF, merged, null);
+
+        assertThat(pages).isGreaterThanOrEqualTo(versions.size());
+        assertThat(mergedPages).isEqualTo(pages);
+        try (PDDocument document = Loader.loadPDF(merged.toByteArray())) {
+            assertThat((long) document.getNumberOfPages()).isEqualTo(pages);
+        }
+        assertThat(service.stats())
+                .containsEntry("rendered", (long) versions.size())
+                .containsEntry("cacheHits", (long) versions.size());
+    }
+
+    private Note note(String title, String content) {
+        Note note = new Note();
+        note.setId(UUID.randomUUID());
+        note.setUserId(user.id());
+        note.setGroupId(groupId);
+        note.setTitle(title);
+        note.setContent(content);
+        note.setCreatedAt(LocalDateTime.of(2026, 1, 1, 8, 0).plusMinutes(notes.size()));
+        note.setUpdatedAt(note.getCreatedAt());
+        notes.put(note.getId(), note);
+        return note;
+    }
+
+    private static String markdown(int sections, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= sections; i++) {
+            text.append("## Rozdzial ").append(i).append("\n\n");
+            for (int p = 0; p < 2; p++) {
+                for (int w = 0; w < 60; w++) {
+                    text.append(w % 9 == 0 ? "**całka** " : "pojęcie").append(random.nextInt(100)).append(' ');
+                }
+                text.append("\n\n");
+            }
+            text.append("- Kolokwium z `granic`\n- Zadania domowe\n  1. ciągi\n  2. szeregi\n\n");
+            text.append("> Zażółć gęślą jaźń - cytat z wykładu.\n\n");
+            if (i % 3 == 0) text.append("```java\nint sum(int[] values) {\n    int total = 0;\n    return total;\n}\n```\n\n");
+        }
+        return text.toString();
+    }
+}
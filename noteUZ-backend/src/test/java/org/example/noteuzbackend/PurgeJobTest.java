@@ -0,0 +1,232 @@
+package org.example.noteuzbackend;
+
+import org.example.noteuzbackend.event.CalendarChangedEvent;
+import org.example.noteuzbackend.event.FriendshipChangedEvent;
+import org.example.noteuzbackend.event.GroupMembershipChangedEvent;
+import org.example.noteuzbackend.event.StatsChangedEvent;
+import org.example.noteuzbackend.model.entity.PurgeJob;
+import org.example.noteuzbackend.model.enums.PurgeStatus;
+import org.example.noteuzbackend.model.enums.PurgeTarget;
+import org.example.noteuzbackend.model.enums.StatsMetric;
+import org.example.noteuzbackend.repository.GroupMemberRepo;
+import org.example.noteuzbackend.repository.PurgeJobRepo;
+import org.example.noteuzbackend.service.FriendGraph;
+import org.example.noteuzbackend.service.PurgeJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testy jednostkowe serwisu PurgeJobService.
+ * Weryfikują usuwanie danych partiami, kolejność kroków oraz wznawianie przerwanych zadań.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PurgeJobTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock private PurgeJobRepo jobRepo;
+    @Mock private GroupMemberRepo memberRepo;
+    @Mock private FriendGraph friendGraph;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private TransactionTemplate tx;
+    @Mock private ApplicationEventPublisher events;
+
+    private PurgeJobService purgeService;
+
+    /** Liczba wierszy pozostałych do usunięcia w poszczególnych tabelach. */
+    private final Map<String, Integer> remainingRows = new HashMap<>();
+    /** Tabele w kolejności wykonywanych instrukcji DELETE. */
+    private final List<String> deletes = new ArrayList<>();
+    /** Tabela, której usuwanie ma zakończyć się błędem (null - brak błędu). */
+    private String failingTable;
+
+    /**
+     * Tworzy serwis z symulowaną bazą danych: każda instrukcja DELETE usuwa co najwyżej partię pozostałych wierszy tabeli.
+     */
+    @BeforeEach
+    void setUp() {
+        purgeService = new PurgeJobService(jobRepo, memberRepo, friendGraph, jdbc, tx, events, BATCH_SIZE, 0);
+
+        lenient().when(tx.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(jobRepo.save(any(PurgeJob.class))).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(jdbc.update(anyString(), any(Object[].class))).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            Object[] args = (Object[]) inv.getRawArguments()[1];
+            assertThat(sql).as("Każda instrukcja powinna usuwać ograniczoną partię").endsWith("LIMIT ?)");
+            assertThat(args[args.length - 1]).isEqualTo(BATCH_SIZE);
+
+            String table = sql.substring("DELETE FROM ".length(), sql.indexOf(' ', "DELETE FROM ".length()));
+            if (table.equals(failingTable)) throw new DataAccessResourceFailureException("lock timeout");
+            deletes.add(table);
+            int deleted = Math.min(BATCH_SIZE, remainingRows.getOrDefault(table, 0));
+            remainingRows.merge(table, -deleted, Integer::sum);
+            return deleted;
+        });
+    }
+
+    /**
+     * Testuje czy usunięcie grupy usuwa najpierw dane zależne, a każda tabela jest czyszczona partiami.
+     */
+    @Test
+    void shouldPurgeGroupInBoundedBatches() {
+        PurgeJob job = new PurgeJob(PurgeTarget.GROUP, UUID.randomUUID(), UUID.randomUUID(), 10);
+        remainingRows.put("public.notes", 5);
+        remainingRows.put("public.group_members", 3);
+        remainingRows.put("public.groups", 1);
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(job));
+
+        purgeService.runPendingJobs();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeStatus.COMPLETED);
+        assertThat(job.getDeletedRows()).isEqualTo(9);
+        assertThat(deletes.stream().filter("public.notes"::equals).count())
+                .as("5 notatek przy partii 2 wymaga 3 instrukcji DELETE")
+                .isEqualTo(3);
+        assertThat(deletes.indexOf("public.note_votes"))
+                .as("Głosy powinny być usuwane przed notatkami")
+                .isLessThan(deletes.indexOf("public.notes"));
+        assertThat(deletes.get(deletes.size() - 1))
+                .as("Grupa powinna być usuwana na końcu")
+                .isEqualTo("public.groups");
+        verify(events, times(2)).publishEvent(StatsChangedEvent.of(StatsMetric.NOTES, -2));
+        verify(events).publishEvent(StatsChangedEvent.of(StatsMetric.NOTES, -1));
+        verify(events).publishEvent(StatsChangedEvent.of(StatsMetric.GROUPS, -1));
+        verify(events).publishEvent(GroupMembershipChangedEvent.forAllUsers());
+    }
+
+    /**
+     * Testuje czy usunięcie notatek autora usuwa partiami także powiązania z wydarzeniami (przed notatkami)
+     * i unieważnia kalendarze właścicieli tych wydarzeń, pozostawiając konto autora.
+     */
+    @Test
+    void shouldPurgeAuthorNotesAndRefreshLinkedCalendars() {
+        PurgeJob job = new PurgeJob(PurgeTarget.AUTHOR_NOTES, UUID.randomUUID(), UUID.randomUUID(), 7);
+        UUID calendarOwner = UUID.randomUUID();
+        remainingRows.put("public.event_notes", 3);
+        remainingRows.put("public.notes", 4);
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(job));
+        when(jdbc.queryForList(anyString(), eq(UUID.class), any(Object[].class))).thenReturn(List.of(calendarOwner));
+
+        purgeService.runPendingJobs();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeStatus.COMPLETED);
+        assertThat(job.getDeletedRows()).isEqualTo(7);
+        assertThat(deletes.lastIndexOf("public.event_notes"))
+                .as("Powiązania z wydarzeniami powinny być usuwane przed notatkami")
+                .isLessThan(deletes.indexOf("public.notes"));
+        assertThat(deletes).doesNotContain("auth.users", "public.events");
+        verify(events, times(2)).publishEvent(StatsChangedEvent.of(StatsMetric.NOTES, -2));
+        verify(events).publishEvent(CalendarChangedEvent.forUser(calendarOwner));
+    }
+
+    /**
+     * Testuje czy zadanie przerwane błędem jest wznawiane od kroku, na którym zostało przerwane,
+     * bez ponownego wykonywania zakończonych kroków.
+     */
+    @Test
+    void shouldResumeFailedJobFromLastStep() {
+        PurgeJob job = new PurgeJob(PurgeTarget.NOTE, UUID.randomUUID(), UUID.randomUUID(), 6);
+        remainingRows.put("public.note_votes", 3);
+        remainingRows.put("public.notes", 1);
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(job));
+        failingTable = "public.event_notes";
+
+        purgeService.runPendingJobs();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeStatus.FAILED);
+        assertThat(job.getStepName()).isEqualTo("event-links");
+        assertThat(job.getError()).contains("lock timeout");
+        assertThat(job.getDeletedRows()).isEqualTo(3);
+        int stepsBeforeFailure = deletes.size();
+
+        when(jobRepo.findById(job.getId())).thenReturn(Optional.of(job));
+        purgeService.retry(job.getId());
+        failingTable = null;
+        purgeService.runPendingJobs();
+
+        assertThat(job.getStatus()).isEqualTo(PurgeStatus.COMPLETED);
+        assertThat(deletes.subList(stepsBeforeFailure, deletes.size()))
+                .as("Wznowione zadanie powinno zacząć od przerwanego kroku")
+                .containsExactly("public.event_notes", "public.notes");
+        assertThat(job.getDeletedRows()).isEqualTo(4);
+    }
+
+    /**
+     * Testuje czy zadanie jest wznawiane od kroku o zapisanej nazwie, a nie od zapisanego numeru
+     * (kroki dodane w środku planu przez nowszą wersję aplikacji przesuwają numery).
+     */
+    @Test
+    void shouldResumeByStepNameAfterPlanChange() {
+        PurgeJob job = new PurgeJob(PurgeTarget.NOTE, UUID.randomUUID(), UUID.randomUUID(), 3);
+        job.setStatus(PurgeStatus.RUNNING);
+        job.setStepIndex(1);
+        job.setStepName("event-links");
+        remainingRows.put("public.notes", 1);
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(job));
+
+        purgeService.runPendingJobs();
+
+        assertThat(deletes)
+                .as("Zadanie powinno zacząć od kroku event-links, a nie od kroku o numerze 1")
+                .containsExactly("public.event_notes", "public.notes");
+        assertThat(job.getTotalSteps()).isEqualTo(job.getStepIndex());
+    }
+
+    /**
+     * Testuje czy licznik zablokowanych kont zmniejsza się po usunięciu użytkownika tylko wtedy,
+     * gdy konto było zablokowane w chwili usunięcia.
+     */
+    @Test
+    void shouldDecrementBannedUsersOnlyForBannedAccount() {
+        PurgeJob banned = new PurgeJob(PurgeTarget.USER, UUID.randomUUID(), UUID.randomUUID(), 1);
+        PurgeJob unbanned = new PurgeJob(PurgeTarget.USER, UUID.randomUUID(), UUID.randomUUID(), 1);
+        when(jdbc.queryForObject(anyString(), eq(Boolean.class), eq(banned.getTargetId()))).thenReturn(true);
+        when(jdbc.queryForObject(anyString(), eq(Boolean.class), eq(unbanned.getTargetId()))).thenReturn(false);
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(banned, unbanned));
+
+        purgeService.runPendingJobs();
+
+        assertThat(banned.getStatus()).isEqualTo(PurgeStatus.COMPLETED);
+        assertThat(unbanned.getStatus()).isEqualTo(PurgeStatus.COMPLETED);
+        verify(events, times(1)).publishEvent(StatsChangedEvent.decrement(StatsMetric.BANNED_USERS));
+    }
+
+    /**
+     * Testuje czy po usunięciu użytkownika zrywane są jego krawędzie w grafie znajomych w pamięci.
+     */
+    @Test
+    void shouldDisconnectPurgedUserFromFriendGraph() {
+        PurgeJob job = new PurgeJob(PurgeTarget.USER, UUID.randomUUID(), UUID.randomUUID(), 1);
+        UUID friendA = UUID.randomUUID();
+        UUID friendB = UUID.randomUUID();
+        when(friendGraph.friendsOf(job.getTargetId())).thenReturn(Set.of(friendA, friendB));
+        when(jobRepo.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(job));
+
+        purgeService.runPendingJobs();
+
+        verify(events).publishEvent(FriendshipChangedEvent.disconnected(job.getTargetId(), friendA));
+        verify(events).publishEvent(FriendshipChangedEvent.disconnected(job.getTargetId(), friendB));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.noteuzbackend;
+
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pomocnik testowy zliczający wywołania zamockowanych repozytoriów.
+ * Każde wywołanie metody repozytorium odpowiada jednemu zapytaniu do bazy danych,
+ * dzięki czemu można wykrywać regresje typu N+1 w testach dowolnego serwisu.
+ *
+ * <pre>
+ * RepositoryQueryCounter queries = RepositoryQueryCounter.watching(groupRepo, memberRepo);
+ * groupService.getUserGroups(userId);
+ * queries.assertAtMost(1);
+ * </pre>
+ */
+public final class RepositoryQueryCounter {
+
+    private final List<Object> repositories;
+    private int baseline;
+
+    private RepositoryQueryCounter(List<Object> repositories) {
+        this.repositories = repositories;
+        this.baseline = totalInvocations();
+    }
+
+    /**
+     * Rozpoczyna zliczanie wywołań podanych mocków repozytoriów.
+     * Wywołania wykonane przed utworzeniem licznika (np. podczas stubowania) nie są liczone.
+     * @param repositories mocki repozytoriów do obserwowania
+     * @return nowy licznik zapytań
+     */
+    public static RepositoryQueryCounter watching(Object... repositories) {
+        return new RepositoryQueryCounter(Arrays.asList(repositories));
+    }
+
+    /**
+     * Zwraca liczbę zapytań wykonanych od utworzenia licznika lub ostatniego resetu.
+     * @return liczba wywołań metod repozytoriów
+     */
+    public int count() {
+        return totalInvocations() - baseline;
+    }
+
+    /**
+     * Zeruje licznik zapytań.
+     */
+    public void reset() {
+        baseline = totalInvocations();
+    }
+
+    /**
+     * Sprawdza, czy liczba wykonanych zapytań nie przekracza podanego limitu.
+     * @param maxQueries maksymalna dozwolona liczba zapytań
+     */
+    public void assertAtMost(int maxQueries) {
+        assertThat(count())
+                .as("Liczba zapytań do repozytoriów nie powinna przekraczać %d (możliwy problem N+1)", maxQueries)
+                .isLessThanOrEqualTo(maxQueries);
+    }
+
+    private int totalInvocations() {
+        return repositories.stream()
+                .mapToInt(r -> Mockito.mockingDetails(r).getInvocations().size())
+                .sum();
+    }
+}
@@ -11,6 +11,7 @@ import PersonIcon from '@mui/icons-material/Person';
 import NoteIcon from '@mui/icons-material/Note';
 import CrownIcon from '@mui/icons-material/EmojiEvents';
 import { useTranslation } from 'next-i18next';
+import { apiFetch } from '@/lib/api';
 
 export interface GroupMemberDTO {
     name: string;
@@ -27,7 +28,8 @@ export interface AdminGroup {
     memberCount: number;
     noteCount: number;
     createdAt: string;
-    members: GroupMemberDTO[];
+    // Lista członków nie jest zwracana w listingu - pobieramy ją przy otwarciu szczegółów
+    members?: GroupMemberDTO[] | null;
 }
 
 interface GroupsTableProps {
@@ -39,6 +41,16 @@ export const GroupsTable: React.FC<GroupsTableProps> = ({ groups, onDelete }) =>
     const { t } = useTranslation('common');
     const [viewGroup, setViewGroup] = useState<AdminGroup | null>(null);
 
+    const openGroup = async (group: AdminGroup) => {
+        setViewGroup(group);
+        try {
+            const members = await apiFetch<GroupMemberDTO[]>(`/api/admin/groups/${group.id}/members`);
+            setViewGroup(prev => (prev && prev.id === group.id ? { ...prev, members } : prev));
+        } catch (e) {
+            console.error(e);
+        }
+    };
+
     return (
         <>
             <TableContainer>
@@ -111,7 +123,7 @@ export const GroupsTable: React.FC<GroupsTableProps> = ({ groups, onDelete }) =>
                                 <TableCell align="right">
                                     <Box sx={{ display: 'flex', justifyContent: 'flex-end' }}>
                                         <Tooltip title={t('btn_open')}>
-                                            <IconButton onClick={() => setViewGroup(g)} color="info" size="small">
+                                            <IconButton onClick={() => openGroup(g)} color="info" size="small">
                                                 <VisibilityIcon />
                                             </IconButton>
                                         </Tooltip>
@@ -160,11 +172,11 @@ export const GroupsTable: React.FC<GroupsTableProps> = ({ groups, onDelete }) =>
                             )}
 
                             <Typography variant="subtitle2" fontWeight="bold" sx={{ mb: 1 }}>
-                                {t('tab_members')} ({viewGroup.members.length}):
+                                {t('tab_members')} ({viewGroup.memberCount}):
                             </Typography>
 
                             <List dense sx={{ border: '1px solid', borderColor: 'divider', borderRadius: 1, maxHeight: 300, overflow: 'auto' }}>
-                                {viewGroup.members.map((member, idx) => (
+                                {(viewGroup.members ?? []).map((member, idx) => (
                                     <React.Fragment key={idx}>
                                         <ListItem>
                                             <ListItemAvatar>
@@ -180,7 +192,7 @@ export const GroupsTable: React.FC<GroupsTableProps> = ({ groups, onDelete }) =>
                                                 secondary={`${member.email} • ${member.role}`}
                                             />
                                         </ListItem>
-                                        {idx < viewGroup.members.length - 1 && <Divider variant="inset" component="li" />}
+                                        {idx < (viewGroup.members ?? []).length - 1 && <Divider variant="inset" component="li" />}
                                     </React.Fragment>
                                 ))}
                             </List>
@@ -56,7 +56,7 @@ export const UsersTable: React.FC<UsersTableProps> = ({
                             <TableCell>
                                 <Stack direction="row" spacing={2} alignItems="center">
                                     <Avatar
-                                        src={`/api/proxy-avatar/${u.id}`}
+                                        src={`/api/proxy-avatar/${u.id}?size=64`}
                                         alt={u.displayName || u.email}
                                     >
                                         {(u.displayName || u.email || '?')[0].toUpperCase()}
@@ -20,7 +20,7 @@ export const ProfileCard: React.FC<ProfileCardProps> = ({ user }) => {
     const initial = displayName.charAt(0).toUpperCase();
     const fileInputRef = useRef<HTMLInputElement>(null);
     const [uploading, setUploading] = useState(false);
-    const [avatarUrl, setAvatarUrl] = useState(`/api/proxy-avatar/${user.id}?t=${Date.now()}`);
+    const [avatarUrl, setAvatarUrl] = useState(`/api/proxy-avatar/${user.id}`);
 
     const handleFileChange = async (event: React.ChangeEvent<HTMLInputElement>) => {
         const file = event.target.files?.[0];
@@ -42,7 +42,9 @@ export const ProfileCard: React.FC<ProfileCardProps> = ({ user }) => {
             });
 
             if (res.ok) {
-                setAvatarUrl(`/api/proxy-avatar/${user.id}?t=${Date.now()}`);
+                // Nowa wersja (skrót treści) zmienia adres, więc przeglądarka nie użyje starego obrazka z cache
+                const avatar = await res.json();
+                setAvatarUrl(`/api/proxy-avatar/${user.id}?v=${avatar.contentHash}`);
             } else {
                 alert(t('upload_error'));
             }
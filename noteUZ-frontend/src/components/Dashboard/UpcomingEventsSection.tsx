@@ -3,14 +3,19 @@ import { Paper, Typography, Box, List, ListItem, ListItemText, ListItemIcon } fr
 import EventIcon from '@mui/icons-material/Event';
 import { apiFetch } from '@/lib/api';
 import { CalendarEvent } from '@/types/Event';
+import { eventsPath } from '@/lib/dates';
+
+// Okno (w dniach), w którym szukamy nadchodzących wydarzeń
+const UPCOMING_DAYS = 30;
 
 export const UpcomingEventsSection = () => {
     const [events, setEvents] = useState<CalendarEvent[]>([]);
 
     useEffect(() => {
-        apiFetch<CalendarEvent[]>('/api/events').then(data => {
+        const now = new Date();
+        const until = new Date(now.getTime() + UPCOMING_DAYS * 24 * 60 * 60 * 1000);
+        apiFetch<CalendarEvent[]>(eventsPath(now, until)).then(data => {
             // Filtrujemy tylko przyszłe wydarzenia i sortujemy
-            const now = new Date();
             const futureEvents = data
                 .filter(e => new Date(e.start) >= now)
                 .sort((a, b) => new Date(a.start).getTime() - new Date(b.start).getTime())
@@ -28,7 +33,7 @@ export const UpcomingEventsSection = () => {
             </Typography>
             <List dense>
                 {events.map(event => (
-                    <ListItem key={event.id}>
+                    <ListItem key={`${event.id}-${event.start}`}>
                         <ListItemIcon><EventIcon color="primary" /></ListItemIcon>
                         <ListItemText
                             primary={event.title}
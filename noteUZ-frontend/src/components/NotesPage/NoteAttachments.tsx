@@ -0,0 +1,111 @@
+import React, { useEffect, useRef, useState } from 'react';
+import {
+    Alert, Box, Button, IconButton, LinearProgress, List, ListItem, ListItemIcon, ListItemText, Typography
+} from '@mui/material';
+import AttachFileIcon from '@mui/icons-material/AttachFile';
+import DeleteIcon from '@mui/icons-material/Delete';
+import InsertDriveFileIcon from '@mui/icons-material/InsertDriveFile';
+import ImageIcon from '@mui/icons-material/Image';
+import { useTranslation } from 'next-i18next';
+import {
+    NoteAttachment, attachmentHref, deleteAttachment, listAttachments, uploadAttachment
+} from '@/lib/attachments';
+
+interface NoteAttachmentsProps {
+    noteId: string;
+    canEdit: boolean;
+}
+
+// Typy przyjmowane przez serwer (NoteAttachmentService.ALLOWED_TYPES)
+const ACCEPT = 'image/png,image/jpeg,image/gif,image/webp,application/pdf,application/zip,.docx,.xlsx,.pptx,.txt,.md,.csv';
+
+function formatSize(bytes: number): string {
+    if (bytes < 1024) return `${bytes} B`;
+    if (bytes < 1024 * 1024) return `${(bytes / 1024).toFixed(0)} KB`;
+    return `${(bytes / (1024 * 1024)).toFixed(1)} MB`;
+}
+
+export const NoteAttachments: React.FC<NoteAttachmentsProps> = ({ noteId, canEdit }) => {
+    const { t } = useTranslation('common');
+    const [attachments, setAttachments] = useState<NoteAttachment[]>([]);
+    const [progress, setProgress] = useState<number | null>(null);
+    const [error, setError] = useState<string | null>(null);
+    const inputRef = useRef<HTMLInputElement>(null);
+
+    useEffect(() => {
+        listAttachments(noteId).then(data => setAttachments(data || [])).catch(() => {});
+    }, [noteId]);
+
+    async function handleFiles(files: FileList | null) {
+        if (!files || files.length === 0) return;
+        setError(null);
+        try {
+            for (const file of Array.from(files)) {
+                setProgress(0);
+                const attachment = await uploadAttachment(noteId, file, (sent, total) => setProgress(Math.round(sent * 100 / total)));
+                setAttachments(prev => [...prev, attachment]);
+            }
+        } catch (e) {
+            setError(e instanceof Error ? e.message : t('attachments_error_upload'));
+        } finally {
+            setProgress(null);
+            if (inputRef.current) inputRef.current.value = '';
+        }
+    }
+
+    async function handleDelete(attachment: NoteAttachment) {
+        try {
+            await deleteAttachment(noteId, attachment.id);
+            setAttachments(prev => prev.filter(a => a.id !== attachment.id));
+        } catch (e) {
+            setError(t('attachments_error_delete'));
+        }
+    }
+
+    if (!canEdit && attachments.length === 0) return null;
+
+    return (
+        <Box>
+            <Box sx={{ display: 'flex', alignItems: 'center', justifyContent: 'space-between', mb: 1 }}>
+                <Typography variant="subtitle1" fontWeight={700}>{t('attachments_header')}</Typography>
+                {canEdit && (
+                    <>
+                        <input ref={inputRef} type="file" hidden multiple accept={ACCEPT} onChange={e => handleFiles(e.target.files)} />
+                        <Button size="small" startIcon={<AttachFileIcon />} disabled={progress !== null} onClick={() => inputRef.current?.click()}>
+                            {t('attachments_add')}
+                        </Button>
+                    </>
+                )}
+            </Box>
+
+            {error && <Alert severity="error" sx={{ mb: 1 }} onClose={() => setError(null)}>{error}</Alert>}
+            {progress !== null && <LinearProgress variant="determinate" value={progress} sx={{ mb: 1 }} />}
+
+            {attachments.length === 0 ? (
+                <Typography color="text.disabled" fontStyle="italic" variant="body2">{t('attachments_empty')}</Typography>
+            ) : (
+                <List dense disablePadding>
+                    {attachments.map(attachment => (
+                        <ListItem
+                            key={attachment.id}
+                            disableGutters
+                            secondaryAction={canEdit && (
+                                <IconButton edge="end" size="small" onClick={() => handleDelete(attachment)}>
+                                    <DeleteIcon fontSize="small" />
+                                </IconButton>
+                            )}
+                        >
+                            <ListItemIcon sx={{ minWidth: 36 }}>
+                                {attachment.contentType.startsWith('image/') ? <ImageIcon /> : <InsertDriveFileIcon />}
+                            </ListItemIcon>
+                            <ListItemText
+                                primary={<a href={attachmentHref(attachment)} target="_blank" rel="noopener noreferrer">{attachment.fileName}</a>}
+                                secondary={formatSize(attachment.size)}
+                            />
+                        </ListItem>
+                    ))}
+                </List>
+            )}
+        </Box>
+    );
+};
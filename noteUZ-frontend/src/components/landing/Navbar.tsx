@@ -22,7 +22,7 @@ export const Navbar = ({ user, onLogout, busy }: NavbarProps) => {
 
     const displayName = user?.user_metadata?.display_name || 'U';
     const initial = displayName.charAt(0).toUpperCase();
-    const avatarUrl = user ? `/api/proxy-avatar/${user.id}` : undefined;
+    const avatarUrl = user ? `/api/proxy-avatar/${user.id}?size=64` : undefined;
 
     return (
         <AppBar
@@ -0,0 +1,90 @@
+// src/lib/attachments.ts
+import { apiFetch } from '@/lib/api';
+
+const API = process.env.NEXT_PUBLIC_API_URL || '';
+
+// Liczba kolejnych nieudanych prób wysłania fragmentu, po której przesyłanie jest przerywane
+const MAX_RETRIES = 5;
+
+export interface NoteAttachment {
+    id: string;
+    noteId: string;
+    fileName: string;
+    contentType: string;
+    size: number;
+    uploadedBy: string | null;
+    createdAt: string;
+    url: string;
+}
+
+interface UploadStatus {
+    uploadId: string;
+    noteId: string;
+    fileName: string;
+    size: number;
+    received: number;
+    chunkSize: number;
+    attachment: NoteAttachment | null;
+}
+
+/** Błąd, którego ponowienie nie pomoże (np. niedozwolony typ pliku lub brak uprawnień). */
+class UploadRejectedError extends Error {}
+
+export function attachmentsPath(noteId: string): string {
+    return `/api/notes/${noteId}/attachments`;
+}
+
+export function attachmentHref(attachment: NoteAttachment): string {
+    return `${API}${attachment.url}`;
+}
+
+export function listAttachments(noteId: string): Promise<NoteAttachment[]> {
+    return apiFetch<NoteAttachment[]>(attachmentsPath(noteId));
+}
+
+export function deleteAttachment(noteId: string, attachmentId: string): Promise<void> {
+    return apiFetch<void>(`${attachmentsPath(noteId)}/${attachmentId}`, { method: 'DELETE' });
+}
+
+/**
+ * Przesyła plik w fragmentach o rozmiarze podanym przez serwer. Po zerwanym połączeniu lub błędzie serwera
+ * pobiera stan przesyłania i wznawia je od ostatniego bajtu odebranego przez serwer, więc już wysłane
+ * fragmenty nie są wysyłane ponownie.
+ */
+export async function uploadAttachment(noteId: string, file: File, onProgress?: (sent: number, total: number) => void): Promise<NoteAttachment> {
+    const base = attachmentsPath(noteId);
+    let status = await apiFetch<UploadStatus>(`${base}/uploads`, {
+        method: 'POST',
+        body: JSON.stringify({ fileName: file.name, contentType: file.type || 'application/octet-stream', size: file.size }),
+    });
+
+    let failures = 0;
+    while (!status.attachment) {
+        try {
+            const res = await fetch(`${API}${base}/uploads/${status.uploadId}?offset=${status.received}`, {
+                method: 'PUT',
+                credentials: 'include',
+                headers: { 'Content-Type': 'application/octet-stream' },
+                body: file.slice(status.received, status.received + status.chunkSize),
+            });
+            if (res.ok) {
+                status = await res.json();
+                failures = 0;
+                onProgress?.(status.received, file.size);
+                continue;
+            }
+            // 409 - serwer ma inną pozycję niż klient (np. po przerwanym fragmencie); 5xx - błąd przejściowy
+            if (res.status !== 409 && res.status < 500) {
+                const data = await res.json().catch(() => null);
+                throw new UploadRejectedError(data?.message || `API ${res.status}`);
+            }
+        } catch (e) {
+            if (e instanceof UploadRejectedError) throw e;
+        }
+
+        if (++failures > MAX_RETRIES) throw new Error('Nie udało się przesłać pliku');
+        await new Promise(resolve => setTimeout(resolve, 1000 * failures));
+        status = await apiFetch<UploadStatus>(`${base}/uploads/${status.uploadId}`);
+    }
+    return status.attachment;
+}
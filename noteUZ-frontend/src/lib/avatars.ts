@@ -0,0 +1,52 @@
+// src/lib/avatars.ts
+import { useEffect, useState } from 'react';
+
+// Limit identyfikatorów w jednym żądaniu (AvatarService.BATCH_MAX_IDS)
+const BATCH_MAX_IDS = 100;
+
+interface AvatarBatch {
+    dimension: number;
+    version: string;
+    avatars: Record<string, string>;
+    pending: string[];
+}
+
+/**
+ * Pobiera miniatury awatarów wielu użytkowników jednym żądaniem (zamiast osobnego żądania dla każdego awatara)
+ * i zwraca funkcję podającą adres obrazka dla użytkownika. Miniatura, która nie jest jeszcze gotowa, jest pobierana
+ * pojedynczym adresem; dla użytkownika bez awatara zwracane jest undefined (wyświetlana jest literka).
+ */
+export function useAvatarBatch(userIds: string[], size = 64): (userId: string) => string | undefined {
+    const [avatars, setAvatars] = useState<Record<string, string>>({});
+    const [pending, setPending] = useState<Set<string>>(new Set());
+    const key = Array.from(new Set(userIds)).sort().join(',');
+
+    useEffect(() => {
+        if (!key) return;
+        const ids = key.split(',');
+        const chunks: string[][] = [];
+        for (let i = 0; i < ids.length; i += BATCH_MAX_IDS) chunks.push(ids.slice(i, i + BATCH_MAX_IDS));
+
+        let cancelled = false;
+        // Bez 'no-store' (w przeciwieństwie do apiFetch) - przeglądarka weryfikuje zapamiętaną odpowiedź nagłówkiem If-None-Match
+        Promise.all(chunks.map(chunk =>
+            fetch(`/api/proxy-avatar/batch?ids=${chunk.join(',')}&size=${size}`, { credentials: 'include' })
+                .then(res => (res.ok ? res.json() as Promise<AvatarBatch> : null))
+                .catch(() => null)
+        )).then(batches => {
+            if (cancelled) return;
+            const nextAvatars: Record<string, string> = {};
+            const nextPending = new Set<string>();
+            batches.forEach(batch => {
+                if (!batch) return;
+                Object.assign(nextAvatars, batch.avatars);
+                batch.pending.forEach(id => nextPending.add(id));
+            });
+            setAvatars(nextAvatars);
+            setPending(nextPending);
+        });
+        return () => { cancelled = true; };
+    }, [key, size]);
+
+    return (userId: string) => avatars[userId] ?? (pending.has(userId) ? `/api/proxy-avatar/${userId}?size=${size}` : undefined);
+}
@@ -0,0 +1,15 @@
+// src/lib/dates.ts
+
+const pad = (value: number) => String(value).padStart(2, '0');
+
+// Formatuje datę jako lokalny czas ISO bez strefy (YYYY-MM-DDTHH:mm:ss), w formacie LocalDateTime backendu
+export function toLocalDateTime(date: Date): string {
+    return `${date.getFullYear()}-${pad(date.getMonth() + 1)}-${pad(date.getDate())}` +
+        `T${pad(date.getHours())}:${pad(date.getMinutes())}:${pad(date.getSeconds())}`;
+}
+
+// Buduje ścieżkę listy wydarzeń z przedziału [from, to)
+export function eventsPath(from: Date, to: Date): string {
+    const params = new URLSearchParams({ from: toLocalDateTime(from), to: toLocalDateTime(to) });
+    return `/api/events?${params}`;
+}
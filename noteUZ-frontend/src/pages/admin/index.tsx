@@ -1,4 +1,4 @@
-import React, { useEffect, useState, useMemo } from 'react';
+import React, { useCallback, useEffect, useState } from 'react';
 import { useRouter } from 'next/router';
 import { useTranslation } from 'next-i18next';
 import { serverSideTranslations } from 'next-i18next/serverSideTranslations';
@@ -6,7 +6,7 @@ import { GetServerSideProps } from 'next';
 import {
     Box, Typography, Paper, Tabs, Tab, CircularProgress, Alert,
     TextField, InputAdornment, Dialog, DialogTitle, DialogContent,
-    DialogContentText, DialogActions, Button, Snackbar, Avatar
+    DialogContentText, DialogActions, Button, Snackbar, Avatar, MenuItem, TablePagination
 } from '@mui/material';
 
 // Ikony
@@ -27,6 +27,39 @@ import { Navbar } from '@/components/landing/Navbar';
 import { apiFetch } from '@/lib/api';
 import { UserData } from '@/types/User';
 
+interface AdminStats {
+    users: number;
+    notes: number;
+    groups: number;
+}
+
+interface PageResponse<T> {
+    content: T[];
+    totalElements: number;
+}
+
+// Pola sortowania dozwolone przez backend (AdminService) dla każdej zakładki; pierwsza opcja jest domyślna
+const SORT_OPTIONS: { value: string; label: string }[][] = [
+    [
+        { value: 'role,asc', label: 'col_role' },
+        { value: 'warnings,desc', label: 'col_warnings' },
+        { value: 'isBanned,desc', label: 'col_status' },
+    ],
+    [
+        { value: 'createdAt,desc', label: 'col_created_at' },
+        { value: 'updatedAt,desc', label: 'col_updated_at' },
+        { value: 'title,asc', label: 'col_title' },
+    ],
+    [
+        { value: 'createdAt,desc', label: 'col_created_at' },
+        { value: 'name,asc', label: 'col_name' },
+    ],
+];
+
+const LIST_PATHS = ['/api/admin/users', '/api/admin/notes', '/api/admin/groups'];
+const ROWS_PER_PAGE_OPTIONS = [25, 50, 100, 200];
+const SEARCH_DELAY_MS = 300;
+
 interface ConfirmDialogState {
     open: boolean;
     title: string;
@@ -42,6 +75,11 @@ export default function AdminPage() {
     const [tab, setTab] = useState(0);
     const [loading, setLoading] = useState(true);
     const [searchTerm, setSearchTerm] = useState('');
+    const [query, setQuery] = useState('');
+    const [page, setPage] = useState(0);
+    const [rowsPerPage, setRowsPerPage] = useState(50);
+    const [sort, setSort] = useState(SORT_OPTIONS[0][0].value);
+    const [totalElements, setTotalElements] = useState(0);
     const [error, setError] = useState<string | null>(null);
     const [currentUser, setCurrentUser] = useState<UserData | null>(null);
     const [currentUserRole, setCurrentUserRole] = useState<'USER' | 'MODERATOR' | 'ADMIN'>('USER');
@@ -49,6 +87,7 @@ export default function AdminPage() {
     const [users, setUsers] = useState<AdminUser[]>([]);
     const [notes, setNotes] = useState<AdminNote[]>([]);
     const [groups, setGroups] = useState<AdminGroup[]>([]);
+    const [stats, setStats] = useState<AdminStats | null>(null);
 
     const [confirmDialog, setConfirmDialog] = useState<ConfirmDialogState>({ open: false, title: '', content: '', action: null });
     const [snackbar, setSnackbar] = useState({ open: false, message: '', severity: 'info' as 'success' | 'error' | 'info' });
@@ -62,30 +101,70 @@ export default function AdminPage() {
                 }
                 setCurrentUser(user);
                 setCurrentUserRole(user.role);
-                fetchAll();
             })
             .catch(() => {
                 router.replace('/login');
             });
     }, [router]);
 
-    const fetchAll = async () => {
+    // Wyszukiwanie jest wykonywane po stronie serwera (parametr q) - zapytanie wysyłamy po przerwie w pisaniu
+    useEffect(() => {
+        const timer = setTimeout(() => {
+            setQuery(searchTerm.trim());
+            setPage(0);
+        }, SEARCH_DELAY_MS);
+        return () => clearTimeout(timer);
+    }, [searchTerm]);
+
+    const fetchStats = useCallback(async () => {
         try {
-            const [usersData, notesData, groupsData] = await Promise.all([
-                apiFetch<AdminUser[]>('/api/admin/users'),
-                apiFetch<AdminNote[]>('/api/admin/notes'),
-                apiFetch<AdminGroup[]>('/api/admin/groups')
-            ]);
-
-            setUsers(usersData);
-            setNotes(notesData);
-            setGroups(groupsData);
+            setStats(await apiFetch<AdminStats>('/api/admin/stats'));
+        } catch (e) {
+            console.error(e);
+        }
+    }, []);
+
+    // Backend zwraca strony (Spring Data Page) - pobieramy tylko bieżącą stronę aktywnej zakładki
+    const fetchList = useCallback(async () => {
+        const params = new URLSearchParams({ page: String(page), size: String(rowsPerPage), sort });
+        if (query) params.set('q', query);
+        try {
+            const path = `${LIST_PATHS[tab]}?${params.toString()}`;
+            if (tab === 0) {
+                const data = await apiFetch<PageResponse<AdminUser>>(path);
+                setUsers(data.content);
+                setTotalElements(data.totalElements);
+            } else if (tab === 1) {
+                const data = await apiFetch<PageResponse<AdminNote>>(path);
+                setNotes(data.content);
+                setTotalElements(data.totalElements);
+            } else {
+                const data = await apiFetch<PageResponse<AdminGroup>>(path);
+                setGroups(data.content);
+                setTotalElements(data.totalElements);
+            }
+            setError(null);
         } catch (e) {
             console.error(e);
             setError(t('error_backend') || "Błąd pobierania danych lub brak uprawnień.");
         } finally {
             setLoading(false);
         }
+    }, [tab, page, rowsPerPage, sort, query, t]);
+
+    useEffect(() => {
+        if (currentUser) fetchStats();
+    }, [currentUser, fetchStats]);
+
+    useEffect(() => {
+        if (currentUser) fetchList();
+    }, [currentUser, fetchList]);
+
+    const handleTabChange = (newTab: number) => {
+        setTab(newTab);
+        setSort(SORT_OPTIONS[newTab][0].value);
+        setPage(0);
+        setTotalElements(0);
     };
 
     const showSnackbar = (message: string, severity: 'success' | 'error' = 'success') => setSnackbar({ open: true, message, severity });
@@ -98,25 +177,10 @@ export default function AdminPage() {
             catch (e) { showSnackbar(t('error_op'), "error"); }
         }
         setConfirmDialog(prev => ({ ...prev, open: false }));
-        fetchAll();
+        fetchList();
+        fetchStats();
     };
 
-    const filteredUsers = useMemo(() => users.filter(u =>
-        (u.email || '').toLowerCase().includes(searchTerm.toLowerCase()) ||
-        (u.displayName || '').toLowerCase().includes(searchTerm.toLowerCase())
-    ), [users, searchTerm]);
-
-    const filteredNotes = useMemo(() => notes.filter(n =>
-        (n.title || '').toLowerCase().includes(searchTerm.toLowerCase()) ||
-        (n.content || '').toLowerCase().includes(searchTerm.toLowerCase()) ||
-        (n.authorName || '').toLowerCase().includes(searchTerm.toLowerCase()) ||
-        (n.groupName || '').toLowerCase().includes(searchTerm.toLowerCase())
-    ), [notes, searchTerm]);
-
-    const filteredGroups = useMemo(() => groups.filter(g =>
-        (g.name || '').toLowerCase().includes(searchTerm.toLowerCase())
-    ), [groups, searchTerm]);
-
     if (loading || !currentUser) {
         return (
             <Box sx={{ display: 'flex', justifyContent: 'center', alignItems: 'center', height: '100vh' }}>
@@ -148,9 +212,9 @@ export default function AdminPage() {
                     gap: 3,
                     mb: 4
                 }}>
-                    <StatCard title={t('stat_users')} value={users.length} icon={<PeopleIcon />} colorType="primary" />
-                    <StatCard title={t('stat_notes')} value={notes.length} icon={<NoteIcon />} colorType="secondary" />
-                    <StatCard title={t('stat_groups')} value={groups.length} icon={<GroupsIcon />} colorType="warning" />
+                    <StatCard title={t('stat_users')} value={stats?.users ?? users.length} icon={<PeopleIcon />} colorType="primary" />
+                    <StatCard title={t('stat_notes')} value={stats?.notes ?? notes.length} icon={<NoteIcon />} colorType="secondary" />
+                    <StatCard title={t('stat_groups')} value={stats?.groups ?? groups.length} icon={<GroupsIcon />} colorType="warning" />
                 </Box>
 
                 <Paper sx={{ mb: 3, overflow: 'hidden', border: '1px solid', borderColor: 'divider' }} elevation={0}>
@@ -166,7 +230,7 @@ export default function AdminPage() {
                     }}>
                         <Tabs
                             value={tab}
-                            onChange={(e, v) => setTab(v)}
+                            onChange={(e, v) => handleTabChange(v)}
                             variant="scrollable"
                             scrollButtons="auto"
                         >
@@ -175,19 +239,32 @@ export default function AdminPage() {
                             <Tab label={t('admin_tab_groups')} />
                         </Tabs>
 
-                        <TextField
-                            size="small"
-                            placeholder={t('search_placeholder') || "Szukaj..."}
-                            value={searchTerm}
-                            onChange={(e) => setSearchTerm(e.target.value)}
-                            InputProps={{ startAdornment: <InputAdornment position="start"><SearchIcon /></InputAdornment> }}
-                            sx={{ width: { xs: '100%', sm: 'auto' } }}
-                        />
+                        <Box sx={{ display: 'flex', gap: 2, flexWrap: 'wrap', width: { xs: '100%', sm: 'auto' } }}>
+                            <TextField
+                                select
+                                size="small"
+                                value={sort}
+                                onChange={(e) => { setSort(e.target.value); setPage(0); }}
+                                sx={{ minWidth: 160 }}
+                            >
+                                {SORT_OPTIONS[tab].map(option => (
+                                    <MenuItem key={option.value} value={option.value}>{t(option.label)}</MenuItem>
+                                ))}
+                            </TextField>
+                            <TextField
+                                size="small"
+                                placeholder={t('search_placeholder') || "Szukaj..."}
+                                value={searchTerm}
+                                onChange={(e) => setSearchTerm(e.target.value)}
+                                InputProps={{ startAdornment: <InputAdornment position="start"><SearchIcon /></InputAdornment> }}
+                                sx={{ width: { xs: '100%', sm: 'auto' } }}
+                            />
+                        </Box>
                     </Box>
 
                     {tab === 0 && (
                         <UsersTable
-                            users={filteredUsers}
+                            users={users}
                             currentUserRole={currentUserRole}
                             onPromote={(id) => openConfirm(t('dialog_role_title'), t('dialog_role_desc'), async () => apiFetch(`/api/admin/users/${id}/promote`, { method: 'POST' }))}
                             onDemote={(id) => openConfirm(t('dialog_role_title'), t('dialog_role_desc'), async () => apiFetch(`/api/admin/users/${id}/demote`, { method: 'POST' }), true)}
@@ -200,17 +277,28 @@ export default function AdminPage() {
 
                     {tab === 1 && (
                         <NotesTable
-                            notes={filteredNotes}
+                            notes={notes}
                             onDelete={(id) => openConfirm(t('dialog_delete_note_title'), t('dialog_delete_note_desc'), async () => apiFetch(`/api/admin/notes/${id}`, { method: 'DELETE' }), true)}
                         />
                     )}
 
                     {tab === 2 && (
                         <GroupsTable
-                            groups={filteredGroups}
+                            groups={groups}
                             onDelete={(id) => openConfirm(t('dialog_delete_group_title'), t('dialog_delete_group_desc'), async () => apiFetch(`/api/admin/groups/${id}`, { method: 'DELETE' }), true)}
                         />
                     )}
+
+                    <TablePagination
+                        component="div"
+                        count={totalElements}
+                        page={page}
+                        onPageChange={(e, newPage) => setPage(newPage)}
+                        rowsPerPage={rowsPerPage}
+                        rowsPerPageOptions={ROWS_PER_PAGE_OPTIONS}
+                        onRowsPerPageChange={(e) => { setRowsPerPage(parseInt(e.target.value, 10)); setPage(0); }}
+                        labelRowsPerPage={t('rows_per_page')}
+                    />
                 </Paper>
             </Box>
 
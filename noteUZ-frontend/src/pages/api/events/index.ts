@@ -4,7 +4,7 @@ import type { NextApiRequest, NextApiResponse } from 'next';
 const API = process.env.NEXT_PUBLIC_API_URL;
 
 export default async function handler(req: NextApiRequest, res: NextApiResponse) {
-    const { method, body } = req;
+    const { method, body, query } = req;
 
     // Przekazujemy ciasteczko sesyjne (JWT) do backendu
     const cookieHeader = req.headers.cookie || '';
@@ -21,9 +21,17 @@ export default async function handler(req: NextApiRequest, res: NextApiResponse)
         options.body = JSON.stringify(body);
     }
 
+    // Przekazujemy parametry zapytania (np. zakres from/to widoczny w kalendarzu)
+    const params = new URLSearchParams();
+    Object.entries(query).forEach(([key, value]) => {
+        if (Array.isArray(value)) value.forEach(v => params.append(key, v));
+        else if (value !== undefined) params.append(key, value);
+    });
+    const search = params.toString() ? `?${params}` : '';
+
     try {
         // Przekierowanie żądania do Spring Boot: /api/events
-        const backendRes = await fetch(`${API}/api/events`, options);
+        const backendRes = await fetch(`${API}/api/events${search}`, options);
 
         // Obsługa pustej odpowiedzi (np. przy DELETE)
         if (backendRes.status === 204) {
@@ -0,0 +1,47 @@
+import type { NextApiRequest, NextApiResponse } from 'next';
+import { Readable } from 'stream';
+import type { ReadableStream as NodeReadableStream } from 'stream/web';
+
+const SPRING_API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
+
+// Fragmenty plików i pobierane załączniki są przekazywane strumieniowo - bez parsowania i buforowania treści
+export const config = { api: { bodyParser: false, responseLimit: false } };
+
+const FORWARDED_HEADERS = ['content-type', 'content-length', 'content-disposition', 'etag', 'cache-control', 'x-content-type-options'];
+
+export default async function handler(req: NextApiRequest, res: NextApiResponse) {
+    const { id, path, ...rest } = req.query;
+    const segments = Array.isArray(path) ? path : [];
+    const params = new URLSearchParams();
+    Object.entries(rest).forEach(([name, value]) => {
+        if (typeof value === 'string') params.set(name, value);
+    });
+    const query = params.toString() ? `?${params}` : '';
+    const url = `${SPRING_API_URL}/api/notes/${id}/attachments${segments.map(s => `/${encodeURIComponent(s)}`).join('')}${query}`;
+
+    try {
+        const headers: Record<string, string> = {};
+        if (req.headers.cookie) headers['Cookie'] = req.headers.cookie;
+        if (req.headers['content-type']) headers['Content-Type'] = req.headers['content-type'];
+        if (typeof req.headers['if-none-match'] === 'string') headers['If-None-Match'] = req.headers['if-none-match'];
+        const hasBody = req.method === 'POST' || req.method === 'PUT';
+
+        const backendRes = await fetch(url, {
+            method: req.method,
+            headers,
+            body: hasBody ? (Readable.toWeb(req) as ReadableStream) : undefined,
+            // Wymagane przez fetch w Node.js przy treści przesyłanej strumieniowo
+            duplex: 'half',
+        } as RequestInit & { duplex: 'half' });
+
+        res.status(backendRes.status);
+        FORWARDED_HEADERS.forEach(name => {
+            const value = backendRes.headers.get(name);
+            if (value) res.setHeader(name, value);
+        });
+        if (!backendRes.body || backendRes.status === 204 || backendRes.status === 304) return res.end();
+        Readable.fromWeb(backendRes.body as NodeReadableStream).pipe(res);
+    } catch (error) {
+        return res.status(500).json({ message: 'Backend connection error' });
+    }
+}
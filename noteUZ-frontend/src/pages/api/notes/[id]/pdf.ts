@@ -0,0 +1,36 @@
+import type { NextApiRequest, NextApiResponse } from 'next';
+import { Readable } from 'stream';
+import type { ReadableStream as NodeReadableStream } from 'stream/web';
+
+const SPRING_API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
+
+// Dokument PDF jest przekazywany strumieniowo - bez buforowania treści
+export const config = { api: { responseLimit: false } };
+
+const FORWARDED_HEADERS = ['content-type', 'content-length', 'content-disposition', 'etag', 'cache-control'];
+
+export default async function handler(req: NextApiRequest, res: NextApiResponse) {
+    if (req.method !== 'GET') {
+        res.setHeader('Allow', ['GET']);
+        return res.status(405).end(`Method ${req.method} Not Allowed`);
+    }
+
+    const { id } = req.query;
+    try {
+        const headers: Record<string, string> = {};
+        if (req.headers.cookie) headers['Cookie'] = req.headers.cookie;
+        if (typeof req.headers['if-none-match'] === 'string') headers['If-None-Match'] = req.headers['if-none-match'];
+
+        const backendRes = await fetch(`${SPRING_API_URL}/api/notes/${id}/pdf`, { headers });
+
+        res.status(backendRes.status);
+        FORWARDED_HEADERS.forEach(name => {
+            const value = backendRes.headers.get(name);
+            if (value) res.setHeader(name, value);
+        });
+        if (!backendRes.body || backendRes.status === 304) return res.end();
+        Readable.fromWeb(backendRes.body as NodeReadableStream).pipe(res);
+    } catch (error) {
+        return res.status(500).json({ message: 'Backend connection error' });
+    }
+}
@@ -3,11 +3,28 @@ import type { NextApiRequest, NextApiResponse } from 'next';
 const SPRING_API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
 
 export default async function handler(req: NextApiRequest, res: NextApiResponse) {
-    const { id } = req.query;
+    const { id, v, size } = req.query;
 
     try {
-        // Po prostu przekierowujemy request GET do Javy
-        const backendRes = await fetch(`${SPRING_API_URL}/api/users/${id}/avatar`);
+        // Przekazujemy rozmiar miniatury, wersję (skrót treści) i nagłówek If-None-Match, żeby Java mogła odpowiedzieć 304 bez czytania obrazka
+        const params = new URLSearchParams();
+        if (typeof size === 'string') params.set('size', size);
+        if (typeof v === 'string') params.set('v', v);
+        const query = params.toString() ? `?${params}` : '';
+        const ifNoneMatch = req.headers['if-none-match'];
+        const backendRes = await fetch(`${SPRING_API_URL}/api/users/${id}/avatar${query}`, {
+            headers: ifNoneMatch ? { 'If-None-Match': ifNoneMatch } : undefined,
+        });
+
+        const etag = backendRes.headers.get('etag');
+        const cacheControl = backendRes.headers.get('cache-control');
+        if (etag) res.setHeader('ETag', etag);
+        // Cache-Control ustala backend: adres z wersją jest niezmienny, bez wersji przeglądarka weryfikuje ETag
+        if (cacheControl) res.setHeader('Cache-Control', cacheControl);
+
+        if (backendRes.status === 304) {
+            return res.status(304).end();
+        }
 
         if (!backendRes.ok) {
             // Jeśli nie ma avatara (404), zwracamy 404 - Frontend wyświetli literkę
@@ -18,12 +35,9 @@ export default async function handler(req: NextApiRequest, res: NextApiResponse)
         const buffer = await backendRes.arrayBuffer();
 
         res.setHeader('Content-Type', contentType);
-        // Ważne: Cache control, żeby przeglądarka pamiętała obrazek przez np. godzinę
-        res.setHeader('Cache-Control', 'public, max-age=3600');
-
         return res.send(Buffer.from(buffer));
 
     } catch (error) {
         return res.status(500).end();
     }
-}
\ No newline at end of file
+}
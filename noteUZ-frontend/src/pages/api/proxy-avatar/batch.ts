@@ -0,0 +1,36 @@
+import type { NextApiRequest, NextApiResponse } from 'next';
+
+const SPRING_API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
+
+export default async function handler(req: NextApiRequest, res: NextApiResponse) {
+    const { ids, size } = req.query;
+    if (typeof ids !== 'string' || !ids) return res.status(400).json({ message: 'Brak identyfikatorów' });
+
+    try {
+        // Miniatury wielu użytkowników w jednym żądaniu; ETag pozwala Javie odpowiedzieć 304 dla niezmienionej listy
+        const params = new URLSearchParams({ ids });
+        if (typeof size === 'string') params.set('size', size);
+        const ifNoneMatch = req.headers['if-none-match'];
+        const backendRes = await fetch(`${SPRING_API_URL}/api/users/avatars?${params}`, {
+            headers: ifNoneMatch ? { 'If-None-Match': ifNoneMatch } : undefined,
+        });
+
+        const etag = backendRes.headers.get('etag');
+        const cacheControl = backendRes.headers.get('cache-control');
+        if (etag) res.setHeader('ETag', etag);
+        if (cacheControl) res.setHeader('Cache-Control', cacheControl);
+
+        if (backendRes.status === 304) {
+            return res.status(304).end();
+        }
+
+        const data = await backendRes.text();
+        try {
+            return res.status(backendRes.status).json(JSON.parse(data));
+        } catch {
+            return res.status(backendRes.status).send(data);
+        }
+    } catch (error) {
+        return res.status(500).json({ message: 'Backend unavailable' });
+    }
+}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import Head from 'next/head';
 import { useRouter } from 'next/router';
 import { useTranslation } from 'next-i18next';
@@ -24,10 +24,11 @@ import dayGridPlugin from '@fullcalendar/daygrid';
 import timeGridPlugin from '@fullcalendar/timegrid';
 import interactionPlugin from '@fullcalendar/interaction';
 import plLocale from '@fullcalendar/core/locales/pl';
-import { DateSelectArg, EventClickArg, EventDropArg } from '@fullcalendar/core'; // <--- TYPY DLA KALENDARZA
+import { DateSelectArg, DatesSetArg, EventClickArg, EventDropArg } from '@fullcalendar/core'; // <--- TYPY DLA KALENDARZA
 
 import { NotesLayout } from '@/components/NotesPage/NotesLayout';
 import { apiFetch } from '@/lib/api';
+import { eventsPath } from '@/lib/dates';
 import { CalendarEvent } from '@/types/Event';
 import { Note } from '@/types/Note';
 // USUNIĘTO import Group, zdefiniujemy go lokalnie, aby uniknąć błędu TS2305
@@ -78,6 +79,9 @@ export default function CalendarPage() {
         open: false, message: '', severity: 'success'
     });
 
+    // Zakres dat widoczny w kalendarzu - wydarzenia pobieramy tylko z tego przedziału
+    const visibleRange = useRef<{ start: Date; end: Date } | null>(null);
+
     const [detailOpen, setDetailOpen] = useState(false);
     const [selectedEvent, setSelectedEvent] = useState<SelectedEventState | null>(null);
 
@@ -86,15 +90,11 @@ export default function CalendarPage() {
     const fetchData = async () => {
         setLoading(true);
         try {
-            let eventsData: CalendarEvent[] = [];
             let privateNotes: Note[] = [];
             let sharedNotes: Note[] = [];
             let groupsRaw: any[] = []; // Używamy any[], bo backend zwraca groupId zamiast id
 
-            // 1. Pobieranie Wydarzeń
-            try {
-                eventsData = await apiFetch<CalendarEvent[]>('/api/events');
-            } catch (e) { console.error("Błąd pobierania wydarzeń", e); }
+            // 1. Wydarzenia są pobierane osobno (fetchEvents) dla widocznego zakresu dat
 
             // 2. Pobieranie Notatek Prywatnych
             try {
@@ -148,7 +148,6 @@ export default function CalendarPage() {
             }));
 
             // 7. Zapis do stanu
-            setEvents(eventsData);
             setAllNotes([...formattedPrivateNotes, ...formattedSharedNotes, ...allGroupNotes]);
 
         } catch (e) {
@@ -162,6 +161,22 @@ export default function CalendarPage() {
         fetchData();
     }, []); // eslint-disable-line react-hooks/exhaustive-deps
 
+    // Pobiera wydarzenia (z rozwiniętymi wystąpieniami serii) z zakresu widocznego w kalendarzu
+    const fetchEvents = useCallback(async () => {
+        const range = visibleRange.current;
+        if (!range) return;
+        try {
+            setEvents(await apiFetch<CalendarEvent[]>(eventsPath(range.start, range.end)));
+        } catch (e) {
+            console.error("Błąd pobierania wydarzeń", e);
+        }
+    }, []);
+
+    const handleDatesSet = (arg: DatesSetArg) => {
+        visibleRange.current = { start: arg.start, end: arg.end };
+        fetchEvents();
+    };
+
     const showSnackbar = (message: string, severity: 'success' | 'error' = 'success') => {
         setSnackbar({ open: true, message, severity });
     };
@@ -239,7 +254,7 @@ export default function CalendarPage() {
 
             setOpenForm(false);
             setEditingEventId(null);
-            fetchData();
+            fetchEvents();
         } catch (e) {
             console.error(e);
             showSnackbar('Błąd zapisu. Spróbuj ponownie.', 'error');
@@ -272,6 +287,7 @@ export default function CalendarPage() {
                 })
             });
             showSnackbar('Termin zaktualizowany.', 'success');
+            fetchEvents();
         } catch (e) {
             dropInfo.revert();
             showSnackbar('Nie udało się zmienić terminu.', 'error');
@@ -286,7 +302,7 @@ export default function CalendarPage() {
             await apiFetch(`/api/events/${selectedEvent.id}`, { method: 'DELETE' });
             setDetailOpen(false);
             showSnackbar('Usunięto zadanie.', 'success');
-            fetchData();
+            fetchEvents();
         } catch (e) {
             showSnackbar('Błąd usuwania.', 'error');
         }
@@ -302,6 +318,9 @@ export default function CalendarPage() {
         return <DescriptionIcon fontSize="small" color="action" />;
     };
 
+    // Wystąpienia serii mają identyfikator serii - przeciągnięcie jednego z nich przesunęłoby całą serię
+    const calendarEvents = events.map(e => (e.recurrenceRule ? { ...e, editable: false } : e));
+
     return (
         <>
             <Head><title>Terminarz — NoteUZ</title></Head>
@@ -349,7 +368,8 @@ export default function CalendarPage() {
                         selectable={true}
                         selectMirror={true}
                         dayMaxEvents={true}
-                        events={events}
+                        events={calendarEvents}
+                        datesSet={handleDatesSet}
                         select={handleDateSelect}
                         eventClick={handleEventClick}
                         eventDrop={handleEventDrop}
@@ -30,11 +30,12 @@ import ArrowDownwardIcon from '@mui/icons-material/ArrowDownward';
 import { NotesLayout } from '@/components/NotesPage/NotesLayout';
 import { NoteCard } from '@/components/NotesPage/NoteCard';
 import { apiFetch } from '@/lib/api';
+import { useAvatarBatch } from '@/lib/avatars';
 import { GroupDetails, GroupMember, GroupRole } from '@/types/Group';
 import { Note } from '@/types/Note';
 
 // --- PODIUM ITEM ---
-const PodiumItem = ({ note, rank, members, onClick }: { note: Note, rank: 1 | 2 | 3, members: GroupMember[], onClick: () => void }) => {
+const PodiumItem = ({ note, rank, members, avatarSrc, onClick }: { note: Note, rank: 1 | 2 | 3, members: GroupMember[], avatarSrc?: string, onClick: () => void }) => {
     const theme = useTheme();
     const isWinner = rank === 1;
 
@@ -112,7 +113,7 @@ const PodiumItem = ({ note, rank, members, onClick }: { note: Note, rank: 1 | 2
 
                 <Stack direction="row" alignItems="center" spacing={1} sx={{ mb: 1.5, maxWidth: '100%' }}>
                     <Avatar
-                        src={`/api/proxy-avatar/${note.userId}`}
+                        src={avatarSrc}
                         sx={{ width: 20, height: 20, fontSize: '0.6rem', bgcolor: theme.palette.divider }}
                     >
                         {authorInitial}
@@ -138,7 +139,7 @@ const PodiumItem = ({ note, rank, members, onClick }: { note: Note, rank: 1 | 2
 };
 
 // --- LIDER WIEDZY ---
-const TopContributorCard = ({ member, totalVotes }: { member: GroupMember, totalVotes: number }) => {
+const TopContributorCard = ({ member, totalVotes, avatarSrc }: { member: GroupMember, totalVotes: number, avatarSrc?: string }) => {
     const theme = useTheme();
     const displayName = member.displayName || member.email || "Użytkownik";
     const initial = displayName.charAt(0).toUpperCase();
@@ -158,7 +159,7 @@ const TopContributorCard = ({ member, totalVotes }: { member: GroupMember, total
         >
             <Box sx={{ position: 'relative' }}>
                 <Avatar
-                    src={`/api/proxy-avatar/${member.userId}`}
+                    src={avatarSrc}
                     alt={displayName}
                     sx={{ width: 56, height: 56, bgcolor: theme.palette.secondary.main, fontSize: '1.5rem', fontWeight: 700 }}
                 >
@@ -255,6 +256,9 @@ export default function GroupDetailsPage() {
         apiFetch<{ id: string }>('/api/auth/me').then(u => setMyId(u.id)).catch(() => {});
     }, []);
 
+    // Miniatury członków i autorów notatek jednym żądaniem zamiast osobnego żądania na każdy awatar
+    const avatarSrc = useAvatarBatch([...(details?.members.map(m => m.userId) ?? []), ...notes.map(n => n.userId)]);
+
     const topContributor = useMemo(() => {
         if (!notes.length || !details) return null;
         const voteMap: Record<string, number> = {};
@@ -384,7 +388,7 @@ export default function GroupDetailsPage() {
                 {tab === 0 && (
                     <Box>
                         {topContributor && (
-                            <TopContributorCard member={topContributor.member} totalVotes={topContributor.totalVotes} />
+                            <TopContributorCard member={topContributor.member} totalVotes={topContributor.totalVotes} avatarSrc={avatarSrc(topContributor.member.userId)} />
                         )}
 
                         {podiumNotes.length > 0 && (
@@ -394,9 +398,9 @@ export default function GroupDetailsPage() {
                                 </Typography>
 
                                 <Box sx={{ display: 'flex', alignItems: 'flex-end', justifyContent: 'center', gap: { xs: 1, sm: 2 }, minHeight: 180 }}>
-                                    {podiumNotes[1] && <PodiumItem note={podiumNotes[1]} rank={2} members={details.members} onClick={() => handleEditNote(podiumNotes[1])} />}
-                                    {podiumNotes[0] && <PodiumItem note={podiumNotes[0]} rank={1} members={details.members} onClick={() => handleEditNote(podiumNotes[0])} />}
-                                    {podiumNotes[2] && <PodiumItem note={podiumNotes[2]} rank={3} members={details.members} onClick={() => handleEditNote(podiumNotes[2])} />}
+                                    {podiumNotes[1] && <PodiumItem note={podiumNotes[1]} rank={2} members={details.members} avatarSrc={avatarSrc(podiumNotes[1].userId)} onClick={() => handleEditNote(podiumNotes[1])} />}
+                                    {podiumNotes[0] && <PodiumItem note={podiumNotes[0]} rank={1} members={details.members} avatarSrc={avatarSrc(podiumNotes[0].userId)} onClick={() => handleEditNote(podiumNotes[0])} />}
+                                    {podiumNotes[2] && <PodiumItem note={podiumNotes[2]} rank={3} members={details.members} avatarSrc={avatarSrc(podiumNotes[2].userId)} onClick={() => handleEditNote(podiumNotes[2])} />}
                                 </Box>
                             </Box>
                         )}
@@ -504,7 +508,7 @@ export default function GroupDetailsPage() {
                                             >
                                                 <ListItemAvatar>
                                                     <Box sx={{ position: 'relative' }}>
-                                                        <Avatar src={`/api/proxy-avatar/${member.userId}`} alt={displayName} sx={{ bgcolor: isMe ? 'primary.main' : 'secondary.main', width: 44, height: 44 }}>{initial}</Avatar>
+                                                        <Avatar src={avatarSrc(member.userId)} alt={displayName} sx={{ bgcolor: isMe ? 'primary.main' : 'secondary.main', width: 44, height: 44 }}>{initial}</Avatar>
                                                         {isTopContributor && (
                                                             <Box sx={{ position: 'absolute', bottom: -2, right: -2, bgcolor: 'background.paper', borderRadius: '50%', p: 0.2 }}>
                                                                 <StarIcon sx={{ fontSize: 14, color: 'secondary.main' }} />
@@ -2,7 +2,7 @@
 import type {GetServerSideProps, InferGetServerSidePropsType} from 'next';
 import Head from 'next/head';
 import {useRouter} from 'next/router';
-import React, {useState, FormEvent, useRef, useEffect} from 'react';
+import React, {useState, FormEvent, useEffect} from 'react';
 import {
     Box, TextField, Button as MuiButton, Paper, Grid, Alert, Divider,
     Typography, useTheme, CircularProgress, Dialog, DialogTitle,
@@ -29,6 +29,7 @@ import ReactMarkdown from 'react-markdown';
 import remarkGfm from 'remark-gfm';
 
 import {NotesLayout} from '@/components/NotesPage/NotesLayout';
+import {NoteAttachments} from '@/components/NotesPage/NoteAttachments';
 import {MarkdownEditor} from '@/components/MarkdownEditor';
 import {Note} from '@/types/Note';
 import {apiFetch} from '@/lib/api';
@@ -104,7 +105,6 @@ export default function SingleNotePage({note: initialNote}: InferGetServerSidePr
     // Własny mail (do sprawdzenia w frontendzie, opcjonalnie)
     const [myEmail, setMyEmail] = useState<string>('');
 
-    const printRef = useRef<HTMLDivElement>(null);
 
     useEffect(() => {
         // Pobierz mój email, żeby zablokować wpisywanie go w polu udostępniania
@@ -212,32 +212,17 @@ export default function SingleNotePage({note: initialNote}: InferGetServerSidePr
     }
 
     async function handleExportPdf() {
-        if (!printRef.current) return;
         setExporting(true);
         try {
-            const html2canvas = (await import('html2canvas')).default;
-            const jsPDFModule = await import('jspdf');
-            const JsPDF = jsPDFModule.jsPDF || jsPDFModule.default;
-            const element = printRef.current;
-
-            const originalStyle = element.style.cssText;
-            element.style.backgroundColor = '#ffffff';
-            element.style.color = '#000000';
-            element.style.padding = '20px';
-
-            const canvas = await html2canvas(element, { scale: 3, useCORS: true });
-            element.style.cssText = originalStyle;
-
-            const imgData = canvas.toDataURL('image/png');
-            const pdf = new JsPDF({orientation: 'portrait', unit: 'mm', format: 'a4'});
-            const imgProps = pdf.getImageProperties(imgData);
-            const pdfWidth = pdf.internal.pageSize.getWidth();
-            const pdfHeight = (imgProps.height * (pdfWidth - 30)) / imgProps.width;
-
-            pdf.setFontSize(20);
-            pdf.text(title.replace(/[^\x00-\x7F]/g, ""), 15, 20);
-            pdf.addImage(imgData, 'PNG', 15, 30, pdfWidth - 30, pdfHeight);
-            pdf.save(`NoteUZ.pdf`);
+            // Dokument jest renderowany na serwerze (i zapamiętywany do kolejnej zmiany notatki)
+            const res = await fetch(`/api/notes/${initialNote.id}/pdf`);
+            if (!res.ok) throw new Error(`HTTP ${res.status}`);
+            const url = URL.createObjectURL(await res.blob());
+            const link = document.createElement('a');
+            link.href = url;
+            link.download = `${(title || 'NoteUZ').replace(/[\\/:*?"<>|]/g, '_')}.pdf`;
+            link.click();
+            URL.revokeObjectURL(url);
         } catch (e) { alert(t('error_export_failed')); }
         finally { setExporting(false); }
     }
@@ -278,7 +263,7 @@ export default function SingleNotePage({note: initialNote}: InferGetServerSidePr
                         />
 
                         {!isEditing ? (
-                            <Box ref={printRef} sx={{minHeight: 200, p: 2}}>
+                            <Box sx={{minHeight: 200, p: 2}}>
                                 {content ? <ReactMarkdown remarkPlugins={[remarkGfm]}>{content}</ReactMarkdown> :
                                     <Typography color="text.disabled" fontStyle="italic">{t('note_no_content')}</Typography>}
                             </Box>
@@ -286,6 +271,8 @@ export default function SingleNotePage({note: initialNote}: InferGetServerSidePr
                             <MarkdownEditor value={content} onChange={setContent} minRows={15}/>
                         )}
 
+                        <NoteAttachments noteId={initialNote.id} canEdit={canEdit}/>
+
                         <Divider sx={{my: 2}}/>
 
                         <Grid container spacing={2} justifyContent="flex-end">
@@ -5,4 +5,6 @@ export interface CalendarEvent {
     start: string;
     end: string;
     noteId?: string; // <-- Dodaj to
+    noteIds?: string[];
+    recurrenceRule?: string | null; // reguła serii - wystąpienia serii mają identyfikator wydarzenia serii
 }
\ No newline at end of file